@@ -2,443 +2,326 @@ package io.metadew.iesi.common.json;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Map.Entry;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 
 import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MappingJsonFactory;
 
+/**
+ * Flattens a json document into items with a key, value and path.
+ * The document is read once as a stream of tokens and every item is handed over as soon as it is complete,
+ * so large documents are never held in memory. The parsing state belongs to the instance: an instance parses
+ * one document at a time, other threads use their own instance.
+ *
+ * @author peter.billen
+ *
+ */
 public class JsonTools {
 
 	private static final String formatError = "Input does not contain a valid JSON structure.";
 
+	private static final JsonFactory jsonFactory = new MappingJsonFactory();
+
 	private boolean consoleOutput = false;
 
 	private static final String delimiter = "|";
 
-	private static String pathSeparator = ".";
-	private static int genericId = 0;
-	private static int messageId = 0;
+	private static final String pathSeparator = ".";
+	private int genericId = 0;
+	private int messageId = 0;
 
-	private static LinkedList<Integer> parentIds = new LinkedList<Integer>();
-	private static LinkedList<String> parentPaths = new LinkedList<String>();
-	private static LinkedList<Integer> inGroupIds = new LinkedList<Integer>();
-	private static LinkedList<JsonToken> jsonTokens = new LinkedList<JsonToken>();
+	private LinkedList<Integer> parentIds;
+	private LinkedList<String> parentPaths;
+	private LinkedList<Integer> inGroupIds;
+	private LinkedList<JsonToken> jsonTokens;
 
+	private Consumer<JsonParsedItem> jsonParsedItemHandler;
 	private JsonParsed jsonParsed;
-	private JsonParsedItem jsonParsedItem;
 
 	public JsonTools() {
 	}
 
+	/**
+	 * Parse the json file or string. A document that can not be parsed fails, no partial result is returned.
+	 */
 	public JsonParsed parseJson(String context, String scope) {
-		JsonParsed jsonParsed = null;
-		try {
-			JsonFactory f = new MappingJsonFactory();
-			JsonParser jp = null;
-
-			if (context.equalsIgnoreCase("file")) {
-				File inputFile = new File(scope);
-				jp = f.createParser(inputFile);
-			} else if (context.equalsIgnoreCase("string")) {
-				jp = f.createParser(scope);
-			}
-
-			jsonParsed = this.parseJson(jp);
-
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
-
+		JsonParsed jsonParsed = new JsonParsed();
+		this.parseJson(context, scope, jsonParsed::addItem);
+		this.setJsonParsed(jsonParsed);
 		return jsonParsed;
-
 	}
 
-	private JsonParsed parseJson(JsonParser jp) {
-		this.setJsonParsed(new JsonParsed());
-		try {
-			JsonToken current;
-			current = jp.nextToken();
-			parentIds.add(0);
-			parentPaths.add("");
-			inGroupIds.add(0);
-
-			// Start process
-			if (current == JsonToken.START_ARRAY) {
-				processJSONarray(jp);
-			} else {
-				this.processJSONobject(jp);
-			}
+	/**
+	 * Hand over the items of the json file or string in the order of the document.
+	 */
+	public void parseJson(String context, String scope, Consumer<JsonParsedItem> jsonParsedItemHandler) {
+		this.setJsonParsedItemHandler(jsonParsedItemHandler);
+		try (JsonParser jp = this.createParser(context, scope)) {
+			this.parseJson(jp);
+		} catch (IOException e) {
+			throw new RuntimeException(formatError, e);
+		} finally {
+			this.setJsonParsedItemHandler(null);
+		}
+	}
 
-		} catch (Exception e) {
-			e.printStackTrace();
+	private JsonParser createParser(String context, String scope) throws IOException {
+		if (context.equalsIgnoreCase("file")) {
+			return jsonFactory.createParser(new File(scope));
+		} else if (context.equalsIgnoreCase("string")) {
+			return jsonFactory.createParser(scope);
+		} else {
+			throw new RuntimeException("Unknown json context: " + context);
 		}
+	}
 
-		return this.getJsonParsed();
+	private void parseJson(JsonParser jp) throws IOException {
+		this.genericId = 0;
+		this.messageId = 0;
+		this.parentIds = new LinkedList<Integer>();
+		this.parentPaths = new LinkedList<String>();
+		this.inGroupIds = new LinkedList<Integer>();
+		this.jsonTokens = new LinkedList<JsonToken>();
+
+		JsonToken current = jp.nextToken();
+		parentIds.add(0);
+		parentPaths.add("");
+		inGroupIds.add(0);
 
+		// Start process
+		if (current == JsonToken.START_ARRAY) {
+			this.processJSONarray(jp, jp.nextToken());
+		} else if (current == JsonToken.START_OBJECT) {
+			this.processJSONobject(jp, jp.nextToken());
+		} else {
+			throw new RuntimeException(formatError);
+		}
 	}
 
 	/**
-	 * Function to process a JSON Array.
+	 * Function to process a JSON Array, starting from the token of its first element.
+	 * Every element needs to be an object.
 	 */
-	private void processJSONarray(JsonParser jp) {
-		try {
-			JsonToken current = jp.nextToken();
-			while (current != JsonToken.END_ARRAY) {
-
-				if (current == JsonToken.START_OBJECT) {
-					jsonTokens.add(current);
-					int lastInGroupId = inGroupIds.getLast();
-					lastInGroupId++;
-					inGroupIds.removeLast();
-					inGroupIds.add(lastInGroupId);
-					processJSONobject(jp);
-					genericId++;
-					jsonTokens.removeLast();
-				} else {
-					throw new RuntimeException(formatError);
-				}
-				current = jp.nextToken();
-			}
-			inGroupIds.removeLast();
-			if (!jsonTokens.isEmpty()) {
+	private void processJSONarray(JsonParser jp, JsonToken current) throws IOException {
+		while (current != JsonToken.END_ARRAY) {
+
+			if (current == JsonToken.START_OBJECT) {
+				jsonTokens.add(current);
+				int lastInGroupId = inGroupIds.getLast();
+				lastInGroupId++;
+				inGroupIds.removeLast();
+				inGroupIds.add(lastInGroupId);
+				this.processJSONobject(jp, jp.nextToken());
+				genericId++;
 				jsonTokens.removeLast();
+			} else {
+				throw new RuntimeException(formatError);
 			}
-
-		} catch (IOException e) {
-			throw new RuntimeException(formatError, e);
+			current = jp.nextToken();
+		}
+		inGroupIds.removeLast();
+		if (!jsonTokens.isEmpty()) {
+			jsonTokens.removeLast();
 		}
 	}
 
 	/**
-	 * Function to process a JSON Object.
+	 * Function to process a JSON Object, starting from the token following its start.
+	 * Arrays of objects and objects are processed further, any other value is stored with its key.
 	 */
-	private void processJSONobject(JsonParser jp1) {
-
-		try {
-			JsonNode node = jp1.readValueAsTree();
-			org.json.JSONObject o = new org.json.JSONObject(node.toString().replace("@", ""));
-			Iterator<String> keys = o.keys();
-			while (keys.hasNext()) {
-
-				String key = (String) keys.next();
-
-				if (this.getJsonParsedItem() == null)
-					this.setJsonParsedItem(new JsonParsedItem());
-				this.getJsonParsedItem().setItem(genericId);
-				this.write(genericId);
-				this.write(delimiter);
-				this.write(++messageId);
-				this.getJsonParsedItem().setIdentifier(messageId);
-				this.write(delimiter);
-				JsonFactory f = new MappingJsonFactory();
-				JsonParser jp2 = f.createParser(node.get(key).toString());
-				JsonParser jp3 = f.createParser(node.get(key).toString());
-
-				JsonToken current2 = jp2.nextToken();
-				jp3.nextToken();
-				JsonToken current3 = jp3.nextToken();
-				if (parentPaths.getLast().equals("")) {
-					parentPaths.add(key);
-				} else {
-					parentPaths.add(pathSeparator + key);
-				}
-				if (current2 == JsonToken.START_ARRAY && current3 == JsonToken.START_OBJECT) {
-
-					int lastGroupId = inGroupIds.getLast();
-
-					this.getJsonParsedItem().setParent(parentIds.getLast());
-					this.write(parentIds.getLast());
-					this.write(delimiter);
-					if (jsonTokens.contains(JsonToken.START_ARRAY)) {
-						this.getJsonParsedItem().setIteration(lastGroupId);
-						this.write(lastGroupId);
-					} else {
-						this.getJsonParsedItem().setIteration(1);
-						this.write(1);
-					}
-					// lastGroupId++;
-					inGroupIds.removeLast();
-					inGroupIds.add(lastGroupId);
-					inGroupIds.add(0);
-					jsonTokens.add(current2);
-					this.write(delimiter);
-					this.getJsonParsedItem().setKey(key);
-					this.write(key);
-					this.write(delimiter);
-					this.getJsonParsedItem().setValue("");
-					this.write("");
-					this.write(delimiter);
-
-					String parentPath = "";
-					for (String string : parentPaths) {
-						this.write(string);
-						parentPath += string;
-
-					}
-					this.getJsonParsedItem().setPath(parentPath);
-					this.getJsonParsed().addItem(this.getJsonParsedItem());
-					this.setJsonParsedItem(null);
-					this.writeln("");
-
-					parentIds.add(messageId);
-					processJSONarray(jp2);
-					parentPaths.removeLast();
-					parentIds.removeLast();
+	private void processJSONobject(JsonParser jp, JsonToken current) throws IOException {
+		while (current == JsonToken.FIELD_NAME) {
+			String key = jp.getCurrentName();
+			JsonToken valueToken = jp.nextToken();
+
+			JsonParsedItem jsonParsedItem = new JsonParsedItem();
+			jsonParsedItem.setItem(genericId);
+			jsonParsedItem.setIdentifier(++messageId);
+			this.addParentPath(key);
+
+			JsonToken firstToken = null;
+			if (valueToken == JsonToken.START_ARRAY || valueToken == JsonToken.START_OBJECT) {
+				firstToken = jp.nextToken();
+			}
 
-				} else if (current2 == JsonToken.START_OBJECT && current3 == JsonToken.FIELD_NAME) {
-					this.processJsonObjectWithField(node, key);
+			if (valueToken == JsonToken.START_ARRAY && firstToken == JsonToken.START_OBJECT) {
+				jsonParsedItem.setParent(parentIds.getLast());
+				if (jsonTokens.contains(JsonToken.START_ARRAY)) {
+					jsonParsedItem.setIteration(inGroupIds.getLast());
 				} else {
-					String value = "";
-					if (node.get(key).isArray()) {
-						value = StringUtils.join(node.get(key), ',').replaceAll("\"", "");
-					} else {
-						value = node.get(key).asText();
-					}
-
-					if (parentPaths.size() > 1) {
-						this.getJsonParsedItem().setParent(parentIds.getLast());
-						this.write(parentIds.getLast());
-						this.write(delimiter);
-						if (inGroupIds.size() == 1) {
-							this.getJsonParsedItem().setIteration(1);
-							this.write(1);
-						} else {
-							this.getJsonParsedItem().setIteration(inGroupIds.getLast());
-							this.write(inGroupIds.getLast());
-						}
-						this.write(delimiter);
-						this.getJsonParsedItem().setKey(key);
-						this.write(key);
-						this.write(delimiter);
-						this.getJsonParsedItem().setValue(value);
-						this.write(value);
-						this.write(delimiter);
-						String parentPath = "";
-						for (String string : parentPaths) {
-							this.write(string);
-							parentPath += string;
-						}
-						this.getJsonParsedItem().setPath(parentPath);
-						parentPaths.removeLast();
-						this.writeln("");
-						this.getJsonParsed().addItem(this.getJsonParsedItem());
-						this.setJsonParsedItem(null);
-
-					} else {
-						this.getJsonParsedItem().setParent(parentIds.getLast());
-						this.write(parentIds.getLast());
-						this.write(delimiter);
-						this.getJsonParsedItem().setIteration(1);
-						this.write(1);
-						this.write(delimiter);
-						this.getJsonParsedItem().setKey(key);
-						this.write(key);
-						this.write(delimiter);
-
-						this.getJsonParsedItem().setValue(value);
-						this.write(value);
-						this.write(delimiter);
-						String parentPath = "";
-						for (String string : parentPaths) {
-							this.write(string);
-							parentPath += string;
-
-						}
-						this.getJsonParsedItem().setPath(parentPath);
-						parentPaths.removeLast();
-						this.writeln("");
-						this.getJsonParsed().addItem(this.getJsonParsedItem());
-						this.setJsonParsedItem(null);
-
-					}
+					jsonParsedItem.setIteration(1);
+				}
+				inGroupIds.add(0);
+				jsonTokens.add(valueToken);
+				jsonParsedItem.setKey(key);
+				jsonParsedItem.setValue("");
+				jsonParsedItem.setPath(this.getParentPath());
+				this.emit(jsonParsedItem);
+
+				parentIds.add(messageId);
+				this.processJSONarray(jp, firstToken);
+				parentPaths.removeLast();
+				parentIds.removeLast();
+			} else if (valueToken == JsonToken.START_OBJECT && firstToken == JsonToken.FIELD_NAME) {
+				this.processJsonObjectWithField(jp, firstToken, key, jsonParsedItem);
+			} else {
+				String value = "";
+				if (valueToken == JsonToken.START_ARRAY) {
+					value = this.readArrayValue(jp, firstToken);
+				} else if (valueToken != JsonToken.START_OBJECT) {
+					value = this.readScalarValue(jp);
 				}
 
+				jsonParsedItem.setParent(parentIds.getLast());
+				jsonParsedItem.setIteration(this.getIteration());
+				jsonParsedItem.setKey(key);
+				jsonParsedItem.setValue(value);
+				jsonParsedItem.setPath(this.getParentPath());
+				parentPaths.removeLast();
+				this.emit(jsonParsedItem);
 			}
 
-		} catch (Exception e) {
-			System.out.println(e.getMessage());
-			System.exit(0);
+			current = jp.nextToken();
 		}
 
+		if (current != JsonToken.END_OBJECT) {
+			throw new RuntimeException(formatError);
+		}
 	}
 
-	private void processJsonObjectWithField(JsonNode node, String key) {
-		// continuing with the previous node key
-		String value = "";
-		if (node.get(key).isArray()) {
-			value = StringUtils.join(node.get(key), ',').replaceAll("\"", "");
-		} else {
-			value = node.get(key).asText();
-		}
-		this.getJsonParsedItem().setParent(parentIds.getLast());
-		this.write(parentIds.getLast());
-		this.write(delimiter);
-		if (inGroupIds.size() == 1) {
-			this.getJsonParsedItem().setIteration(1);
-			this.write(1);
-		} else {
-			this.getJsonParsedItem().setIteration(inGroupIds.getLast());
-			this.write(inGroupIds.getLast());
-		}
-		this.write(delimiter);
-		this.getJsonParsedItem().setKey(key);
-		this.write(key);
-		this.write(delimiter);
-		this.getJsonParsedItem().setValue(value);
-		this.write(value);
-		this.write(delimiter);
-		String parentPath = "";
-		for (String string : parentPaths) {
-			this.write(string);
-			parentPath += string;
-		}
-		this.getJsonParsedItem().setPath(parentPath);
+	/*
+	 * The object itself is stored without value, followed by its fields at the same iteration.
+	 * Fields holding an array of objects or an object are processed further.
+	 */
+	private void processJsonObjectWithField(JsonParser jp, JsonToken current, String key, JsonParsedItem jsonParsedItem)
+			throws IOException {
+		jsonParsedItem.setParent(parentIds.getLast());
+		jsonParsedItem.setIteration(this.getIteration());
+		jsonParsedItem.setKey(key);
+		jsonParsedItem.setValue("");
+		jsonParsedItem.setPath(this.getParentPath());
 		parentPaths.removeLast();
-		this.getJsonParsed().addItem(this.getJsonParsedItem());
-		this.setJsonParsedItem(null);
+		this.emit(jsonParsedItem);
 
-		this.writeln("");
-		///// implementation ends
-
-		Iterator<Entry<String, JsonNode>> internalElements = node.get(key).fields();
-		int lastMessageId = messageId;
-		parentIds.add(lastMessageId);
-		int lastGroupId = inGroupIds.getLast();
-		inGroupIds.removeLast();
-		inGroupIds.add(lastGroupId);
+		parentIds.add(messageId);
 		// all the elements will have same group id below
 		inGroupIds.add(0);
-		while (internalElements.hasNext()) {
-			if (parentPaths.getLast().equals("")) {
-				parentPaths.add(key);
-			} else {
-				parentPaths.add(pathSeparator + key);
-			}
-			Entry<String, JsonNode> element = internalElements.next();
-
-			if (this.getJsonParsedItem() == null)
-				this.setJsonParsedItem(new JsonParsedItem());
-			this.getJsonParsedItem().setItem(genericId);
-			this.write(genericId);
-			this.write(delimiter);
-			this.write(++messageId);
-			this.getJsonParsedItem().setIdentifier(messageId);
-			this.write(delimiter);
-			this.write(parentIds.getLast());
-			this.getJsonParsedItem().setParent(parentIds.getLast());
-			this.write(delimiter);
-
-			int lastGroupIdNew = inGroupIds.getLast();
-			this.getJsonParsedItem().setIteration(inGroupIds.getLast());
-			this.write(lastGroupIdNew);
-			inGroupIds.removeLast();
+		while (current == JsonToken.FIELD_NAME) {
+			this.addParentPath(key);
+			String elementKey = jp.getCurrentName();
+			JsonToken valueToken = jp.nextToken();
+
+			JsonParsedItem elementItem = new JsonParsedItem();
+			elementItem.setItem(genericId);
+			elementItem.setIdentifier(++messageId);
+			elementItem.setParent(parentIds.getLast());
 			// not incrementing the elements as all the element will have same level
-			inGroupIds.add(lastGroupIdNew);
-			this.write(delimiter);
-			this.write(element.getKey());
-			this.getJsonParsedItem().setKey(element.getKey());
-			this.write(delimiter);
-			if (element.getValue().isArray()) {
-				value = "";
-			} else {
-				value = element.getValue().asText();
-			}
-			this.getJsonParsedItem().setValue(value);
-			this.write(value);
-			this.write(delimiter);
-			if (parentPaths.getLast().equals("")) {
-				parentPaths.add(element.getKey());
+			elementItem.setIteration(inGroupIds.getLast());
+			elementItem.setKey(elementKey);
+			if (valueToken == JsonToken.START_ARRAY || valueToken == JsonToken.START_OBJECT) {
+				elementItem.setValue("");
 			} else {
-				parentPaths.add(pathSeparator + element.getKey());
-			}
-			parentPath = "";
-			for (String string : parentPaths) {
-				this.write(string);
-				parentPath += string;
-
+				elementItem.setValue(this.readScalarValue(jp));
 			}
-			this.getJsonParsedItem().setPath(parentPath);
-			this.writeln("");
-			this.getJsonParsed().addItem(this.getJsonParsedItem());
-			this.setJsonParsedItem(null);
-
+			this.addParentPath(elementKey);
+			elementItem.setPath(this.getParentPath());
+			this.emit(elementItem);
 			parentPaths.removeLast();
 
-			JsonFactory f = new MappingJsonFactory();
-			JsonParser jp2;
-			try {
-				jp2 = f.createParser(element.getValue().toString());
-
-				JsonParser jp3 = f.createParser(element.getValue().toString());
-				JsonToken current2 = jp2.nextToken();
-				jp3.nextToken();
-				JsonToken current3 = jp3.nextToken();
-				if (current2 == JsonToken.START_ARRAY && current3 == JsonToken.START_OBJECT) {
-					int lastGroupIdInner = inGroupIds.getLast();
-					inGroupIds.removeLast();
-					inGroupIds.add(lastGroupIdInner);
-					int ingroupId = 0;
-					jsonTokens.add(current2);
-					inGroupIds.add(ingroupId);
+			if (valueToken == JsonToken.START_ARRAY || valueToken == JsonToken.START_OBJECT) {
+				JsonToken firstToken = jp.nextToken();
+				if (valueToken == JsonToken.START_ARRAY && firstToken == JsonToken.START_OBJECT) {
+					jsonTokens.add(valueToken);
+					inGroupIds.add(0);
 					parentIds.add(messageId);
-					if (parentPaths.getLast().equals("")) {
-						parentPaths.add(element.getKey());
-					} else {
-						parentPaths.add(pathSeparator + element.getKey());
-					}
-					this.processJSONarray(jp2);
+					this.addParentPath(elementKey);
+					this.processJSONarray(jp, firstToken);
 					parentPaths.removeLast();
 					parentIds.removeLast();
-				} else if (current2 == JsonToken.START_OBJECT && current3 == JsonToken.FIELD_NAME) {
-					int lastGroupIdInner = inGroupIds.getLast();
-					inGroupIds.removeLast();
-					inGroupIds.add(lastGroupIdInner);
-					int ingroupId = 0;
-					jsonTokens.add(current2);
-					inGroupIds.add(ingroupId);
+				} else if (valueToken == JsonToken.START_OBJECT && firstToken == JsonToken.FIELD_NAME) {
+					// The group and token added here stay for the remaining fields, as they always did
+					jsonTokens.add(valueToken);
+					inGroupIds.add(0);
 					parentIds.add(messageId);
-					if (parentPaths.getLast().equals("")) {
-						parentPaths.add(element.getKey());
-					} else {
-						parentPaths.add(pathSeparator + element.getKey());
-					}
-					this.processJSONobject(jp2);
+					this.addParentPath(elementKey);
+					this.processJSONobject(jp, firstToken);
 					parentPaths.removeLast();
 					parentIds.removeLast();
+				} else {
+					this.skipValues(jp, firstToken);
 				}
-			} catch (JsonParseException e) {
-				throw new RuntimeException(formatError, e);
-			} catch (IOException e) {
-				throw new RuntimeException(formatError, e);
 			}
 			parentPaths.removeLast();
 
+			current = jp.nextToken();
 		}
 		inGroupIds.removeLast();
 		parentIds.removeLast();
 	}
 
-	private void write(String input) {
-		if (this.isConsoleOutput())
-			System.out.print(input);
+	/*
+	 * Values of an array that does not hold objects, joined with a comma and without quotes
+	 */
+	private String readArrayValue(JsonParser jp, JsonToken current) throws IOException {
+		LinkedList<JsonNode> elements = new LinkedList<JsonNode>();
+		while (current != JsonToken.END_ARRAY) {
+			elements.add(jp.readValueAsTree());
+			current = jp.nextToken();
+		}
+		return StringUtils.join(elements, ',').replaceAll("\"", "");
+	}
+
+	private String readScalarValue(JsonParser jp) throws IOException {
+		JsonNode node = jp.readValueAsTree();
+		return node.asText();
+	}
+
+	private void skipValues(JsonParser jp, JsonToken current) throws IOException {
+		while (current != JsonToken.END_ARRAY && current != JsonToken.END_OBJECT) {
+			if (current == JsonToken.START_ARRAY || current == JsonToken.START_OBJECT) {
+				jp.skipChildren();
+			}
+			current = jp.nextToken();
+		}
+	}
+
+	private void addParentPath(String key) {
+		if (parentPaths.getLast().equals("")) {
+			parentPaths.add(key);
+		} else {
+			parentPaths.add(pathSeparator + key);
+		}
 	}
 
-	private void write(int input) {
-		if (this.isConsoleOutput())
-			System.out.print(input);
+	private String getParentPath() {
+		StringBuilder parentPath = new StringBuilder();
+		for (String string : parentPaths) {
+			parentPath.append(string);
+		}
+		return parentPath.toString();
 	}
 
-	private void writeln(String input) {
-		if (this.isConsoleOutput())
-			System.out.println(input);
+	private int getIteration() {
+		if (inGroupIds.size() == 1) {
+			return 1;
+		} else {
+			return inGroupIds.getLast();
+		}
+	}
+
+	private void emit(JsonParsedItem jsonParsedItem) {
+		if (this.isConsoleOutput()) {
+			System.out.println(jsonParsedItem.getItem() + delimiter + jsonParsedItem.getIdentifier() + delimiter
+					+ jsonParsedItem.getParent() + delimiter + jsonParsedItem.getIteration() + delimiter
+					+ jsonParsedItem.getKey() + delimiter + jsonParsedItem.getValue() + delimiter + jsonParsedItem.getPath());
+		}
+		this.getJsonParsedItemHandler().accept(jsonParsedItem);
 	}
 
 	// Getters and Setters
@@ -450,12 +333,12 @@ public class JsonTools {
 		this.jsonParsed = jsonParsed;
 	}
 
-	public JsonParsedItem getJsonParsedItem() {
-		return jsonParsedItem;
+	public Consumer<JsonParsedItem> getJsonParsedItemHandler() {
+		return jsonParsedItemHandler;
 	}
 
-	public void setJsonParsedItem(JsonParsedItem jsonParsedItem) {
-		this.jsonParsedItem = jsonParsedItem;
+	public void setJsonParsedItemHandler(Consumer<JsonParsedItem> jsonParsedItemHandler) {
+		this.jsonParsedItemHandler = jsonParsedItemHandler;
 	}
 
 	public boolean isConsoleOutput() {
@@ -465,4 +348,4 @@ public class JsonTools {
 	public void setConsoleOutput(boolean consoleOutput) {
 		this.consoleOutput = consoleOutput;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package io.metadew.iesi.common.text;
+
+/**
+ * Lookup of the value of a variable used in a variable template.
+ *
+ * @author peter.billen
+ *
+ */
+@FunctionalInterface
+public interface VariableResolver {
+
+	/**
+	 * Get the value of a variable, or null if the variable reference needs to be kept.
+	 */
+	public String lookupValue(String name);
+
+}
@@ -0,0 +1,119 @@
+package io.metadew.iesi.common.text;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled form of a text containing #variable# references.
+ * The text is scanned once and the variable references are kept in order of appearance,
+ * together with the replacement patterns. Templates are cached on their text.
+ * Resolution replaces every reference in the same order and in the same way as the
+ * original scanning resolution, so the result does not depend on the template being cached.
+ *
+ * @author peter.billen
+ *
+ */
+public class VariableTemplate {
+
+	private static final String VARIABLE_CHAR = "#";
+	private static final int CACHE_SIZE = 10000;
+
+	private static final Map<String, VariableTemplate> templateCache = Collections
+			.synchronizedMap(new LinkedHashMap<String, VariableTemplate>(256, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, VariableTemplate> eldest) {
+					return this.size() > CACHE_SIZE;
+				}
+			});
+
+	private final String text;
+	private final List<String> variableNames;
+	private final Map<String, Pattern> patterns = new ConcurrentHashMap<String, Pattern>();
+	private final String unmatchedText;
+	private final int unmatchedPosition;
+
+	private VariableTemplate(String text, List<String> variableNames, String unmatchedText, int unmatchedPosition) {
+		this.text = text;
+		this.variableNames = variableNames;
+		this.unmatchedText = unmatchedText;
+		this.unmatchedPosition = unmatchedPosition;
+	}
+
+	// Methods
+	public static VariableTemplate compile(String text) {
+		if (text.indexOf(VARIABLE_CHAR) < 0) {
+			// Plain text is not worth caching
+			return new VariableTemplate(text, Collections.<String>emptyList(), null, -1);
+		}
+
+		VariableTemplate variableTemplate = templateCache.get(text);
+		if (variableTemplate == null) {
+			variableTemplate = parse(text);
+			templateCache.put(text, variableTemplate);
+		}
+		return variableTemplate;
+	}
+
+	private static VariableTemplate parse(String text) {
+		List<String> variableNames = new ArrayList<String>();
+		String temp = text;
+		while (temp.indexOf(VARIABLE_CHAR) >= 0) {
+			int openPos = temp.indexOf(VARIABLE_CHAR);
+			int closePos = temp.indexOf(VARIABLE_CHAR, openPos + 1);
+			if (closePos < 0) {
+				return new VariableTemplate(text, variableNames, temp, openPos);
+			}
+			variableNames.add(temp.substring(openPos + 1, closePos));
+			temp = temp.substring(closePos + 1, temp.length());
+		}
+		return new VariableTemplate(text, variableNames, null, -1);
+	}
+
+	public String resolve(VariableResolver variableResolver) {
+		String result = this.text;
+		for (String variableName : this.getVariableNames()) {
+			String replaceValue = variableResolver.lookupValue(variableName);
+			if (replaceValue != null) {
+				result = this.getPattern(variableName).matcher(result).replaceAll(replaceValue);
+			}
+		}
+
+		if (this.unmatchedText != null) {
+			// The scanning resolution this replaces failed on an unterminated variable with this exception type,
+			// callers relying on it keep working
+			throw new StringIndexOutOfBoundsException("Unterminated variable "
+					+ this.unmatchedText.substring(this.unmatchedPosition) + " in " + this.text);
+		}
+		return result;
+	}
+
+	private Pattern getPattern(String variableName) {
+		Pattern pattern = this.patterns.get(variableName);
+		if (pattern == null) {
+			pattern = Pattern.compile(VARIABLE_CHAR + variableName + VARIABLE_CHAR);
+			this.patterns.put(variableName, pattern);
+		}
+		return pattern;
+	}
+
+	public boolean hasVariables() {
+		return !this.variableNames.isEmpty() || this.unmatchedText != null;
+	}
+
+	// Getters and Setters
+	public String getText() {
+		return text;
+	}
+
+	public List<String> getVariableNames() {
+		return variableNames;
+	}
+
+}
@@ -13,10 +13,19 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import javax.sql.rowset.CachedRowSet;
 import javax.sql.rowset.RowSetProvider;
 
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPool;
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPoolManager;
+import io.metadew.iesi.connection.database.sql.PreparedStatementCache;
+import io.metadew.iesi.connection.database.sql.SqlBatchWriter;
+import io.metadew.iesi.connection.database.sql.SqlParameter;
+import io.metadew.iesi.connection.database.sql.SqlResultCursor;
 import io.metadew.iesi.connection.database.sql.SqlScriptResult;
 import io.metadew.iesi.connection.operation.database.ScriptRunner;
 
@@ -28,6 +37,9 @@ import io.metadew.iesi.connection.operation.database.ScriptRunner;
  */
 public class DatabaseConnection {
 
+	private static final int DEFAULT_FETCH_SIZE = 1000;
+	private static final int LIVE_STATEMENT_CACHE_SIZE = 50;
+
 	private String type = "";
 	private String driver = "";
 	private String connectionURL = "";
@@ -35,6 +47,7 @@ public class DatabaseConnection {
 	private String userPassword = null;
 
 	private Connection connection;
+	private PreparedStatementCache livePreparedStatementCache;
 
 	public DatabaseConnection() {
 
@@ -77,6 +90,26 @@ public class DatabaseConnection {
 		return input;
 	}
 
+	// Connection pool
+	private DatabaseConnectionPool lookupConnectionPool() {
+		return DatabaseConnectionPoolManager.getPool(this.getDriver(), this.getConnectionURL(), this.getUserName(),
+				this.getUserPassword());
+	}
+
+	/*
+	 * The connection is released to the pool it was borrowed from, also when the pools were closed meanwhile
+	 */
+	private Connection borrowConnection(DatabaseConnectionPool databaseConnectionPool) {
+		try {
+			return databaseConnectionPool.borrowConnection();
+		} catch (SQLException e) {
+			StringWriter StackTrace = new StringWriter();
+			e.printStackTrace(new PrintWriter(StackTrace));
+			System.out.println("Connection Failed");
+			throw new RuntimeException(e.getMessage());
+		}
+	}
+
 	// Database interactions
 	public CachedRowSet executeQuery(String query) {
 
@@ -84,339 +117,356 @@ public class DatabaseConnection {
 		query = this.removeIllgegalCharactersForSingleQuery(query);
 
 		CachedRowSet crs = null;
+		DatabaseConnectionPool databaseConnectionPool = this.lookupConnectionPool();
+		Connection connection = this.borrowConnection(databaseConnectionPool);
 
 		try {
-			Class.forName(this.getDriver());
-		} catch (ClassNotFoundException e) {
-			StringWriter StackTrace = new StringWriter();
-			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("JDBC Driver Not Available");
-			throw new RuntimeException(e.getMessage());
-		}
+			Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
 
-		Connection connection = null;
+			try {
+				ResultSet rs = statement.executeQuery(query);
+				crs = RowSetProvider.newFactory().createCachedRowSet();
+				crs.populate(rs);
+				rs.close();
+			} catch (Exception e) {
+				StringWriter StackTrace = new StringWriter();
+				e.printStackTrace(new PrintWriter(StackTrace));
+				System.out.println("Query Actions Failed");
+				throw new RuntimeException(e.getMessage());
+			} finally {
+				statement.close();
+			}
 
-		try {
-			connection = DriverManager.getConnection(this.getConnectionURL(), this.getUserName(),
-					this.getUserPassword());
 		} catch (SQLException e) {
 			StringWriter StackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("Connection Failed");
-			throw new RuntimeException(e.getMessage());
+			System.out.println("Database actions Failed");
+		} finally {
+			// Return the connection to the pool
+			databaseConnectionPool.releaseConnection(connection);
 		}
 
-		if (connection != null) {
-			try {
-				Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
-						ResultSet.CONCUR_READ_ONLY);
+		return crs;
+	}
 
-				try {
-					ResultSet rs = statement.executeQuery(query);
-					crs = RowSetProvider.newFactory().createCachedRowSet();
-					crs.populate(rs);
-					rs.close();
-				} catch (Exception e) {
-					StringWriter StackTrace = new StringWriter();
-					e.printStackTrace(new PrintWriter(StackTrace));
-					System.out.println("Query Actions Failed");
-					throw new RuntimeException(e.getMessage());
-				}
+	public CachedRowSet executeQueryLimitRows(String query, int limit) {
+		// Remove illegal characters at the end
+		query = this.removeIllgegalCharactersForSingleQuery(query);
 
-				statement.close();
+		CachedRowSet crs = null;
+		DatabaseConnectionPool databaseConnectionPool = this.lookupConnectionPool();
+		Connection connection = this.borrowConnection(databaseConnectionPool);
 
-			} catch (SQLException e) {
+		try {
+			Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			statement.setMaxRows(limit);
+
+			try {
+				ResultSet rs = statement.executeQuery(query);
+				crs = RowSetProvider.newFactory().createCachedRowSet();
+				crs.populate(rs);
+				rs.close();
+			} catch (Exception e) {
 				StringWriter StackTrace = new StringWriter();
 				e.printStackTrace(new PrintWriter(StackTrace));
-				System.out.println("Database actions Failed");
+				System.out.println("Query Actions Failed");
+				throw new RuntimeException(e.getMessage());
 			} finally {
-				// Close the connection
-				try {
-					connection.close();
-				} catch (SQLException e) {
-					StringWriter StackTrace = new StringWriter();
-					e.printStackTrace(new PrintWriter(StackTrace));
-					System.out.println("Connection Close Failed");
-					throw new RuntimeException(e.getMessage());
-				}
+				statement.close();
 			}
 
-		} else {
-			System.out.println("Connection lost");
+		} catch (SQLException e) {
+			StringWriter StackTrace = new StringWriter();
+			e.printStackTrace(new PrintWriter(StackTrace));
+			System.out.println("Database actions Failed");
+		} finally {
+			// Return the connection to the pool
+			databaseConnectionPool.releaseConnection(connection);
 		}
 
 		return crs;
 	}
 
-	public CachedRowSet executeQueryLimitRows(String query, int limit) {
+	/**
+	 * Execute a query with parameter markers. The statement is prepared once per
+	 * pooled connection and reused on next executions of the same query text.
+	 * A failing query, for instance on a table that does not exist, throws a runtime exception.
+	 */
+	public CachedRowSet executeQuery(String query, SqlParameter... sqlParameters) {
 		// Remove illegal characters at the end
 		query = this.removeIllgegalCharactersForSingleQuery(query);
 
 		CachedRowSet crs = null;
+		DatabaseConnectionPool databaseConnectionPool = this.lookupConnectionPool();
+		Connection connection = this.borrowConnection(databaseConnectionPool);
 
 		try {
-			Class.forName(this.getDriver());
-		} catch (ClassNotFoundException e) {
+			PreparedStatement preparedStatement = databaseConnectionPool.getPreparedStatementCache(connection)
+					.prepareStatement(query);
+			SqlParameter.bind(preparedStatement, sqlParameters);
+			ResultSet rs = preparedStatement.executeQuery();
+			crs = RowSetProvider.newFactory().createCachedRowSet();
+			crs.populate(rs);
+			rs.close();
+		} catch (SQLException e) {
 			StringWriter StackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("JDBC Driver Not Available");
+			System.out.println("Query Actions Failed");
 			throw new RuntimeException(e.getMessage());
+		} finally {
+			// Return the connection to the pool
+			databaseConnectionPool.releaseConnection(connection);
 		}
 
-		Connection connection = null;
+		return crs;
+	}
+
+	public int executeUpdate(String query, SqlParameter... sqlParameters) {
+		// Remove illegal characters at the end
+		query = this.removeIllgegalCharactersForSingleQuery(query);
+
+		DatabaseConnectionPool databaseConnectionPool = this.lookupConnectionPool();
+		Connection connection = this.borrowConnection(databaseConnectionPool);
 
 		try {
-			connection = DriverManager.getConnection(this.getConnectionURL(), this.getUserName(),
-					this.getUserPassword());
+			PreparedStatement preparedStatement = databaseConnectionPool.getPreparedStatementCache(connection)
+					.prepareStatement(query);
+			SqlParameter.bind(preparedStatement, sqlParameters);
+			return preparedStatement.executeUpdate();
 		} catch (SQLException e) {
 			StringWriter StackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("Connection Failed");
+			System.out.println("Database Actions Failed");
 			throw new RuntimeException(e.getMessage());
+		} finally {
+			// Return the connection to the pool
+			databaseConnectionPool.releaseConnection(connection);
+		}
+	}
+
+	/**
+	 * Execute a statement for every set of parameters as a single JDBC batch in one transaction.
+	 */
+	public int executeBatch(String query, List<SqlParameter[]> sqlParameterRows) {
+		return this.executeBatch(Collections.singletonMap(query, sqlParameterRows));
+	}
+
+	/**
+	 * Execute a JDBC batch per statement, in the iteration order of the map, all in one transaction.
+	 */
+	public int executeBatch(Map<String, List<SqlParameter[]>> sqlParameterRowsByQuery) {
+		boolean empty = true;
+		for (List<SqlParameter[]> sqlParameterRows : sqlParameterRowsByQuery.values()) {
+			if (!sqlParameterRows.isEmpty()) {
+				empty = false;
+			}
+		}
+		if (empty) {
+			return 0;
 		}
 
-		if (connection != null) {
-			try {
-				Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
-						ResultSet.CONCUR_READ_ONLY);
-				statement.setMaxRows(limit);
+		DatabaseConnectionPool databaseConnectionPool = this.lookupConnectionPool();
+		Connection connection = this.borrowConnection(databaseConnectionPool);
 
-				try {
-					ResultSet rs = statement.executeQuery(query);
-					crs = RowSetProvider.newFactory().createCachedRowSet();
-					crs.populate(rs);
-					rs.close();
-				} catch (Exception e) {
-					StringWriter StackTrace = new StringWriter();
-					e.printStackTrace(new PrintWriter(StackTrace));
-					System.out.println("Query Actions Failed");
-					throw new RuntimeException(e.getMessage());
+		try {
+			connection.setAutoCommit(false);
+			int updateCount = 0;
+			for (Map.Entry<String, List<SqlParameter[]>> entry : sqlParameterRowsByQuery.entrySet()) {
+				if (entry.getValue().isEmpty()) {
+					continue;
 				}
 
-				statement.close();
+				// Remove illegal characters at the end
+				String query = this.removeIllgegalCharactersForSingleQuery(entry.getKey());
+				PreparedStatement preparedStatement = databaseConnectionPool.getPreparedStatementCache(connection)
+						.prepareStatement(query);
+				for (SqlParameter[] sqlParameters : entry.getValue()) {
+					SqlParameter.bind(preparedStatement, sqlParameters);
+					preparedStatement.addBatch();
+				}
 
-			} catch (SQLException e) {
-				StringWriter StackTrace = new StringWriter();
-				e.printStackTrace(new PrintWriter(StackTrace));
-				System.out.println("Database actions Failed");
-			} finally {
-				// Close the connection
-				try {
-					connection.close();
-				} catch (SQLException e) {
-					StringWriter StackTrace = new StringWriter();
-					e.printStackTrace(new PrintWriter(StackTrace));
-					System.out.println("Connection Close Failed");
-					throw new RuntimeException(e.getMessage());
+				for (int rowCount : preparedStatement.executeBatch()) {
+					if (rowCount > 0) {
+						updateCount += rowCount;
+					}
 				}
 			}
-
-		} else {
-			System.out.println("Connection lost");
+			connection.commit();
+			return updateCount;
+		} catch (SQLException e) {
+			StringWriter StackTrace = new StringWriter();
+			e.printStackTrace(new PrintWriter(StackTrace));
+			System.out.println("Database Actions Failed");
+			throw new RuntimeException(e.getMessage());
+		} finally {
+			// Pending work is rolled back when the connection returns to the pool
+			databaseConnectionPool.releaseConnection(connection);
 		}
-
-		return crs;
 	}
 
-	public void executeUpdate(String query) {
+	/**
+	 * Start adding rows with a statement in a single transaction. The returned writer holds a pooled
+	 * connection and needs to be closed, preferably using try-with-resources; rows are only kept on commit.
+	 */
+	public SqlBatchWriter createBatchWriter(String query, int batchSize) {
 		// Remove illegal characters at the end
 		query = this.removeIllgegalCharactersForSingleQuery(query);
 
+		DatabaseConnectionPool databaseConnectionPool = this.lookupConnectionPool();
+		Connection connection = this.borrowConnection(databaseConnectionPool);
+
 		try {
-			Class.forName(this.getDriver());
-		} catch (ClassNotFoundException e) {
+			return new SqlBatchWriter(databaseConnectionPool, connection, query, batchSize);
+		} catch (SQLException e) {
 			StringWriter StackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("JDBC Driver Not Available");
-			throw new RuntimeException(e.getMessage());
+			System.out.println("Database Actions Failed");
+			databaseConnectionPool.releaseConnection(connection);
+			throw new RuntimeException(e.getMessage(), e);
 		}
+	}
+
+	public SqlResultCursor executeQueryCursor(String query) {
+		return this.executeQueryCursor(query, DEFAULT_FETCH_SIZE);
+	}
+
+	/**
+	 * Execute a query and stream its result. The returned cursor holds a pooled connection
+	 * and needs to be closed, preferably using try-with-resources.
+	 */
+	public SqlResultCursor executeQueryCursor(String query, int fetchSize) {
+		// Remove illegal characters at the end
+		query = this.removeIllgegalCharactersForSingleQuery(query);
 
-		Connection connection = null;
+		DatabaseConnectionPool databaseConnectionPool = this.lookupConnectionPool();
+		Connection connection = this.borrowConnection(databaseConnectionPool);
+		Statement statement = null;
 
 		try {
-			connection = DriverManager.getConnection(this.getConnectionURL(), this.getUserName(),
-					this.getUserPassword());
+			if (this.getType().equals("postgresql")) {
+				// The driver only uses a server side cursor inside a transaction
+				connection.setAutoCommit(false);
+			}
+
+			statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(fetchSize);
+			ResultSet rs = statement.executeQuery(query);
+			return new SqlResultCursor(databaseConnectionPool, connection, statement, rs);
 		} catch (SQLException e) {
 			StringWriter StackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("Connection Failed");
-			throw new RuntimeException(e.getMessage());
-		}
-
-		if (connection != null) {
-			try {
-				Statement statement = connection.createStatement();
-				statement.executeUpdate(query);
-				statement.close();
-			} catch (SQLException e) {
-				StringWriter StackTrace = new StringWriter();
-				e.printStackTrace(new PrintWriter(StackTrace));
-				System.out.println("Database Actions Failed");
-				throw new RuntimeException(e.getMessage());
-			} finally {
-				// Close the connection
+			System.out.println("Query Actions Failed");
+			if (statement != null) {
 				try {
-					connection.close();
-				} catch (SQLException e) {
-					StringWriter StackTrace = new StringWriter();
-					e.printStackTrace(new PrintWriter(StackTrace));
-					System.out.println("Connection Close Failed");
-					throw new RuntimeException(e.getMessage());
+					statement.close();
+				} catch (SQLException closeException) {
+					// The connection is still returned to the pool
 				}
 			}
-
-		} else {
-			System.out.println("Connection lost");
+			databaseConnectionPool.releaseConnection(connection);
+			throw new RuntimeException(e.getMessage());
 		}
 	}
 
-	@SuppressWarnings("finally")
-	public SqlScriptResult executeScript(String fileName) {
-		SqlScriptResult dcSQLScriptResult = null;
+	public void executeUpdate(String query) {
+		// Remove illegal characters at the end
+		query = this.removeIllgegalCharactersForSingleQuery(query);
+
+		DatabaseConnectionPool databaseConnectionPool = this.lookupConnectionPool();
+		Connection connection = this.borrowConnection(databaseConnectionPool);
+
 		try {
-			Class.forName(this.getDriver());
-		} catch (ClassNotFoundException e) {
+			Statement statement = connection.createStatement();
+			try {
+				statement.executeUpdate(query);
+			} finally {
+				statement.close();
+			}
+		} catch (SQLException e) {
 			StringWriter StackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("JDBC Driver Not Available");
+			System.out.println("Database Actions Failed");
 			throw new RuntimeException(e.getMessage());
+		} finally {
+			// Return the connection to the pool
+			databaseConnectionPool.releaseConnection(connection);
 		}
+	}
 
-		Connection connection = null;
-
+	public SqlScriptResult executeScript(String fileName) {
+		InputStream inputStream = null;
 		try {
-			connection = DriverManager.getConnection(this.getConnectionURL(), this.getUserName(),
-					this.getUserPassword());
-		} catch (SQLException e) {
-			StringWriter StackTrace = new StringWriter();
-			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("Connection Failed");
+			inputStream = new FileInputStream(fileName);
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
 			throw new RuntimeException(e.getMessage());
 		}
 
-		if (connection != null) {
+		try {
+			return this.executeScript(inputStream);
+		} finally {
 			try {
-				//
-				ScriptRunner scriptRunner = new ScriptRunner(connection, false, false);
-
-				InputStreamReader reader = null;
-
-				try {
-					reader = new InputStreamReader(new FileInputStream(fileName));
-				} catch (FileNotFoundException e) {
-					e.printStackTrace();
-					throw new RuntimeException(e.getMessage());
-				}
-
-				try {
-					dcSQLScriptResult = scriptRunner.runScript(reader);
-				} catch (IOException e) {
-					e.printStackTrace();
-					throw new RuntimeException(e.getMessage());
-				}
-
-			} catch (SQLException e) {
-				StringWriter StackTrace = new StringWriter();
-				e.printStackTrace(new PrintWriter(StackTrace));
-				System.out.println("Database Actions Failed");
-				throw new RuntimeException(e.getMessage());
-			} finally {
-				// Close the connection
-				try {
-					connection.close();
-					return dcSQLScriptResult;
-				} catch (SQLException e) {
-					StringWriter StackTrace = new StringWriter();
-					e.printStackTrace(new PrintWriter(StackTrace));
-					System.out.println("Connection Close Failed");
-					throw new RuntimeException(e.getMessage());
-				}
+				inputStream.close();
+			} catch (IOException e) {
+				// Nothing to release anymore
 			}
-
-		} else {
-			System.out.println("Connection lost");
-			throw new RuntimeException("Connection lost");
 		}
 	}
 
-	@SuppressWarnings("finally")
 	public SqlScriptResult executeScript(InputStream inputStream) {
 		SqlScriptResult dcSQLScriptResult = null;
+		DatabaseConnectionPool databaseConnectionPool = this.lookupConnectionPool();
+		Connection connection = this.borrowConnection(databaseConnectionPool);
+
 		try {
-			Class.forName(this.getDriver());
-		} catch (ClassNotFoundException e) {
-			StringWriter StackTrace = new StringWriter();
-			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("JDBC Driver Not Available");
-		}
+			ScriptRunner scriptRunner = new ScriptRunner(connection, false, false);
+			InputStreamReader reader = new InputStreamReader(inputStream);
 
-		Connection connection = null;
+			try {
+				dcSQLScriptResult = scriptRunner.runScript(reader);
+			} catch (IOException e) {
+				e.printStackTrace();
+				throw new RuntimeException(e.getMessage());
+			}
 
-		try {
-			connection = DriverManager.getConnection(this.getConnectionURL(), this.getUserName(),
-					this.getUserPassword());
 		} catch (SQLException e) {
 			StringWriter StackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(StackTrace));
-			System.out.println("Connection Failed");
+			System.out.println("Database Actions Failed");
 			throw new RuntimeException(e.getMessage());
+		} finally {
+			// Return the connection to the pool
+			databaseConnectionPool.releaseConnection(connection);
 		}
 
-		if (connection != null) {
-			try {
-				//
-				ScriptRunner scriptRunner = new ScriptRunner(connection, false, false);
-
-				InputStreamReader reader = null;
-
-				try {
-					reader = new InputStreamReader(inputStream);
-				} catch (Exception e) {
-					e.printStackTrace();
-					throw new RuntimeException(e.getMessage());
-				}
-
-				try {
-					dcSQLScriptResult = scriptRunner.runScript(reader);
-				} catch (IOException e) {
-					e.printStackTrace();
-					throw new RuntimeException(e.getMessage());
-				}
-
-			} catch (SQLException e) {
-				StringWriter StackTrace = new StringWriter();
-				e.printStackTrace(new PrintWriter(StackTrace));
-				System.out.println("Database Actions Failed");
-				throw new RuntimeException(e.getMessage());
-			} finally {
-				// Close the connection
-				try {
-					connection.close();
-					return dcSQLScriptResult;
-				} catch (Exception e) {
-					StringWriter StackTrace = new StringWriter();
-					e.printStackTrace(new PrintWriter(StackTrace));
-					System.out.println("Connection Close Failed");
-					throw new RuntimeException(e.getMessage());
-				}
-			}
-
-		} else {
-			System.out.println("Connection lost");
-			throw new RuntimeException("Connection lost");
-		}
+		return dcSQLScriptResult;
 	}
 
 	public PreparedStatement createLivePreparedStatement(String sqlStatement) {
 		PreparedStatement preparedStatement = null;
 		try {
-			preparedStatement = this.getConnection().prepareStatement(sqlStatement);
+			if (this.livePreparedStatementCache == null) {
+				this.livePreparedStatementCache = new PreparedStatementCache(this.getConnection(), LIVE_STATEMENT_CACHE_SIZE);
+			}
+			preparedStatement = this.livePreparedStatementCache.prepareStatement(sqlStatement);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
 		return preparedStatement;
 	}
 
+	public PreparedStatement createLivePreparedStatement(String sqlStatement, SqlParameter... sqlParameters) {
+		PreparedStatement preparedStatement = this.createLivePreparedStatement(sqlStatement);
+		try {
+			SqlParameter.bind(preparedStatement, sqlParameters);
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage());
+		}
+		return preparedStatement;
+	}
+
 	public void createLiveConnection() {
 
 		try {
@@ -443,6 +493,10 @@ public class DatabaseConnection {
 	public void closeLiveConnection() {
 
 		if (this.getConnection() != null) {
+			if (this.livePreparedStatementCache != null) {
+				this.livePreparedStatementCache.close();
+				this.livePreparedStatementCache = null;
+			}
 			try {
 				connection.close();
 			} catch (SQLException e) {
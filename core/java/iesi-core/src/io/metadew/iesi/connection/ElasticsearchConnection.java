@@ -1,22 +1,36 @@
 package io.metadew.iesi.connection;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 import org.apache.http.HttpEntity;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 
 /**
  * Connection object for Elasticsearch.
- * 
+ * All connections share one pooled http client, connections to the cluster are kept alive between requests.
+ * The client is closed once the last of its users has released it, and created again on the next request.
+ *
  * @author peter.billen
  *
  */
 public class ElasticsearchConnection {
 
+	private static final String DEFAULT_CONNECTION_URL = "http://localhost:9200";
+	private static final int MAX_CONNECTIONS = 20;
+
+	private static CloseableHttpClient httpClient;
+	private static int httpClientUsers = 0;
+
 	private String connectionURL;
 
 	// Constructor
@@ -31,31 +45,75 @@ public class ElasticsearchConnection {
 
 	// Methods
 	public void putStringEntity(String input, String index, String identifier) {
-		CloseableHttpClient httpclient = HttpClients.createDefault();
-		HttpPut httpPut = new HttpPut(
-				"http://localhost:9200/" + index + "/_doc/" + identifier);
+		HttpPut httpPut = new HttpPut(this.getBaseURL() + "/" + index + "/_doc/" + identifier);
 		try {
-			httpPut.setEntity(new StringEntity(input));
-
-			httpPut.setHeader("Content-Type", "application/json");
-
-			// Create a custom response handler
-			ResponseHandler<String> responseHandler = response -> {
-				int status = response.getStatusLine().getStatusCode();
-				if (status >= 200 && status < 300) {
-					HttpEntity entity = response.getEntity();
-					return entity != null ? EntityUtils.toString(entity) : null;
-				} else {
-					throw new ClientProtocolException("Unexpected response status: " + status);
-				}
-			};
-			httpclient.execute(httpPut, responseHandler);
-
+			httpPut.setEntity(new StringEntity(input, ContentType.APPLICATION_JSON));
+			getHttpClient().execute(httpPut, getResponseHandler());
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Send a request body in the newline delimited format of the bulk api and return the response.
+	 */
+	public String bulk(String input) throws IOException {
+		HttpPost httpPost = new HttpPost(this.getBaseURL() + "/_bulk");
+		httpPost.setEntity(new StringEntity(input, ContentType.create("application/x-ndjson", StandardCharsets.UTF_8)));
+		return getHttpClient().execute(httpPost, getResponseHandler());
+	}
+
+	/**
+	 * Register a user of the shared http client, which is kept open until every user has released it.
+	 */
+	public static synchronized void acquireHttpClient() {
+		httpClientUsers++;
+	}
+
+	public static synchronized void releaseHttpClient() {
+		httpClientUsers = Math.max(httpClientUsers - 1, 0);
+		if (httpClientUsers == 0 && httpClient != null) {
+			try {
+				httpClient.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			httpClient = null;
+		}
+	}
+
+	private String getBaseURL() {
+		String baseURL = this.getConnectionURL();
+		if (baseURL == null || baseURL.trim().isEmpty()) {
+			return DEFAULT_CONNECTION_URL;
+		}
+		baseURL = baseURL.trim();
+		return baseURL.endsWith("/") ? baseURL.substring(0, baseURL.length() - 1) : baseURL;
+	}
+
+	private static ResponseHandler<String> getResponseHandler() {
+		return response -> {
+			int status = response.getStatusLine().getStatusCode();
+			HttpEntity entity = response.getEntity();
+			String body = entity != null ? EntityUtils.toString(entity) : null;
+			if (status >= 200 && status < 300) {
+				return body;
+			} else {
+				throw new ClientProtocolException("Unexpected response status: " + status);
+			}
+		};
+	}
+
+	private static synchronized CloseableHttpClient getHttpClient() {
+		if (httpClient == null) {
+			PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+			connectionManager.setMaxTotal(MAX_CONNECTIONS);
+			connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+			httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+		}
+		return httpClient;
+	}
+
 	// Getters and setters
 	public String getConnectionURL() {
 		return connectionURL;
@@ -64,4 +122,4 @@ public class ElasticsearchConnection {
 	public void setConnectionURL(String connectionURL) {
 		this.connectionURL = connectionURL;
 	}
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.commons.io.IOUtils;
 
@@ -23,6 +24,10 @@ import com.jcraft.jsch.UserInfo;
 import io.metadew.iesi.connection.host.LinuxHostUserInfo;
 import io.metadew.iesi.connection.host.ShellCommandResult;
 import io.metadew.iesi.connection.host.ShellCommandSettings;
+import io.metadew.iesi.connection.host.pool.HostSession;
+import io.metadew.iesi.connection.host.pool.HostSessionFactory;
+import io.metadew.iesi.connection.host.pool.HostSessionPool;
+import io.metadew.iesi.connection.host.pool.HostSessionPoolManager;
 import io.metadew.iesi.connection.operation.ConnectionOperation;
 import io.metadew.iesi.metadata.configuration.ConnectionConfiguration;
 import io.metadew.iesi.metadata.definition.Connection;
@@ -48,9 +53,6 @@ public class HostConnection {
 	private String outputRuntimeVariablesOutput = "";
 	private ArrayList<String> systemOutputKeywordList = null;
 
-	// Session management
-	// private Session[] sessions;
-
 	public HostConnection() {
 		super();
 	}
@@ -180,56 +182,54 @@ public class HostConnection {
 		String errorOutput = "";
 		try {
 
-			JSch jsch = new JSch();
-			jsch.removeAllIdentity();
-
-			// Defines number of tries made in background for validating credentials
-			JSch.setConfig("MaxAuthTries", "1");
-			Session session = jsch.getSession(this.getUserName(), this.getHostName(), this.getPortNumber());
-			session.setConfig("StrictHostKeyChecking", "no");
-			UserInfo ui = new LinuxHostUserInfo(this.getUserPassword());
-			session.setUserInfo(ui);
-			session.connect();
-			Channel channel = session.openChannel("exec");
+			List<HostConnection> hostConnections = this.getHostConnections(shellCommandSettings, false);
+			HostSessionPool hostSessionPool = this.getHostSessionPool(hostConnections);
+			HostSession hostSession = hostSessionPool.borrowSession(() -> this.sessionConnect(hostConnections));
+			boolean reusable = false;
+			try {
+				Channel channel = hostSession.getSession().openChannel("exec");
 
-			if (this.getTerminalFlag().equalsIgnoreCase("y")) {
-				((ChannelExec) channel).setPty(true);
-			} else {
-				((ChannelExec) channel).setPty(false);
-			}
+				if (this.getTerminalFlag().equalsIgnoreCase("y")) {
+					((ChannelExec) channel).setPty(true);
+				} else {
+					((ChannelExec) channel).setPty(false);
+				}
 
-			((ChannelExec) channel).setCommand(executionShellCommand);
-			channel.setInputStream(null);
-			((ChannelExec) channel).setErrStream(System.err);
-			InputStream in = channel.getInputStream();
-			channel.connect();
-
-			systemOutput = "";
-			byte[] tmp = new byte[1024];
-			while (true) {
-				while (in.available() > 0) {
-					int i = in.read(tmp, 0, 1024);
-					if (i < 0)
+				((ChannelExec) channel).setCommand(executionShellCommand);
+				channel.setInputStream(null);
+				((ChannelExec) channel).setErrStream(System.err);
+				InputStream in = channel.getInputStream();
+				channel.connect();
+
+				systemOutput = "";
+				byte[] tmp = new byte[1024];
+				while (true) {
+					while (in.available() > 0) {
+						int i = in.read(tmp, 0, 1024);
+						if (i < 0)
+							break;
+						systemOutput = systemOutput + new String(tmp, 0, i);
+						// No screen output
+						// System.out.print(new String(tmp, 0, i));
+					}
+					if (channel.isClosed()) {
+						if (in.available() > 0)
+							continue;
+						rc = channel.getExitStatus();
 						break;
-					systemOutput = systemOutput + new String(tmp, 0, i);
-					// No screen output
-					// System.out.print(new String(tmp, 0, i));
-				}
-				if (channel.isClosed()) {
-					if (in.available() > 0)
-						continue;
-					rc = channel.getExitStatus();
-					break;
-				}
-				try {
-					Thread.sleep(1000);
-				} catch (Exception e) {
-					throw new RuntimeException(e.getMessage(), e);
+					}
+					try {
+						Thread.sleep(1000);
+					} catch (Exception e) {
+						throw new RuntimeException(e.getMessage(), e);
+					}
 				}
-			}
 
-			channel.disconnect();
-			session.disconnect();
+				channel.disconnect();
+				reusable = true;
+			} finally {
+				hostSessionPool.releaseSession(hostSession, reusable);
+			}
 		} catch (Exception e) {
 			throw new RuntimeException(e.getMessage(), e);
 		}
@@ -283,96 +283,54 @@ public class HostConnection {
 		String errorOutput = "";
 		try {
 
-			JSch jsch = this.jschConnect();
+			List<HostConnection> hostConnections = this.getHostConnections(shellCommandSettings, true);
+			HostSessionPool hostSessionPool = this.getHostSessionPool(hostConnections);
+			HostSession hostSession = hostSessionPool.borrowSession(() -> this.sessionConnect(hostConnections));
+			boolean reusable = false;
+			try {
+				Channel channel = hostSession.getSession().openChannel("exec");
 
-			Session session = null;
-			Session[] sessions = null;
-			if (this.getJumphostConnectionName().trim().equals("")) {
-				sessions = new Session[1];
-				sessions[0] = session = this.sessionConnect(jsch, this.getHostName(), this.getPortNumber(),
-						this.getUserName(), this.getUserPassword());
-			} else {
-				String[] jumphostConnections = this.getJumphostConnectionName().split(",");
-				sessions = new Session[jumphostConnections.length + 1];
-				for (int i = 0; i <= jumphostConnections.length; i++) {
-					String jumphostConnection = "";
-					HostConnection hostConnection = null;
-					if (i < jumphostConnections.length) {
-						jumphostConnection = jumphostConnections[i];
-						ConnectionConfiguration connectionConfiguration = new ConnectionConfiguration(shellCommandSettings.getFrameworkExecution());
-						Connection connection = connectionConfiguration.getConnection(jumphostConnection,
-								shellCommandSettings.getEnvironment());
-						ConnectionOperation connectionOperation = new ConnectionOperation(shellCommandSettings.getFrameworkExecution());
-						hostConnection = connectionOperation.getHostConnection(connection);
-					} else {
-						hostConnection = this;
-					}
+				if (this.getTerminalFlag().equalsIgnoreCase("y")) {
+					((ChannelExec) channel).setPty(true);
+				} else {
+					((ChannelExec) channel).setPty(false);
+				}
 
-					int assignedPort = -1;
-					if (i == 0) {
-						assignedPort = hostConnection.getPortNumber();
-					} else {
-						assignedPort = session.setPortForwardingL(0, hostConnection.getHostName(), hostConnection.getPortNumber());
+				((ChannelExec) channel).setCommand(executionShellCommand);
+				channel.setInputStream(null);
+				((ChannelExec) channel).setErrStream(System.err);
+				InputStream in = channel.getInputStream();
+				channel.connect();
+
+				systemOutput = "";
+				byte[] tmp = new byte[1024];
+				while (true) {
+					while (in.available() > 0) {
+						int i = in.read(tmp, 0, 1024);
+						if (i < 0)
+							break;
+						systemOutput = systemOutput + new String(tmp, 0, i);
+						// No screen output
+						// System.out.print(new String(tmp, 0, i));
 					}
-					// System.out.println("portforwarding: " + "localhost:" + assignedPort + " -> "
-					// + dcHost.getHostName()
-					// + ":" + assignedPort);
-
-					if (i == 0) {
-						sessions[i] = session = this.sessionConnect(jsch, hostConnection.getHostName(), assignedPort,
-								hostConnection.getUserName(), hostConnection.getUserPassword());
-					} else {
-						sessions[i] = session = this.sessionJumpConnect(jsch, hostConnection.getHostName(), assignedPort,
-								hostConnection.getUserName(), hostConnection.getUserPassword());
+					if (channel.isClosed()) {
+						if (in.available() > 0)
+							continue;
+						rc = channel.getExitStatus();
+						break;
+					}
+					try {
+						Thread.sleep(1000);
+					} catch (Exception e) {
+						throw new RuntimeException(e.getMessage(), e);
 					}
-
-					// System.out.println("The session has been established to " +
-					// dcHost.getUserName() + "@" + dcHost.getHostName());
-
 				}
 
+				channel.disconnect();
+				reusable = true;
+			} finally {
+				hostSessionPool.releaseSession(hostSession, reusable);
 			}
-
-			Channel channel = session.openChannel("exec");
-
-			if (this.getTerminalFlag().equalsIgnoreCase("y")) {
-				((ChannelExec) channel).setPty(true);
-			} else {
-				((ChannelExec) channel).setPty(false);
-			}
-
-			((ChannelExec) channel).setCommand(executionShellCommand);
-			channel.setInputStream(null);
-			((ChannelExec) channel).setErrStream(System.err);
-			InputStream in = channel.getInputStream();
-			channel.connect();
-
-			systemOutput = "";
-			byte[] tmp = new byte[1024];
-			while (true) {
-				while (in.available() > 0) {
-					int i = in.read(tmp, 0, 1024);
-					if (i < 0)
-						break;
-					systemOutput = systemOutput + new String(tmp, 0, i);
-					// No screen output
-					// System.out.print(new String(tmp, 0, i));
-				}
-				if (channel.isClosed()) {
-					if (in.available() > 0)
-						continue;
-					rc = channel.getExitStatus();
-					break;
-				}
-				try {
-					Thread.sleep(1000);
-				} catch (Exception e) {
-					throw new RuntimeException(e.getMessage(), e);
-				}
-			}
-
-			channel.disconnect();
-			this.sessionDisconnect(sessions);
 		} catch (Exception e) {
 			throw new RuntimeException(e.getMessage(), e);
 		}
@@ -408,48 +366,50 @@ public class HostConnection {
 		String errorOutput = "";
 		try {
 
-			JSch jsch = new JSch();
-			Session session = jsch.getSession(this.getUserName(), this.getHostName(), this.getPortNumber());
-			session.setConfig("StrictHostKeyChecking", "no");
-			UserInfo ui = new LinuxHostUserInfo(this.getUserPassword());
-			session.setUserInfo(ui);
-			session.connect();
-			Channel channel = session.openChannel("shell");
+			List<HostConnection> hostConnections = this.getHostConnections(shellCommandSettings, false);
+			HostSessionPool hostSessionPool = this.getHostSessionPool(hostConnections);
+			HostSession hostSession = hostSessionPool.borrowSession(() -> this.sessionConnect(hostConnections));
+			boolean reusable = false;
+			try {
+				Channel channel = hostSession.getSession().openChannel("shell");
 
-			channel.setInputStream(this.convertToInputStream(executionShellCommand + "\n exit"));
+				channel.setInputStream(this.convertToInputStream(executionShellCommand + "\n exit"));
 
-			InputStream in = channel.getInputStream();
-			// OutputStream out = channel.getOutputStream();
+				InputStream in = channel.getInputStream();
+				// OutputStream out = channel.getOutputStream();
 
-			channel.connect();
+				channel.connect();
 
-			systemOutput = "";
-			byte[] tmp = new byte[1024];
-			while (true) {
-				while (in.available() > 0) {
-					int i = in.read(tmp, 0, 1024);
-					if (i < 0)
+				systemOutput = "";
+				byte[] tmp = new byte[1024];
+				while (true) {
+					while (in.available() > 0) {
+						int i = in.read(tmp, 0, 1024);
+						if (i < 0)
+							break;
+						systemOutput = systemOutput + new String(tmp, 0, i);
+						// No screen output
+						// System.out.print(new String(tmp, 0, i));
+					}
+					if (channel.isClosed()) {
+						if (in.available() > 0)
+							continue;
+						rc = channel.getExitStatus();
+						System.out.println("rc1 " + rc);
 						break;
-					systemOutput = systemOutput + new String(tmp, 0, i);
-					// No screen output
-					// System.out.print(new String(tmp, 0, i));
-				}
-				if (channel.isClosed()) {
-					if (in.available() > 0)
-						continue;
-					rc = channel.getExitStatus();
-					System.out.println("rc1 " + rc);
-					break;
-				}
-				try {
-					Thread.sleep(1000);
-				} catch (Exception e) {
-					throw new RuntimeException(e.getMessage(), e);
+					}
+					try {
+						Thread.sleep(1000);
+					} catch (Exception e) {
+						throw new RuntimeException(e.getMessage(), e);
+					}
 				}
-			}
 
-			channel.disconnect();
-			session.disconnect();
+				channel.disconnect();
+				reusable = true;
+			} finally {
+				hostSessionPool.releaseSession(hostSession, reusable);
+			}
 		} catch (Exception e) {
 			throw new RuntimeException(e.getMessage(), e);
 		}
@@ -503,96 +463,54 @@ public class HostConnection {
 		String errorOutput = "";
 		try {
 
-			JSch jsch = this.jschConnect();
-
-			Session session = null;
-			Session[] sessions = null;
-			if (this.getJumphostConnectionName().trim().equals("")) {
-				sessions = new Session[1];
-				sessions[0] = session = this.sessionConnect(jsch, this.getHostName(), this.getPortNumber(),
-						this.getUserName(), this.getUserPassword());
-			} else {
-				String[] jumphostConnections = this.getJumphostConnectionName().split(",");
-				sessions = new Session[jumphostConnections.length + 1];
-				for (int i = 0; i <= jumphostConnections.length; i++) {
-					String jumphostConnection = "";
-					HostConnection hostConnection = null;
-					if (i < jumphostConnections.length) {
-						jumphostConnection = jumphostConnections[i];
-						ConnectionConfiguration connectionConfiguration = new ConnectionConfiguration(shellCommandSettings.getFrameworkExecution());
-						Connection connection = connectionConfiguration.getConnection(jumphostConnection,
-								shellCommandSettings.getEnvironment());
-						ConnectionOperation connectionOperation = new ConnectionOperation(shellCommandSettings.getFrameworkExecution());
-						hostConnection = connectionOperation.getHostConnection(connection);
-					} else {
-						hostConnection = this;
+			List<HostConnection> hostConnections = this.getHostConnections(shellCommandSettings, true);
+			HostSessionPool hostSessionPool = this.getHostSessionPool(hostConnections);
+			HostSession hostSession = hostSessionPool.borrowSession(() -> this.sessionConnect(hostConnections));
+			boolean reusable = false;
+			try {
+				Channel channel = hostSession.getSession().openChannel("shell");
+
+				// Enable agent-forwarding.
+				// ((ChannelShell)channel).setAgentForwarding(true);
+
+				//channel.setInputStream(this.convertToInputStream(executionShellCommand + "\n exit"));
+				channel.setInputStream(System.in);
+				InputStream in = channel.getInputStream();
+
+				// Choose the pty-type "vt102".
+				((ChannelShell) channel).setPtyType("vt102");
+
+				channel.connect();
+
+				systemOutput = "";
+				byte[] tmp = new byte[1024];
+				while (true) {
+					while (in.available() > 0) {
+						int i = in.read(tmp, 0, 1024);
+						if (i < 0)
+							break;
+						systemOutput = systemOutput + new String(tmp, 0, i);
+						// No screen output
+						System.out.print(new String(tmp, 0, i));
 					}
-
-					int assignedPort = -1;
-					if (i == 0) {
-						assignedPort = hostConnection.getPortNumber();
-					} else {
-						assignedPort = session.setPortForwardingL(0, hostConnection.getHostName(), hostConnection.getPortNumber());
+					if (channel.isClosed()) {
+						if (in.available() > 0)
+							continue;
+						rc = channel.getExitStatus();
+						break;
 					}
-					// System.out.println("portforwarding: " + "localhost:" + assignedPort + " -> "
-					// + dcHost.getHostName()
-					// + ":" + assignedPort);
-
-					if (i == 0) {
-						sessions[i] = session = this.sessionConnect(jsch, hostConnection.getHostName(), assignedPort,
-								hostConnection.getUserName(), hostConnection.getUserPassword());
-					} else {
-						sessions[i] = session = this.sessionJumpConnect(jsch, hostConnection.getHostName(), assignedPort,
-								hostConnection.getUserName(), hostConnection.getUserPassword());
+					try {
+						Thread.sleep(1000);
+					} catch (Exception e) {
+						throw new RuntimeException(e.getMessage(), e);
 					}
-
-					// System.out.println("The session has been established to " +
-					// dcHost.getUserName() + "@" + dcHost.getHostName());
-
 				}
 
+				channel.disconnect();
+				reusable = true;
+			} finally {
+				hostSessionPool.releaseSession(hostSession, reusable);
 			}
-
-			Channel channel = session.openChannel("shell");
-
-			// Enable agent-forwarding.
-			// ((ChannelShell)channel).setAgentForwarding(true);
-
-			//channel.setInputStream(this.convertToInputStream(executionShellCommand + "\n exit"));
-			channel.setInputStream(System.in);
-			InputStream in = channel.getInputStream();
-
-			// Choose the pty-type "vt102".
-			((ChannelShell) channel).setPtyType("vt102");
-
-			channel.connect();
-
-			systemOutput = "";
-			byte[] tmp = new byte[1024];
-			while (true) {
-				while (in.available() > 0) {
-					int i = in.read(tmp, 0, 1024);
-					if (i < 0)
-						break;
-					systemOutput = systemOutput + new String(tmp, 0, i);
-					// No screen output
-					System.out.print(new String(tmp, 0, i));
-				}
-				if (channel.isClosed()) {
-					if (in.available() > 0)
-						continue;
-					rc = channel.getExitStatus();
-					break;
-				}
-				try {
-					Thread.sleep(1000);
-				} catch (Exception e) {
-					throw new RuntimeException(e.getMessage(), e);
-				}
-			}
-
-			channel.disconnect();
-			this.sessionDisconnect(sessions);
 		} catch (Exception e) {
 			throw new RuntimeException(e.getMessage(), e);
 		}
@@ -664,6 +582,8 @@ public class HostConnection {
 					boolCommandOutput = false;
 					boolCommandReturnCode = true;
 					boolCommandRuntimeVariables = false;
+					// The return code replaces the default one
+					tempCommandReturnCode = "";
 				}
 				if (line.trim().equals("SHELL_RUN_CMD_RUN_VAR")) {
 					boolCommandOutput = false;
@@ -693,6 +613,48 @@ public class HostConnection {
 	}
 
 	// Session management
+	/**
+	 * Get the pool of ssh sessions opened directly to this host, without passing through jump hosts.
+	 */
+	public HostSessionPool getSessionPool() {
+		return this.getHostSessionPool(this.getHostConnections(null, false));
+	}
+
+	public HostSessionFactory getSessionFactory() {
+		List<HostConnection> hostConnections = this.getHostConnections(null, false);
+		return () -> this.sessionConnect(hostConnections);
+	}
+
+	/*
+	 * Get the host connections to pass through to reach this host: the jump hosts in order, followed by this host
+	 */
+	private List<HostConnection> getHostConnections(ShellCommandSettings shellCommandSettings, boolean jumphosts) {
+		List<HostConnection> hostConnections = new ArrayList<HostConnection>();
+		if (jumphosts && !this.getJumphostConnectionName().trim().equals("")) {
+			ConnectionConfiguration connectionConfiguration = new ConnectionConfiguration(shellCommandSettings.getFrameworkExecution());
+			ConnectionOperation connectionOperation = new ConnectionOperation(shellCommandSettings.getFrameworkExecution());
+			for (String jumphostConnection : this.getJumphostConnectionName().split(",")) {
+				Connection connection = connectionConfiguration.getConnection(jumphostConnection,
+						shellCommandSettings.getEnvironment());
+				hostConnections.add(connectionOperation.getHostConnection(connection));
+			}
+		}
+		hostConnections.add(this);
+		return hostConnections;
+	}
+
+	private HostSessionPool getHostSessionPool(List<HostConnection> hostConnections) {
+		StringBuilder key = new StringBuilder();
+		for (HostConnection hostConnection : hostConnections) {
+			if (key.length() > 0) {
+				key.append(">");
+			}
+			key.append(HostSessionPoolManager.getKey(hostConnection.getUserName(), hostConnection.getHostName(),
+					hostConnection.getPortNumber()));
+		}
+		return HostSessionPoolManager.getPool(key.toString());
+	}
+
 	private JSch jschConnect() throws JSchException {
 		JSch jsch = new JSch();
 		jsch.removeAllIdentity();
@@ -703,6 +665,32 @@ public class HostConnection {
 		return jsch;
 	}
 
+	/*
+	 * Connect to the first host and tunnel the next sessions through the previous one
+	 */
+	private Session[] sessionConnect(List<HostConnection> hostConnections) throws JSchException {
+		JSch jsch = this.jschConnect();
+		Session[] sessions = new Session[hostConnections.size()];
+		Session session = null;
+		try {
+			for (int i = 0; i < hostConnections.size(); i++) {
+				HostConnection hostConnection = hostConnections.get(i);
+				if (i == 0) {
+					sessions[i] = session = this.sessionConnect(jsch, hostConnection.getHostName(),
+							hostConnection.getPortNumber(), hostConnection.getUserName(), hostConnection.getUserPassword());
+				} else {
+					int assignedPort = session.setPortForwardingL(0, hostConnection.getHostName(), hostConnection.getPortNumber());
+					sessions[i] = session = this.sessionJumpConnect(jsch, hostConnection.getHostName(), assignedPort,
+							hostConnection.getUserName(), hostConnection.getUserPassword());
+				}
+			}
+		} catch (JSchException e) {
+			this.sessionDisconnect(sessions);
+			throw e;
+		}
+		return sessions;
+	}
+
 	private Session sessionConnect(JSch jsch, String hostName, int portNumber, String userName, String userPassword)
 			throws JSchException {
 		Session session = jsch.getSession(userName, hostName, portNumber);
@@ -724,14 +712,11 @@ public class HostConnection {
 		return session;
 	}
 
-	@SuppressWarnings("unused")
-	private void sessionDisconnect(Session session) {
-		session.disconnect();
-	}
-
 	private void sessionDisconnect(Session[] sessions) {
 		for (int i = sessions.length - 1; i >= 0; i--) {
-			sessions[i].disconnect();
+			if (sessions[i] != null) {
+				sessions[i].disconnect();
+			}
 		}
 	}
 
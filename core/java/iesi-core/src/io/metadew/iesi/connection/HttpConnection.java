@@ -1,20 +1,16 @@
 package io.metadew.iesi.connection;
 
-import java.net.Socket;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
-import java.security.cert.CertificateException;
 import java.util.Iterator;
 import java.util.Map;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLEngine;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509ExtendedTrustManager;
 
 import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
@@ -30,15 +26,21 @@ import org.apache.http.util.EntityUtils;
 
 import io.metadew.iesi.connection.http.HttpRequest;
 import io.metadew.iesi.connection.http.HttpResponse;
+import io.metadew.iesi.connection.http.pool.HttpClientPoolManager;
+import io.metadew.iesi.connection.http.pool.HttpClientPoolSettings;
 
 /**
  * Connection object for http requests.
+ * Requests are sent with the pooled keep-alive client of the endpoint of the request, so sockets and tls sessions
+ * are reused across requests to the same server.
  *
  * @author peter.billen
  */
 public class HttpConnection
 {
 
+	private String name = "default";
+
 	private HttpRequest httpRequest;
 
 	// Constructor
@@ -53,6 +55,13 @@ public class HttpConnection
 		this.setHttpRequest(httpRequest);
 	}
 
+	public HttpConnection(String name, HttpRequest httpRequest)
+	{
+		super();
+		this.setName(name);
+		this.setHttpRequest(httpRequest);
+	}
+
 	// Methods
 	@SuppressWarnings("rawtypes")
 	public HttpResponse executeGetRequest()
@@ -62,8 +71,8 @@ public class HttpConnection
 		{
 			// CloseableHttpClient httpclient = HttpClients.createDefault();
 			// CloseableHttpClient httpclient = createAcceptSelfSignedCertificateClient();
-			CloseableHttpClient httpclient = createOverrideSSLCertificateVerification();
 			HttpGet httpget = new HttpGet();
+			httpget.setConfig(this.getRequestConfig());
 
 			// Add headers
 			Iterator iterator = this.getHttpRequest().getHeaderMap().entrySet().iterator();
@@ -75,6 +84,7 @@ public class HttpConnection
 			}
 			// Set URI
 			httpget.setURI(this.getHttpRequest().getUriBuilder().build());
+			CloseableHttpClient httpclient = HttpClientPoolManager.getPool(httpget.getURI()).getHttpClient();
 			// Execute
 			CloseableHttpResponse response = httpclient.execute(httpget);
 
@@ -98,6 +108,7 @@ public class HttpConnection
 			}
 			finally
 			{
+				// Returns the connection to the pool once the entity is consumed
 				response.close();
 			}
 
@@ -118,8 +129,8 @@ public class HttpConnection
 		{
 			// CloseableHttpClient httpclient = HttpClients.createDefault();
 			// CloseableHttpClient httpclient = createAcceptSelfSignedCertificateClient();
-			CloseableHttpClient httpclient = createOverrideSSLCertificateVerification();
 			HttpPost httpPost = new HttpPost();
+			httpPost.setConfig(this.getRequestConfig());
 
 			// Add headers
 			Iterator iterator = this.getHttpRequest().getHeaderMap().entrySet().iterator();
@@ -131,6 +142,7 @@ public class HttpConnection
 			}
 			// Set URI
 			httpPost.setURI(this.getHttpRequest().getUriBuilder().build());
+			CloseableHttpClient httpclient = HttpClientPoolManager.getPool(httpPost.getURI()).getHttpClient();
 
 			// Add entity
 			StringEntity stringEntity = new StringEntity(json);
@@ -170,6 +182,30 @@ public class HttpConnection
 		}
 	}
 
+	/*
+	 * Timeouts of the request, or the pool defaults if the request does not define them
+	 */
+	private RequestConfig getRequestConfig()
+	{
+		HttpClientPoolSettings httpClientPoolSettings = HttpClientPoolManager.getSettings();
+		int connectTimeout = this.getHttpRequest().getConnectTimeout() >= 0 ? this.getHttpRequest().getConnectTimeout()
+					: httpClientPoolSettings.getConnectTimeout();
+		int readTimeout = this.getHttpRequest().getReadTimeout() >= 0 ? this.getHttpRequest().getReadTimeout()
+					: httpClientPoolSettings.getReadTimeout();
+		return RequestConfig.custom().setConnectTimeout(connectTimeout).setConnectionRequestTimeout(connectTimeout)
+					.setSocketTimeout(readTimeout).build();
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+
 	public HttpRequest getHttpRequest()
 	{
 		return httpRequest;
@@ -215,75 +251,4 @@ public class HttpConnection
 		return null;
 
 	}
-
-	private static CloseableHttpClient createOverrideSSLCertificateVerification()
-	{
-		TrustManager[] trustAllCerts = new TrustManager[]{new X509ExtendedTrustManager()
-		{
-			@Override
-			public void checkClientTrusted(java.security.cert.X509Certificate[] chain, String authType) throws CertificateException
-			{
-			}
-
-			@Override
-			public void checkServerTrusted(java.security.cert.X509Certificate[] chain, String authType) throws CertificateException
-			{
-			}
-
-			@Override
-			public java.security.cert.X509Certificate[] getAcceptedIssuers()
-			{
-				return null;
-			}
-
-			@Override
-			public void checkClientTrusted(java.security.cert.X509Certificate[] arg0, String arg1, Socket arg2)
-						throws CertificateException
-			{
-			}
-
-			@Override
-			public void checkClientTrusted(java.security.cert.X509Certificate[] arg0, String arg1, SSLEngine arg2)
-						throws CertificateException
-			{
-			}
-
-			@Override
-			public void checkServerTrusted(java.security.cert.X509Certificate[] arg0, String arg1, Socket arg2)
-						throws CertificateException
-			{
-			}
-
-			@Override
-			public void checkServerTrusted(java.security.cert.X509Certificate[] arg0, String arg1, SSLEngine arg2)
-						throws CertificateException
-			{
-			}
-		}};
-
-		SSLContext sslContext = null;
-		try
-		{
-			sslContext = SSLContext.getInstance("SSL");
-			sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-		}
-		catch (KeyManagementException e)
-		{
-			e.printStackTrace();
-		}
-		catch (NoSuchAlgorithmException e)
-		{
-			e.printStackTrace();
-		}
-
-		// we can optionally disable hostname verification.
-		// if you don't want to further weaken the security, you don't have to include this.
-		HostnameVerifier allowAllHosts = new NoopHostnameVerifier();
-
-		// create an SSL Socket Factory to use the SSLContext with the trust self signed certificate strategy
-		// and allow all hosts verifier.
-		SSLConnectionSocketFactory connectionFactory = new SSLConnectionSocketFactory(sslContext, allowAllHosts);
-		// finally create the HttpClient using HttpClient factory methods and assign the ssl socket factory
-		return HttpClients.custom().setSSLSocketFactory(connectionFactory).build();
-	}
 }
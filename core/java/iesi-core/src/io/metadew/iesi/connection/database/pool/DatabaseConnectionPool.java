@@ -0,0 +1,256 @@
+package io.metadew.iesi.connection.database.pool;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import io.metadew.iesi.connection.database.sql.PreparedStatementCache;
+
+/**
+ * Pool of physical JDBC connections for a single connection URL and user.
+ * Idle connections are reused last-in first-out so that the least recently used
+ * ones age out and can be evicted.
+ *
+ * @author peter.billen
+ *
+ */
+public class DatabaseConnectionPool {
+
+	private String connectionURL;
+	private String userName;
+	private String userPassword;
+	private int minimumSize;
+	private int maximumSize;
+	private long idleTimeout;
+	private long borrowTimeout;
+	private boolean validateOnBorrow;
+	private int statementCacheSize;
+
+	private final Deque<PooledConnection> idleConnections = new ArrayDeque<PooledConnection>();
+	private final Semaphore permits;
+	private final Map<Connection, PreparedStatementCache> preparedStatementCaches = new ConcurrentHashMap<Connection, PreparedStatementCache>();
+	private boolean closed = false;
+
+	public DatabaseConnectionPool(String connectionURL, String userName, String userPassword,
+			DatabaseConnectionPoolSettings settings) {
+		this.connectionURL = connectionURL;
+		this.userName = userName;
+		this.userPassword = userPassword;
+		this.minimumSize = settings.getMinimumSize();
+		this.maximumSize = settings.getMaximumSize();
+		this.idleTimeout = settings.getIdleTimeout();
+		this.borrowTimeout = settings.getBorrowTimeout();
+		this.validateOnBorrow = settings.isValidateOnBorrow();
+		this.statementCacheSize = settings.getStatementCacheSize();
+		this.permits = new Semaphore(this.maximumSize, true);
+	}
+
+	// Methods
+	public Connection borrowConnection() throws SQLException {
+		try {
+			if (!this.permits.tryAcquire(this.borrowTimeout, TimeUnit.MILLISECONDS)) {
+				throw new SQLException("No connection available in pool for " + this.connectionURL + " within "
+						+ this.borrowTimeout + " ms");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a pooled connection", e);
+		}
+
+		try {
+			while (true) {
+				PooledConnection pooledConnection;
+				synchronized (this) {
+					if (this.closed) {
+						throw new SQLException("Connection pool closed for " + this.connectionURL);
+					}
+					pooledConnection = this.idleConnections.pollFirst();
+				}
+
+				if (pooledConnection == null) {
+					return this.openConnection();
+				}
+
+				if (!this.validateOnBorrow || this.isValid(pooledConnection.getConnection())) {
+					return pooledConnection.getConnection();
+				}
+
+				this.discardConnection(pooledConnection.getConnection());
+			}
+		} catch (SQLException | RuntimeException e) {
+			this.permits.release();
+			throw e;
+		}
+	}
+
+	public void releaseConnection(Connection connection) {
+		if (connection == null) {
+			return;
+		}
+
+		try {
+			boolean reusable = !connection.isClosed();
+			if (reusable && !connection.getAutoCommit()) {
+				// Never hand over pending work to the next borrower
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+
+			synchronized (this) {
+				if (reusable && !this.closed) {
+					this.idleConnections.offerFirst(new PooledConnection(connection, System.currentTimeMillis()));
+					connection = null;
+				}
+			}
+		} catch (SQLException e) {
+			// The connection is in an unknown state and will not be reused
+		} finally {
+			if (connection != null) {
+				this.discardConnection(connection);
+			}
+			this.permits.release();
+		}
+	}
+
+	/**
+	 * Get the prepared statement cache of a connection borrowed from this pool.
+	 * Cached statements live as long as the physical connection.
+	 */
+	public PreparedStatementCache getPreparedStatementCache(Connection connection) {
+		return this.preparedStatementCaches.computeIfAbsent(connection,
+				c -> new PreparedStatementCache(c, this.statementCacheSize));
+	}
+
+	public void evictIdleConnections() {
+		List<Connection> evictedConnections = new ArrayList<Connection>();
+		long now = System.currentTimeMillis();
+		synchronized (this) {
+			Iterator<PooledConnection> iterator = this.idleConnections.descendingIterator();
+			while (iterator.hasNext() && this.idleConnections.size() > this.minimumSize) {
+				PooledConnection pooledConnection = iterator.next();
+				if (now - pooledConnection.getLastUsed() < this.idleTimeout) {
+					break;
+				}
+				iterator.remove();
+				evictedConnections.add(pooledConnection.getConnection());
+			}
+		}
+
+		for (Connection connection : evictedConnections) {
+			this.discardConnection(connection);
+		}
+	}
+
+	public void fillMinimumConnections() {
+		while (true) {
+			synchronized (this) {
+				if (this.closed || this.idleConnections.size() + this.getBorrowedCount() >= this.minimumSize) {
+					return;
+				}
+			}
+
+			Connection connection;
+			try {
+				connection = this.openConnection();
+			} catch (SQLException e) {
+				return;
+			}
+
+			synchronized (this) {
+				if (!this.closed) {
+					this.idleConnections.offerLast(new PooledConnection(connection, System.currentTimeMillis()));
+					connection = null;
+				}
+			}
+
+			if (connection != null) {
+				this.discardConnection(connection);
+				return;
+			}
+		}
+	}
+
+	public void close() {
+		List<Connection> idle = new ArrayList<Connection>();
+		synchronized (this) {
+			this.closed = true;
+			for (PooledConnection pooledConnection : this.idleConnections) {
+				idle.add(pooledConnection.getConnection());
+			}
+			this.idleConnections.clear();
+		}
+
+		for (Connection connection : idle) {
+			this.discardConnection(connection);
+		}
+	}
+
+	private Connection openConnection() throws SQLException {
+		return DriverManager.getConnection(this.connectionURL, this.userName, this.userPassword);
+	}
+
+	private boolean isValid(Connection connection) {
+		try {
+			return !connection.isClosed() && connection.isValid(5);
+		} catch (SQLException e) {
+			return false;
+		} catch (AbstractMethodError e) {
+			// Older drivers do not implement isValid
+			return true;
+		}
+	}
+
+	private int getBorrowedCount() {
+		return this.maximumSize - this.permits.availablePermits();
+	}
+
+	private void discardConnection(Connection connection) {
+		PreparedStatementCache preparedStatementCache = this.preparedStatementCaches.remove(connection);
+		if (preparedStatementCache != null) {
+			preparedStatementCache.close();
+		}
+
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			// Nothing left to do with a broken connection
+		}
+	}
+
+	public synchronized int getIdleCount() {
+		return this.idleConnections.size();
+	}
+
+	public String getConnectionURL() {
+		return connectionURL;
+	}
+
+	private static class PooledConnection {
+
+		private final Connection connection;
+		private final long lastUsed;
+
+		PooledConnection(Connection connection, long lastUsed) {
+			this.connection = connection;
+			this.lastUsed = lastUsed;
+		}
+
+		Connection getConnection() {
+			return connection;
+		}
+
+		long getLastUsed() {
+			return lastUsed;
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package io.metadew.iesi.connection.database.pool;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the database connection pools shared by all database connection objects.
+ * Pools are keyed on connection URL and user name and created on first use.
+ *
+ * @author peter.billen
+ *
+ */
+public final class DatabaseConnectionPoolManager {
+
+	private static final Map<String, DatabaseConnectionPool> pools = new ConcurrentHashMap<String, DatabaseConnectionPool>();
+	private static volatile DatabaseConnectionPoolSettings settings = new DatabaseConnectionPoolSettings();
+	private static ScheduledExecutorService evictionService;
+
+	private DatabaseConnectionPoolManager() {
+
+	}
+
+	public static synchronized void configure(DatabaseConnectionPoolSettings databaseConnectionPoolSettings) {
+		settings = databaseConnectionPoolSettings;
+	}
+
+	public static DatabaseConnectionPool getPool(String driver, String connectionURL, String userName,
+			String userPassword) {
+		String key = connectionURL + "|" + (userName == null ? "" : userName);
+		DatabaseConnectionPool databaseConnectionPool = pools.get(key);
+		if (databaseConnectionPool != null) {
+			return databaseConnectionPool;
+		}
+
+		try {
+			Class.forName(driver);
+		} catch (ClassNotFoundException e) {
+			System.out.println("JDBC Driver Not Available");
+			throw new RuntimeException(e.getMessage());
+		}
+
+		databaseConnectionPool = pools.computeIfAbsent(key,
+				k -> new DatabaseConnectionPool(connectionURL, userName, userPassword, settings));
+		startEvictionService();
+		return databaseConnectionPool;
+	}
+
+	public static void closePools(String connectionURLPrefix) {
+		List<DatabaseConnectionPool> closedPools = new ArrayList<DatabaseConnectionPool>();
+		Iterator<DatabaseConnectionPool> iterator = pools.values().iterator();
+		while (iterator.hasNext()) {
+			DatabaseConnectionPool databaseConnectionPool = iterator.next();
+			if (databaseConnectionPool.getConnectionURL().startsWith(connectionURLPrefix)) {
+				iterator.remove();
+				closedPools.add(databaseConnectionPool);
+			}
+		}
+
+		for (DatabaseConnectionPool databaseConnectionPool : closedPools) {
+			databaseConnectionPool.close();
+		}
+	}
+
+	public static synchronized void shutdown() {
+		if (evictionService != null) {
+			evictionService.shutdownNow();
+			evictionService = null;
+		}
+
+		Iterator<DatabaseConnectionPool> iterator = pools.values().iterator();
+		while (iterator.hasNext()) {
+			DatabaseConnectionPool databaseConnectionPool = iterator.next();
+			iterator.remove();
+			databaseConnectionPool.close();
+		}
+	}
+
+	private static synchronized void startEvictionService() {
+		if (evictionService != null) {
+			return;
+		}
+
+		evictionService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "iesi-database-pool-eviction");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = settings.getEvictionInterval();
+		evictionService.scheduleWithFixedDelay(() -> {
+			for (DatabaseConnectionPool databaseConnectionPool : pools.values()) {
+				try {
+					databaseConnectionPool.evictIdleConnections();
+					databaseConnectionPool.fillMinimumConnections();
+				} catch (RuntimeException e) {
+					// Keep the eviction service alive for the other pools
+				}
+			}
+		}, 0, interval, TimeUnit.MILLISECONDS);
+	}
+
+}
@@ -0,0 +1,90 @@
+package io.metadew.iesi.connection.database.pool;
+
+/**
+ * Settings applied to every database connection pool.
+ *
+ * @author peter.billen
+ *
+ */
+public class DatabaseConnectionPoolSettings {
+
+	private int minimumSize = 0;
+	private int maximumSize = 10;
+	private long idleTimeout = 300000;
+	private long borrowTimeout = 60000;
+	private long evictionInterval = 30000;
+	private boolean validateOnBorrow = true;
+	private int statementCacheSize = 50;
+
+	public DatabaseConnectionPoolSettings() {
+
+	}
+
+	public DatabaseConnectionPoolSettings(int minimumSize, int maximumSize, long idleTimeout, long borrowTimeout,
+			long evictionInterval, boolean validateOnBorrow) {
+		this.setMinimumSize(minimumSize);
+		this.setMaximumSize(maximumSize);
+		this.setIdleTimeout(idleTimeout);
+		this.setBorrowTimeout(borrowTimeout);
+		this.setEvictionInterval(evictionInterval);
+		this.setValidateOnBorrow(validateOnBorrow);
+	}
+
+	// Getters and Setters
+	public int getMinimumSize() {
+		return minimumSize;
+	}
+
+	public void setMinimumSize(int minimumSize) {
+		this.minimumSize = Math.max(0, minimumSize);
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	public void setMaximumSize(int maximumSize) {
+		this.maximumSize = Math.max(1, maximumSize);
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	public long getBorrowTimeout() {
+		return borrowTimeout;
+	}
+
+	public void setBorrowTimeout(long borrowTimeout) {
+		this.borrowTimeout = borrowTimeout;
+	}
+
+	public long getEvictionInterval() {
+		return evictionInterval;
+	}
+
+	public void setEvictionInterval(long evictionInterval) {
+		this.evictionInterval = evictionInterval;
+	}
+
+	public boolean isValidateOnBorrow() {
+		return validateOnBorrow;
+	}
+
+	public void setValidateOnBorrow(boolean validateOnBorrow) {
+		this.validateOnBorrow = validateOnBorrow;
+	}
+
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = Math.max(1, statementCacheSize);
+	}
+
+}
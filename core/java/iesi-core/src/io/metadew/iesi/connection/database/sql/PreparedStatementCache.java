@@ -0,0 +1,68 @@
+package io.metadew.iesi.connection.database.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the prepared statements of a single physical connection.
+ * A connection is only used by one thread at a time, so the cache is not synchronized.
+ *
+ * @author peter.billen
+ *
+ */
+public class PreparedStatementCache {
+
+	private Connection connection;
+	private LinkedHashMap<String, PreparedStatement> preparedStatements;
+
+	public PreparedStatementCache(Connection connection, int maximumSize) {
+		this.connection = connection;
+		this.preparedStatements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (this.size() > maximumSize) {
+					closeQuietly(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	// Methods
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		PreparedStatement preparedStatement = this.preparedStatements.get(sql);
+		if (preparedStatement != null && !preparedStatement.isClosed()) {
+			return preparedStatement;
+		}
+
+		preparedStatement = this.connection.prepareStatement(sql);
+		this.preparedStatements.put(sql, preparedStatement);
+		return preparedStatement;
+	}
+
+	public void close() {
+		for (PreparedStatement preparedStatement : this.preparedStatements.values()) {
+			closeQuietly(preparedStatement);
+		}
+		this.preparedStatements.clear();
+	}
+
+	private static void closeQuietly(PreparedStatement preparedStatement) {
+		try {
+			preparedStatement.close();
+		} catch (SQLException e) {
+			// The statement is discarded anyway
+		}
+	}
+
+	public int size() {
+		return this.preparedStatements.size();
+	}
+
+}
@@ -0,0 +1,118 @@
+package io.metadew.iesi.connection.database.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPool;
+
+/**
+ * Writer adding rows with one prepared statement in a single transaction.
+ * Rows are sent to the database in batches of the batch size and only become visible on commit.
+ * The writer holds a pooled connection until it is closed; closing without commit rolls back all rows and statements.
+ * The row statement is only prepared when the first row is added, so the table can be created in the same transaction.
+ *
+ * @author peter.billen
+ *
+ */
+public class SqlBatchWriter implements AutoCloseable {
+
+	private DatabaseConnectionPool databaseConnectionPool;
+	private Connection connection;
+	private String query;
+	private PreparedStatement preparedStatement;
+	private int batchSize;
+	private int pendingRowCount = 0;
+	private long rowCount = 0;
+	private boolean closed = false;
+
+	public SqlBatchWriter(DatabaseConnectionPool databaseConnectionPool, Connection connection, String query, int batchSize)
+			throws SQLException {
+		this.databaseConnectionPool = databaseConnectionPool;
+		this.connection = connection;
+		this.batchSize = Math.max(1, batchSize);
+		this.query = query;
+		this.connection.setAutoCommit(false);
+	}
+
+	// Methods
+	/**
+	 * Execute a single statement in the same transaction, for instance to clear the table before the rows are added.
+	 */
+	public int executeUpdate(String query, SqlParameter... sqlParameters) {
+		if (this.closed) {
+			throw new RuntimeException("Batch writer has been closed");
+		}
+		// Not taken from the statement cache, which could close the statement of the rows
+		try (PreparedStatement statement = this.connection.prepareStatement(query)) {
+			SqlParameter.bind(statement, sqlParameters);
+			return statement.executeUpdate();
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	public void addRow(SqlParameter... sqlParameters) {
+		if (this.closed) {
+			throw new RuntimeException("Batch writer has been closed");
+		}
+		try {
+			if (this.preparedStatement == null) {
+				this.preparedStatement = this.databaseConnectionPool.getPreparedStatementCache(this.connection)
+						.prepareStatement(this.query);
+			}
+			SqlParameter.bind(this.preparedStatement, sqlParameters);
+			this.preparedStatement.addBatch();
+			this.pendingRowCount++;
+			this.rowCount++;
+			if (this.pendingRowCount >= this.batchSize) {
+				this.flush();
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	public void commit() {
+		try {
+			this.flush();
+			this.connection.commit();
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	private void flush() throws SQLException {
+		if (this.pendingRowCount > 0 && this.preparedStatement != null) {
+			this.preparedStatement.executeBatch();
+			this.pendingRowCount = 0;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+
+		try {
+			if (this.preparedStatement != null) {
+				this.preparedStatement.clearBatch();
+			}
+		} catch (SQLException e) {
+			// Uncommitted rows are rolled back by the pool
+		}
+		this.databaseConnectionPool.releaseConnection(this.connection);
+	}
+
+	// Getters and Setters
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+}
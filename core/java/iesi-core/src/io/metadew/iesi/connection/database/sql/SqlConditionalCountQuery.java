@@ -0,0 +1,102 @@
+package io.metadew.iesi.connection.database.sql;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.rowset.CachedRowSet;
+
+import io.metadew.iesi.connection.DatabaseConnection;
+
+/**
+ * Query counting the rows of a table that meet each of a number of conditions.
+ * All counts are computed by conditional aggregation, so the table is scanned once whatever the number of conditions.
+ *
+ * @author peter.billen
+ *
+ */
+public class SqlConditionalCountQuery {
+
+	private String tableName;
+	private String filter;
+	private List<String> names;
+	private List<String> conditions;
+
+	public SqlConditionalCountQuery(String tableName) {
+		this.tableName = tableName;
+		this.filter = "";
+		this.names = new ArrayList<String>();
+		this.conditions = new ArrayList<String>();
+	}
+
+	// Methods
+	/**
+	 * Add a count of the rows meeting the condition, returned under the name.
+	 */
+	public void addCount(String name, String condition) {
+		this.names.add(name);
+		this.conditions.add(condition);
+	}
+
+	public String getQuery() {
+		if (this.conditions.isEmpty()) {
+			throw new RuntimeException("No counts have been defined for table " + this.tableName);
+		}
+
+		StringBuilder query = new StringBuilder("select ");
+		for (int i = 0; i < this.conditions.size(); i++) {
+			if (i > 0) {
+				query.append(", ");
+			}
+			// Aliases are generated as names do not need to be valid identifiers
+			query.append("sum(case when (").append(this.conditions.get(i)).append(") then 1 else 0 end) as \"CNT_")
+					.append(i).append("\"");
+		}
+		query.append(" from ").append(this.tableName);
+		if (!this.filter.isEmpty()) {
+			query.append(" where ").append(this.filter);
+		}
+		return query.toString();
+	}
+
+	/**
+	 * Run the query and return the counts by name, in the order they were added.
+	 */
+	public Map<String, Long> execute(DatabaseConnection databaseConnection) {
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		CachedRowSet crs = databaseConnection.executeQuery(this.getQuery());
+		try {
+			boolean found = crs.next();
+			for (int i = 0; i < this.names.size(); i++) {
+				// The sum is null when no rows pass the filter
+				counts.put(this.names.get(i), found ? crs.getLong(i + 1) : 0L);
+			}
+			crs.close();
+		} catch (Exception e) {
+			StringWriter StackTrace = new StringWriter();
+			e.printStackTrace(new PrintWriter(StackTrace));
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		return counts;
+	}
+
+	// Getters and Setters
+	public String getTableName() {
+		return tableName;
+	}
+
+	public String getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Restrict the rows that are counted, for all counts.
+	 */
+	public void setFilter(String filter) {
+		this.filter = filter == null ? "" : filter.trim();
+	}
+
+}
@@ -0,0 +1,87 @@
+package io.metadew.iesi.connection.database.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * Typed value bound to a parameter marker of a prepared statement.
+ *
+ * @author peter.billen
+ *
+ */
+public class SqlParameter {
+
+	private int sqlType;
+	private Object value;
+
+	private SqlParameter(int sqlType, Object value) {
+		this.sqlType = sqlType;
+		this.value = value;
+	}
+
+	// Binders
+	public static SqlParameter ofString(String value) {
+		return new SqlParameter(Types.VARCHAR, value);
+	}
+
+	public static SqlParameter ofInteger(int value) {
+		return new SqlParameter(Types.INTEGER, value);
+	}
+
+	public static SqlParameter ofLong(long value) {
+		return new SqlParameter(Types.BIGINT, value);
+	}
+
+	public static SqlParameter ofLong(Long value) {
+		return new SqlParameter(Types.BIGINT, value);
+	}
+
+	public static SqlParameter ofTimestamp(Timestamp value) {
+		return new SqlParameter(Types.TIMESTAMP, value);
+	}
+
+	public static SqlParameter ofNull(int sqlType) {
+		return new SqlParameter(sqlType, null);
+	}
+
+	// Methods
+	public void bind(PreparedStatement preparedStatement, int index) throws SQLException {
+		if (this.value == null) {
+			preparedStatement.setNull(index, this.sqlType);
+			return;
+		}
+
+		switch (this.sqlType) {
+		case Types.INTEGER:
+			preparedStatement.setInt(index, (Integer) this.value);
+			break;
+		case Types.BIGINT:
+			preparedStatement.setLong(index, (Long) this.value);
+			break;
+		case Types.TIMESTAMP:
+			preparedStatement.setTimestamp(index, (Timestamp) this.value);
+			break;
+		default:
+			preparedStatement.setString(index, (String) this.value);
+		}
+	}
+
+	public static void bind(PreparedStatement preparedStatement, SqlParameter... sqlParameters) throws SQLException {
+		preparedStatement.clearParameters();
+		for (int i = 0; i < sqlParameters.length; i++) {
+			sqlParameters[i].bind(preparedStatement, i + 1);
+		}
+	}
+
+	// Getters and Setters
+	public int getSqlType() {
+		return sqlType;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+}
@@ -0,0 +1,122 @@
+package io.metadew.iesi.connection.database.sql;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPool;
+
+/**
+ * Forward-only cursor over the result of a query on a database.
+ * Rows are fetched from the database while they are read, in blocks of the fetch size.
+ * The cursor holds a pooled connection until it is closed.
+ *
+ * @author peter.billen
+ *
+ */
+public class SqlResultCursor implements AutoCloseable {
+
+	private DatabaseConnectionPool databaseConnectionPool;
+	private Connection connection;
+	private Statement statement;
+	private ResultSet resultSet;
+	private long rowNumber = 0;
+	private boolean closed = false;
+
+	public SqlResultCursor(DatabaseConnectionPool databaseConnectionPool, Connection connection, Statement statement,
+			ResultSet resultSet) {
+		this.databaseConnectionPool = databaseConnectionPool;
+		this.connection = connection;
+		this.statement = statement;
+		this.resultSet = resultSet;
+	}
+
+	// Methods
+	public boolean next() {
+		try {
+			if (this.closed || !this.resultSet.next()) {
+				return false;
+			}
+			this.rowNumber++;
+			return true;
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	public ResultSetMetaData getMetaData() {
+		try {
+			return this.resultSet.getMetaData();
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	public int getColumnCount() {
+		try {
+			return this.resultSet.getMetaData().getColumnCount();
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	public String getString(int columnIndex) {
+		try {
+			return this.resultSet.getString(columnIndex);
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	public String getString(String columnLabel) {
+		try {
+			return this.resultSet.getString(columnLabel);
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	public Object getObject(int columnIndex) {
+		try {
+			return this.resultSet.getObject(columnIndex);
+		} catch (SQLException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+
+		try {
+			this.resultSet.close();
+		} catch (SQLException e) {
+			// Closing the statement releases the result set as well
+		}
+		try {
+			this.statement.close();
+		} catch (SQLException e) {
+			// The connection is still returned to the pool
+		}
+		this.databaseConnectionPool.releaseConnection(this.connection);
+	}
+
+	// Getters and Setters
+	public ResultSet getResultSet() {
+		return resultSet;
+	}
+
+	public long getRowNumber() {
+		return rowNumber;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+}
@@ -0,0 +1,318 @@
+package io.metadew.iesi.connection.elasticsearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.logging.log4j.Level;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.metadew.iesi.connection.ElasticsearchConnection;
+import io.metadew.iesi.framework.execution.FrameworkLog;
+
+/**
+ * Indexes documents in Elasticsearch in the background using the bulk api.
+ * Documents are queued and sent by a single thread when the batch size is reached or the flush
+ * interval has passed since the oldest unsent document was queued. A failing bulk request is retried
+ * with an exponential backoff; documents that could not be indexed are counted and logged as errors.
+ * When the queue is full, new documents are either dropped or the caller waits for room in the queue.
+ * Closing sends every document queued before the close; documents indexed afterwards are dropped.
+ *
+ * @author peter.billen
+ *
+ */
+public class ElasticsearchBulkIndexer {
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ElasticsearchConnection elasticsearchConnection;
+	private final FrameworkLog frameworkLog;
+	private final BlockingQueue<IndexRequest> indexRequests;
+	private final int batchSize;
+	private final long flushInterval;
+	private final boolean blockWhenFull;
+	private final int retryCount;
+	private final long retryBackoff;
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private volatile String lastError;
+	private final Thread indexerThread;
+	// Queuing holds the read lock, so no document is queued once close holds the write lock
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+	private volatile boolean closed = false;
+
+	public ElasticsearchBulkIndexer(ElasticsearchConnection elasticsearchConnection, int queueSize, int batchSize,
+			long flushInterval, boolean blockWhenFull, int retryCount, long retryBackoff) {
+		this(elasticsearchConnection, null, queueSize, batchSize, flushInterval, blockWhenFull, retryCount, retryBackoff);
+	}
+
+	public ElasticsearchBulkIndexer(ElasticsearchConnection elasticsearchConnection, FrameworkLog frameworkLog,
+			int queueSize, int batchSize, long flushInterval, boolean blockWhenFull, int retryCount, long retryBackoff) {
+		this.elasticsearchConnection = elasticsearchConnection;
+		this.frameworkLog = frameworkLog;
+		this.indexRequests = new ArrayBlockingQueue<IndexRequest>(Math.max(queueSize, 1));
+		this.batchSize = Math.max(batchSize, 1);
+		this.flushInterval = Math.max(flushInterval, 1);
+		this.blockWhenFull = blockWhenFull;
+		this.retryCount = Math.max(retryCount, 0);
+		this.retryBackoff = Math.max(retryBackoff, 0);
+		this.indexerThread = new Thread(this::run, "iesi-elasticsearch-bulk-indexer");
+		this.indexerThread.setDaemon(true);
+		ElasticsearchConnection.acquireHttpClient();
+		this.indexerThread.start();
+	}
+
+	// Methods
+	/**
+	 * Queue a document for indexing. Returns false if the document was dropped because the queue is full.
+	 */
+	public boolean index(String index, String identifier, String document) {
+		this.closeLock.readLock().lock();
+		try {
+			if (this.closed) {
+				this.droppedCount.incrementAndGet();
+				return false;
+			}
+
+			IndexRequest indexRequest = new IndexRequest(index, identifier, document, null);
+			if (this.blockWhenFull) {
+				try {
+					this.indexRequests.put(indexRequest);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					this.droppedCount.incrementAndGet();
+					return false;
+				}
+			} else if (!this.indexRequests.offer(indexRequest)) {
+				this.droppedCount.incrementAndGet();
+				return false;
+			}
+			return true;
+		} finally {
+			this.closeLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Wait until all documents queued so far have been sent.
+	 */
+	public void flush() {
+		if (this.closed) {
+			return;
+		}
+		this.awaitSent();
+	}
+
+	/**
+	 * Stop accepting documents, send the documents already queued and release the http client.
+	 */
+	public void close() {
+		this.closeLock.writeLock().lock();
+		try {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+		} finally {
+			this.closeLock.writeLock().unlock();
+		}
+
+		this.awaitSent();
+		this.indexerThread.interrupt();
+		try {
+			this.indexerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		ElasticsearchConnection.releaseHttpClient();
+	}
+
+	private void awaitSent() {
+		CountDownLatch flushed = new CountDownLatch(1);
+		try {
+			// A flush always waits for room, also when documents are dropped on a full queue
+			this.indexRequests.put(new IndexRequest(null, null, null, flushed));
+			flushed.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void run() {
+		List<IndexRequest> pendingRequests = new ArrayList<IndexRequest>();
+		long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(this.flushInterval);
+		long deadline = 0;
+		while (true) {
+			try {
+				// The batch is sent at the latest one flush interval after its first document was queued
+				long timeout = pendingRequests.isEmpty() ? flushIntervalNanos : deadline - System.nanoTime();
+				IndexRequest indexRequest = timeout > 0 ? this.indexRequests.poll(timeout, TimeUnit.NANOSECONDS)
+						: this.indexRequests.poll();
+				if (indexRequest != null) {
+					if (pendingRequests.isEmpty()) {
+						deadline = System.nanoTime() + flushIntervalNanos;
+					}
+					pendingRequests.add(indexRequest);
+					this.indexRequests.drainTo(pendingRequests, this.batchSize - pendingRequests.size());
+				}
+				if (!pendingRequests.isEmpty() && (pendingRequests.size() >= this.batchSize
+						|| this.containsFlush(pendingRequests) || System.nanoTime() - deadline >= 0)) {
+					this.sendRequests(pendingRequests);
+				}
+			} catch (InterruptedException e) {
+				// Interrupted by close once the queued documents have been sent
+				return;
+			}
+		}
+	}
+
+	private boolean containsFlush(List<IndexRequest> pendingRequests) {
+		for (IndexRequest indexRequest : pendingRequests) {
+			if (indexRequest.getFlushed() != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void sendRequests(List<IndexRequest> pendingRequests) throws InterruptedException {
+		StringBuilder bulkRequest = new StringBuilder();
+		int documentCount = 0;
+		for (IndexRequest indexRequest : pendingRequests) {
+			if (indexRequest.getFlushed() != null) {
+				this.send(bulkRequest.toString(), documentCount);
+				bulkRequest.setLength(0);
+				documentCount = 0;
+				indexRequest.getFlushed().countDown();
+				continue;
+			}
+
+			ObjectNode action = objectMapper.createObjectNode();
+			ObjectNode metadata = action.putObject("index");
+			metadata.put("_index", indexRequest.getIndex());
+			if (indexRequest.getIdentifier() != null) {
+				metadata.put("_id", indexRequest.getIdentifier());
+			}
+			bulkRequest.append(action.toString()).append('\n');
+			bulkRequest.append(indexRequest.getDocument()).append('\n');
+			documentCount++;
+		}
+		this.send(bulkRequest.toString(), documentCount);
+		pendingRequests.clear();
+	}
+
+	private void send(String bulkRequest, int documentCount) throws InterruptedException {
+		if (bulkRequest.isEmpty()) {
+			return;
+		}
+
+		for (int attempt = 0;; attempt++) {
+			String response;
+			try {
+				response = this.elasticsearchConnection.bulk(bulkRequest);
+			} catch (Exception e) {
+				if (attempt >= this.retryCount) {
+					this.fail(documentCount, "elasticsearch.bulk.error=" + e.getMessage());
+					return;
+				}
+				Thread.sleep(this.retryBackoff << attempt);
+				continue;
+			}
+
+			if (response != null) {
+				this.checkItems(response);
+			}
+			return;
+		}
+	}
+
+	/*
+	 * A bulk request can succeed while some of its documents were rejected
+	 */
+	private void checkItems(String response) {
+		try {
+			JsonNode result = objectMapper.readTree(response);
+			if (!result.path("errors").asBoolean(false)) {
+				return;
+			}
+			int failedItemCount = 0;
+			String error = "";
+			for (JsonNode item : result.path("items")) {
+				JsonNode itemError = item.path("index").path("error");
+				if (!itemError.isMissingNode() && !itemError.isNull()) {
+					failedItemCount++;
+					error = itemError.toString();
+				}
+			}
+			this.fail(failedItemCount, "elasticsearch.bulk.item.error=" + error);
+		} catch (Exception e) {
+			this.fail(0, "elasticsearch.bulk.response.error=" + e.getMessage());
+		}
+	}
+
+	private void fail(int documentCount, String message) {
+		this.failedCount.addAndGet(documentCount);
+		this.lastError = message;
+		if (this.frameworkLog != null) {
+			this.frameworkLog.log(message + " (" + documentCount + " documents)", Level.ERROR);
+		}
+	}
+
+	// Getters and Setters
+	public long getDroppedCount() {
+		return this.droppedCount.get();
+	}
+
+	/**
+	 * Get the number of documents that could not be indexed after all retries.
+	 */
+	public long getFailedCount() {
+		return this.failedCount.get();
+	}
+
+	public String getLastError() {
+		return this.lastError;
+	}
+
+	private static class IndexRequest {
+
+		private final String index;
+		private final String identifier;
+		private final String document;
+		private final CountDownLatch flushed;
+
+		private IndexRequest(String index, String identifier, String document, CountDownLatch flushed) {
+			this.index = index;
+			this.identifier = identifier;
+			this.document = document;
+			this.flushed = flushed;
+		}
+
+		public String getIndex() {
+			return index;
+		}
+
+		public String getIdentifier() {
+			return identifier;
+		}
+
+		public String getDocument() {
+			return document;
+		}
+
+		public CountDownLatch getFlushed() {
+			return flushed;
+		}
+
+	}
+
+}
@@ -0,0 +1,131 @@
+package io.metadew.iesi.connection.host.pool;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+/**
+ * Authenticated ssh session to a host, together with the jump host sessions it is tunneled through.
+ * Channels are opened on the target session; the pool keeps track of how many are in use.
+ * Sftp channels can be given back to the session to be reused by the next file transfer.
+ *
+ * @author peter.billen
+ *
+ */
+public class HostSession {
+
+	private final Session[] sessions;
+	private final Deque<ChannelSftp> idleSftpChannels = new ArrayDeque<ChannelSftp>();
+	private int channelCount = 0;
+	private long lastUsed;
+	private boolean broken = false;
+
+	public HostSession(Session[] sessions) {
+		this.sessions = sessions;
+		this.lastUsed = System.currentTimeMillis();
+	}
+
+	// Methods
+	public Session getSession() {
+		return this.sessions[this.sessions.length - 1];
+	}
+
+	public boolean isConnected() {
+		for (Session session : this.sessions) {
+			if (!session.isConnected()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Health check of an idle session, a failing keep-alive message means the connection is gone
+	 */
+	public boolean sendKeepAlive() {
+		try {
+			for (Session session : this.sessions) {
+				session.sendKeepAliveMsg();
+			}
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Get a connected sftp channel, reusing one released by a previous transfer if possible.
+	 */
+	public ChannelSftp openSftpChannel() throws JSchException {
+		ChannelSftp channelSftp;
+		while ((channelSftp = this.pollIdleSftpChannel()) != null) {
+			if (channelSftp.isConnected()) {
+				return channelSftp;
+			}
+		}
+
+		channelSftp = (ChannelSftp) this.getSession().openChannel("sftp");
+		channelSftp.connect();
+		return channelSftp;
+	}
+
+	/**
+	 * Keep the sftp channel open for reuse. Release the channel before releasing the session to the pool.
+	 */
+	public void releaseSftpChannel(ChannelSftp channelSftp, boolean reusable) {
+		synchronized (this) {
+			if (reusable && channelSftp.isConnected()) {
+				this.idleSftpChannels.offerFirst(channelSftp);
+				return;
+			}
+		}
+		channelSftp.disconnect();
+	}
+
+	synchronized ChannelSftp pollIdleSftpChannel() {
+		return this.idleSftpChannels.pollFirst();
+	}
+
+	synchronized int getIdleChannelCount() {
+		return this.idleSftpChannels.size();
+	}
+
+	public void disconnect() {
+		for (int i = this.sessions.length - 1; i >= 0; i--) {
+			this.sessions[i].disconnect();
+		}
+	}
+
+	// Getters and Setters
+	Session[] getSessions() {
+		return sessions;
+	}
+
+	int getChannelCount() {
+		return channelCount;
+	}
+
+	void setChannelCount(int channelCount) {
+		this.channelCount = channelCount;
+	}
+
+	long getLastUsed() {
+		return lastUsed;
+	}
+
+	void setLastUsed(long lastUsed) {
+		this.lastUsed = lastUsed;
+	}
+
+	boolean isBroken() {
+		return broken;
+	}
+
+	void setBroken(boolean broken) {
+		this.broken = broken;
+	}
+
+}
@@ -0,0 +1,16 @@
+package io.metadew.iesi.connection.host.pool;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+/**
+ * Opens the ssh sessions of a pool key: the jump hosts in order, followed by the target host.
+ *
+ * @author peter.billen
+ *
+ */
+public interface HostSessionFactory {
+
+	public Session[] createSessions() throws JSchException;
+
+}
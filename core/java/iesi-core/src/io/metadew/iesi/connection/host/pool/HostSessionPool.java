@@ -0,0 +1,229 @@
+package io.metadew.iesi.connection.host.pool;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+/**
+ * Pool of authenticated ssh sessions for a single host, port, user and jump host chain.
+ * A session is shared by several channels up to the maximum number of channels; new sessions are only
+ * opened when all sessions are fully used, up to the maximum number of sessions.
+ *
+ * @author peter.billen
+ *
+ */
+public class HostSessionPool {
+
+	private String key;
+	private int maximumSessions;
+	private int maximumChannels;
+	private long idleTimeout;
+	private long borrowTimeout;
+	private int keepAliveInterval;
+
+	private final List<HostSession> hostSessions = new ArrayList<HostSession>();
+	private int openingCount = 0;
+	private boolean closed = false;
+
+	public HostSessionPool(String key, HostSessionPoolSettings settings) {
+		this.key = key;
+		this.maximumSessions = settings.getMaximumSessions();
+		this.maximumChannels = settings.getMaximumChannels();
+		this.idleTimeout = settings.getIdleTimeout();
+		this.borrowTimeout = settings.getBorrowTimeout();
+		this.keepAliveInterval = settings.getKeepAliveInterval();
+	}
+
+	// Methods
+	/**
+	 * Reserve a channel on a connected session, opening a new session with the factory if needed.
+	 * Every borrowed session needs to be released once its channel is closed.
+	 */
+	public HostSession borrowSession(HostSessionFactory hostSessionFactory) throws JSchException {
+		long deadline = System.currentTimeMillis() + this.borrowTimeout;
+		List<HostSession> brokenSessions = new ArrayList<HostSession>();
+		Channel surplusChannel = null;
+		try {
+			synchronized (this) {
+				while (true) {
+					if (this.closed) {
+						throw new JSchException("Session pool closed for " + this.key);
+					}
+
+					Iterator<HostSession> iterator = this.hostSessions.iterator();
+					while (iterator.hasNext()) {
+						HostSession hostSession = iterator.next();
+						if (!hostSession.isConnected()) {
+							iterator.remove();
+							hostSession.setBroken(true);
+							if (hostSession.getChannelCount() == 0) {
+								brokenSessions.add(hostSession);
+							}
+						} else if (hostSession.getChannelCount() < this.maximumChannels) {
+							hostSession.setChannelCount(hostSession.getChannelCount() + 1);
+							// Channels kept open for reuse count as well
+							if (hostSession.getChannelCount() + hostSession.getIdleChannelCount() > this.maximumChannels) {
+								surplusChannel = hostSession.pollIdleSftpChannel();
+							}
+							return hostSession;
+						}
+					}
+
+					if (this.hostSessions.size() + this.openingCount < this.maximumSessions) {
+						this.openingCount++;
+						break;
+					}
+
+					long wait = deadline - System.currentTimeMillis();
+					if (wait <= 0) {
+						throw new JSchException("No ssh session available in pool for " + this.key + " within "
+								+ this.borrowTimeout + " ms");
+					}
+					try {
+						this.wait(wait);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new JSchException("Interrupted while waiting for a pooled ssh session", e);
+					}
+				}
+			}
+		} finally {
+			if (surplusChannel != null) {
+				surplusChannel.disconnect();
+			}
+			for (HostSession hostSession : brokenSessions) {
+				hostSession.disconnect();
+			}
+		}
+
+		return this.openSession(hostSessionFactory);
+	}
+
+	/**
+	 * Give back the channel reserved on the session. Sessions that are not reusable are disconnected once
+	 * their last channel is released.
+	 */
+	public void releaseSession(HostSession hostSession, boolean reusable) {
+		boolean disconnect = false;
+		synchronized (this) {
+			hostSession.setChannelCount(Math.max(hostSession.getChannelCount() - 1, 0));
+			hostSession.setLastUsed(System.currentTimeMillis());
+			if (!reusable || this.closed || !hostSession.isConnected()) {
+				this.hostSessions.remove(hostSession);
+				hostSession.setBroken(true);
+			}
+			disconnect = hostSession.isBroken() && hostSession.getChannelCount() == 0;
+			this.notifyAll();
+		}
+
+		if (disconnect) {
+			hostSession.disconnect();
+		}
+	}
+
+	/**
+	 * Disconnect sessions without channels that have been idle for too long, and check the others with a keep-alive.
+	 */
+	public void evictIdleSessions() {
+		List<HostSession> idleSessions = new ArrayList<HostSession>();
+		List<HostSession> evictedSessions = new ArrayList<HostSession>();
+		long now = System.currentTimeMillis();
+		synchronized (this) {
+			Iterator<HostSession> iterator = this.hostSessions.iterator();
+			while (iterator.hasNext()) {
+				HostSession hostSession = iterator.next();
+				if (hostSession.getChannelCount() > 0) {
+					continue;
+				}
+				if (now - hostSession.getLastUsed() >= this.idleTimeout || !hostSession.isConnected()) {
+					iterator.remove();
+					hostSession.setBroken(true);
+					evictedSessions.add(hostSession);
+				} else {
+					idleSessions.add(hostSession);
+				}
+			}
+		}
+
+		for (HostSession hostSession : idleSessions) {
+			if (!hostSession.sendKeepAlive()) {
+				synchronized (this) {
+					if (hostSession.getChannelCount() > 0 || !this.hostSessions.remove(hostSession)) {
+						continue;
+					}
+					hostSession.setBroken(true);
+				}
+				evictedSessions.add(hostSession);
+			}
+		}
+
+		for (HostSession hostSession : evictedSessions) {
+			hostSession.disconnect();
+		}
+	}
+
+	public void close() {
+		List<HostSession> idleSessions = new ArrayList<HostSession>();
+		synchronized (this) {
+			this.closed = true;
+			for (HostSession hostSession : this.hostSessions) {
+				hostSession.setBroken(true);
+				if (hostSession.getChannelCount() == 0) {
+					idleSessions.add(hostSession);
+				}
+			}
+			this.hostSessions.clear();
+			this.notifyAll();
+		}
+
+		for (HostSession hostSession : idleSessions) {
+			hostSession.disconnect();
+		}
+	}
+
+	private HostSession openSession(HostSessionFactory hostSessionFactory) throws JSchException {
+		HostSession hostSession = null;
+		boolean added = false;
+		try {
+			hostSession = new HostSession(hostSessionFactory.createSessions());
+			for (Session session : hostSession.getSessions()) {
+				session.setServerAliveInterval(this.keepAliveInterval);
+			}
+		} catch (JSchException | RuntimeException e) {
+			if (hostSession != null) {
+				hostSession.disconnect();
+			}
+			hostSession = null;
+			throw e;
+		} finally {
+			synchronized (this) {
+				this.openingCount--;
+				if (hostSession != null && !this.closed) {
+					hostSession.setChannelCount(1);
+					this.hostSessions.add(hostSession);
+					added = true;
+				}
+				this.notifyAll();
+			}
+		}
+
+		if (!added) {
+			hostSession.disconnect();
+			throw new JSchException("Session pool closed for " + this.key);
+		}
+		return hostSession;
+	}
+
+	public synchronized int getSessionCount() {
+		return this.hostSessions.size();
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+}
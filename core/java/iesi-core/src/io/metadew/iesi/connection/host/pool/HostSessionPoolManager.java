@@ -0,0 +1,78 @@
+package io.metadew.iesi.connection.host.pool;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the ssh session pools shared by all host connection objects.
+ * Pools are keyed on the chain of user, host and port from the first jump host to the target host
+ * and created on first use.
+ *
+ * @author peter.billen
+ *
+ */
+public final class HostSessionPoolManager {
+
+	private static final Map<String, HostSessionPool> pools = new ConcurrentHashMap<String, HostSessionPool>();
+	private static volatile HostSessionPoolSettings settings = new HostSessionPoolSettings();
+	private static ScheduledExecutorService evictionService;
+
+	private HostSessionPoolManager() {
+
+	}
+
+	public static synchronized void configure(HostSessionPoolSettings hostSessionPoolSettings) {
+		settings = hostSessionPoolSettings;
+	}
+
+	public static HostSessionPool getPool(String key) {
+		HostSessionPool hostSessionPool = pools.computeIfAbsent(key, k -> new HostSessionPool(k, settings));
+		startEvictionService();
+		return hostSessionPool;
+	}
+
+	public static String getKey(String userName, String hostName, int portNumber) {
+		return userName + "@" + hostName + ":" + portNumber;
+	}
+
+	public static synchronized void shutdown() {
+		if (evictionService != null) {
+			evictionService.shutdownNow();
+			evictionService = null;
+		}
+
+		Iterator<HostSessionPool> iterator = pools.values().iterator();
+		while (iterator.hasNext()) {
+			HostSessionPool hostSessionPool = iterator.next();
+			iterator.remove();
+			hostSessionPool.close();
+		}
+	}
+
+	private static synchronized void startEvictionService() {
+		if (evictionService != null) {
+			return;
+		}
+
+		evictionService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "iesi-host-session-eviction");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = settings.getEvictionInterval();
+		evictionService.scheduleWithFixedDelay(() -> {
+			for (HostSessionPool hostSessionPool : pools.values()) {
+				try {
+					hostSessionPool.evictIdleSessions();
+				} catch (RuntimeException e) {
+					// Keep the eviction service alive for the other pools
+				}
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+}
@@ -0,0 +1,81 @@
+package io.metadew.iesi.connection.host.pool;
+
+/**
+ * Settings applied to every ssh session pool.
+ *
+ * @author peter.billen
+ *
+ */
+public class HostSessionPoolSettings {
+
+	private int maximumSessions = 2;
+	private int maximumChannels = 8;
+	private long idleTimeout = 300000;
+	private long borrowTimeout = 60000;
+	private long evictionInterval = 30000;
+	private int keepAliveInterval = 30000;
+
+	public HostSessionPoolSettings() {
+
+	}
+
+	public HostSessionPoolSettings(int maximumSessions, int maximumChannels, long idleTimeout, long borrowTimeout,
+			long evictionInterval, int keepAliveInterval) {
+		this.setMaximumSessions(maximumSessions);
+		this.setMaximumChannels(maximumChannels);
+		this.setIdleTimeout(idleTimeout);
+		this.setBorrowTimeout(borrowTimeout);
+		this.setEvictionInterval(evictionInterval);
+		this.setKeepAliveInterval(keepAliveInterval);
+	}
+
+	// Getters and Setters
+	public int getMaximumSessions() {
+		return maximumSessions;
+	}
+
+	public void setMaximumSessions(int maximumSessions) {
+		this.maximumSessions = Math.max(1, maximumSessions);
+	}
+
+	public int getMaximumChannels() {
+		return maximumChannels;
+	}
+
+	public void setMaximumChannels(int maximumChannels) {
+		this.maximumChannels = Math.max(1, maximumChannels);
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	public long getBorrowTimeout() {
+		return borrowTimeout;
+	}
+
+	public void setBorrowTimeout(long borrowTimeout) {
+		this.borrowTimeout = borrowTimeout;
+	}
+
+	public long getEvictionInterval() {
+		return evictionInterval;
+	}
+
+	public void setEvictionInterval(long evictionInterval) {
+		this.evictionInterval = evictionInterval;
+	}
+
+	public int getKeepAliveInterval() {
+		return keepAliveInterval;
+	}
+
+	public void setKeepAliveInterval(int keepAliveInterval) {
+		this.keepAliveInterval = Math.max(0, keepAliveInterval);
+	}
+
+}
@@ -20,6 +20,10 @@ public class HttpRequest
 
 	private HashMap<String, String> headerMap;
 
+	private int connectTimeout = -1;
+
+	private int readTimeout = -1;
+
 	// Constructor
 	public HttpRequest()
 	{
@@ -86,4 +90,24 @@ public class HttpRequest
 		this.headerMap = headerMap;
 	}
 
+	public int getConnectTimeout()
+	{
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(int connectTimeout)
+	{
+		this.connectTimeout = connectTimeout;
+	}
+
+	public int getReadTimeout()
+	{
+		return readTimeout;
+	}
+
+	public void setReadTimeout(int readTimeout)
+	{
+		this.readTimeout = readTimeout;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package io.metadew.iesi.connection.http.pool;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Http client with a pool of keep-alive connections, shared by all requests to one endpoint.
+ * Connections are returned to the pool once the response is closed and reused for the next request on the same route.
+ * Cookies are not kept, the client is shared by requests of unrelated scripts.
+ *
+ * @author peter.billen
+ *
+ */
+public class HttpClientPool
+{
+
+	private String key;
+
+	private HttpClientPoolSettings settings;
+
+	private PoolingHttpClientConnectionManager connectionManager;
+
+	private CloseableHttpClient httpClient;
+
+	// Constructor
+	public HttpClientPool(String key, HttpClientPoolSettings settings)
+	{
+		this.setKey(key);
+		this.setSettings(settings);
+
+		Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+					.register("http", PlainConnectionSocketFactory.getSocketFactory())
+					.register("https", createOverrideSSLCertificateVerification()).build();
+		this.setConnectionManager(new PoolingHttpClientConnectionManager(socketFactoryRegistry));
+		this.getConnectionManager().setMaxTotal(settings.getMaximumConnections());
+		this.getConnectionManager().setDefaultMaxPerRoute(settings.getMaximumConnectionsPerRoute());
+		// Check connections that were idle for a while before reusing them
+		this.getConnectionManager().setValidateAfterInactivity(2000);
+
+		this.setHttpClient(HttpClients.custom().setConnectionManager(this.getConnectionManager()).setConnectionManagerShared(true)
+					.setKeepAliveStrategy(new PoolKeepAliveStrategy(settings.getKeepAlive())).disableCookieManagement().build());
+	}
+
+	// Methods
+	public void evictIdleConnections()
+	{
+		this.getConnectionManager().closeExpiredConnections();
+		this.getConnectionManager().closeIdleConnections(this.getSettings().getIdleTimeout(), TimeUnit.MILLISECONDS);
+	}
+
+	public void close()
+	{
+		try
+		{
+			this.getHttpClient().close();
+		}
+		catch (IOException e)
+		{
+			// Nothing left to release
+		}
+		this.getConnectionManager().shutdown();
+	}
+
+	int getAvailableConnectionCount()
+	{
+		return this.getConnectionManager().getTotalStats().getAvailable();
+	}
+
+	/*
+	 * Keep a connection for the time the server allows, or for the configured keep-alive if the server does not tell
+	 */
+	private static class PoolKeepAliveStrategy implements ConnectionKeepAliveStrategy
+	{
+
+		private final long keepAlive;
+
+		private PoolKeepAliveStrategy(long keepAlive)
+		{
+			this.keepAlive = keepAlive;
+		}
+
+		@Override
+		public long getKeepAliveDuration(HttpResponse response, HttpContext context)
+		{
+			HeaderElementIterator iterator = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+			while (iterator.hasNext())
+			{
+				HeaderElement headerElement = iterator.nextElement();
+				if (headerElement.getName().equalsIgnoreCase("timeout") && headerElement.getValue() != null)
+				{
+					try
+					{
+						return Math.min(Long.parseLong(headerElement.getValue()) * 1000, this.keepAlive);
+					}
+					catch (NumberFormatException e)
+					{
+						// Use the configured keep-alive
+					}
+				}
+			}
+			return this.keepAlive;
+		}
+
+	}
+
+	private static SSLConnectionSocketFactory createOverrideSSLCertificateVerification()
+	{
+		TrustManager[] trustAllCerts = new TrustManager[]{new X509ExtendedTrustManager()
+		{
+			@Override
+			public void checkClientTrusted(java.security.cert.X509Certificate[] chain, String authType) throws CertificateException
+			{
+			}
+
+			@Override
+			public void checkServerTrusted(java.security.cert.X509Certificate[] chain, String authType) throws CertificateException
+			{
+			}
+
+			@Override
+			public java.security.cert.X509Certificate[] getAcceptedIssuers()
+			{
+				return null;
+			}
+
+			@Override
+			public void checkClientTrusted(java.security.cert.X509Certificate[] arg0, String arg1, Socket arg2)
+						throws CertificateException
+			{
+			}
+
+			@Override
+			public void checkClientTrusted(java.security.cert.X509Certificate[] arg0, String arg1, SSLEngine arg2)
+						throws CertificateException
+			{
+			}
+
+			@Override
+			public void checkServerTrusted(java.security.cert.X509Certificate[] arg0, String arg1, Socket arg2)
+						throws CertificateException
+			{
+			}
+
+			@Override
+			public void checkServerTrusted(java.security.cert.X509Certificate[] arg0, String arg1, SSLEngine arg2)
+						throws CertificateException
+			{
+			}
+		}};
+
+		SSLContext sslContext = null;
+		try
+		{
+			sslContext = SSLContext.getInstance("SSL");
+			sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
+		}
+		catch (KeyManagementException e)
+		{
+			e.printStackTrace();
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			e.printStackTrace();
+		}
+
+		// Hostname verification is disabled as well
+		HostnameVerifier allowAllHosts = new NoopHostnameVerifier();
+		return new SSLConnectionSocketFactory(sslContext, allowAllHosts);
+	}
+
+	// Getters and setters
+	public String getKey()
+	{
+		return key;
+	}
+
+	public void setKey(String key)
+	{
+		this.key = key;
+	}
+
+	public HttpClientPoolSettings getSettings()
+	{
+		return settings;
+	}
+
+	public void setSettings(HttpClientPoolSettings settings)
+	{
+		this.settings = settings;
+	}
+
+	public PoolingHttpClientConnectionManager getConnectionManager()
+	{
+		return connectionManager;
+	}
+
+	public void setConnectionManager(PoolingHttpClientConnectionManager connectionManager)
+	{
+		this.connectionManager = connectionManager;
+	}
+
+	public CloseableHttpClient getHttpClient()
+	{
+		return httpClient;
+	}
+
+	public void setHttpClient(CloseableHttpClient httpClient)
+	{
+		this.httpClient = httpClient;
+	}
+
+}
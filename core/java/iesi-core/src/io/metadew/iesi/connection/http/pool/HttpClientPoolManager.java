@@ -0,0 +1,112 @@
+package io.metadew.iesi.connection.http.pool;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the http client pools shared by all http connection objects.
+ * Pools are keyed on the endpoint of the request, scheme, host and port, and created on first use, so all requests
+ * to the same server share their connections. Expired and idle connections are closed in the background.
+ *
+ * @author peter.billen
+ *
+ */
+public final class HttpClientPoolManager
+{
+
+	private static final Map<String, HttpClientPool> pools = new ConcurrentHashMap<String, HttpClientPool>();
+
+	private static volatile HttpClientPoolSettings settings = new HttpClientPoolSettings();
+
+	private static ScheduledExecutorService evictionService;
+
+	private HttpClientPoolManager()
+	{
+
+	}
+
+	// Methods
+	public static synchronized void configure(HttpClientPoolSettings httpClientPoolSettings)
+	{
+		settings = httpClientPoolSettings;
+	}
+
+	public static HttpClientPoolSettings getSettings()
+	{
+		return settings;
+	}
+
+	public static HttpClientPool getPool(URI uri)
+	{
+		return getPool(getKey(uri));
+	}
+
+	public static HttpClientPool getPool(String key)
+	{
+		HttpClientPool httpClientPool = pools.computeIfAbsent(key, k -> new HttpClientPool(k, settings));
+		startEvictionService();
+		return httpClientPool;
+	}
+
+	public static synchronized void shutdown()
+	{
+		if (evictionService != null)
+		{
+			evictionService.shutdownNow();
+			evictionService = null;
+		}
+
+		Iterator<HttpClientPool> iterator = pools.values().iterator();
+		while (iterator.hasNext())
+		{
+			HttpClientPool httpClientPool = iterator.next();
+			iterator.remove();
+			httpClientPool.close();
+		}
+	}
+
+	private static String getKey(URI uri)
+	{
+		String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase();
+		int port = uri.getPort();
+		if (port < 0)
+		{
+			port = scheme.equals("https") ? 443 : 80;
+		}
+		return scheme + "://" + (uri.getHost() == null ? "" : uri.getHost().toLowerCase()) + ":" + port;
+	}
+
+	private static synchronized void startEvictionService()
+	{
+		if (evictionService != null)
+		{
+			return;
+		}
+
+		evictionService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "iesi-http-connection-eviction");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = settings.getEvictionInterval();
+		evictionService.scheduleWithFixedDelay(() -> {
+			for (HttpClientPool httpClientPool : pools.values())
+			{
+				try
+				{
+					httpClientPool.evictIdleConnections();
+				}
+				catch (RuntimeException e)
+				{
+					// Keep the eviction service alive for the other pools
+				}
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+}
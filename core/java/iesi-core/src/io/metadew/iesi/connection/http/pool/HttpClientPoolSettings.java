@@ -0,0 +1,116 @@
+package io.metadew.iesi.connection.http.pool;
+
+/**
+ * Settings applied to every http client pool.
+ * Timeouts and intervals are expressed in milliseconds.
+ *
+ * @author peter.billen
+ *
+ */
+public class HttpClientPoolSettings
+{
+
+	private int maximumConnections = 50;
+
+	private int maximumConnectionsPerRoute = 10;
+
+	private int connectTimeout = 30000;
+
+	private int readTimeout = 60000;
+
+	private long keepAlive = 30000;
+
+	private long idleTimeout = 60000;
+
+	private long evictionInterval = 30000;
+
+	// Constructor
+	public HttpClientPoolSettings()
+	{
+
+	}
+
+	public HttpClientPoolSettings(int maximumConnections, int maximumConnectionsPerRoute, int connectTimeout, int readTimeout,
+				long keepAlive, long idleTimeout, long evictionInterval)
+	{
+		this.setMaximumConnections(maximumConnections);
+		this.setMaximumConnectionsPerRoute(maximumConnectionsPerRoute);
+		this.setConnectTimeout(connectTimeout);
+		this.setReadTimeout(readTimeout);
+		this.setKeepAlive(keepAlive);
+		this.setIdleTimeout(idleTimeout);
+		this.setEvictionInterval(evictionInterval);
+	}
+
+	// Getters and setters
+	public int getMaximumConnections()
+	{
+		return maximumConnections;
+	}
+
+	public void setMaximumConnections(int maximumConnections)
+	{
+		this.maximumConnections = Math.max(1, maximumConnections);
+	}
+
+	public int getMaximumConnectionsPerRoute()
+	{
+		return maximumConnectionsPerRoute;
+	}
+
+	public void setMaximumConnectionsPerRoute(int maximumConnectionsPerRoute)
+	{
+		this.maximumConnectionsPerRoute = Math.max(1, maximumConnectionsPerRoute);
+	}
+
+	public int getConnectTimeout()
+	{
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(int connectTimeout)
+	{
+		this.connectTimeout = Math.max(0, connectTimeout);
+	}
+
+	public int getReadTimeout()
+	{
+		return readTimeout;
+	}
+
+	public void setReadTimeout(int readTimeout)
+	{
+		this.readTimeout = Math.max(0, readTimeout);
+	}
+
+	public long getKeepAlive()
+	{
+		return keepAlive;
+	}
+
+	public void setKeepAlive(long keepAlive)
+	{
+		this.keepAlive = Math.max(0, keepAlive);
+	}
+
+	public long getIdleTimeout()
+	{
+		return idleTimeout;
+	}
+
+	public void setIdleTimeout(long idleTimeout)
+	{
+		this.idleTimeout = Math.max(0, idleTimeout);
+	}
+
+	public long getEvictionInterval()
+	{
+		return evictionInterval;
+	}
+
+	public void setEvictionInterval(long evictionInterval)
+	{
+		this.evictionInterval = Math.max(1000, evictionInterval);
+	}
+
+}
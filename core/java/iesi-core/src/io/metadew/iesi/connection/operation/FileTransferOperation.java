@@ -1,24 +1,36 @@
 package io.metadew.iesi.connection.operation;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FilenameFilter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Level;
 
-import com.jcraft.jsch.Channel;
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
-import com.jcraft.jsch.Session;
-import com.jcraft.jsch.UserInfo;
+import com.jcraft.jsch.JSchException;
 
 import io.metadew.iesi.common.text.ParsingTools;
 import io.metadew.iesi.connection.HostConnection;
-import io.metadew.iesi.connection.host.LinuxHostUserInfo;
+import io.metadew.iesi.connection.host.ShellCommandResult;
 import io.metadew.iesi.connection.host.ShellCommandSettings;
-import io.metadew.iesi.connection.operation.filetransfer.FileToTransfer;
+import io.metadew.iesi.connection.host.pool.HostSession;
+import io.metadew.iesi.connection.host.pool.HostSessionFactory;
+import io.metadew.iesi.connection.host.pool.HostSessionPool;
 import io.metadew.iesi.connection.operation.filetransfer.FileTransferResult;
 import io.metadew.iesi.connection.operation.filetransfer.FileTransfered;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
@@ -33,33 +45,18 @@ public class FileTransferOperation {
 	}
 
 	// File Transfer
-	@SuppressWarnings({ "rawtypes", "unchecked", "unused" })
+	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public FileTransferResult transferLocalToRemote(String sourceFilePath, String sourceFileName,
 			Connection sourceConnection, String targetFilePath, String targetFileName,
 			Connection targetConnection) {
 
 		List<FileTransfered> fileTransferedList = new ArrayList();
 		ConnectionOperation connectionOperation = new ConnectionOperation(this.getFrameworkExecution());
-		HostConnection sourceConnectionConnection = connectionOperation.getHostConnection(sourceConnection);
 		this.getFrameworkExecution().getFrameworkLog().log("fho.transfer.source.connection=" + sourceConnection.getName(), Level.TRACE);
 		HostConnection targetConnectionConnection = connectionOperation.getHostConnection(targetConnection);
 		this.getFrameworkExecution().getFrameworkLog().log("fho.transfer.target.connection=" + targetConnection.getName(), Level.TRACE);
 
 		try {
-			String filepath = sourceFilePath + File.separator + sourceFileName;
-			JSch jsch = new JSch();
-			Session session = jsch.getSession(targetConnectionConnection.getUserName(),
-					targetConnectionConnection.getHostName(), targetConnectionConnection.getPortNumber());
-			session.setConfig("StrictHostKeyChecking", "no");
-			UserInfo ui = new LinuxHostUserInfo(targetConnectionConnection.getUserPassword());
-			session.setUserInfo(ui);
-			session.connect();
-			Channel channel = session.openChannel("sftp");
-			channel.connect();
-			ChannelSftp c = (ChannelSftp) channel;
-
-			c.lcd(sourceFilePath);
-			c.cd(targetFilePath);
 			final File folder = new File(sourceFilePath);
 
 			if (sourceFileName.equals("*")) {
@@ -67,35 +64,25 @@ public class FileTransferOperation {
 					if (file.isDirectory()) {
 						// Ignore
 					} else {
-						c.put(file.getName(), file.getName());
-						FileTransfered fileTransfered = new FileTransfered(sourceFilePath, file.getName(),
-								targetFilePath, file.getName());
-						this.getFrameworkExecution().getFrameworkLog().log(fileTransfered, Level.TRACE);
-						fileTransferedList.add(fileTransfered);
-						filepath = sourceFilePath + File.separator + file.getName();
+						fileTransferedList.add(new FileTransfered(sourceFilePath, file.getName(),
+								targetFilePath, file.getName()));
 					}
 				}
 			} else if (ParsingTools.isRegexFunction(sourceFileName)) {
 				final String file_filter = ParsingTools.getRegexFunctionValue(sourceFileName);
-				//final String file_filter = ".+\\.csv";
 				final File[] files = folder.listFiles(new FilenameFilter() {
 					@Override
 					public boolean accept(final File dir, final String name) {
 						return name.matches(file_filter);
 					}
 				});
-				// .+\\.vsd
 
 				for (final File file : files) {
 					if (file.isDirectory()) {
 						// Ignore
 					} else {
-						c.put(file.getName(), file.getName());
-						FileTransfered fileTransfered = new FileTransfered(sourceFilePath, file.getName(),
-								targetFilePath, file.getName());
-						this.getFrameworkExecution().getFrameworkLog().log(fileTransfered, Level.TRACE);
-						fileTransferedList.add(fileTransfered);
-						filepath = sourceFilePath + File.separator + file.getName();
+						fileTransferedList.add(new FileTransfered(sourceFilePath, file.getName(),
+								targetFilePath, file.getName()));
 					}
 				}
 			} else {
@@ -107,34 +94,23 @@ public class FileTransferOperation {
 						return name.contentEquals(file_filter);
 					}
 				});
-				for (
-
-				final File file : files) {
+				for (final File file : files) {
 					if (file.isDirectory()) {
 						// Ignore
 					} else {
-						c.put(file.getName(), targetFileName);
-						FileTransfered fileTransfered = new FileTransfered(sourceFilePath, file.getName(),
-								targetFilePath, targetFileName);
-						this.getFrameworkExecution().getFrameworkLog().log(fileTransfered, Level.TRACE);
-						fileTransferedList.add(fileTransfered);
-						filepath = sourceFileName + File.separator + file.getName();
+						fileTransferedList.add(new FileTransfered(sourceFilePath, file.getName(),
+								targetFilePath, targetFileName));
 					}
 				}
 			}
-
-			c.disconnect();
-			channel.disconnect();
-			session.disconnect();
-
 		} catch (Exception e) {
 			throw new RuntimeException(e.getMessage());
 		}
 
-		return new FileTransferResult(0, fileTransferedList);
+		return this.transferFiles(targetConnectionConnection, fileTransferedList, true);
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked", "unused" })
+	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public FileTransferResult transferRemoteToLocal(String sourceFilePath, String sourceFileName,
 			Connection sourceConnection, String targetFilePath, String targetFileName,
 			Connection targetConnection){
@@ -143,142 +119,194 @@ public class FileTransferOperation {
 		ConnectionOperation connectionOperation = new ConnectionOperation(this.getFrameworkExecution());
 		HostConnection sourceConnectionConnection = connectionOperation.getHostConnection(sourceConnection);
 		this.getFrameworkExecution().getFrameworkLog().log("fho.transfer.source.connection=" + sourceConnection.getName(), Level.TRACE);
-		HostConnection targetConnectionConnection = connectionOperation.getHostConnection(targetConnection);
 		this.getFrameworkExecution().getFrameworkLog().log("fho.transfer.target.connection=" + targetConnection.getName(), Level.TRACE);
 
 		try {
-			String filepath = targetFilePath + File.separator + targetFileName;
-
-			JSch jsch = new JSch();
-			Session session = jsch.getSession(sourceConnectionConnection.getUserName(),
-					sourceConnectionConnection.getHostName(), sourceConnectionConnection.getPortNumber());
-			session.setConfig("StrictHostKeyChecking", "no");
-			UserInfo ui = new LinuxHostUserInfo(sourceConnectionConnection.getUserPassword());
-			session.setUserInfo(ui);
-			session.connect();
-			Channel channel = session.openChannel("sftp");
-			channel.connect();
-			ChannelSftp c = (ChannelSftp) channel;
-			c.lcd(targetFilePath);
-			c.cd(sourceFilePath);
-
-			List<FileToTransfer> fileToTransferList = new ArrayList();
-			String file_filter;
-
-			Vector vv = null;
-
-			if (sourceFileName.equals("*")) {
-				vv = c.ls(sourceFilePath);
-				if (vv != null) {
-					for (int ii = 0; ii < vv.size(); ii++) {
-
-						Object obj = vv.elementAt(ii);
-						if (obj instanceof com.jcraft.jsch.ChannelSftp.LsEntry) {
-							fileToTransferList
-									.add(new FileToTransfer(((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getLongname(),
-											((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getFilename(),
-											((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getAttrs().toString()));
-						}
-					}
-					// Loop files
-					for (FileToTransfer fileToTransfer : fileToTransferList) {
-
-						if (fileToTransfer.getAttributes().substring(0, 1).equals("d")) {
-							// Ignore
-						} else {
-							c.get(fileToTransfer.getFileName(), fileToTransfer.getFileName());
-							FileTransfered fileTransfered = new FileTransfered(sourceFilePath,
-									fileToTransfer.getFileName(), targetFilePath, fileToTransfer.getFileName());
-							this.getFrameworkExecution().getFrameworkLog().log(fileTransfered, Level.TRACE);
-							fileTransferedList.add(fileTransfered);
-							filepath = sourceFilePath + "/" + fileToTransfer.getFileName();
-						}
+			HostSessionPool hostSessionPool = sourceConnectionConnection.getSessionPool();
+			HostSession hostSession = hostSessionPool.borrowSession(sourceConnectionConnection.getSessionFactory());
+			boolean reusable = false;
+			try {
+				ChannelSftp c = hostSession.openSftpChannel();
+				boolean channelReusable = false;
+				try {
+					Vector vv = null;
+					if (sourceFileName.equals("*") || ParsingTools.isRegexFunction(sourceFileName)) {
+						vv = c.ls(sourceFilePath);
+					} else {
+						vv = c.ls(sourceFilePath + "/" + sourceFileName);
 					}
-				}
-
-			} else if (ParsingTools.isRegexFunction(sourceFileName)) {
-				file_filter = ParsingTools.getRegexFunctionValue(sourceFileName);
-				//final String file_filter = ".+\\.csv";
-
-				vv = c.ls(sourceFilePath);
-				if (vv != null) {
-					for (int ii = 0; ii < vv.size(); ii++) {
-
-						Object obj = vv.elementAt(ii);
-						if (obj instanceof com.jcraft.jsch.ChannelSftp.LsEntry) {
-							String file_match = ((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getFilename();
-							if (file_match.matches(file_filter)) {
-								fileToTransferList.add(
-										new FileToTransfer(((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getLongname(),
-												((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getFilename(),
-												((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getAttrs().toString()));
+					channelReusable = true;
+
+					if (vv != null) {
+						for (int ii = 0; ii < vv.size(); ii++) {
+							Object obj = vv.elementAt(ii);
+							if (obj instanceof ChannelSftp.LsEntry) {
+								ChannelSftp.LsEntry lsEntry = (ChannelSftp.LsEntry) obj;
+								if (lsEntry.getAttrs().isDir()) {
+									// Ignore
+								} else if (sourceFileName.equals("*")) {
+									fileTransferedList.add(new FileTransfered(sourceFilePath, lsEntry.getFilename(),
+											targetFilePath, lsEntry.getFilename()));
+								} else if (ParsingTools.isRegexFunction(sourceFileName)) {
+									if (lsEntry.getFilename().matches(ParsingTools.getRegexFunctionValue(sourceFileName))) {
+										fileTransferedList.add(new FileTransfered(sourceFilePath, lsEntry.getFilename(),
+												targetFilePath, lsEntry.getFilename()));
+									}
+								} else if (lsEntry.getFilename().equals(sourceFileName)) {
+									fileTransferedList.add(new FileTransfered(sourceFilePath, lsEntry.getFilename(),
+											targetFilePath, targetFileName));
+								}
 							}
 						}
 					}
-
-					// Loop files
-					for (FileToTransfer fileToTransfer : fileToTransferList) {
-						if (fileToTransfer.getAttributes().substring(0, 1).equals("d")) {
-							// Ignore
-						} else {
-							c.get(fileToTransfer.getFileName(), fileToTransfer.getFileName());
-							FileTransfered fileTransfered = new FileTransfered(sourceFilePath,
-									fileToTransfer.getFileName(), targetFilePath, fileToTransfer.getFileName());
-							this.getFrameworkExecution().getFrameworkLog().log(fileTransfered, Level.TRACE);
-							fileTransferedList.add(fileTransfered);
-							filepath = sourceFilePath + "/" + fileToTransfer.getFileName();
-						}
-					}
+				} finally {
+					hostSession.releaseSftpChannel(c, channelReusable);
 				}
+				reusable = true;
+			} finally {
+				hostSessionPool.releaseSession(hostSession, reusable);
+			}
+		} catch (Exception e) {
+			throw new RuntimeException(e.getMessage());
+		}
 
-			} else
+		return this.transferFiles(sourceConnectionConnection, fileTransferedList, false);
+	}
 
-			{
-				file_filter = sourceFileName;
+	/*
+	 * Move the files with a number of workers, each reusing a pooled sftp channel for all the files it takes.
+	 * A failing file does not stop the others; the return code is 1 if any file could not be transfered.
+	 * After a failure the worker continues on a new channel, as the failure can leave the channel unusable.
+	 */
+	private FileTransferResult transferFiles(HostConnection hostConnection, List<FileTransfered> fileTransferedList,
+			boolean upload) {
+		long start = System.currentTimeMillis();
+		int threadCount = Math.min(Integer.parseInt(this.getFrameworkExecution().getSetting("connection.host.file.transfer.threads", "4")),
+				fileTransferedList.size());
+		int bufferSize = Integer.parseInt(this.getFrameworkExecution().getSetting("connection.host.file.transfer.buffer.size", "262144"));
+		if (fileTransferedList.isEmpty()) {
+			return new FileTransferResult(0, fileTransferedList, 0);
+		}
 
-				vv = c.ls(sourceFileName);
-				if (vv != null) {
-					for (int ii = 0; ii < vv.size(); ii++) {
+		HostSessionPool hostSessionPool = hostConnection.getSessionPool();
+		HostSessionFactory hostSessionFactory = hostConnection.getSessionFactory();
+		AtomicInteger nextFile = new AtomicInteger();
+		List<Callable<Void>> workers = new ArrayList<Callable<Void>>();
+		for (int i = 0; i < Math.max(threadCount, 1); i++) {
+			workers.add(() -> {
+				this.transferFiles(hostSessionPool, hostSessionFactory, fileTransferedList, nextFile, upload, bufferSize);
+				return null;
+			});
+		}
 
-						Object obj = vv.elementAt(ii);
-						if (obj instanceof com.jcraft.jsch.ChannelSftp.LsEntry) {
-							String file_match = ((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getFilename();
-							if (file_match.equals(file_filter)) {
-								fileToTransferList.add(
-										new FileToTransfer(((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getLongname(),
-												((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getFilename(),
-												((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getAttrs().toString()));
-							}
-						}
-					}
+		String workerError = "";
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>();
+			if (workers.size() == 1) {
+				FutureTask<Void> result = new FutureTask<Void>(workers.get(0));
+				result.run();
+				results.add(result);
+			} else {
+				AtomicInteger threadNumber = new AtomicInteger();
+				ExecutorService executorService = Executors.newFixedThreadPool(workers.size(), runnable -> {
+					Thread thread = new Thread(runnable, "iesi-file-transfer-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+				try {
+					results = executorService.invokeAll(workers);
+				} finally {
+					executorService.shutdownNow();
+				}
+			}
 
-					// Loop files
-					for (FileToTransfer fileToTransfer : fileToTransferList) {
-						if (fileToTransfer.getAttributes().substring(0, 1).equals("d")) {
-							// Ignore
-						} else {
-							c.get(fileToTransfer.getFileName(), targetFileName);
-							FileTransfered fileTransfered = new FileTransfered(sourceFilePath,
-									fileToTransfer.getFileName(), targetFilePath, targetFileName);
-							this.getFrameworkExecution().getFrameworkLog().log(fileTransfered, Level.TRACE);
-							fileTransferedList.add(fileTransfered);
-							filepath = sourceFilePath + "/" + targetFileName;
-						}
-					}
+			for (Future<Void> result : results) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+					workerError = e.getCause().getMessage();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			workerError = "interrupted";
+		}
 
+		int returnCode = 0;
+		for (FileTransfered fileTransfered : fileTransferedList) {
+			if (!fileTransfered.isTransfered()) {
+				if (fileTransfered.getMessage().equals("")) {
+					// Not started as no worker could get a channel
+					fileTransfered.setMessage(workerError);
 				}
+				returnCode = 1;
 			}
+		}
+		return new FileTransferResult(returnCode, fileTransferedList, System.currentTimeMillis() - start);
+	}
 
-			c.disconnect();
-			channel.disconnect();
-			session.disconnect();
+	private void transferFiles(HostSessionPool hostSessionPool, HostSessionFactory hostSessionFactory,
+			List<FileTransfered> fileTransferedList, AtomicInteger nextFile, boolean upload, int bufferSize)
+			throws JSchException {
+		HostSession hostSession = hostSessionPool.borrowSession(hostSessionFactory);
+		boolean reusable = false;
+		try {
+			ChannelSftp channelSftp = hostSession.openSftpChannel();
+			try {
+				int index;
+				while ((index = nextFile.getAndIncrement()) < fileTransferedList.size()) {
+					if (!this.transferFile(channelSftp, fileTransferedList.get(index), upload, bufferSize)) {
+						hostSession.releaseSftpChannel(channelSftp, false);
+						channelSftp = null;
+						channelSftp = hostSession.openSftpChannel();
+					}
+				}
+			} finally {
+				if (channelSftp != null) {
+					hostSession.releaseSftpChannel(channelSftp, true);
+				}
+			}
+			reusable = true;
+		} finally {
+			hostSessionPool.releaseSession(hostSession, reusable);
+		}
+	}
 
-		} catch (
+	private boolean transferFile(ChannelSftp channelSftp, FileTransfered fileTransfered, boolean upload, int bufferSize) {
+		long start = System.currentTimeMillis();
+		String localFile;
+		String remoteFile;
+		if (upload) {
+			localFile = fileTransfered.getSourceFilePath() + File.separator + fileTransfered.getSourceFileName();
+			remoteFile = fileTransfered.getTargetFilePath() + "/" + fileTransfered.getTargetFileName();
+		} else {
+			remoteFile = fileTransfered.getSourceFilePath() + "/" + fileTransfered.getSourceFileName();
+			localFile = fileTransfered.getTargetFilePath() + File.separator + fileTransfered.getTargetFileName();
+		}
 
-		Exception e) {
-			throw new RuntimeException(e.getMessage());
+		try {
+			if (upload) {
+				try (InputStream inputStream = new BufferedInputStream(new FileInputStream(localFile), bufferSize)) {
+					channelSftp.put(inputStream, remoteFile);
+				}
+			} else {
+				try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(localFile), bufferSize)) {
+					channelSftp.get(remoteFile, outputStream);
+				}
+			}
+			fileTransfered.setSize(new File(localFile).length());
+			fileTransfered.setTransfered(true);
+		} catch (Exception e) {
+			fileTransfered.setTransfered(false);
+			fileTransfered.setMessage(e.getMessage() == null ? e.toString() : e.getMessage());
+			if (!upload) {
+				// Never leave a partial file behind
+				new File(localFile).delete();
+			}
 		}
-		return new FileTransferResult(0, fileTransferedList);
+		fileTransfered.setDuration(System.currentTimeMillis() - start);
+		this.getFrameworkExecution().getFrameworkLog().log(fileTransfered, Level.TRACE);
+		return fileTransfered.isTransfered();
 	}
 
 	public FileTransferResult transferLocalToLocal(String sourceFilePath, String sourceFileName,
@@ -324,9 +352,10 @@ public class FileTransferOperation {
 					} else {
 						String command = "copy /Y" + sourceFilePath + File.separator + file.getName() + " "
 								+ targetFilePath + File.separator + file.getName();
-						targetConnectionConnection.executeLocalCommand("", command, shellCommandSettings);
-						fileTransferedList.add(
-								new FileTransfered(sourceFilePath, file.getName(), targetFilePath, file.getName()));
+						ShellCommandResult shellCommandResult = targetConnectionConnection.executeLocalCommand("", command, shellCommandSettings);
+						FileTransfered fileTransfered = new FileTransfered(sourceFilePath, file.getName(), targetFilePath, file.getName());
+						fileTransfered.setTransfered(shellCommandResult.getReturnCode() == 0);
+						fileTransferedList.add(fileTransfered);
 						filepath = sourceFilePath + File.separator + file.getName();
 					}
 				}
@@ -346,9 +375,10 @@ public class FileTransferOperation {
 					} else {
 						String command = "copy /Y" + sourceFilePath + File.separator + file.getName() + " "
 								+ targetFilePath + File.separator + file.getName();
-						targetConnectionConnection.executeLocalCommand("", command, shellCommandSettings);
-						fileTransferedList.add(
-								new FileTransfered(sourceFilePath, file.getName(), targetFilePath, file.getName()));
+						ShellCommandResult shellCommandResult = targetConnectionConnection.executeLocalCommand("", command, shellCommandSettings);
+						FileTransfered fileTransfered = new FileTransfered(sourceFilePath, file.getName(), targetFilePath, file.getName());
+						fileTransfered.setTransfered(shellCommandResult.getReturnCode() == 0);
+						fileTransferedList.add(fileTransfered);
 						filepath = sourceFilePath + File.separator + file.getName();
 					}
 				}
@@ -369,9 +399,10 @@ public class FileTransferOperation {
 					} else {
 						String command = "copy /Y" + sourceFilePath + File.separator + file.getName() + " "
 								+ targetFilePath + File.separator + targetFileName;
-						targetConnectionConnection.executeLocalCommand("", command, shellCommandSettings);
-						fileTransferedList.add(
-								new FileTransfered(sourceFilePath, file.getName(), targetFilePath, targetFileName));
+						ShellCommandResult shellCommandResult = targetConnectionConnection.executeLocalCommand("", command, shellCommandSettings);
+						FileTransfered fileTransfered = new FileTransfered(sourceFilePath, file.getName(), targetFilePath, targetFileName);
+						fileTransfered.setTransfered(shellCommandResult.getReturnCode() == 0);
+						fileTransferedList.add(fileTransfered);
 						filepath = sourceFileName + File.separator + file.getName();
 					}
 				}
@@ -6,12 +6,49 @@ public class FileTransferResult {
 
 	private int returnCode;
 	private List<FileTransfered> dcFileTransferedList;
+	private long duration;
 		
 	public FileTransferResult(int returnCode, List<FileTransfered> DCFileTransferedList) {
 		this.setReturnCode(returnCode);
 		this.setDcFileTransferedList(DCFileTransferedList);
 	}
 
+	public FileTransferResult(int returnCode, List<FileTransfered> DCFileTransferedList, long duration) {
+		this(returnCode, DCFileTransferedList);
+		this.setDuration(duration);
+	}
+
+	// Methods
+	public int getFailedCount() {
+		int failedCount = 0;
+		for (FileTransfered fileTransfered : this.getDcFileTransferedList()) {
+			if (!fileTransfered.isTransfered()) {
+				failedCount++;
+			}
+		}
+		return failedCount;
+	}
+
+	public long getBytesTransfered() {
+		long bytesTransfered = 0;
+		for (FileTransfered fileTransfered : this.getDcFileTransferedList()) {
+			if (fileTransfered.isTransfered()) {
+				bytesTransfered += fileTransfered.getSize();
+			}
+		}
+		return bytesTransfered;
+	}
+
+	/*
+	 * Bytes per second over the whole transfer
+	 */
+	public long getThroughput() {
+		if (this.getDuration() <= 0) {
+			return this.getBytesTransfered();
+		}
+		return this.getBytesTransfered() * 1000 / this.getDuration();
+	}
+
 	// Getters and Setters
 	public int getReturnCode() {
 		return returnCode;
@@ -29,7 +66,12 @@ public class FileTransferResult {
 		this.dcFileTransferedList = dcFileTransferedList;
 	}
 
+	public long getDuration() {
+		return duration;
+	}
 
-	
+	public void setDuration(long duration) {
+		this.duration = duration;
+	}
 
 }
@@ -7,6 +7,10 @@ public class FileTransfered {
 	private String sourceFileName;
 	private String targetFilePath;
 	private String targetFileName;
+	private boolean transfered = false;
+	private long size = 0;
+	private long duration = 0;
+	private String message = "";
 		
 	public FileTransfered(String sourceFilePath, String sourceFileName, String targetFilePath, String targetFileName) {
 		this.setSourceFilePath(sourceFilePath);
@@ -15,6 +19,7 @@ public class FileTransfered {
 		this.setTargetFileName(targetFileName);
 	}
 
+	// Getters and Setters
 	public String getSourceFilePath() {
 		return sourceFilePath;
 	}
@@ -47,5 +52,36 @@ public class FileTransfered {
 		this.targetFileName = targetFileName;
 	}
 
+	public boolean isTransfered() {
+		return transfered;
+	}
+
+	public void setTransfered(boolean transfered) {
+		this.transfered = transfered;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	public long getDuration() {
+		return duration;
+	}
+
+	public void setDuration(long duration) {
+		this.duration = duration;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
 
 }
@@ -60,6 +60,7 @@ public class GenerationExecution {
 
 		// Log End
 		//this.getExecutionControl().logEnd(this);
+		this.getExecutionControl().terminate();
 
 		// Exit the execution
 		// this.getEoControl().endExecution();
@@ -14,6 +14,7 @@ import io.metadew.iesi.common.config.KeyValueConfigFile;
 import io.metadew.iesi.common.config.KeyValueConfigList;
 import io.metadew.iesi.common.config.LinuxConfigFile;
 import io.metadew.iesi.common.config.WindowsConfigFile;
+import io.metadew.iesi.common.text.VariableTemplate;
 import io.metadew.iesi.framework.configuration.FrameworkConfiguration;
 import io.metadew.iesi.metadata.configuration.FrameworkPluginConfiguration;
 import io.metadew.iesi.metadata.configuration.MetadataRepositoryConfiguration;
@@ -114,33 +115,8 @@ public class FrameworkControl {
 	}
 
 	public String resolveConfiguration(String input) {
-		int openPos;
-		int closePos;
-		String variable_char = "#";
-		String midBit;
-		String replaceValue = null;
-		String temp = input;
-		while (temp.indexOf(variable_char) > 0 || temp.startsWith(variable_char)) {
-			openPos = temp.indexOf(variable_char);
-			closePos = temp.indexOf(variable_char, openPos + 1);
-			midBit = temp.substring(openPos + 1, closePos);
-
-			// Try to find a configuration value
-			// If none is found, null is set by default
-			try {
-				replaceValue = this.getProperty(midBit);
-			} catch (Exception e) {
-				replaceValue = null;
-			}
-
-			// Replacing the value if found
-			if (replaceValue != null) {
-				input = input.replaceAll(variable_char + midBit + variable_char, replaceValue);
-			}
-			temp = temp.substring(closePos + 1, temp.length());
-
-		}
-		return input;
+		// If no configuration value is found, the variable is kept
+		return VariableTemplate.compile(input).resolve(name -> this.getProperties().getProperty(name));
 	}
 
 	public void addKeyValueConfigFile(String path) {
@@ -164,6 +140,14 @@ public class FrameworkControl {
 		return output;
 	}
 
+	public String getProperty(String input, String defaultValue) {
+		String output = this.getProperties().getProperty(input);
+		if (output == null || output.trim().isEmpty()) {
+			return defaultValue;
+		}
+		return output.trim();
+	}
+
 	public ConfigFile getConfigFile(String type, String filePath) {
 		ObjectMapper objectMapper = new ObjectMapper();
 		ConfigFile configFile = null;
@@ -3,10 +3,18 @@ package io.metadew.iesi.framework.execution;
 import java.io.File;
 
 import io.metadew.iesi.connection.database.SqliteDatabaseConnection;
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPoolManager;
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPoolSettings;
+import io.metadew.iesi.connection.host.pool.HostSessionPoolManager;
+import io.metadew.iesi.connection.host.pool.HostSessionPoolSettings;
+import io.metadew.iesi.connection.http.pool.HttpClientPoolManager;
+import io.metadew.iesi.connection.http.pool.HttpClientPoolSettings;
 import io.metadew.iesi.framework.configuration.FrameworkConfiguration;
 import io.metadew.iesi.framework.crypto.FrameworkCrypto;
 import io.metadew.iesi.metadata.configuration.MetadataRepositoryConfiguration;
+import io.metadew.iesi.metadata.configuration.ScriptCache;
 import io.metadew.iesi.metadata.execution.MetadataControl;
+import io.metadew.iesi.script.execution.ScriptRouteExecutor;
 
 public class FrameworkExecution {
 
@@ -60,6 +68,91 @@ public class FrameworkExecution {
 		this.setExecutionServerRepositoryConfiguration(
 				new MetadataRepositoryConfiguration(this.getFrameworkConfiguration(), this.frameworkControl, executionServerRepositoryConnection));
 
+		// Configure the shared database connection pools
+		this.initializeDatabaseConnectionPool();
+
+		// Configure the shared ssh session pools
+		this.initializeHostSessionPool();
+
+		// Configure the shared http client pools
+		this.initializeHttpClientPool();
+
+		// Configure the shared script cache
+		ScriptCache.setMaximumSize(Integer.parseInt(this.getSetting("script.metadata.cache.size", "500")));
+
+		// Configure the shared executor for routes
+		ScriptRouteExecutor.configure(Integer.parseInt(this.getSetting("script.execution.route.threads", "10")));
+	}
+
+	private void initializeDatabaseConnectionPool() {
+		DatabaseConnectionPoolSettings databaseConnectionPoolSettings = new DatabaseConnectionPoolSettings();
+		databaseConnectionPoolSettings.setMinimumSize(Integer.parseInt(this.getSetting("connection.database.pool.size.min",
+				Integer.toString(databaseConnectionPoolSettings.getMinimumSize()))));
+		databaseConnectionPoolSettings.setMaximumSize(Integer.parseInt(this.getSetting("connection.database.pool.size.max",
+				Integer.toString(databaseConnectionPoolSettings.getMaximumSize()))));
+		databaseConnectionPoolSettings.setIdleTimeout(Long.parseLong(this.getSetting("connection.database.pool.idle.timeout",
+				Long.toString(databaseConnectionPoolSettings.getIdleTimeout()))));
+		databaseConnectionPoolSettings.setBorrowTimeout(Long.parseLong(this.getSetting("connection.database.pool.borrow.timeout",
+				Long.toString(databaseConnectionPoolSettings.getBorrowTimeout()))));
+		databaseConnectionPoolSettings.setEvictionInterval(Long.parseLong(this.getSetting("connection.database.pool.eviction.interval",
+				Long.toString(databaseConnectionPoolSettings.getEvictionInterval()))));
+		databaseConnectionPoolSettings.setValidateOnBorrow(this.getSetting("connection.database.pool.validate", "Y")
+				.equalsIgnoreCase("y"));
+		databaseConnectionPoolSettings.setStatementCacheSize(Integer.parseInt(this.getSetting("connection.database.statement.cache.size",
+				Integer.toString(databaseConnectionPoolSettings.getStatementCacheSize()))));
+		DatabaseConnectionPoolManager.configure(databaseConnectionPoolSettings);
+	}
+
+	private void initializeHostSessionPool() {
+		HostSessionPoolSettings hostSessionPoolSettings = new HostSessionPoolSettings();
+		hostSessionPoolSettings.setMaximumSessions(Integer.parseInt(this.getSetting("connection.host.session.pool.sessions.max",
+				Integer.toString(hostSessionPoolSettings.getMaximumSessions()))));
+		hostSessionPoolSettings.setMaximumChannels(Integer.parseInt(this.getSetting("connection.host.session.pool.channels.max",
+				Integer.toString(hostSessionPoolSettings.getMaximumChannels()))));
+		hostSessionPoolSettings.setIdleTimeout(Long.parseLong(this.getSetting("connection.host.session.pool.idle.timeout",
+				Long.toString(hostSessionPoolSettings.getIdleTimeout()))));
+		hostSessionPoolSettings.setBorrowTimeout(Long.parseLong(this.getSetting("connection.host.session.pool.borrow.timeout",
+				Long.toString(hostSessionPoolSettings.getBorrowTimeout()))));
+		hostSessionPoolSettings.setEvictionInterval(Long.parseLong(this.getSetting("connection.host.session.pool.eviction.interval",
+				Long.toString(hostSessionPoolSettings.getEvictionInterval()))));
+		hostSessionPoolSettings.setKeepAliveInterval(Integer.parseInt(this.getSetting("connection.host.session.keepalive.interval",
+				Integer.toString(hostSessionPoolSettings.getKeepAliveInterval()))));
+		HostSessionPoolManager.configure(hostSessionPoolSettings);
+	}
+
+	private void initializeHttpClientPool() {
+		HttpClientPoolSettings httpClientPoolSettings = new HttpClientPoolSettings();
+		httpClientPoolSettings.setMaximumConnections(Integer.parseInt(this.getSetting("connection.http.pool.size.max",
+				Integer.toString(httpClientPoolSettings.getMaximumConnections()))));
+		httpClientPoolSettings.setMaximumConnectionsPerRoute(Integer.parseInt(this.getSetting("connection.http.pool.route.size.max",
+				Integer.toString(httpClientPoolSettings.getMaximumConnectionsPerRoute()))));
+		httpClientPoolSettings.setConnectTimeout(Integer.parseInt(this.getSetting("connection.http.connect.timeout",
+				Integer.toString(httpClientPoolSettings.getConnectTimeout()))));
+		httpClientPoolSettings.setReadTimeout(Integer.parseInt(this.getSetting("connection.http.read.timeout",
+				Integer.toString(httpClientPoolSettings.getReadTimeout()))));
+		httpClientPoolSettings.setKeepAlive(Long.parseLong(this.getSetting("connection.http.keepalive",
+				Long.toString(httpClientPoolSettings.getKeepAlive()))));
+		httpClientPoolSettings.setIdleTimeout(Long.parseLong(this.getSetting("connection.http.pool.idle.timeout",
+				Long.toString(httpClientPoolSettings.getIdleTimeout()))));
+		httpClientPoolSettings.setEvictionInterval(Long.parseLong(this.getSetting("connection.http.pool.eviction.interval",
+				Long.toString(httpClientPoolSettings.getEvictionInterval()))));
+		HttpClientPoolManager.configure(httpClientPoolSettings);
+	}
+
+	public String getSetting(String settingName, String defaultValue) {
+		String settingPath = this.getFrameworkConfiguration().getSettingConfiguration().getSettingPath(settingName);
+		if (settingPath == null) {
+			return defaultValue;
+		}
+		return this.getFrameworkControl().getProperty(settingPath, defaultValue);
+	}
+
+	public void terminate() {
+		// Release the shared route threads, ssh sessions, http connections and database connections
+		ScriptRouteExecutor.shutdown();
+		HostSessionPoolManager.shutdown();
+		HttpClientPoolManager.shutdown();
+		DatabaseConnectionPoolManager.shutdown();
 	}
 
 	public void setSettingsList(String input) {
@@ -85,6 +85,7 @@ public class BackupExecution {
 
 		// Log End
 		this.getExecutionControl().logEnd(this);
+		this.getExecutionControl().terminate();
 		this.getFrameworkExecution().getFrameworkLog().log("metadata.backup.end", Level.INFO);
 
 		// Exit the execution
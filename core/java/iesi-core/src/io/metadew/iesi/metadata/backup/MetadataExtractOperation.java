@@ -7,8 +7,7 @@ import java.util.List;
 
 import org.apache.logging.log4j.Level;
 
-import javax.sql.rowset.CachedRowSet;
-
+import io.metadew.iesi.connection.database.sql.SqlResultCursor;
 import io.metadew.iesi.connection.tools.OutputTools;
 import io.metadew.iesi.data.definition.DataField;
 import io.metadew.iesi.data.definition.DataRow;
@@ -48,19 +47,18 @@ public class MetadataExtractOperation {
 		// Setting the table name without instance
 		dataTable.setName(metadataTable.getName());
 
-		try {
-			String query = "";
-			query = "select * from " + tableName;
+		String query = "";
+		query = "select * from " + tableName;
 
-			CachedRowSet crs = null;
-			// TODO repo redesign 
-			crs = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().executeQuery(query);
-			ResultSetMetaData rsmd = crs.getMetaData();
+		// TODO repo redesign 
+		try (SqlResultCursor sqlResultCursor = this.getFrameworkExecution().getMetadataControl()
+				.getDesignRepositoryConfiguration().executeQueryCursor(query)) {
+			ResultSetMetaData rsmd = sqlResultCursor.getMetaData();
 			int cols = rsmd.getColumnCount();
 			int rows = 1;
 
 			List<DataRow> dataRowList = new ArrayList();
-			while (crs.next()) {
+			while (sqlResultCursor.next()) {
 				DataRow dataRow = new DataRow();
 				dataRow.setId(rows);
 
@@ -68,14 +66,13 @@ public class MetadataExtractOperation {
 				for (int i = 1; i < cols + 1; i++) {
 					DataField dataField = new DataField();
 					dataField.setName(rsmd.getColumnName(i));
-					dataField.setValue(String.valueOf(crs.getObject(i)));
+					dataField.setValue(String.valueOf(sqlResultCursor.getObject(i)));
 					dataFieldList.add(dataField);
 				}
 				dataRow.setFields(dataFieldList);
 				dataRowList.add(dataRow);
 				rows++;
 			}
-			crs.close();
 			dataTable.setRows(dataRowList);
 
 			DataObjectConfiguration dataObjectConfiguration = new DataObjectConfiguration(this.getFrameworkExecution());
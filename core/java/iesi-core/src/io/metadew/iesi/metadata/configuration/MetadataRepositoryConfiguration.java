@@ -1,6 +1,8 @@
 package io.metadew.iesi.metadata.configuration;
 
 import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import javax.sql.rowset.CachedRowSet;
@@ -13,6 +15,8 @@ import io.metadew.iesi.connection.database.NetezzaDatabaseConnection;
 import io.metadew.iesi.connection.database.OracleDatabaseConnection;
 import io.metadew.iesi.connection.database.PostgresqlDatabaseConnection;
 import io.metadew.iesi.connection.database.SqliteDatabaseConnection;
+import io.metadew.iesi.connection.database.sql.SqlParameter;
+import io.metadew.iesi.connection.database.sql.SqlResultCursor;
 import io.metadew.iesi.connection.database.sql.SqlScriptResult;
 import io.metadew.iesi.connection.filestore.MetadataFileStoreConnection;
 import io.metadew.iesi.framework.configuration.FrameworkConfiguration;
@@ -442,6 +446,26 @@ public class MetadataRepositoryConfiguration {
 		return crs;
 	}
 
+	public CachedRowSet executeQuery(String query, SqlParameter... sqlParameters) {
+		return this.getDatabaseConnection().executeQuery(query, sqlParameters);
+	}
+
+	public int executeUpdate(String query, SqlParameter... sqlParameters) {
+		return this.getDatabaseConnection().executeUpdate(query, sqlParameters);
+	}
+
+	public int executeBatch(String query, List<SqlParameter[]> sqlParameterRows) {
+		return this.getDatabaseConnection().executeBatch(query, sqlParameterRows);
+	}
+
+	public int executeBatch(Map<String, List<SqlParameter[]>> sqlParameterRowsByQuery) {
+		return this.getDatabaseConnection().executeBatch(sqlParameterRowsByQuery);
+	}
+
+	public SqlResultCursor executeQueryCursor(String query) {
+		return this.getDatabaseConnection().executeQueryCursor(query);
+	}
+
 	public void executeUpdate(String query) {
 		this.getDatabaseConnection().executeUpdate(query);
 	}
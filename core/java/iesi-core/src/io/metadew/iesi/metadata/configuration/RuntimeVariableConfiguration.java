@@ -1,16 +1,12 @@
 package io.metadew.iesi.metadata.configuration;
 
 import java.io.File;
-import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.sql.SQLException;
 
-import javax.sql.rowset.CachedRowSet;
-
-import io.metadew.iesi.connection.database.SqliteDatabaseConnection;
-import io.metadew.iesi.connection.tools.SQLTools;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.definition.RuntimeVariable;
+import io.metadew.iesi.runtime.variable.InMemoryRuntimeVariableStore;
+import io.metadew.iesi.runtime.variable.RuntimeVariableStore;
+import io.metadew.iesi.runtime.variable.SqliteRuntimeVariableStore;
 
 public class RuntimeVariableConfiguration {
 
@@ -19,8 +15,7 @@ public class RuntimeVariableConfiguration {
 	private String runCacheFolderName;
 	private String runCacheFileName = "runtimeVariables.db3";
 	private String runCacheFilePath;
-	private SqliteDatabaseConnection sqliteDatabaseConnection;
-	private String PRC_RUN_VAR = "PRC_RUN_VAR";
+	private RuntimeVariableStore runtimeVariableStore;
 	
 	// Constructors
 	public RuntimeVariableConfiguration(FrameworkExecution frameworkExecution, String runCacheFolderName) {
@@ -30,109 +25,58 @@ public class RuntimeVariableConfiguration {
 		this.setRunCacheFolderName(runCacheFolderName);
 		this.setRunCacheFilePath(this.getRunCacheFolderName() + File.separator+ this.getRunCacheFileName());
 		
-		// Create database
-		this.setSqliteDatabaseConnection(new SqliteDatabaseConnection(this.getRunCacheFilePath()));
-		this.createRunVarTable();
-		
-	}
-	
-	private void createRunVarTable() {
-		String query = "CREATE TABLE " + this.getPRC_RUN_VAR() + " (" + 
-				"RUN_ID TEXT NOT NULL," + 
-				"PRC_ID NUMERIC NOT NULL," + 
-				"VAR_NM TEXT NOT NULL," + 
-				"VAR_VAL TEXT" + 
-				")";
-		this.getSqliteDatabaseConnection().executeUpdate(query);
+		// Create store
+		this.setRuntimeVariableStore(this.createRuntimeVariableStore());
+	}
+
+	private RuntimeVariableStore createRuntimeVariableStore() {
+		String storeType = this.getFrameworkExecution().getSetting("script.execution.runtime.variable.store", "memory");
+		if (storeType.trim().equalsIgnoreCase("sqlite")) {
+			return new SqliteRuntimeVariableStore(this.getRunCacheFilePath());
+		} else if (storeType.trim().equalsIgnoreCase("memory") || storeType.trim().isEmpty()) {
+			if (this.getFrameworkExecution().getSetting("script.execution.runtime.variable.snapshot", "N")
+					.equalsIgnoreCase("y")) {
+				long snapshotInterval = Long.parseLong(this.getFrameworkExecution()
+						.getSetting("script.execution.runtime.variable.snapshot.interval", "5000"));
+				return new InMemoryRuntimeVariableStore(new SqliteRuntimeVariableStore(this.getRunCacheFilePath()),
+						snapshotInterval);
+			} else {
+				return new InMemoryRuntimeVariableStore();
+			}
+		} else {
+			throw new RuntimeException("Unknown runtime variable store: " + storeType);
+		}
 	}
 
 	// Methods
 	public void cleanRuntimeVariables(String runId) {
-		String query = "delete from " + this.getPRC_RUN_VAR()
-				+ " where RUN_ID = '" + runId + "'";
-		this.getSqliteDatabaseConnection().executeUpdate(query);
+		this.getRuntimeVariableStore().cleanRuntimeVariables(runId);
 	}
 
 	public void cleanRuntimeVariables(String runId, long processId) {
-		String query = "delete from " + this.getPRC_RUN_VAR()
-				+ " where RUN_ID = '" + runId + "' and PRC_ID = " + processId;
-		this.getSqliteDatabaseConnection().executeUpdate(query);
+		this.getRuntimeVariableStore().cleanRuntimeVariables(runId, processId);
 	}
 
 	public void setRuntimeVariable(String runId, String name, String value) {
-		// Verify if variable already exists
-		String query = "";
-
-		query = "select run_id, prc_id, var_nm, var_val from "
-				+ this.getPRC_RUN_VAR() + " where run_id = '"
-				+ runId + "' and var_nm = '" + name + "'";
-		CachedRowSet crs = null;
-		crs = this.getSqliteDatabaseConnection().executeQuery(query);
-
-		// if so, the previous values will be deleted
-		if (SQLTools.getRowCount(crs) > 0) {
-			query = "delete from " + this.getPRC_RUN_VAR()
-					+ " where run_id = '" + runId + "' and var_nm = '" + name + "'";
-			this.getSqliteDatabaseConnection().executeUpdate(query);
-		}
-
-		// DtNow, new values can be stored
-		query = "";
-		query = "INSERT INTO " + this.getPRC_RUN_VAR();
-		query = query + "(run_id, prc_id, var_nm, var_val)";
-		query = query + " VALUES (";
-		query += SQLTools.GetStringForSQL(runId);
-		query += ",";
-		query += SQLTools.GetStringForSQL(-1);
-		query += ",";
-		query += SQLTools.GetStringForSQL(name);
-		query += ",";
-		query += SQLTools.GetStringForSQL(value);
-		query += ")";
-		this.getSqliteDatabaseConnection().executeUpdate(query);
-
+		this.getRuntimeVariableStore().setRuntimeVariable(runId, -1, name, value);
 	}
 	
 	public String getRuntimeVariableValue(String runId, String name) {
-		CachedRowSet crs = null;
-		String query = "select VAR_VAL from " + this.getPRC_RUN_VAR()
-				+ " where run_id = '" + runId + "' and var_nm = '" + name + "'";
-		crs = this.getSqliteDatabaseConnection().executeQuery(query);
-		String value = "";
-		try {
-			while (crs.next()) {
-				value = crs.getString("VAR_VAL");
-			}
-			crs.close();
-		} catch (SQLException e) {
-			StringWriter StackTrace = new StringWriter();
-			e.printStackTrace(new PrintWriter(StackTrace));
-		}
-		return value;
+		return this.getRuntimeVariableStore().getRuntimeVariableValue(runId, name);
 	}
 
 	public RuntimeVariable getRuntimeVariable(String runId, String name) {
 		RuntimeVariable runtimeVariable = new RuntimeVariable();
 		runtimeVariable.setName(name);
 		
-		CachedRowSet crs = null;
-		String query = "select VAR_VAL from " + this.getPRC_RUN_VAR()
-				+ " where run_id = '" + runId + "' and var_nm = '" + name + "'";
-		crs = this.getSqliteDatabaseConnection().executeQuery(query);
-		String value = "";
-		try {
-			while (crs.next()) {
-				value = crs.getString("VAR_VAL");
-			}
-			crs.close();
-		} catch (SQLException e) {
-			StringWriter StackTrace = new StringWriter();
-			e.printStackTrace(new PrintWriter(StackTrace));
-		}
-		
+		String value = this.getRuntimeVariableValue(runId, name);
 		runtimeVariable.setValue(value);
 		return runtimeVariable;
 	}
+
+	public void close() {
+		this.getRuntimeVariableStore().close();
+	}
 	
 	// Getters and Setters
 	public RuntimeVariable getRuntimeVariable() {
@@ -175,20 +119,12 @@ public class RuntimeVariableConfiguration {
 		this.runCacheFilePath = runCacheFilePath;
 	}
 
-	public SqliteDatabaseConnection getSqliteDatabaseConnection() {
-		return sqliteDatabaseConnection;
-	}
-
-	public void setSqliteDatabaseConnection(SqliteDatabaseConnection sqliteDatabaseConnection) {
-		this.sqliteDatabaseConnection = sqliteDatabaseConnection;
-	}
-
-	public String getPRC_RUN_VAR() {
-		return PRC_RUN_VAR;
+	public RuntimeVariableStore getRuntimeVariableStore() {
+		return runtimeVariableStore;
 	}
 
-	public void setPRC_RUN_VAR(String pRC_RUN_VAR) {
-		PRC_RUN_VAR = pRC_RUN_VAR;
+	public void setRuntimeVariableStore(RuntimeVariableStore runtimeVariableStore) {
+		this.runtimeVariableStore = runtimeVariableStore;
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package io.metadew.iesi.metadata.configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.metadew.iesi.metadata.definition.Script;
+
+/**
+ * Process wide cache of the script definitions loaded from the design repository, keyed by script name and version.
+ * The cache keeps the least recently used scripts up to its maximum size and is invalidated when design
+ * metadata is loaded. Every lookup returns a copy, so executions can not change the cached definition.
+ *
+ * @author peter.billen
+ *
+ */
+public final class ScriptCache {
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+	private static final AtomicLong generation = new AtomicLong();
+
+	private static int maximumSize = 500;
+	private static final Map<String, Script> scripts = new LinkedHashMap<String, Script>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Script> eldest) {
+			return this.size() > maximumSize;
+		}
+	};
+
+	private ScriptCache() {
+
+	}
+
+	// Methods
+	public static synchronized void setMaximumSize(int maximumSize) {
+		ScriptCache.maximumSize = Math.max(maximumSize, 0);
+		if (ScriptCache.maximumSize == 0) {
+			scripts.clear();
+		}
+	}
+
+	/**
+	 * Get a copy of the cached script, or null if the script version is not cached.
+	 */
+	public static Script getScript(String scriptName, long scriptVersionNumber) {
+		Script script;
+		synchronized (ScriptCache.class) {
+			script = scripts.get(getKey(scriptName, scriptVersionNumber));
+		}
+		return script == null ? null : copy(script);
+	}
+
+	/**
+	 * Add a script loaded from the design repository. Scripts loaded before the last invalidation are not kept.
+	 */
+	public static void putScript(Script script, long scriptVersionNumber, long loadGeneration) {
+		Script cachedScript = copy(script);
+		synchronized (ScriptCache.class) {
+			if (maximumSize > 0 && loadGeneration == generation.get()) {
+				scripts.put(getKey(script.getName(), scriptVersionNumber), cachedScript);
+			}
+		}
+	}
+
+	/**
+	 * Get the generation to pass when adding a script that is about to be loaded.
+	 */
+	public static long getGeneration() {
+		return generation.get();
+	}
+
+	public static synchronized void invalidate() {
+		generation.incrementAndGet();
+		scripts.clear();
+	}
+
+	private static Script copy(Script script) {
+		return objectMapper.convertValue(script, Script.class);
+	}
+
+	private static String getKey(String scriptName, long scriptVersionNumber) {
+		return scriptName + ":" + scriptVersionNumber;
+	}
+
+}
@@ -2,15 +2,20 @@ package io.metadew.iesi.metadata.configuration;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.sql.rowset.CachedRowSet;
 
+import io.metadew.iesi.connection.database.sql.SqlParameter;
 import io.metadew.iesi.connection.tools.SQLTools;
 import io.metadew.iesi.framework.configuration.FrameworkObjectConfiguration;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.definition.Action;
+import io.metadew.iesi.metadata.definition.ActionParameter;
 import io.metadew.iesi.metadata.definition.ListObject;
 import io.metadew.iesi.metadata.definition.Script;
 import io.metadew.iesi.metadata.definition.ScriptParameter;
@@ -43,9 +48,9 @@ public class ScriptConfiguration {
 		Script script = new Script();
 		CachedRowSet crsScript = null;
 		String queryScript = "select SCRIPT_ID, SCRIPT_TYP_NM, SCRIPT_NM, SCRIPT_DSC from "
-				+ this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().getMetadataTableConfiguration().getTableName("Scripts") + " where SCRIPT_NM = '"
-				+ scriptName + "'";
-		crsScript = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().executeQuery(queryScript);
+				+ this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().getMetadataTableConfiguration().getTableName("Scripts") + " where SCRIPT_NM = ?";
+		crsScript = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().executeQuery(queryScript,
+				SqlParameter.ofString(scriptName));
 		try {
 			while (crsScript.next()) {
 				script.setId(crsScript.getLong("SCRIPT_ID"));
@@ -211,8 +216,9 @@ public class ScriptConfiguration {
 		String queryScriptVersion = "select max(SCRIPT_VRS_NB) as \"MAX_VRS_NB\" from "
 				+ this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ScriptVersions") + " a inner join "
 				+ this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().getMetadataTableConfiguration().getTableName("Scripts")
-				+ " b on a.script_id = b.script_id where b.script_nm = '" + scriptName + "'";
-		crsScriptVersion = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().executeQuery(queryScriptVersion);
+				+ " b on a.script_id = b.script_id where b.script_nm = ?";
+		crsScriptVersion = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().executeQuery(queryScriptVersion,
+				SqlParameter.ofString(scriptName));
 		try {
 			while (crsScriptVersion.next()) {
 				scriptVersionNumber = crsScriptVersion.getLong("MAX_VRS_NB");
@@ -234,73 +240,128 @@ public class ScriptConfiguration {
 		return this.getScript(scriptName, this.getLatestVersion(scriptName));
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public Script getScript(String scriptName, long scriptVersionNumber) {
+		Script script = ScriptCache.getScript(scriptName, scriptVersionNumber);
+		if (script == null) {
+			long loadGeneration = ScriptCache.getGeneration();
+			script = this.loadScript(scriptName, scriptVersionNumber);
+			ScriptCache.putScript(script, scriptVersionNumber, loadGeneration);
+		}
+		return script;
+	}
+
+	/**
+	 * Load a script version with a fixed number of queries: the script with its version, the actions,
+	 * the parameters of all actions and the script parameters. The object graph is assembled in memory.
+	 */
+	private Script loadScript(String scriptName, long scriptVersionNumber) {
 		Script script = new Script();
-		CachedRowSet crsScript = null;
-		String queryScript = "select SCRIPT_ID, SCRIPT_TYP_NM, SCRIPT_NM, SCRIPT_DSC from "
-				+ this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().getMetadataTableConfiguration().getTableName("Scripts") + " where SCRIPT_NM = '"
-				+ scriptName + "'";
-		crsScript = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().executeQuery(queryScript);
-		ActionConfiguration actionConfiguration = new ActionConfiguration(this.getFrameworkExecution());
-		ScriptParameterConfiguration scriptParameterConfiguration = new ScriptParameterConfiguration(
-				this.getFrameworkExecution());
-		ScriptVersionConfiguration scriptVersionConfiguration = new ScriptVersionConfiguration(
-				this.getFrameworkExecution());
+		String scriptsTable = this.getTableName("Scripts");
+		String scriptVersionsTable = this.getTableName("ScriptVersions");
+		String actionsTable = this.getTableName("Actions");
+		String actionParametersTable = this.getTableName("ActionParameters");
+		String scriptParametersTable = this.getTableName("ScriptParameters");
 		try {
+			// Get the script and its version
+			String queryScript = "select a.SCRIPT_ID, a.SCRIPT_TYP_NM, a.SCRIPT_DSC, b.SCRIPT_VRS_NB, b.SCRIPT_VRS_DSC from "
+					+ scriptsTable + " a left outer join " + scriptVersionsTable
+					+ " b on a.SCRIPT_ID = b.SCRIPT_ID and b.SCRIPT_VRS_NB = ? where a.SCRIPT_NM = ?";
+			CachedRowSet crsScript = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration()
+					.executeQuery(queryScript, SqlParameter.ofLong(scriptVersionNumber), SqlParameter.ofString(scriptName));
 			while (crsScript.next()) {
 				script.setId(crsScript.getLong("SCRIPT_ID"));
 				script.setType(crsScript.getString("SCRIPT_TYP_NM"));
 				script.setName(scriptName);
 				script.setDescription(crsScript.getString("SCRIPT_DSC"));
 
-				// Get the version
-				ScriptVersion scriptVersion = scriptVersionConfiguration.getScriptVersion(script.getId(), scriptVersionNumber);
-				script.setVersion(scriptVersion);
-				
-				// Get the actions
-				List<Action> actionList = new ArrayList();
-				String queryActions = "select SCRIPT_ID, SCRIPT_VRS_NB, ACTION_ID, ACTION_NB from "
-						+ this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().getMetadataTableConfiguration().getTableName("Actions")
-						+ " where SCRIPT_ID = " + script.getId() + " and SCRIPT_VRS_NB = " + scriptVersionNumber
-						+ " order by ACTION_NB asc ";
-				CachedRowSet crsActions = null;
-				crsActions = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().executeQuery(queryActions);
-				while (crsActions.next()) {
-					actionList.add(actionConfiguration.getAction(crsActions.getLong("ACTION_ID")));
-				}
-				script.setActions(actionList);
-				crsActions.close();
-
-				// Get parameters
-				CachedRowSet crsScriptParameters = null;
-				String queryScriptParameters = "select SCRIPT_ID, SCRIPT_VRS_NB, SCRIPT_PAR_NM from "
-						+ this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ScriptParameters")
-						+ " where SCRIPT_ID = " + script.getId() + " and SCRIPT_VRS_NB = " + scriptVersionNumber;
-				crsScriptParameters = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration()
-						.executeQuery(queryScriptParameters);
-				List<ScriptParameter> scriptParameterList = new ArrayList();
-				while (crsScriptParameters.next()) {
-					scriptParameterList.add(scriptParameterConfiguration.getScriptParameter(script.getId(),
-							scriptVersionNumber, crsScriptParameters.getString("SCRIPT_PAR_NM")));
+				ScriptVersion scriptVersion = new ScriptVersion();
+				crsScript.getLong("SCRIPT_VRS_NB");
+				if (!crsScript.wasNull()) {
+					scriptVersion.setNumber(scriptVersionNumber);
+					scriptVersion.setDescription(crsScript.getString("SCRIPT_VRS_DSC"));
 				}
-				script.setParameters(scriptParameterList);
-				crsScriptParameters.close();
-
+				script.setVersion(scriptVersion);
 			}
 			crsScript.close();
-		} catch (Exception e) {
+
+			if (script.getName() == null || script.getName().equals("")) {
+				throw new RuntimeException("script.error.notfound");
+			}
+
+			// Get the actions
+			List<Action> actionList = new ArrayList<Action>();
+			Map<Long, List<ActionParameter>> actionParameterLists = new HashMap<Long, List<ActionParameter>>();
+			String queryActions = "select ACTION_ID, ACTION_NB, ACTION_TYP_NM, ACTION_NM, ACTION_DSC, COMP_NM, ITERATION_VAL, CONDITION_VAL, EXP_ERR_FL, STOP_ERR_FL from "
+					+ actionsTable + " where SCRIPT_ID = ? and SCRIPT_VRS_NB = ? order by ACTION_NB asc ";
+			CachedRowSet crsActions = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration()
+					.executeQuery(queryActions, SqlParameter.ofLong(script.getId()), SqlParameter.ofLong(scriptVersionNumber));
+			while (crsActions.next()) {
+				Action action = new Action();
+				action.setId(crsActions.getLong("ACTION_ID"));
+				action.setNumber(crsActions.getLong("ACTION_NB"));
+				action.setType(crsActions.getString("ACTION_TYP_NM"));
+				action.setName(crsActions.getString("ACTION_NM"));
+				action.setDescription(crsActions.getString("ACTION_DSC"));
+				action.setComponent(crsActions.getString("COMP_NM"));
+				action.setIteration(crsActions.getString("ITERATION_VAL"));
+				action.setCondition(crsActions.getString("CONDITION_VAL"));
+				action.setErrorExpected(crsActions.getString("EXP_ERR_FL"));
+				action.setErrorStop(crsActions.getString("STOP_ERR_FL"));
+
+				List<ActionParameter> actionParameterList = new ArrayList<ActionParameter>();
+				action.setParameters(actionParameterList);
+				actionParameterLists.put(action.getId(), actionParameterList);
+				actionList.add(action);
+			}
+			script.setActions(actionList);
+			crsActions.close();
+
+			// Get the parameters of all actions at once
+			String queryActionParameters = "select a.ACTION_ID, a.ACTION_PAR_NM, a.ACTION_PAR_VAL from "
+					+ actionParametersTable + " a inner join " + actionsTable
+					+ " b on a.ACTION_ID = b.ACTION_ID where b.SCRIPT_ID = ? and b.SCRIPT_VRS_NB = ?";
+			CachedRowSet crsActionParameters = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration()
+					.executeQuery(queryActionParameters, SqlParameter.ofLong(script.getId()), SqlParameter.ofLong(scriptVersionNumber));
+			while (crsActionParameters.next()) {
+				List<ActionParameter> actionParameterList = actionParameterLists.get(crsActionParameters.getLong("ACTION_ID"));
+				if (actionParameterList == null) continue;
+
+				ActionParameter actionParameter = new ActionParameter();
+				actionParameter.setName(crsActionParameters.getString("ACTION_PAR_NM"));
+				actionParameter.setValue(crsActionParameters.getString("ACTION_PAR_VAL"));
+				actionParameterList.add(actionParameter);
+			}
+			crsActionParameters.close();
+
+			// Get parameters
+			String queryScriptParameters = "select SCRIPT_PAR_NM, SCRIPT_PAR_VAL from " + scriptParametersTable
+					+ " where SCRIPT_ID = ? and SCRIPT_VRS_NB = ?";
+			CachedRowSet crsScriptParameters = this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration()
+					.executeQuery(queryScriptParameters, SqlParameter.ofLong(script.getId()), SqlParameter.ofLong(scriptVersionNumber));
+			List<ScriptParameter> scriptParameterList = new ArrayList<ScriptParameter>();
+			while (crsScriptParameters.next()) {
+				ScriptParameter scriptParameter = new ScriptParameter();
+				scriptParameter.setName(crsScriptParameters.getString("SCRIPT_PAR_NM"));
+				scriptParameter.setValue(crsScriptParameters.getString("SCRIPT_PAR_VAL"));
+				scriptParameterList.add(scriptParameter);
+			}
+			script.setParameters(scriptParameterList);
+			crsScriptParameters.close();
+		} catch (SQLException e) {
 			StringWriter StackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(StackTrace));
-		}
-
-		if (script.getName() == null || script.getName().equals("")) {
-			throw new RuntimeException("script.error.notfound");
+			// A partially loaded script must never be cached
+			throw new RuntimeException(e.getMessage(), e);
 		}
 
 		return script;
 	}
 
+	private String getTableName(String tableName) {
+		return this.getFrameworkExecution().getMetadataControl().getDesignRepositoryConfiguration()
+				.getMetadataTableConfiguration().getTableName(tableName);
+	}
+
 	// Get
 	public ListObject getScripts() {
 		List<Script> scriptList = new ArrayList<>();
@@ -21,6 +21,7 @@ import io.metadew.iesi.connection.tools.FileTools;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.configuration.MetadataRepositoryCategoryConfiguration;
 import io.metadew.iesi.metadata.configuration.MetadataRepositoryConfiguration;
+import io.metadew.iesi.metadata.configuration.ScriptCache;
 
 public class MetadataRepositoryOperation {
 
@@ -70,6 +71,7 @@ public class MetadataRepositoryOperation {
 			e.printStackTrace(new PrintWriter(StackTrace));
 		}
 
+		ScriptCache.invalidate();
 		this.getFrameworkExecution().getFrameworkLog().log("metadata.clean.end", Level.INFO);
 
 	}
@@ -114,6 +116,7 @@ public class MetadataRepositoryOperation {
 			e.printStackTrace(new PrintWriter(StackTrace));
 		}
 
+		ScriptCache.invalidate();
 		this.getFrameworkExecution().getFrameworkLog().log("metadata.drop.end", Level.INFO);
 
 	}
@@ -335,6 +338,8 @@ public class MetadataRepositoryOperation {
 					this.saveMetadataRepositoryDDL(dataObjectOperation.getMetadataRepositoryDdl());
 				} else {
 					dataObjectOperation.saveToMetadataRepository();
+					// Scripts loaded before are outdated
+					ScriptCache.invalidate();
 				}
 
 				// Move file to archive folder
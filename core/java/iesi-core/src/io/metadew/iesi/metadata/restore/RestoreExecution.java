@@ -52,6 +52,7 @@ public class RestoreExecution {
 		
 		// Log End
 		this.getExecutionControl().logEnd(this);
+		this.getExecutionControl().terminate();
 
 		// Exit the execution
 		// this.getEoControl().endExecution();
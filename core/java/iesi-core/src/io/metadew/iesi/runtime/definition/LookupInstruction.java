@@ -0,0 +1,78 @@
+package io.metadew.iesi.runtime.definition;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parsed form of a {{...}} instruction: a lookup (=), data generation (*) or script (!) instruction.
+ * Instructions are parsed once and cached on their text.
+ *
+ * @author peter.billen
+ *
+ */
+public class LookupInstruction {
+
+	public static final String LOOKUP = "=";
+	public static final String GENERATION = "*";
+	public static final String SCRIPT = "!";
+
+	private static final int CACHE_SIZE = 5000;
+
+	private static final Map<String, LookupInstruction> instructionCache = Collections
+			.synchronizedMap(new LinkedHashMap<String, LookupInstruction>(256, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, LookupInstruction> eldest) {
+					return this.size() > CACHE_SIZE;
+				}
+			});
+
+	private String type;
+	private String context;
+	private String scope;
+
+	private LookupInstruction(String instruction) {
+		this.type = instruction.substring(0, 1).toLowerCase();
+		if (this.type.equals(LOOKUP) || this.type.equals(GENERATION)) {
+			int lookupOpenPos = instruction.indexOf("(");
+			int lookupClosePos = instruction.indexOf(")", lookupOpenPos + 1);
+			this.context = instruction.substring(1, lookupOpenPos).trim().toLowerCase();
+			this.scope = instruction.substring(lookupOpenPos + 1, lookupClosePos).trim();
+		} else if (this.type.equals(SCRIPT)) {
+			int lookupOpenPos = instruction.indexOf("(");
+			int lookupClosePos = instruction.lastIndexOf(")");
+			this.context = instruction.substring(1, lookupOpenPos).trim().toLowerCase();
+			String lookupScope = instruction.substring(lookupOpenPos + 1, lookupClosePos).trim();
+			if (lookupScope.startsWith("\"")) lookupScope = lookupScope.substring(1);
+			if (lookupScope.endsWith("\"")) lookupScope = lookupScope.substring(0, lookupScope.length() - 1);
+			this.scope = lookupScope;
+		}
+	}
+
+	// Methods
+	public static LookupInstruction parse(String instruction) {
+		LookupInstruction lookupInstruction = instructionCache.get(instruction);
+		if (lookupInstruction == null) {
+			// Invalid instructions fail here and are not cached
+			lookupInstruction = new LookupInstruction(instruction);
+			instructionCache.put(instruction, lookupInstruction);
+		}
+		return lookupInstruction;
+	}
+
+	// Getters and Setters
+	public String getType() {
+		return type;
+	}
+
+	public String getContext() {
+		return context;
+	}
+
+	public String getScope() {
+		return scope;
+	}
+
+}
@@ -0,0 +1,117 @@
+package io.metadew.iesi.runtime.variable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runtime variable store kept in memory. Variables are held in a concurrent map per run.
+ * Optionally, changed runs are copied at a fixed interval to a SQLite store in the background
+ * so that the variables can be inspected after an execution has failed.
+ *
+ * @author peter.billen
+ *
+ */
+public class InMemoryRuntimeVariableStore implements RuntimeVariableStore {
+
+	private static final long SNAPSHOT_TERMINATION_TIMEOUT = 30000;
+
+	private final Map<String, Map<String, RuntimeVariableEntry>> runtimeVariables = new ConcurrentHashMap<String, Map<String, RuntimeVariableEntry>>();
+	private final Map<String, Boolean> changedRuns = new ConcurrentHashMap<String, Boolean>();
+	private SqliteRuntimeVariableStore snapshotStore;
+	private ScheduledExecutorService snapshotService;
+
+	public InMemoryRuntimeVariableStore() {
+
+	}
+
+	public InMemoryRuntimeVariableStore(SqliteRuntimeVariableStore snapshotStore, long snapshotInterval) {
+		this.snapshotStore = snapshotStore;
+		this.snapshotService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "iesi-runtime-variable-snapshot");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.snapshotService.scheduleWithFixedDelay(this::snapshot, snapshotInterval, snapshotInterval,
+				TimeUnit.MILLISECONDS);
+	}
+
+	// Methods
+	public void setRuntimeVariable(String runId, long processId, String name, String value) {
+		this.runtimeVariables.computeIfAbsent(runId, k -> new ConcurrentHashMap<String, RuntimeVariableEntry>())
+				.put(name, new RuntimeVariableEntry(processId, name, value == null ? "" : value));
+		this.markChanged(runId);
+	}
+
+	public String getRuntimeVariableValue(String runId, String name) {
+		Map<String, RuntimeVariableEntry> runVariables = this.runtimeVariables.get(runId);
+		if (runVariables == null) {
+			return "";
+		}
+		RuntimeVariableEntry runtimeVariableEntry = runVariables.get(name);
+		return runtimeVariableEntry == null ? "" : runtimeVariableEntry.getValue();
+	}
+
+	public void cleanRuntimeVariables(String runId) {
+		this.runtimeVariables.remove(runId);
+		this.markChanged(runId);
+	}
+
+	public void cleanRuntimeVariables(String runId, long processId) {
+		Map<String, RuntimeVariableEntry> runVariables = this.runtimeVariables.get(runId);
+		if (runVariables == null) {
+			return;
+		}
+		runVariables.values().removeIf(runtimeVariableEntry -> runtimeVariableEntry.getProcessId() == processId);
+		this.markChanged(runId);
+	}
+
+	/**
+	 * Stop the background snapshots. A snapshot in progress is completed and the last changes are written
+	 * before returning, so the run cache can be removed afterwards.
+	 */
+	public void close() {
+		if (this.snapshotService == null) {
+			return;
+		}
+
+		this.snapshotService.shutdown();
+		try {
+			if (!this.snapshotService.awaitTermination(SNAPSHOT_TERMINATION_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				this.snapshotService.shutdownNow();
+				this.snapshotService.awaitTermination(SNAPSHOT_TERMINATION_TIMEOUT, TimeUnit.MILLISECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.snapshotService = null;
+		this.snapshot();
+	}
+
+	private void markChanged(String runId) {
+		if (this.snapshotStore != null) {
+			this.changedRuns.put(runId, Boolean.TRUE);
+		}
+	}
+
+	private synchronized void snapshot() {
+		for (String runId : new ArrayList<String>(this.changedRuns.keySet())) {
+			this.changedRuns.remove(runId);
+			Map<String, RuntimeVariableEntry> runVariables = this.runtimeVariables.get(runId);
+			List<RuntimeVariableEntry> runtimeVariableEntries = runVariables == null
+					? new ArrayList<RuntimeVariableEntry>()
+					: new ArrayList<RuntimeVariableEntry>(runVariables.values());
+			try {
+				this.snapshotStore.replaceRuntimeVariables(runId, runtimeVariableEntries);
+			} catch (RuntimeException e) {
+				// The snapshot is informational only, retry with the next interval
+				this.changedRuns.put(runId, Boolean.TRUE);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,34 @@
+package io.metadew.iesi.runtime.variable;
+
+/**
+ * Value of a runtime variable together with the process that set it.
+ *
+ * @author peter.billen
+ *
+ */
+public class RuntimeVariableEntry {
+
+	private final long processId;
+	private final String name;
+	private final String value;
+
+	public RuntimeVariableEntry(long processId, String name, String value) {
+		this.processId = processId;
+		this.name = name;
+		this.value = value;
+	}
+
+	// Getters and Setters
+	public long getProcessId() {
+		return processId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+}
@@ -0,0 +1,25 @@
+package io.metadew.iesi.runtime.variable;
+
+/**
+ * Storage of the runtime variables of script executions.
+ * Variables are scoped by run id and process id; a name is unique within a run.
+ *
+ * @author peter.billen
+ *
+ */
+public interface RuntimeVariableStore {
+
+	public void setRuntimeVariable(String runId, long processId, String name, String value);
+
+	/**
+	 * Get the value of a runtime variable, or an empty string if it has not been set.
+	 */
+	public String getRuntimeVariableValue(String runId, String name);
+
+	public void cleanRuntimeVariables(String runId);
+
+	public void cleanRuntimeVariables(String runId, long processId);
+
+	public void close();
+
+}
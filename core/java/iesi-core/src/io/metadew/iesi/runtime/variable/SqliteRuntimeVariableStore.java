@@ -0,0 +1,138 @@
+package io.metadew.iesi.runtime.variable;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.rowset.CachedRowSet;
+
+import io.metadew.iesi.connection.database.SqliteDatabaseConnection;
+import io.metadew.iesi.connection.database.sql.SqlParameter;
+
+/**
+ * Runtime variable store backed by the PRC_RUN_VAR table of a SQLite run cache file.
+ *
+ * @author peter.billen
+ *
+ */
+public class SqliteRuntimeVariableStore implements RuntimeVariableStore {
+
+	private SqliteDatabaseConnection sqliteDatabaseConnection;
+	private String PRC_RUN_VAR = "PRC_RUN_VAR";
+
+	public SqliteRuntimeVariableStore(String runCacheFilePath) {
+		this.setSqliteDatabaseConnection(new SqliteDatabaseConnection(runCacheFilePath));
+		this.createRunVarTable();
+	}
+
+	private void createRunVarTable() {
+		String query = "CREATE TABLE " + this.getPRC_RUN_VAR() + " (" +
+				"RUN_ID TEXT NOT NULL," +
+				"PRC_ID NUMERIC NOT NULL," +
+				"VAR_NM TEXT NOT NULL," +
+				"VAR_VAL TEXT" +
+				")";
+		this.getSqliteDatabaseConnection().executeUpdate(query);
+	}
+
+	// Methods
+	public void cleanRuntimeVariables(String runId) {
+		String query = "delete from " + this.getPRC_RUN_VAR()
+				+ " where RUN_ID = ?";
+		this.getSqliteDatabaseConnection().executeUpdate(query, SqlParameter.ofString(runId));
+	}
+
+	public void cleanRuntimeVariables(String runId, long processId) {
+		String query = "delete from " + this.getPRC_RUN_VAR()
+				+ " where RUN_ID = ? and PRC_ID = ?";
+		this.getSqliteDatabaseConnection().executeUpdate(query, SqlParameter.ofString(runId),
+				SqlParameter.ofLong(processId));
+	}
+
+	public void setRuntimeVariable(String runId, long processId, String name, String value) {
+		// Previous values are replaced
+		String query = "delete from " + this.getPRC_RUN_VAR()
+				+ " where run_id = ? and var_nm = ?";
+		this.getSqliteDatabaseConnection().executeUpdate(query, SqlParameter.ofString(runId),
+				SqlParameter.ofString(name));
+
+		// DtNow, new values can be stored
+		query = "INSERT INTO " + this.getPRC_RUN_VAR();
+		query = query + "(run_id, prc_id, var_nm, var_val)";
+		query = query + " VALUES (?, ?, ?, ?)";
+		this.getSqliteDatabaseConnection().executeUpdate(query, SqlParameter.ofString(runId),
+				SqlParameter.ofLong(processId), SqlParameter.ofString(name), SqlParameter.ofString(value));
+	}
+
+	public String getRuntimeVariableValue(String runId, String name) {
+		CachedRowSet crs = null;
+		String query = "select VAR_VAL from " + this.getPRC_RUN_VAR()
+				+ " where run_id = ? and var_nm = ?";
+		crs = this.getSqliteDatabaseConnection().executeQuery(query, SqlParameter.ofString(runId),
+				SqlParameter.ofString(name));
+		String value = "";
+		try {
+			while (crs.next()) {
+				value = crs.getString("VAR_VAL");
+			}
+			crs.close();
+		} catch (SQLException e) {
+			StringWriter StackTrace = new StringWriter();
+			e.printStackTrace(new PrintWriter(StackTrace));
+		}
+		return value;
+	}
+
+	/**
+	 * Replace all variables of a run in a single transaction: the delete and the inserts are committed together.
+	 */
+	public void replaceRuntimeVariables(String runId, List<RuntimeVariableEntry> runtimeVariableEntries) {
+		Map<String, List<SqlParameter[]>> sqlParameterRowsByQuery = new LinkedHashMap<String, List<SqlParameter[]>>();
+
+		String query = "delete from " + this.getPRC_RUN_VAR()
+				+ " where RUN_ID = ?";
+		List<SqlParameter[]> sqlParameterRows = new ArrayList<SqlParameter[]>();
+		sqlParameterRows.add(new SqlParameter[] { SqlParameter.ofString(runId) });
+		sqlParameterRowsByQuery.put(query, sqlParameterRows);
+
+		query = "INSERT INTO " + this.getPRC_RUN_VAR();
+		query = query + "(run_id, prc_id, var_nm, var_val)";
+		query = query + " VALUES (?, ?, ?, ?)";
+		sqlParameterRows = new ArrayList<SqlParameter[]>();
+		for (RuntimeVariableEntry runtimeVariableEntry : runtimeVariableEntries) {
+			sqlParameterRows.add(new SqlParameter[] { SqlParameter.ofString(runId),
+					SqlParameter.ofLong(runtimeVariableEntry.getProcessId()),
+					SqlParameter.ofString(runtimeVariableEntry.getName()),
+					SqlParameter.ofString(runtimeVariableEntry.getValue()) });
+		}
+		sqlParameterRowsByQuery.put(query, sqlParameterRows);
+
+		this.getSqliteDatabaseConnection().executeBatch(sqlParameterRowsByQuery);
+	}
+
+	public void close() {
+		// Connections are pooled and released with the run cache folder
+	}
+
+	// Getters and Setters
+	public SqliteDatabaseConnection getSqliteDatabaseConnection() {
+		return sqliteDatabaseConnection;
+	}
+
+	public void setSqliteDatabaseConnection(SqliteDatabaseConnection sqliteDatabaseConnection) {
+		this.sqliteDatabaseConnection = sqliteDatabaseConnection;
+	}
+
+	public String getPRC_RUN_VAR() {
+		return PRC_RUN_VAR;
+	}
+
+	public void setPRC_RUN_VAR(String pRC_RUN_VAR) {
+		PRC_RUN_VAR = pRC_RUN_VAR;
+	}
+
+}
@@ -19,7 +19,7 @@ import io.metadew.iesi.script.operation.ActionParameterOperation;
  * @author peter.billen
  *
  */
-public class ConIsAlive {
+public class ConnIsAlive {
 
 	private ActionExecution actionExecution;
 	private FrameworkExecution frameworkExecution;
@@ -30,11 +30,11 @@ public class ConIsAlive {
 	private HashMap<String, ActionParameterOperation> actionParameterOperationMap;
 
 	// Constructors
-	public ConIsAlive() {
+	public ConnIsAlive() {
 
 	}
 
-	public ConIsAlive(FrameworkExecution frameworkExecution, ExecutionControl executionControl, ScriptExecution scriptExecution,
+	public ConnIsAlive(FrameworkExecution frameworkExecution, ExecutionControl executionControl, ScriptExecution scriptExecution,
 			ActionExecution actionExecution) {
 		this.init(frameworkExecution, executionControl, scriptExecution, actionExecution);
 	}
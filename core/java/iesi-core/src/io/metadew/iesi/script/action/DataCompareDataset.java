@@ -8,11 +8,11 @@ import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.configuration.MappingConfiguration;
 import io.metadew.iesi.metadata.definition.ActionParameter;
 import io.metadew.iesi.metadata.definition.Mapping;
-import io.metadew.iesi.metadata.definition.Transformation;
 import io.metadew.iesi.script.execution.ActionExecution;
 import io.metadew.iesi.script.execution.ExecutionControl;
 import io.metadew.iesi.script.execution.ScriptExecution;
 import io.metadew.iesi.script.operation.ActionParameterOperation;
+import io.metadew.iesi.script.operation.DatasetCompareOperation;
 import io.metadew.iesi.script.operation.DatasetOperation;
 
 public class DataCompareDataset {
@@ -81,22 +81,22 @@ public class DataCompareDataset {
 			DatasetOperation rightDatasetOperation = this.getExecutionControl().getExecutionRuntime()
 					.getDatasetOperation(rightDatasetparts[0]);
 
-			long errorsDetected = 0;
 			MappingConfiguration mappingConfiguration = new MappingConfiguration(this.getFrameworkExecution());
 			Mapping mapping = mappingConfiguration.getMapping(this.getMappingName().getValue());
-			for (Transformation transformation : mapping.getTransformations()) {
-				String leftFieldValue = leftDatasetOperation
-						.getDataItem(leftDatasetparts[1] + "." + transformation.getLeftField());
-				String rightFieldValue = rightDatasetOperation
-						.getDataItem(rightDatasetparts[1] + "." + transformation.getRightField());
-				if (!leftFieldValue.equals(rightFieldValue)) {
-					String errorMessage = transformation.getLeftField() + ": " + leftFieldValue + " <> "
-							+ transformation.getRightField() + ": " + rightFieldValue;
-					this.getActionExecution().getActionControl().logOutput("err",errorMessage);
-					errorsDetected++;
-				}
+			DatasetCompareOperation datasetCompareOperation = new DatasetCompareOperation();
+			datasetCompareOperation.compare(leftDatasetOperation, leftDatasetparts[1], rightDatasetOperation,
+					rightDatasetparts[1], mapping.getTransformations());
+
+			for (String missingField : datasetCompareOperation.getMissingFields()) {
+				this.getActionExecution().getActionControl().logOutput("missing",missingField);
+			}
+			for (String errorMessage : datasetCompareOperation.getMismatches()) {
+				this.getActionExecution().getActionControl().logOutput("err",errorMessage);
 			}
+			this.getActionExecution().getActionControl().logOutput("matches",Long.toString(datasetCompareOperation.getMatchCount()));
+			this.getActionExecution().getActionControl().logOutput("mismatches",Integer.toString(datasetCompareOperation.getMismatches().size()));
 
+			long errorsDetected = datasetCompareOperation.getMismatches().size();
 			if (errorsDetected > 0) {
 				this.getActionExecution().getActionControl().increaseErrorCount(errorsDetected);
 				return false;
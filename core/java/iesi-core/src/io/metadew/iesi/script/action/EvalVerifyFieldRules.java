@@ -0,0 +1,309 @@
+package io.metadew.iesi.script.action;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.metadew.iesi.connection.DatabaseConnection;
+import io.metadew.iesi.connection.database.sql.SqlConditionalCountQuery;
+import io.metadew.iesi.connection.operation.ConnectionOperation;
+import io.metadew.iesi.framework.execution.FrameworkExecution;
+import io.metadew.iesi.metadata.configuration.ConnectionConfiguration;
+import io.metadew.iesi.metadata.definition.ActionParameter;
+import io.metadew.iesi.metadata.definition.Connection;
+import io.metadew.iesi.script.execution.ActionExecution;
+import io.metadew.iesi.script.execution.ExecutionControl;
+import io.metadew.iesi.script.execution.ScriptExecution;
+import io.metadew.iesi.script.operation.ActionParameterOperation;
+import io.metadew.iesi.script.operation.FieldRule;
+import io.metadew.iesi.script.operation.FieldRuleOperation;
+
+public class EvalVerifyFieldRules
+{
+
+	private ActionExecution actionExecution;
+
+	private FrameworkExecution frameworkExecution;
+
+	private ExecutionControl executionControl;
+
+	// Parameters
+	private ActionParameterOperation databaseName;
+
+	private ActionParameterOperation schemaName;
+
+	private ActionParameterOperation tableName;
+
+	private ActionParameterOperation rules;
+
+	private ActionParameterOperation filter;
+
+	private ActionParameterOperation connectionName;
+
+	private HashMap<String, ActionParameterOperation> actionParameterOperationMap;
+
+	// Constructors
+	public EvalVerifyFieldRules()
+	{
+
+	}
+
+	public EvalVerifyFieldRules(FrameworkExecution frameworkExecution, ExecutionControl executionControl,
+				ScriptExecution scriptExecution, ActionExecution actionExecution)
+	{
+		this.init(frameworkExecution, executionControl, scriptExecution, actionExecution);
+	}
+
+	public void init(FrameworkExecution frameworkExecution, ExecutionControl executionControl, ScriptExecution scriptExecution,
+				ActionExecution actionExecution)
+	{
+		this.setFrameworkExecution(frameworkExecution);
+		this.setExecutionControl(executionControl);
+		this.setActionExecution(actionExecution);
+		this.setActionParameterOperationMap(new HashMap<String, ActionParameterOperation>());
+	}
+
+	public void prepare()
+	{
+		// Reset Parameters
+		this.setDatabaseName(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
+					this.getActionExecution(), this.getActionExecution().getAction().getType(), "database"));
+		this.setSchemaName(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
+					this.getActionExecution(), this.getActionExecution().getAction().getType(), "schema"));
+		this.setTableName(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
+					this.getActionExecution(), this.getActionExecution().getAction().getType(), "table"));
+		this.setRules(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
+					this.getActionExecution(), this.getActionExecution().getAction().getType(), "rules"));
+		this.setFilter(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
+					this.getActionExecution(), this.getActionExecution().getAction().getType(), "filter"));
+		this.setConnectionName(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
+					this.getActionExecution(), this.getActionExecution().getAction().getType(), "connection"));
+
+		// Get Parameters
+		for (ActionParameter actionParameter : this.getActionExecution().getAction().getParameters())
+		{
+			if (actionParameter.getName().equalsIgnoreCase("database"))
+			{
+				this.getDatabaseName().setInputValue(actionParameter.getValue());
+			}
+			else if (actionParameter.getName().equalsIgnoreCase("schema"))
+			{
+				this.getSchemaName().setInputValue(actionParameter.getValue());
+			}
+			else if (actionParameter.getName().equalsIgnoreCase("table"))
+			{
+				this.getTableName().setInputValue(actionParameter.getValue());
+			}
+			else if (actionParameter.getName().equalsIgnoreCase("rules"))
+			{
+				this.getRules().setInputValue(actionParameter.getValue());
+			}
+			else if (actionParameter.getName().equalsIgnoreCase("filter"))
+			{
+				this.getFilter().setInputValue(actionParameter.getValue());
+			}
+			else if (actionParameter.getName().equalsIgnoreCase("connection"))
+			{
+				this.getConnectionName().setInputValue(actionParameter.getValue());
+			}
+		}
+
+		// Create parameter list
+		this.getActionParameterOperationMap().put("database", this.getDatabaseName());
+		this.getActionParameterOperationMap().put("schema", this.getSchemaName());
+		this.getActionParameterOperationMap().put("table", this.getTableName());
+		this.getActionParameterOperationMap().put("rules", this.getRules());
+		this.getActionParameterOperationMap().put("filter", this.getFilter());
+		this.getActionParameterOperationMap().put("connection", this.getConnectionName());
+	}
+
+	public boolean execute()
+	{
+		try
+		{
+			// Get Connection
+			ConnectionConfiguration connectionConfiguration = new ConnectionConfiguration(this.getFrameworkExecution());
+			Connection connection = connectionConfiguration.getConnection(this.getConnectionName().getValue(),
+						this.getExecutionControl().getEnvName());
+			ConnectionOperation connectionOperation = new ConnectionOperation(this.getFrameworkExecution());
+			DatabaseConnection databaseConnection = connectionOperation.getDatabaseConnection(connection);
+
+			// Run the action: all rules are counted in a single scan of the table
+			FieldRuleOperation fieldRuleOperation = new FieldRuleOperation(this.getRules().getValue());
+			SqlConditionalCountQuery sqlConditionalCountQuery = new SqlConditionalCountQuery(this.getTable());
+			sqlConditionalCountQuery.setFilter(this.getFilter().getValue());
+			fieldRuleOperation.addCounts(sqlConditionalCountQuery);
+			Map<String, Long> counts = sqlConditionalCountQuery.execute(databaseConnection);
+
+			long successTotal = 0;
+			long errorTotal = 0;
+			for (FieldRule fieldRule : fieldRuleOperation.getFieldRules())
+			{
+				long successCount = counts.get(fieldRule.getName() + ".pass");
+				long errorCount = counts.get(fieldRule.getName() + ".fail");
+				this.getActionExecution().getActionControl().logOutput(fieldRule.getName() + ".pass", Long.toString(successCount));
+				this.getActionExecution().getActionControl().logOutput(fieldRule.getName() + ".fail", Long.toString(errorCount));
+				successTotal += successCount;
+				errorTotal += errorCount;
+				this.evaluate(errorCount);
+			}
+			this.getActionExecution().getActionControl().logOutput("pass", Long.toString(successTotal));
+			this.getActionExecution().getActionControl().logOutput("fail", Long.toString(errorTotal));
+			return true;
+		}
+		catch (Exception e)
+		{
+			StringWriter StackTrace = new StringWriter();
+			e.printStackTrace(new PrintWriter(StackTrace));
+
+			this.getActionExecution().getActionControl().increaseErrorCount();
+
+			this.getActionExecution().getActionControl().logOutput("exception", e.getMessage());
+			this.getActionExecution().getActionControl().logOutput("stacktrace", StackTrace.toString());
+
+			return false;
+		}
+
+	}
+
+	private void evaluate(long errorTotal)
+	{
+		if (errorTotal == 0)
+		{
+			if (this.getActionExecution().getAction().getErrorExpected().equalsIgnoreCase("y"))
+			{
+				this.getActionExecution().getActionControl().increaseErrorCount();
+			}
+			else
+			{
+				this.getActionExecution().getActionControl().increaseSuccessCount();
+			}
+		}
+		else
+		{
+			if (this.getActionExecution().getAction().getErrorExpected().equalsIgnoreCase("y"))
+			{
+				this.getActionExecution().getActionControl().increaseSuccessCount();
+			}
+			else
+			{
+				this.getActionExecution().getActionControl().increaseErrorCount();
+			}
+		}
+	}
+
+	private String getTable()
+	{
+		if (this.getSchemaName().getValue() == null || this.getSchemaName().getValue().trim().isEmpty())
+		{
+			return this.getTableName().getValue();
+		}
+		else
+		{
+			return this.getSchemaName().getValue() + "." + this.getTableName().getValue();
+		}
+	}
+
+	// Getters and Setters
+	public FrameworkExecution getFrameworkExecution()
+	{
+		return frameworkExecution;
+	}
+
+	public void setFrameworkExecution(FrameworkExecution frameworkExecution)
+	{
+		this.frameworkExecution = frameworkExecution;
+	}
+
+	public ExecutionControl getExecutionControl()
+	{
+		return executionControl;
+	}
+
+	public void setExecutionControl(ExecutionControl executionControl)
+	{
+		this.executionControl = executionControl;
+	}
+
+	public ActionExecution getActionExecution()
+	{
+		return actionExecution;
+	}
+
+	public void setActionExecution(ActionExecution actionExecution)
+	{
+		this.actionExecution = actionExecution;
+	}
+
+	public ActionParameterOperation getDatabaseName()
+	{
+		return databaseName;
+	}
+
+	public void setDatabaseName(ActionParameterOperation databaseName)
+	{
+		this.databaseName = databaseName;
+	}
+
+	public ActionParameterOperation getSchemaName()
+	{
+		return schemaName;
+	}
+
+	public void setSchemaName(ActionParameterOperation schemaName)
+	{
+		this.schemaName = schemaName;
+	}
+
+	public ActionParameterOperation getTableName()
+	{
+		return tableName;
+	}
+
+	public void setTableName(ActionParameterOperation tableName)
+	{
+		this.tableName = tableName;
+	}
+
+	public ActionParameterOperation getRules()
+	{
+		return rules;
+	}
+
+	public void setRules(ActionParameterOperation rules)
+	{
+		this.rules = rules;
+	}
+
+	public ActionParameterOperation getFilter()
+	{
+		return filter;
+	}
+
+	public void setFilter(ActionParameterOperation filter)
+	{
+		this.filter = filter;
+	}
+
+	public ActionParameterOperation getConnectionName()
+	{
+		return connectionName;
+	}
+
+	public void setConnectionName(ActionParameterOperation connectionName)
+	{
+		this.connectionName = connectionName;
+	}
+
+	public HashMap<String, ActionParameterOperation> getActionParameterOperationMap()
+	{
+		return actionParameterOperationMap;
+	}
+
+	public void setActionParameterOperationMap(HashMap<String, ActionParameterOperation> actionParameterOperationMap)
+	{
+		this.actionParameterOperationMap = actionParameterOperationMap;
+	}
+
+}
@@ -2,11 +2,15 @@ package io.metadew.iesi.script.action;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.HashMap;
-
-import javax.sql.rowset.CachedRowSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import io.metadew.iesi.connection.DatabaseConnection;
+import io.metadew.iesi.connection.database.sql.SqlConditionalCountQuery;
 import io.metadew.iesi.connection.operation.ConnectionOperation;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.configuration.ConnectionConfiguration;
@@ -35,6 +39,8 @@ public class EvalVerifyMandatoryField
 
 	private ActionParameterOperation fieldName;
 
+	private ActionParameterOperation fieldNames;
+
 	private ActionParameterOperation evaluationFieldName;
 
 	private ActionParameterOperation evaluationFieldValue;
@@ -44,9 +50,7 @@ public class EvalVerifyMandatoryField
 	private ActionParameterOperation connectionName;
 
 	// Local
-	private String sqlSuccess;
-
-	private String sqlError;
+	private SqlConditionalCountQuery sqlCountQuery;
 
 	private HashMap<String, ActionParameterOperation> actionParameterOperationMap;
 
@@ -82,6 +86,8 @@ public class EvalVerifyMandatoryField
 					this.getActionExecution(), this.getActionExecution().getAction().getType(), "table"));
 		this.setFieldName(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
 					this.getActionExecution(), this.getActionExecution().getAction().getType(), "field"));
+		this.setFieldNames(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
+					this.getActionExecution(), this.getActionExecution().getAction().getType(), "fields"));
 		this.setEvaluationFieldName(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
 					this.getActionExecution(), this.getActionExecution().getAction().getType(), "evaluationField"));
 		this.setEvaluationFieldValue(new ActionParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
@@ -110,6 +116,10 @@ public class EvalVerifyMandatoryField
 			{
 				this.getFieldName().setInputValue(actionParameter.getValue());
 			}
+			else if (actionParameter.getName().equalsIgnoreCase("fields"))
+			{
+				this.getFieldNames().setInputValue(actionParameter.getValue());
+			}
 			else if (actionParameter.getName().equalsIgnoreCase("evaluationfield"))
 			{
 				this.getEvaluationFieldName().setInputValue(actionParameter.getValue());
@@ -133,6 +143,7 @@ public class EvalVerifyMandatoryField
 		this.getActionParameterOperationMap().put("schema", this.getSchemaName());
 		this.getActionParameterOperationMap().put("table", this.getTableName());
 		this.getActionParameterOperationMap().put("field", this.getFieldName());
+		this.getActionParameterOperationMap().put("fields", this.getFieldNames());
 		this.getActionParameterOperationMap().put("evaluationField", this.getEvaluationFieldName());
 		this.getActionParameterOperationMap().put("evaluationValue", this.getEvaluationFieldValue());
 		this.getActionParameterOperationMap().put("isMandatory", this.getMandatoryFlag());
@@ -152,53 +163,27 @@ public class EvalVerifyMandatoryField
 
 			// Run the action
 			this.getTestQueries();
+			Map<String, Long> counts = this.getSqlCountQuery().execute(databaseConnection);
+
 			long successTotal = 0;
 			long errorTotal = 0;
-			CachedRowSet crs = null;
-
-			// Success
-			crs = databaseConnection.executeQuery(this.getSqlSuccess());
-			while (crs.next())
-			{
-				successTotal = crs.getLong("RES_SUC");
-			}
-			crs.close();
-			this.getActionExecution().getActionControl().logOutput("pass", Long.toString(successTotal));
-
-			// Error
-			crs = databaseConnection.executeQuery(this.getSqlError());
-			while (crs.next())
-			{
-				errorTotal = crs.getLong("RES_ERR");
-			}
-			crs.close();
-			this.getActionExecution().getActionControl().logOutput("fail", Long.toString(errorTotal));
-
-			// Evaluation
-			if (errorTotal == 0)
-			{
-				if (this.getActionExecution().getAction().getErrorExpected().equalsIgnoreCase("y"))
-				{
-					this.getActionExecution().getActionControl().increaseErrorCount();
-				}
-				else
-				{
-					this.getActionExecution().getActionControl().increaseSuccessCount();
-				}
-				return true;
-			}
-			else
+			List<String> fields = this.getFields();
+			for (String field : fields)
 			{
-				if (this.getActionExecution().getAction().getErrorExpected().equalsIgnoreCase("y"))
+				long successCount = counts.get(field + ".pass");
+				long errorCount = counts.get(field + ".fail");
+				if (fields.size() > 1)
 				{
-					this.getActionExecution().getActionControl().increaseSuccessCount();
+					this.getActionExecution().getActionControl().logOutput(field + ".pass", Long.toString(successCount));
+					this.getActionExecution().getActionControl().logOutput(field + ".fail", Long.toString(errorCount));
 				}
-				else
-				{
-					this.getActionExecution().getActionControl().increaseErrorCount();
-				}
-				return true;
+				successTotal += successCount;
+				errorTotal += errorCount;
+				this.evaluate(errorCount);
 			}
+			this.getActionExecution().getActionControl().logOutput("pass", Long.toString(successTotal));
+			this.getActionExecution().getActionControl().logOutput("fail", Long.toString(errorTotal));
+			return true;
 		}
 		catch (Exception e)
 		{
@@ -215,10 +200,61 @@ public class EvalVerifyMandatoryField
 
 	}
 
+	private void evaluate(long errorTotal)
+	{
+		if (errorTotal == 0)
+		{
+			if (this.getActionExecution().getAction().getErrorExpected().equalsIgnoreCase("y"))
+			{
+				this.getActionExecution().getActionControl().increaseErrorCount();
+			}
+			else
+			{
+				this.getActionExecution().getActionControl().increaseSuccessCount();
+			}
+		}
+		else
+		{
+			if (this.getActionExecution().getAction().getErrorExpected().equalsIgnoreCase("y"))
+			{
+				this.getActionExecution().getActionControl().increaseSuccessCount();
+			}
+			else
+			{
+				this.getActionExecution().getActionControl().increaseErrorCount();
+			}
+		}
+	}
+
+	/*
+	 * The field parameter holds one field or expression, which can contain commas.
+	 * The fields parameter holds a comma separated list of field names.
+	 */
+	private List<String> getFields()
+	{
+		Set<String> fields = new LinkedHashSet<String>();
+		if (this.getFieldName().getValue() != null && !this.getFieldName().getValue().trim().isEmpty())
+		{
+			fields.add(this.getFieldName().getValue().trim());
+		}
+		if (this.getFieldNames().getValue() != null)
+		{
+			for (String field : this.getFieldNames().getValue().split(","))
+			{
+				if (!field.trim().isEmpty())
+				{
+					fields.add(field.trim());
+				}
+			}
+		}
+		return new ArrayList<String>(fields);
+	}
+
 	// Perform verification
 	private boolean getTestQueries()
 	{
 		boolean resTestQueries = false;
+		this.setSqlCountQuery(new SqlConditionalCountQuery(this.getSchemaName().getValue() + "." + this.getTableName().getValue()));
 
 		if (this.getMandatoryFlag().getValue().trim().equalsIgnoreCase("y"))
 		{
@@ -226,20 +262,14 @@ public class EvalVerifyMandatoryField
 			if ((this.getEvaluationFieldName().getValue() == null || this.getEvaluationFieldName().getValue().isEmpty())
 						&& (this.getEvaluationFieldValue().getValue() == null || this.getEvaluationFieldValue().getValue().isEmpty()))
 			{
-				if (this.getFieldName().getValue() != null && !this.getFieldName().getValue().isEmpty())
-				{
-					resTestQueries = this.defineTestQueries("target_field");
-				}
+				resTestQueries = this.defineTestQueries("target_field");
 			}
 
 			// Mandatory field check on evaluation column - evaluation_field
 			if (this.getEvaluationFieldName().getValue() != null && !this.getEvaluationFieldName().getValue().isEmpty()
 						&& (this.getEvaluationFieldValue().getValue() == null || this.getEvaluationFieldValue().getValue().isEmpty()))
 			{
-				if (this.getFieldName().getValue() != null && !this.getFieldName().getValue().isEmpty())
-				{
-					resTestQueries = this.defineTestQueries("evaluation_field");
-				}
+				resTestQueries = this.defineTestQueries("evaluation_field");
 			}
 
 			// Mandatory field check on evaluation column and value -
@@ -247,58 +277,44 @@ public class EvalVerifyMandatoryField
 			if (this.getEvaluationFieldName().getValue() != null && !this.getEvaluationFieldName().getValue().isEmpty()
 						&& this.getEvaluationFieldValue().getValue() != null && !this.getEvaluationFieldValue().getValue().isEmpty())
 			{
-				if (this.getFieldName().getValue() != null && !this.getFieldName().getValue().isEmpty())
-				{
-					resTestQueries = this.defineTestQueries("evaluation_value");
-				}
+				resTestQueries = this.defineTestQueries("evaluation_value");
 			}
 		}
 
 		return resTestQueries;
 	}
 
+	/*
+	 * All fields are counted in a single scan of the table. The evaluation condition is shared by all fields and
+	 * restricts the rows that are counted.
+	 */
 	private boolean defineTestQueries(String check_type)
 	{
-
-		boolean resTestQueries = true;
 		if (check_type.equals("target_field"))
 		{
-			// Rule 1
-			this.setSqlSuccess("select count(*) as \"RES_SUC\" from " + this.getSchemaName().getValue() + "."
-						+ this.getTableName().getValue() + " where " + this.getFieldName().getValue() + " is not null or trim("
-						+ this.getFieldName().getValue() + ") <> ''");
-			this.setSqlError("select count(*) as \"RES_ERR\" from " + this.getSchemaName().getValue() + "."
-						+ this.getTableName().getValue() + " where " + this.getFieldName().getValue() + " is null or trim("
-						+ this.getFieldName().getValue() + ") = ''");
+			this.getSqlCountQuery().setFilter("");
 		}
 		else if (check_type.equals("evaluation_field"))
 		{
-			this.setSqlSuccess("select count(*) as \"RES_SUC\" from " + this.getSchemaName().getValue() + "."
-						+ this.getTableName().getValue() + " where (" + this.getFieldName().getValue() + " is not null or trim("
-						+ this.getFieldName().getValue() + ") <> '') and (" + this.getEvaluationFieldName().getValue()
-						+ " is not null or trim(" + this.getEvaluationFieldName().getValue() + ") <> '')");
-			this.setSqlError("select count(*) as \"RES_ERR\" from " + this.getSchemaName().getValue() + "."
-						+ this.getTableName().getValue() + " where (" + this.getFieldName().getValue() + " is null or trim("
-						+ this.getFieldName().getValue() + ") = '') and (" + this.getEvaluationFieldName().getValue()
-						+ " is not null or trim(" + this.getEvaluationFieldName().getValue() + ") <> '')");
+			this.getSqlCountQuery().setFilter(this.getEvaluationFieldName().getValue() + " is not null or trim("
+						+ this.getEvaluationFieldName().getValue() + ") <> ''");
 		}
 		else if (check_type.equals("evaluation_value"))
 		{
-			this.setSqlSuccess("select count(*) as \"RES_SUC\" from " + this.getSchemaName().getValue() + "."
-						+ this.getTableName().getValue() + " where (" + this.getFieldName().getValue() + " is not null or trim("
-						+ this.getFieldName().getValue() + ") <> '') and " + this.getEvaluationFieldName().getValue() + "='"
-						+ this.getEvaluationFieldValue().getValue() + "'");
-			this.setSqlError("select count(*) as \"RES_ERR\" from " + this.getSchemaName().getValue() + "."
-						+ this.getTableName().getValue() + " where (" + this.getFieldName().getValue() + " is null or trim("
-						+ this.getFieldName().getValue() + ") = '') and " + this.getEvaluationFieldName().getValue() + "='"
+			this.getSqlCountQuery().setFilter(this.getEvaluationFieldName().getValue() + "='"
 						+ this.getEvaluationFieldValue().getValue() + "'");
 		}
 		else
 		{
-			resTestQueries = false;
+			return false;
 		}
 
-		return resTestQueries;
+		for (String field : this.getFields())
+		{
+			this.getSqlCountQuery().addCount(field + ".pass", field + " is not null or trim(" + field + ") <> ''");
+			this.getSqlCountQuery().addCount(field + ".fail", field + " is null or trim(" + field + ") = ''");
+		}
+		return !this.getFields().isEmpty();
 	}
 
 	// Getters and Setters
@@ -372,6 +388,16 @@ public class EvalVerifyMandatoryField
 		this.fieldName = fieldName;
 	}
 
+	public ActionParameterOperation getFieldNames()
+	{
+		return fieldNames;
+	}
+
+	public void setFieldNames(ActionParameterOperation fieldNames)
+	{
+		this.fieldNames = fieldNames;
+	}
+
 	public ActionParameterOperation getEvaluationFieldName()
 	{
 		return evaluationFieldName;
@@ -412,24 +438,14 @@ public class EvalVerifyMandatoryField
 		this.connectionName = connectionName;
 	}
 
-	public String getSqlSuccess()
-	{
-		return sqlSuccess;
-	}
-
-	public void setSqlSuccess(String sqlSuccess)
-	{
-		this.sqlSuccess = sqlSuccess;
-	}
-
-	public String getSqlError()
+	public SqlConditionalCountQuery getSqlCountQuery()
 	{
-		return sqlError;
+		return sqlCountQuery;
 	}
 
-	public void setSqlError(String sqlError)
+	public void setSqlCountQuery(SqlConditionalCountQuery sqlCountQuery)
 	{
-		this.sqlError = sqlError;
+		this.sqlCountQuery = sqlCountQuery;
 	}
 
 	public HashMap<String, ActionParameterOperation> getActionParameterOperationMap()
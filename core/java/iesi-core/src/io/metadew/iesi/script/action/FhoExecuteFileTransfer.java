@@ -8,6 +8,7 @@ import io.metadew.iesi.connection.HostConnection;
 import io.metadew.iesi.connection.operation.ConnectionOperation;
 import io.metadew.iesi.connection.operation.FileTransferOperation;
 import io.metadew.iesi.connection.operation.filetransfer.FileTransferResult;
+import io.metadew.iesi.connection.operation.filetransfer.FileTransfered;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.configuration.ConnectionConfiguration;
 import io.metadew.iesi.metadata.definition.ActionParameter;
@@ -143,6 +144,14 @@ public class FhoExecuteFileTransfer {
 
 			this.getActionExecution().getActionControl().logOutput("rc",Integer.toString(fileTransferResult.getReturnCode()));
 			this.getActionExecution().getActionControl().logOutput("files",Integer.toString(fileTransferResult.getDcFileTransferedList().size()));
+			this.getActionExecution().getActionControl().logOutput("files.failed",Integer.toString(fileTransferResult.getFailedCount()));
+			this.getActionExecution().getActionControl().logOutput("bytes",Long.toString(fileTransferResult.getBytesTransfered()));
+			this.getActionExecution().getActionControl().logOutput("throughput",Long.toString(fileTransferResult.getThroughput()));
+			for (FileTransfered fileTransfered : fileTransferResult.getDcFileTransferedList()) {
+				if (!fileTransfered.isTransfered()) {
+					this.getActionExecution().getActionControl().logError(fileTransfered.getSourceFileName(),fileTransfered.getMessage());
+				}
+			}
 			
 			return true;
 		} catch (Exception e) {
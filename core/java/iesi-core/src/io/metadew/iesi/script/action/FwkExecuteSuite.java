@@ -6,6 +6,9 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FilenameUtils;
 
@@ -14,6 +17,7 @@ import io.metadew.iesi.connection.FileConnection;
 import io.metadew.iesi.connection.operation.ConnectionOperation;
 import io.metadew.iesi.connection.tools.CompressionTools;
 import io.metadew.iesi.connection.tools.FolderTools;
+import io.metadew.iesi.framework.configuration.FrameworkStatus;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.configuration.ConnectionConfiguration;
 import io.metadew.iesi.metadata.definition.ActionParameter;
@@ -22,6 +26,7 @@ import io.metadew.iesi.metadata.definition.Script;
 import io.metadew.iesi.script.execution.ActionExecution;
 import io.metadew.iesi.script.execution.ExecutionControl;
 import io.metadew.iesi.script.execution.ScriptExecution;
+import io.metadew.iesi.script.execution.SuiteScriptExecutor;
 import io.metadew.iesi.script.operation.ActionParameterOperation;
 import io.metadew.iesi.script.operation.ActionSelectOperation;
 import io.metadew.iesi.script.operation.JsonInputOperation;
@@ -192,32 +197,8 @@ public class FwkExecuteSuite {
 				
 				// Run the suite
 				List<FileConnection> fileConnectionList = new ArrayList();
-				fileConnectionList = FolderTools.getConnectionsInFolder(buildAssetFolder, "regex", ".+\\.json", fileConnectionList);				
-				for (FileConnection fileConnection : fileConnectionList) {
-					try {
-						Script script = null;
-						
-						JsonInputOperation jsonInputOperation = new JsonInputOperation(this.getFrameworkExecution(), fileConnection.getFilePath());
-						script = jsonInputOperation.getScript();
-						if (script == null) {
-							System.out.println("No script found for execution");	
-							
-							this.getActionExecution().getActionControl().increaseWarningCount();
-						} else {
-							ScriptExecution scriptExecution = new ScriptExecution(this.getFrameworkExecution(), script);
-							scriptExecution.initializeAsRootScript(this.getEnvironmentName().getValue());
-							scriptExecution.setActionSelectOperation(new ActionSelectOperation(""));
-							scriptExecution.setExitOnCompletion(false);
-
-							scriptExecution.execute();
-							
-							this.getActionExecution().getActionControl().increaseSuccessCount();
-						}
-						
-					} catch (Exception e) {
-						this.getActionExecution().getActionControl().increaseErrorCount();						
-					}
-				}
+				fileConnectionList = FolderTools.getConnectionsInFolder(buildAssetFolder, "regex", ".+\\.json", fileConnectionList);
+				this.runSuite(fileConnectionList);
 			} catch (Exception e) {
 				throw new RuntimeException("Issue running the suite: " + e, e);
 			}
@@ -236,6 +217,68 @@ public class FwkExecuteSuite {
 
 	}
 
+	/*
+	 * Run the suite scripts on a fixed number of threads. Every script is a root script with its own runtime, so
+	 * runtime variables and run cache folders are not shared. Results are added in the order of the scripts.
+	 */
+	private void runSuite(List<FileConnection> fileConnectionList) throws InterruptedException {
+		int threadCount = Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.suite.threads", "1"));
+		if (threadCount <= 0) {
+			threadCount = Runtime.getRuntime().availableProcessors();
+		}
+		threadCount = Math.min(threadCount, Math.max(fileConnectionList.size(), 1));
+		boolean failFast = this.getFrameworkExecution().getSetting("script.execution.suite.failfast", "N")
+				.equalsIgnoreCase("y");
+		SuiteScriptExecutor suiteScriptExecutor = new SuiteScriptExecutor(threadCount, failFast);
+
+		List<Callable<String>> suiteScripts = new ArrayList<Callable<String>>();
+		for (FileConnection fileConnection : fileConnectionList) {
+			suiteScripts.add(() -> this.executeSuiteScript(fileConnection, suiteScriptExecutor));
+		}
+
+		List<Future<String>> results = suiteScriptExecutor.invokeAll(suiteScripts);
+		for (Future<String> result : results) {
+			try {
+				String status = result.get();
+				if (status == null) {
+					this.getActionExecution().getActionControl().increaseWarningCount();
+				} else if (status.equals(FrameworkStatus.SKIPPED.value())) {
+					this.getActionExecution().getActionControl().increaseSkipCount();
+				} else if (status.equals(FrameworkStatus.ERROR.value()) || status.equals(FrameworkStatus.STOPPED.value())) {
+					this.getActionExecution().getActionControl().increaseErrorCount();
+				} else if (status.equals(FrameworkStatus.WARNING.value())) {
+					this.getActionExecution().getActionControl().increaseWarningCount();
+				} else {
+					this.getActionExecution().getActionControl().increaseSuccessCount();
+				}
+			} catch (ExecutionException e) {
+				this.getActionExecution().getActionControl().increaseErrorCount();
+			}
+		}
+	}
+
+	/*
+	 * Returns the script status, or null if the file does not contain a script
+	 */
+	private String executeSuiteScript(FileConnection fileConnection, SuiteScriptExecutor suiteScriptExecutor) {
+		JsonInputOperation jsonInputOperation = new JsonInputOperation(this.getFrameworkExecution(), fileConnection.getFilePath());
+		Script script = jsonInputOperation.getScript();
+		if (script == null) {
+			System.out.println("No script found for execution");
+			return null;
+		}
+
+		ScriptExecution scriptExecution = new ScriptExecution(this.getFrameworkExecution(), script);
+		scriptExecution.initializeAsRootScript(this.getEnvironmentName().getValue(),
+				suiteScriptExecutor.getRunId(this.getFrameworkExecution().getFrameworkLog().getUuid().toString()),
+				suiteScriptExecutor.getRuntimeId());
+		scriptExecution.setActionSelectOperation(new ActionSelectOperation(""));
+		scriptExecution.setExitOnCompletion(false);
+
+		scriptExecution.execute();
+		return scriptExecution.getResult();
+	}
+
 	// Getters and Setters
 	public FrameworkExecution getFrameworkExecution() {
 		return frameworkExecution;
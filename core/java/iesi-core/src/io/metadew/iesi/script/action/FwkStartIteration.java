@@ -8,6 +8,7 @@ import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.definition.ActionParameter;
 import io.metadew.iesi.script.execution.ActionExecution;
 import io.metadew.iesi.script.execution.ExecutionControl;
+import io.metadew.iesi.script.execution.ScriptExecution;
 import io.metadew.iesi.script.operation.ActionParameterOperation;
 
 public class FwkStartIteration {
@@ -27,7 +28,17 @@ public class FwkStartIteration {
 	private HashMap<String, ActionParameterOperation> actionParameterOperationMap;
 
 	// Constructors
-	public FwkStartIteration(FrameworkExecution frameworkExecution, ExecutionControl executionControl, ActionExecution actionExecution) {
+	public FwkStartIteration() {
+
+	}
+
+	public FwkStartIteration(FrameworkExecution frameworkExecution, ExecutionControl executionControl, ScriptExecution scriptExecution,
+			ActionExecution actionExecution) {
+		this.init(frameworkExecution, executionControl, scriptExecution, actionExecution);
+	}
+
+	public void init(FrameworkExecution frameworkExecution, ExecutionControl executionControl, ScriptExecution scriptExecution,
+			ActionExecution actionExecution) {
 		this.setFrameworkExecution(frameworkExecution);
 		this.setExecutionControl(executionControl);
 		this.setActionExecution(actionExecution);
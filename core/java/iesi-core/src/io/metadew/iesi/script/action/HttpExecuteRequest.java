@@ -124,6 +124,14 @@ public class HttpExecuteRequest
 
 			// Run the action
 			HttpRequest httpRequest = new HttpRequest(requestOperation.getUrl().getValue());
+			if (!requestOperation.getConnectTimeout().getValue().trim().equals(""))
+			{
+				httpRequest.setConnectTimeout(Integer.parseInt(requestOperation.getConnectTimeout().getValue().trim()));
+			}
+			if (!requestOperation.getReadTimeout().getValue().trim().equals(""))
+			{
+				httpRequest.setReadTimeout(Integer.parseInt(requestOperation.getReadTimeout().getValue().trim()));
+			}
 			Iterator iterator = null;
 			ObjectMapper objectMapper = new ObjectMapper();
 			// Headers
@@ -152,7 +160,7 @@ public class HttpExecuteRequest
 				iterator.remove();
 			}
 
-			HttpConnection httpConnection = new HttpConnection(httpRequest);
+			HttpConnection httpConnection = new HttpConnection(this.getRequestName().getValue(), httpRequest);
 			HttpResponse httpResponse = new HttpResponse();
 
 			if (this.getRequestType().getValue().trim().equalsIgnoreCase("get"))
@@ -172,19 +180,32 @@ public class HttpExecuteRequest
 			if (httpResponse.getEntityString() != null && !httpResponse.getEntityString().equals(""))
 			{
 
-				JsonParsed jsonParsed = new JsonParsed();
 				try
 				{
-					jsonParsed = new JsonTools().parseJson("string", httpResponse.getEntityString());
-					this.setRuntimeVariable(jsonParsed);
-
+					String datasetName = "";
+					String datasetTableName = "";
 					if (!this.getSetDataset().getValue().equals(""))
 					{
 						String[] parts = this.getSetDataset().getValue().split("\\.");
-						String datasetName = parts[0];
-						String datasetTableName = parts[1];
+						datasetName = parts[0];
+						datasetTableName = parts[1];
+					}
+
+					if (this.getSetRuntimeVariables().getValue().equalsIgnoreCase("y"))
+					{
+						JsonParsed jsonParsed = new JsonTools().parseJson("string", httpResponse.getEntityString());
+						this.setRuntimeVariable(jsonParsed);
+						if (!datasetName.equals(""))
+						{
+							this.getExecutionControl().getExecutionRuntime().getDatasetOperation(datasetName).setDataset(datasetTableName,
+										jsonParsed);
+						}
+					}
+					else if (!datasetName.equals(""))
+					{
+						// The items go straight from the entity to the dataset
 						this.getExecutionControl().getExecutionRuntime().getDatasetOperation(datasetName).setDataset(datasetTableName,
-									jsonParsed);
+									"string", httpResponse.getEntityString());
 					}
 
 				}
@@ -1,24 +1,32 @@
 package io.metadew.iesi.script.action;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
-import com.jcraft.jsch.Channel;
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
-import com.jcraft.jsch.Session;
-import com.jcraft.jsch.UserInfo;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.SftpException;
 import javax.sql.rowset.CachedRowSet;
 
 import io.metadew.iesi.common.text.ParsingTools;
 import io.metadew.iesi.connection.FileConnection;
 import io.metadew.iesi.connection.HostConnection;
-import io.metadew.iesi.connection.host.LinuxHostUserInfo;
+import io.metadew.iesi.connection.host.pool.HostSession;
+import io.metadew.iesi.connection.host.pool.HostSessionPool;
 import io.metadew.iesi.connection.operation.ConnectionOperation;
 import io.metadew.iesi.connection.tools.FolderTools;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
@@ -118,36 +126,18 @@ public class WfaExecuteFilePing {
 			boolean connectionIsLocalHost = connectionOperation.isOnLocalConnection(dcConnection);
 
 			// Run the action
-			int i = 1;
 			long wait = this.getWaitInterval() * 1000;
 			if (wait <= 0)
 				wait = 1000;
-			boolean checkTimeout = false;
 			long timeout = this.getTimeoutInterval() * 1000;
-			long timeoutCounter = 0;
-			if (timeout > 0)
-				checkTimeout = true;
 
 			boolean done = false;
 			this.setStartTime(System.currentTimeMillis());
-			while (i == 1) {
-				if (this.doneWaiting(connection, connectionIsLocalHost)) {
-					done = true;
-					break;
-				}
-
-				if (checkTimeout) {
-					timeoutCounter += wait;
-					if (timeoutCounter >= timeout)
-						break;
-				}
-
-				try {
-					Thread.sleep(wait);
-				} catch (InterruptedException ex) {
-					Thread.currentThread().interrupt();
-				}
-
+			if (connectionIsLocalHost) {
+				done = this.waitForLocalFolder(wait, timeout);
+			} else {
+				this.getActionExecution().getActionControl().logOutput("conn.name",connection.getName());
+				done = this.waitForRemoteFolder(dcConnection, wait, timeout);
 			}
 
 			long elapsedTime = System.currentTimeMillis() - this.getStartTime();
@@ -175,29 +165,199 @@ public class WfaExecuteFilePing {
 
 	}
 
-	private boolean doneWaiting(Connection connection, boolean connectionIsLocalHost) {
-		try {
-			List<FileConnection> connectionsFound = null;
-			if (connectionIsLocalHost) {
-				connectionsFound = this.checkLocalFolder();
-			} else {
-				connectionsFound = this.checkRemoteFolder(connection);
+	private boolean waitForFolder(long wait, boolean checkTimeout, long timeout) {
+		long timeoutCounter = 0;
+		while (true) {
+			if (this.doneWaiting()) {
+				return true;
 			}
 
-			if (connectionsFound.size() > 0) {
-				if (this.getExpectedResult().getValue().equalsIgnoreCase("y")) {
-					// this.setRuntimeVariable(crs);
+			if (checkTimeout) {
+				timeoutCounter += wait;
+				if (timeoutCounter >= timeout)
+					return false;
+			}
+
+			try {
+				Thread.sleep(wait);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+	}
+
+	/*
+	 * Wait for file system events on the folder instead of listing it every interval. The folder is only listed
+	 * again when a matching file is created, changed or deleted. Falls back to polling if the folder can not be watched.
+	 */
+	private boolean waitForLocalFolder(long wait, long timeout) {
+		WatchService watchService = null;
+		Path folder = Paths.get(this.getFilePath().getValue());
+		try {
+			watchService = folder.getFileSystem().newWatchService();
+			folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+					StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException | UnsupportedOperationException e) {
+			this.closeWatchService(watchService);
+			return this.waitForFolder(wait, timeout > 0, timeout);
+		}
+
+		try {
+			long deadline = timeout > 0 ? this.getStartTime() + timeout : Long.MAX_VALUE;
+			// The folder is watched before the first listing, so a file arriving in between is not missed
+			boolean changed = true;
+			while (true) {
+				if (changed && this.doneWaiting()) {
 					return true;
-				} else {
+				}
+
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
 					return false;
 				}
-			} else {
-				if (this.getExpectedResult().getValue().equalsIgnoreCase("n")) {
-					return true;
-				} else {
+
+				WatchKey watchKey = watchService.poll(remaining, TimeUnit.MILLISECONDS);
+				if (watchKey == null) {
 					return false;
 				}
+
+				changed = false;
+				for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+					if (watchEvent.kind() == StandardWatchEventKinds.OVERFLOW
+							|| this.isFileMatch(watchEvent.context().toString())) {
+						changed = true;
+					}
+				}
+
+				if (!watchKey.reset()) {
+					// The folder can no longer be watched
+					long timeLeft = deadline - System.currentTimeMillis();
+					return this.waitForFolder(wait, timeout > 0, Math.max(timeLeft, 1));
+				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			this.closeWatchService(watchService);
+		}
+	}
+
+	/*
+	 * Hold one pooled session and sftp channel for the whole wait instead of connecting for every listing.
+	 * The interval between two listings doubles up to the maximum interval, with a random jitter so that
+	 * actions waiting on the same host do not list their folders at the same moment.
+	 * A connection lost during the wait is opened again at the next listing; the last error is raised if the wait
+	 * times out. Failing to connect or list the folder the first time fails the wait at once.
+	 */
+	private boolean waitForRemoteFolder(HostConnection hostConnection, long wait, long timeout)
+			throws JSchException, SftpException {
+		long maximumInterval = Math.max(Long.parseLong(
+				this.getFrameworkExecution().getSetting("script.execution.file.ping.interval.max", "60000")), wait);
+		int jitter = Math.min(Math.max(Integer.parseInt(
+				this.getFrameworkExecution().getSetting("script.execution.file.ping.jitter", "20")), 0), 100);
+		long deadline = timeout > 0 ? this.getStartTime() + timeout : Long.MAX_VALUE;
+
+		boolean done = false;
+		HostSessionPool hostSessionPool = hostConnection.getSessionPool();
+		HostSession hostSession = null;
+		ChannelSftp channelSftp = null;
+		boolean listed = false;
+		boolean reusable = false;
+		try {
+			long interval = wait;
+			while (true) {
+				Exception error = null;
+				try {
+					if (channelSftp == null) {
+						hostSession = hostSessionPool.borrowSession(hostConnection.getSessionFactory());
+						channelSftp = hostSession.openSftpChannel();
+					}
+					boolean expectedResult = this.isExpectedResult(this.checkRemoteFolder(channelSftp));
+					listed = true;
+					if (expectedResult) {
+						done = true;
+						break;
+					}
+				} catch (JSchException | SftpException e) {
+					this.releaseRemoteFolder(hostSessionPool, hostSession, channelSftp, false);
+					hostSession = null;
+					channelSftp = null;
+					if (!listed) {
+						throw e;
+					}
+					error = e;
+				}
+
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					if (error instanceof JSchException) {
+						throw (JSchException) error;
+					} else if (error instanceof SftpException) {
+						throw (SftpException) error;
+					}
+					break;
+				}
+
+				long spread = interval * jitter / 100;
+				long sleep = interval + (spread > 0 ? ThreadLocalRandom.current().nextLong(-spread, spread + 1) : 0);
+				try {
+					Thread.sleep(Math.max(Math.min(sleep, remaining), 1));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				interval = Math.min(interval * 2, maximumInterval);
+			}
+			reusable = true;
+		} finally {
+			this.releaseRemoteFolder(hostSessionPool, hostSession, channelSftp, reusable);
+		}
+		return done;
+	}
+
+	private void releaseRemoteFolder(HostSessionPool hostSessionPool, HostSession hostSession, ChannelSftp channelSftp,
+			boolean reusable) {
+		if (hostSession == null) {
+			return;
+		}
+		try {
+			if (channelSftp != null) {
+				hostSession.releaseSftpChannel(channelSftp, reusable);
+			}
+		} finally {
+			hostSessionPool.releaseSession(hostSession, reusable && channelSftp != null);
+		}
+	}
+
+	/*
+	 * Same file name filter as the listing of the local folder
+	 */
+	private boolean isFileMatch(String fileName) {
+		if (this.getFileName().getValue().equals("*") || this.getFileName().getValue().equals("")) {
+			return true;
+		} else if (ParsingTools.isRegexFunction(this.getFileName().getValue())) {
+			return fileName.matches(this.getFileName().getValue());
+		} else {
+			return fileName.equals(this.getFileName().getValue());
+		}
+	}
+
+	private void closeWatchService(WatchService watchService) {
+		if (watchService == null) {
+			return;
+		}
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			// Nothing left to release
+		}
+	}
+
+	private boolean doneWaiting() {
+		try {
+			return this.isExpectedResult(this.checkLocalFolder());
 		} catch (Exception e) {
 			StringWriter StackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(StackTrace));
@@ -212,6 +372,23 @@ public class WfaExecuteFilePing {
 
 	}
 
+	private boolean isExpectedResult(List<FileConnection> connectionsFound) {
+		if (connectionsFound.size() > 0) {
+			if (this.getExpectedResult().getValue().equalsIgnoreCase("y")) {
+				// this.setRuntimeVariable(crs);
+				return true;
+			} else {
+				return false;
+			}
+		} else {
+			if (this.getExpectedResult().getValue().equalsIgnoreCase("n")) {
+				return true;
+			} else {
+				return false;
+			}
+		}
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked"})
 	private List<FileConnection> checkLocalFolder() {
 		List<FileConnection> connectionsFound = new ArrayList();
@@ -266,110 +443,38 @@ public class WfaExecuteFilePing {
 
 	}
 
+	/*
+	 * A folder that does not exist yet has no files; any other listing error ends the wait
+	 */
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private List<FileConnection> checkRemoteFolder(Connection connection) {
+	private List<FileConnection> checkRemoteFolder(ChannelSftp channelSftp) throws SftpException {
 		List<FileConnection> connectionsFound = new ArrayList();
-		ConnectionOperation connectionOperation = new ConnectionOperation(this.getFrameworkExecution());
-		HostConnection hostConnection = connectionOperation.getHostConnection(connection);
-		this.getActionExecution().getActionControl().logOutput("conn.name",connection.getName());
-
+		Vector vv = null;
 		try {
-			JSch jsch = new JSch();
-			Session session = jsch.getSession(hostConnection.getUserName(), hostConnection.getHostName(),
-					hostConnection.getPortNumber());
-			session.setConfig("StrictHostKeyChecking", "no");
-			UserInfo ui = new LinuxHostUserInfo(hostConnection.getUserPassword());
-			session.setUserInfo(ui);
-			session.connect();
-
-			Channel channel = session.openChannel("sftp");
-			channel.connect();
-			ChannelSftp c = (ChannelSftp) channel;
-
-			c.cd(this.getFilePath().getValue());
-
-			String fileFilter;
-
-			Vector vv = null;
-
-			if (this.getFileName().getValue().equals("*") || this.getFileName().getValue().equals("")) {
-				// Check all files
-				vv = c.ls(this.getFilePath().getValue());
-				if (vv != null) {
-					for (int ii = 0; ii < vv.size(); ii++) {
-
-						Object obj = vv.elementAt(ii);
-						if (obj instanceof com.jcraft.jsch.ChannelSftp.LsEntry) {
-							String attributes = ((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getAttrs().toString();
-							if (attributes.substring(0, 1).equals("d")) {
-								// Ignore directories
-							} else {
-								FileConnection connectionFound = new FileConnection();
-								connectionFound.setLongName(((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getLongname());
-								connectionFound.setFileName(((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getFilename());
-								connectionFound.setAttributes(
-										((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getAttrs().toString());
-								connectionsFound.add(connectionFound);
-							}
-						}
-					}
-				}
-
-			} else if (ParsingTools.isRegexFunction(this.getFileName().getValue())) {
-				// Check regex expression files
-				fileFilter = this.getFileName().getValue();
-				vv = c.ls(this.getFilePath().getValue());
-				if (vv != null) {
-					for (int ii = 0; ii < vv.size(); ii++) {
-
-						Object obj = vv.elementAt(ii);
-						if (obj instanceof com.jcraft.jsch.ChannelSftp.LsEntry) {
-							String file_match = ((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getFilename();
-							if (file_match.matches(fileFilter)) {
-								String attributes = ((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getAttrs().toString();
-								if (attributes.substring(0, 1).equals("d")) {
-									// Ignore directories
-								} else {
-									FileConnection connectionFound = new FileConnection();
-									connectionFound.setLongName(((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getLongname());
-									connectionFound.setFileName(((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getFilename());
-									connectionFound.setAttributes(
-											((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getAttrs().toString());
-									connectionsFound.add(connectionFound);
-								}
-							}
-						}
-					}
-				}
+			vv = channelSftp.ls(this.getFilePath().getValue());
+		} catch (SftpException e) {
+			if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+				return connectionsFound;
+			}
+			throw e;
+		}
 
-			} else {
-				// Check exact file name
-				fileFilter = this.getFileName().getValue();
-				vv = c.ls(this.getFilePath().getName());
-				if (vv != null) {
-					for (int ii = 0; ii < vv.size(); ii++) {
-
-						Object obj = vv.elementAt(ii);
-						if (obj instanceof com.jcraft.jsch.ChannelSftp.LsEntry) {
-							String attributes = ((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getAttrs().toString();
-							if (attributes.substring(0, 1).equals("d")) {
-								// Ignore directories
-							} else {
-								FileConnection connectionFound = new FileConnection();
-								connectionFound.setLongName(((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getLongname());
-								connectionFound.setFileName(((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getFilename());
-								connectionFound.setAttributes(
-										((com.jcraft.jsch.ChannelSftp.LsEntry) obj).getAttrs().toString());
-								connectionsFound.add(connectionFound);
-							}
-						}
+		if (vv != null) {
+			for (int ii = 0; ii < vv.size(); ii++) {
+				Object obj = vv.elementAt(ii);
+				if (obj instanceof ChannelSftp.LsEntry) {
+					ChannelSftp.LsEntry lsEntry = (ChannelSftp.LsEntry) obj;
+					if (lsEntry.getAttrs().isDir()) {
+						// Ignore directories
+					} else if (this.isFileMatch(lsEntry.getFilename())) {
+						FileConnection connectionFound = new FileConnection();
+						connectionFound.setLongName(lsEntry.getLongname());
+						connectionFound.setFileName(lsEntry.getFilename());
+						connectionFound.setAttributes(lsEntry.getAttrs().toString());
+						connectionsFound.add(connectionFound);
 					}
 				}
-
 			}
-		} catch (Exception e) {
-			StringWriter StackTrace = new StringWriter();
-			e.printStackTrace(new PrintWriter(StackTrace));
 		}
 		return connectionsFound;
 
@@ -11,38 +11,48 @@ public class ActionControl {
 	private ExecutionMetrics executionMetrics;
 	private FrameworkExecution frameworkExecution;
 	private ActionRuntime actionRuntime;
+	private ActionOutputBuffer actionOutputBuffer;
 
 	public ActionControl(FrameworkExecution frameworkExecution, ExecutionControl executionControl, ActionExecution actionExecution) {
 		this.setFrameworkExecution(frameworkExecution);
 		this.setExecutionControl(executionControl);
 		this.setActionExecution(actionExecution);
-		this.setActionRuntime(new ActionRuntime(this.getFrameworkExecution(), this.getExecutionControl().getRunId(), this.getActionExecution().getProcessId()));
+		this.setActionOutputBuffer(new ActionOutputBuffer(Integer.parseInt(this.getFrameworkExecution()
+				.getSetting("script.execution.action.output.buffer.size", "1000"))));
+		this.setActionRuntime(new ActionRuntime(this.getFrameworkExecution(), this.getExecutionControl().getRunId(),
+				this.getActionExecution().getProcessId()));
 		this.setExecutionMetrics(new ExecutionMetrics());
 	}
 
 	// Methods
 	public void logOutput(String name, String value) {
-		// Cache output
-		this.getActionExecution().getActionControl().getActionRuntime().getRuntimeActionCacheConfiguration()
-				.setRuntimeCache(this.getExecutionControl().getRunId(), "out", name, value);
 		this.getExecutionControl().logMessage(this.getActionExecution(), "action.output=" + name + ":" + value, Level.DEBUG);
-		this.getExecutionControl().logExecutionOutput(this.getActionExecution(), name, value);
+		this.bufferOutput(name, value);
 	}
 
 	public void logError(String name, String value) {
-		// Cache output
-		this.getActionExecution().getActionControl().getActionRuntime().getRuntimeActionCacheConfiguration()
-				.setRuntimeCache(this.getExecutionControl().getRunId(), "err", name, value);
 		this.getExecutionControl().logMessage(this.getActionExecution(), "action.error=" + name + ":" + value, Level.DEBUG);
-		this.getExecutionControl().logExecutionOutput(this.getActionExecution(), name, value);
+		this.bufferOutput(name, value);
 	}
 
 	public void logWarning(String name, String value) {
-		// Cache output
-		this.getActionExecution().getActionControl().getActionRuntime().getRuntimeActionCacheConfiguration()
-				.setRuntimeCache(this.getExecutionControl().getRunId(), "warn", name, value);
 		this.getExecutionControl().logMessage(this.getActionExecution(), "action.warning=" + name + ":" + value, Level.DEBUG);
-		this.getExecutionControl().logExecutionOutput(this.getActionExecution(), name, value);
+		this.bufferOutput(name, value);
+	}
+
+	private void bufferOutput(String name, String value) {
+		if (this.getActionOutputBuffer().addOutput(name, value)) {
+			// Keep memory bounded for actions with many outputs
+			this.flushOutputs();
+		}
+	}
+
+	/**
+	 * Write the buffered outputs to the result repository.
+	 */
+	public void flushOutputs() {
+		this.getExecutionControl().logExecutionOutputs(this.getActionExecution(),
+				this.getActionOutputBuffer().drainOutputs());
 	}
 	
 	// Metrics
@@ -51,8 +61,6 @@ public class ActionControl {
 	}
 
 	public void increaseSuccessCount(long increase) {
-		this.getActionExecution().getActionControl().getActionRuntime().getRuntimeActionCacheConfiguration()
-		.setRuntimeCache(this.getExecutionControl().getRunId(), "sys", "rc", "0");
 		this.getExecutionMetrics().increaseSuccessCount(increase);
 	}
 
@@ -61,8 +69,6 @@ public class ActionControl {
 	}
 
 	public void increaseWarningCount(long increase) {
-		this.getActionExecution().getActionControl().getActionRuntime().getRuntimeActionCacheConfiguration()
-		.setRuntimeCache(this.getExecutionControl().getRunId(), "sys", "rc", "2");
 		this.getExecutionMetrics().increaseWarningCount(increase);
 	}
 
@@ -71,8 +77,6 @@ public class ActionControl {
 	}
 
 	public void increaseErrorCount(long increase) {
-		this.getActionExecution().getActionControl().getActionRuntime().getRuntimeActionCacheConfiguration()
-		.setRuntimeCache(this.getExecutionControl().getRunId(), "sys", "rc", "1");
 		this.getExecutionMetrics().increaseErrorCount(increase);
 	}
 	
@@ -81,12 +85,18 @@ public class ActionControl {
 	}
 
 	public void increaseSkipCount(long increase) {
-		this.getActionExecution().getActionControl().getActionRuntime().getRuntimeActionCacheConfiguration()
-		.setRuntimeCache(this.getExecutionControl().getRunId(), "sys", "rc", "3");
 		this.getExecutionMetrics().increaseSkipCount(increase);
 	}
 
 	// Getters and Setters
+	public ActionOutputBuffer getActionOutputBuffer() {
+		return actionOutputBuffer;
+	}
+
+	public void setActionOutputBuffer(ActionOutputBuffer actionOutputBuffer) {
+		this.actionOutputBuffer = actionOutputBuffer;
+	}
+
 	public ActionRuntime getActionRuntime() {
 		return actionRuntime;
 	}
@@ -5,7 +5,6 @@ import java.util.HashMap;
 import org.apache.logging.log4j.Level;
 
 import io.metadew.iesi.framework.execution.FrameworkExecution;
-import io.metadew.iesi.framework.operation.ClassOperation;
 import io.metadew.iesi.metadata.definition.Action;
 import io.metadew.iesi.script.operation.ActionParameterOperation;
 import io.metadew.iesi.script.operation.ComponentAttributeOperation;
@@ -13,8 +12,6 @@ import io.metadew.iesi.script.operation.ConditionOperation;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 
 public class ActionExecution {
 
@@ -41,7 +38,7 @@ public class ActionExecution {
 		this.setProcessId(this.getExecutionControl().getProcessId());
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@SuppressWarnings("unchecked")
 	public void execute() {
 
 		this.getExecutionControl().logMessage(this, "action.name=" + this.getAction().getName(), Level.INFO);
@@ -54,9 +51,8 @@ public class ActionExecution {
 
 		// Initialize control
 		this.setActionControl(new ActionControl(this.getFrameworkExecution(), this.getExecutionControl(), this));
-		this.getActionControl().getActionRuntime().initActionCache(this.getAction().getName(),
-				this.getExecutionControl().getExecutionRuntime().getRunCacheFolderName());
 
+		HashMap<String, ActionParameterOperation> actionParameterOperationMap = null;
 		try {
 			// Set Attributes
 			if (this.getAction().getComponent() != null && !this.getAction().getComponent().trim().equals("")) {
@@ -64,21 +60,23 @@ public class ActionExecution {
 						this.getExecutionControl(), this, this.getAction().getComponent().trim()));
 			}
 
-			String className = ClassOperation.getActionClass(this.getAction().getType()).getName();
+			ActionTypeImplementation actionTypeImplementation = ActionTypeRegistry
+					.getActionTypeImplementation(this.getAction().getType());
 			this.getExecutionControl().logMessage(this, "action.type=" + this.getAction().getType(), Level.DEBUG);
 
-			Class classRef = Class.forName(className);
-			Object instance = classRef.newInstance();
+			Object instance = actionTypeImplementation.getActionClass().newInstance();
 
-				Class initParams[] = { FrameworkExecution.class, ExecutionControl.class, ScriptExecution.class,
-						ActionExecution.class };
-				Method init = classRef.getDeclaredMethod("init", initParams);
 				Object[] initArgs = { this.getFrameworkExecution(), this.getExecutionControl(),
 						this.getScriptExecution(), this };
-				init.invoke(instance, initArgs);
+				actionTypeImplementation.getInitMethod().invoke(instance, initArgs);
 
-				Method prepare = classRef.getDeclaredMethod("prepare");
-				prepare.invoke(instance);
+				actionTypeImplementation.getPrepareMethod().invoke(instance);
+
+				// Keep the parameters for the trace, also when the execution fails
+				if (actionTypeImplementation.getActionParameterOperationMapMethod() != null) {
+					actionParameterOperationMap = (HashMap<String, ActionParameterOperation>) actionTypeImplementation
+							.getActionParameterOperationMapMethod().invoke(instance);
+				}
 
 				// Check condition, execute by default
 				boolean conditionResult = true;
@@ -99,32 +97,15 @@ public class ActionExecution {
 
 				// Execution
 				if (conditionResult) {
-					Method method = classRef.getDeclaredMethod("execute");
-					method.invoke(instance);
+					actionTypeImplementation.getExecuteMethod().invoke(instance);
 				} else {
 					// Skip execution
 					this.getActionControl().increaseSkipCount();
 					// TODO log output
 				}
 
-			HashMap<String, ActionParameterOperation> actionParameterOperationMap = null;
-			for (Field field : classRef.getDeclaredFields()) {
-				if (field.getName().equals("actionParameterOperationMap")) {
-					Method getActionParameterOperationMap = classRef
-							.getDeclaredMethod("getActionParameterOperationMap");
-					actionParameterOperationMap = (HashMap<String, ActionParameterOperation>) getActionParameterOperationMap
-							.invoke(instance);
-				}
-			}
-
-			// Store runtime parameters for next action usage
-			this.getActionControl().getActionRuntime().setRuntimeParameters(actionParameterOperationMap);
-
 			// Store actionTypeExecution
 			this.setActionTypeExecution(instance);
-			
-			// Trace function
-			this.traceDesignMetadata(actionParameterOperationMap);
 		} catch (Exception e) {
 			StringWriter stackTrace = new StringWriter();
 			e.printStackTrace(new PrintWriter(stackTrace));
@@ -132,8 +113,13 @@ public class ActionExecution {
 			this.getExecutionControl().logMessage(this, "action.error=" + e, Level.INFO);
 			this.getExecutionControl().logMessage(this, "action.stacktrace=" + stackTrace, Level.DEBUG);
 		} finally {
-			// Log End
-			this.getExecutionControl().logEnd(this, this.getScriptExecution());
+			try {
+				// Trace function, failed actions are traced with the error count set
+				this.traceDesignMetadata(actionParameterOperationMap);
+			} finally {
+				// Log End
+				this.getExecutionControl().logEnd(this, this.getScriptExecution());
+			}
 		}
 
 	}
@@ -0,0 +1,28 @@
+package io.metadew.iesi.script.execution;
+
+/**
+ * Output of an action waiting to be written to the result repository.
+ *
+ * @author peter.billen
+ *
+ */
+public class ActionOutput {
+
+	private final String name;
+	private final String value;
+
+	public ActionOutput(String name, String value) {
+		this.name = name;
+		this.value = value;
+	}
+
+	// Getters and Setters
+	public String getName() {
+		return name;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+}
@@ -0,0 +1,51 @@
+package io.metadew.iesi.script.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class keeps the outputs of a single action execution in memory.
+ * Outputs are kept until they are drained to the result repository, at the latest at the end of the action,
+ * or earlier when the capacity is reached.
+ *
+ * @author peter.billen
+ *
+ */
+public class ActionOutputBuffer {
+
+	private final int capacity;
+	private List<ActionOutput> pendingOutputs;
+
+	// Constructors
+	public ActionOutputBuffer(int capacity) {
+		this.capacity = Math.max(1, capacity);
+		this.pendingOutputs = new ArrayList<ActionOutput>();
+	}
+
+	// Methods
+	/**
+	 * Add an output to the buffer.
+	 *
+	 * @return true if the buffer reached its capacity and needs to be drained
+	 */
+	public synchronized boolean addOutput(String name, String value) {
+		this.pendingOutputs.add(new ActionOutput(name, value));
+		return this.pendingOutputs.size() >= this.capacity;
+	}
+
+	public synchronized List<ActionOutput> drainOutputs() {
+		List<ActionOutput> outputs = this.pendingOutputs;
+		this.pendingOutputs = new ArrayList<ActionOutput>();
+		return outputs;
+	}
+
+	// Getters and Setters
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public synchronized int getPendingOutputCount() {
+		return this.pendingOutputs.size();
+	}
+
+}
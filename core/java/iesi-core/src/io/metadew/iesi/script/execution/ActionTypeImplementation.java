@@ -0,0 +1,76 @@
+package io.metadew.iesi.script.execution;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import io.metadew.iesi.framework.execution.FrameworkExecution;
+
+/**
+ * Implementation class of an action type with its lifecycle methods resolved up front.
+ *
+ * @author peter.billen
+ *
+ */
+public class ActionTypeImplementation {
+
+	private Class<?> actionClass;
+	private Method initMethod;
+	private Method prepareMethod;
+	private Method executeMethod;
+	private Method actionParameterOperationMapMethod;
+
+	public ActionTypeImplementation(Class<?> actionClass) throws NoSuchMethodException {
+		this.setActionClass(actionClass);
+		this.setInitMethod(actionClass.getDeclaredMethod("init", FrameworkExecution.class, ExecutionControl.class,
+				ScriptExecution.class, ActionExecution.class));
+		this.setPrepareMethod(actionClass.getDeclaredMethod("prepare"));
+		this.setExecuteMethod(actionClass.getDeclaredMethod("execute"));
+		for (Field field : actionClass.getDeclaredFields()) {
+			if (field.getName().equals("actionParameterOperationMap")) {
+				this.setActionParameterOperationMapMethod(actionClass.getDeclaredMethod("getActionParameterOperationMap"));
+			}
+		}
+	}
+
+	// Getters and Setters
+	public Class<?> getActionClass() {
+		return actionClass;
+	}
+
+	public void setActionClass(Class<?> actionClass) {
+		this.actionClass = actionClass;
+	}
+
+	public Method getInitMethod() {
+		return initMethod;
+	}
+
+	public void setInitMethod(Method initMethod) {
+		this.initMethod = initMethod;
+	}
+
+	public Method getPrepareMethod() {
+		return prepareMethod;
+	}
+
+	public void setPrepareMethod(Method prepareMethod) {
+		this.prepareMethod = prepareMethod;
+	}
+
+	public Method getExecuteMethod() {
+		return executeMethod;
+	}
+
+	public void setExecuteMethod(Method executeMethod) {
+		this.executeMethod = executeMethod;
+	}
+
+	public Method getActionParameterOperationMapMethod() {
+		return actionParameterOperationMapMethod;
+	}
+
+	public void setActionParameterOperationMapMethod(Method actionParameterOperationMapMethod) {
+		this.actionParameterOperationMapMethod = actionParameterOperationMapMethod;
+	}
+
+}
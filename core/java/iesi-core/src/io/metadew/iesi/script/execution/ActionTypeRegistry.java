@@ -0,0 +1,167 @@
+package io.metadew.iesi.script.execution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.metadew.iesi.connection.tools.FileTools;
+import io.metadew.iesi.connection.tools.FolderTools;
+import io.metadew.iesi.framework.execution.FrameworkExecution;
+import io.metadew.iesi.metadata.definition.ActionType;
+import io.metadew.iesi.metadata.definition.DataObject;
+import io.metadew.iesi.metadata.operation.DataObjectOperation;
+
+/**
+ * Registry of the action type implementations, built once per JVM.
+ * The action types declared in the metadata configuration are mapped to their class
+ * in the action package when the first script starts; a declared type without
+ * implementation stops the execution before any action runs.
+ *
+ * @author peter.billen
+ *
+ */
+public final class ActionTypeRegistry {
+
+	private static final String ACTION_PACKAGE = "io.metadew.iesi.script.action";
+	private static final String ACTION_TYPE = "ActionType";
+
+	private static final Map<String, ActionTypeImplementation> actionTypeImplementations = new ConcurrentHashMap<String, ActionTypeImplementation>();
+	private static volatile boolean initialized = false;
+	private static Map<String, Class<?>> scannedClasses;
+
+	private ActionTypeRegistry() {
+
+	}
+
+	// Methods
+	public static void initialize(FrameworkExecution frameworkExecution) {
+		if (initialized) {
+			return;
+		}
+
+		synchronized (ActionTypeRegistry.class) {
+			if (initialized) {
+				return;
+			}
+
+			List<String> missingActionTypes = new ArrayList<String>();
+			for (String actionTypeName : getDeclaredActionTypes(frameworkExecution)) {
+				try {
+					register(actionTypeName);
+				} catch (RuntimeException e) {
+					missingActionTypes.add(actionTypeName + " (" + e.getMessage() + ")");
+				}
+			}
+
+			if (!missingActionTypes.isEmpty()) {
+				throw new RuntimeException("action.type.implementation.notfound=" + String.join(", ", missingActionTypes));
+			}
+			initialized = true;
+		}
+	}
+
+	/**
+	 * Get the implementation of an action type. Types that were not declared in the metadata
+	 * configuration, for instance those of plugins, are resolved on first use.
+	 */
+	public static ActionTypeImplementation getActionTypeImplementation(String actionTypeName) {
+		ActionTypeImplementation actionTypeImplementation = actionTypeImplementations.get(getKey(actionTypeName));
+		if (actionTypeImplementation == null) {
+			actionTypeImplementation = register(actionTypeName);
+		}
+		return actionTypeImplementation;
+	}
+
+	private static ActionTypeImplementation register(String actionTypeName) {
+		Class<?> actionClass = findActionClass(actionTypeName);
+		try {
+			ActionTypeImplementation actionTypeImplementation = new ActionTypeImplementation(actionClass);
+			actionTypeImplementations.put(getKey(actionTypeName), actionTypeImplementation);
+			return actionTypeImplementation;
+		} catch (NoSuchMethodException e) {
+			throw new RuntimeException("invalid action class " + actionClass.getName() + ": " + e.getMessage(), e);
+		}
+	}
+
+	private static Class<?> findActionClass(String actionTypeName) {
+		// Action classes are named after the action type: fwk.executeScript is FwkExecuteScript
+		StringBuilder className = new StringBuilder();
+		for (String part : actionTypeName.split("\\.")) {
+			className.append(StringUtils.capitalize(part));
+		}
+		try {
+			return Class.forName(ACTION_PACKAGE + "." + className.toString());
+		} catch (ClassNotFoundException e) {
+			// Fall back on a case insensitive match in the action package
+		}
+
+		Class<?> actionClass = getScannedClasses().get(getKey(actionTypeName));
+		if (actionClass == null) {
+			throw new RuntimeException("no action class found");
+		}
+		return actionClass;
+	}
+
+	private static synchronized Map<String, Class<?>> getScannedClasses() {
+		if (scannedClasses == null) {
+			Reflections reflections = new Reflections(new ConfigurationBuilder()
+					.filterInputsBy(new FilterBuilder().include(FilterBuilder.prefix(ACTION_PACKAGE)))
+					.setUrls(ClasspathHelper.forClassLoader()).setScanners(new SubTypesScanner(false)));
+
+			scannedClasses = new ConcurrentHashMap<String, Class<?>>();
+			for (Class<?> clazz : reflections.getSubTypesOf(Object.class)) {
+				scannedClasses.putIfAbsent(clazz.getSimpleName().toLowerCase(), clazz);
+			}
+		}
+		return scannedClasses;
+	}
+
+	private static List<String> getDeclaredActionTypes(FrameworkExecution frameworkExecution) {
+		String metadataConfFolder = frameworkExecution.getFrameworkConfiguration().getFolderConfiguration()
+				.getFolderAbsolutePath("metadata.conf");
+
+		// The type definitions are either kept together or split into a file per type
+		List<String> typeFiles = new ArrayList<String>();
+		String actionTypesFile = metadataConfFolder + File.separator + ACTION_TYPE + "s.json";
+		if (FileTools.exists(actionTypesFile)) {
+			typeFiles.add(actionTypesFile);
+		}
+		String actionTypeFolder = metadataConfFolder + File.separator + ACTION_TYPE;
+		if (FileTools.exists(actionTypeFolder)) {
+			for (File file : FolderTools.getFilesInFolder(actionTypeFolder, "regex", ".+\\.json")) {
+				typeFiles.add(file.getAbsolutePath());
+			}
+		}
+
+		List<String> actionTypeNames = new ArrayList<String>();
+		ObjectMapper objectMapper = new ObjectMapper();
+		for (String typeFile : typeFiles) {
+			DataObjectOperation dataObjectOperation = new DataObjectOperation(frameworkExecution, typeFile);
+			for (DataObject dataObject : dataObjectOperation.getDataObjects()) {
+				if (dataObject.getType().equalsIgnoreCase(ACTION_TYPE)) {
+					ActionType actionType = objectMapper.convertValue(dataObject.getData(), ActionType.class);
+					if (!actionTypeNames.contains(actionType.getName())) {
+						actionTypeNames.add(actionType.getName());
+					}
+				}
+			}
+		}
+		return actionTypeNames;
+	}
+
+	private static String getKey(String actionTypeName) {
+		return StringUtils.remove(actionTypeName, '.').toLowerCase();
+	}
+
+}
@@ -1,9 +1,6 @@
 package io.metadew.iesi.script.execution;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,7 +10,7 @@ import org.apache.logging.log4j.Level;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.metadew.iesi.common.text.TextTools;
-import io.metadew.iesi.connection.tools.SQLTools;
+import io.metadew.iesi.connection.database.sql.SqlParameter;
 import io.metadew.iesi.framework.configuration.FrameworkStatus;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.backup.BackupExecution;
@@ -31,6 +28,8 @@ public class ExecutionControl
 
 	private ExecutionTrace executionTrace;
 
+	private ExecutionResultWriter executionResultWriter;
+
 	private ScriptLog scriptLog;
 
 	private String runId;
@@ -41,25 +40,38 @@ public class ExecutionControl
 
 	private List<Long> processIdList;
 
-	private boolean actionErrorStop = false;
-	private boolean scriptExit = false;
+	private volatile boolean actionErrorStop = false;
+	private volatile boolean scriptExit = false;
 
 	// Constructors
 	public ExecutionControl(FrameworkExecution frameworkExecution) {
+		this(frameworkExecution, frameworkExecution.getFrameworkLog().getUuid().toString());
+	}
+
+	public ExecutionControl(FrameworkExecution frameworkExecution, String runId) {
+		this(frameworkExecution, runId, runId);
+	}
+
+	public ExecutionControl(FrameworkExecution frameworkExecution, String runId, String runtimeId) {
 		this.setFrameworkExecution(frameworkExecution);
 		this.setExecutionLog(new ExecutionLog(this.getFrameworkExecution()));
 		this.setExecutionTrace(new ExecutionTrace(this.getFrameworkExecution()));
-		this.initializeRootScript();
+		this.setExecutionResultWriter(new ExecutionResultWriter(
+				this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration(),
+				Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.result.writer.queue.size", "10000")),
+				Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.result.writer.batch.size", "500")),
+				Long.parseLong(this.getFrameworkExecution().getSetting("script.execution.result.writer.flush.interval", "1000"))));
+		this.initializeRootScript(runId, runtimeId);
 	}
 
 	// Methods
 	@SuppressWarnings({"unchecked", "rawtypes"})
-	private void initializeRootScript()
+	private void initializeRootScript(String runId, String runtimeId)
 	{
-		// Generate unique run id
-		this.setRunId(this.getFrameworkExecution().getFrameworkLog().getUuid().toString());
-		// Create execution runtime
-		this.initializeExecutionRuntime(this.getFrameworkExecution(), this.getRunId());
+		// Set unique run id
+		this.setRunId(runId);
+		// Create execution runtime, its run cache folder is named after the runtime id
+		this.initializeExecutionRuntime(this.getFrameworkExecution(), runtimeId);
 
 		// Prepare process identifier enablers
 		this.setProcessIdList(new ArrayList());
@@ -109,7 +121,17 @@ public class ExecutionControl
 
 	public void terminate()
 	{
-		this.getExecutionRuntime().terminate();
+		// Write the remaining results before releasing the connections
+		try
+		{
+			this.getExecutionResultWriter().close();
+		}
+		finally
+		{
+			this.getExecutionTrace().flush();
+			this.getExecutionLog().close();
+			this.getExecutionRuntime().terminate();
+		}
 	}
 
 	// Log start
@@ -137,47 +159,32 @@ public class ExecutionControl
 			parentProcessId = parentScriptExecution.getProcessId();
 		}
 		// Generate Process Id
-		this.getNewProcessId();
+		long processId = this.getNewProcessId();
+		scriptExecution.setProcessId(processId);
 
 		String query = "INSERT INTO "
 				+ this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().getMetadataTableConfiguration()
 						.getTableName("ScriptResults")
 				+ " (RUN_ID, PRC_ID, PARENT_PRC_ID, SCRIPT_ID, SCRIPT_VRS_NB, ENV_NM, ST_NM, STRT_TMS, END_TMS)";
 		query += " VALUES ";
-		query += "(";
-		query += SQLTools.GetStringForSQL(this.getRunId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(this.getProcessId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(parentProcessId);
-		query += ",";
-		query += SQLTools.GetStringForSQL(scriptExecution.getScript().getId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(scriptExecution.getScript().getVersion().getNumber());
-		query += ",";
-		query += SQLTools.GetStringForSQL(this.getEnvName());
-		query += ",";
-		query += SQLTools.GetStringForSQL("ACTIVE");
-		query += ",";
-		query += this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration()
-				.getSystemTimestampExpression();
-		query += ",";
-		query += "null";
-		query += ")";
-		query += ";";
-
-		InputStream inputStream = new ByteArrayInputStream(query.getBytes(StandardCharsets.UTF_8));
-		this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().executeScript(inputStream);
+		query += "(?, ?, ?, ?, ?, ?, ?, ?, null)";
+
+		// The event time is bound, the results are only written when the batch is flushed
+		Timestamp startTimestamp = new Timestamp(System.currentTimeMillis());
+		this.getExecutionResultWriter().write(query,
+				SqlParameter.ofString(this.getRunId()), SqlParameter.ofLong(processId),
+				SqlParameter.ofLong(parentProcessId), SqlParameter.ofLong(scriptExecution.getScript().getId()),
+				SqlParameter.ofLong(scriptExecution.getScript().getVersion().getNumber()),
+				SqlParameter.ofString(this.getEnvName()), SqlParameter.ofString("ACTIVE"),
+				SqlParameter.ofTimestamp(startTimestamp));
 
 		this.setScriptLog(new ScriptLog());
 		this.getScriptLog().setRun(this.getRunId());
-		this.getScriptLog().setProcess(this.getProcessId());
+		this.getScriptLog().setProcess(processId);
 		this.getScriptLog().setParent(parentProcessId);
 		this.getScriptLog().setIdentifier(scriptExecution.getScript().getId());
 		this.getScriptLog().setVersion(scriptExecution.getScript().getVersion().getNumber());
 		this.getScriptLog().setEnvironment(this.getEnvName());
-
-		Timestamp startTimestamp = new Timestamp(System.currentTimeMillis());
 		this.getScriptLog().setStart(startTimestamp);
 		this.getExecutionLog().setLog(this.getScriptLog());
 	}
@@ -185,67 +192,41 @@ public class ExecutionControl
 	public void logStart(ActionExecution actionExecution)
 	{
 		// Generate Process Id
-		this.getNewProcessId();
+		long processId = this.getNewProcessId();
+		actionExecution.setProcessId(processId);
 
 		String query = "INSERT INTO "
 				+ this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().getMetadataTableConfiguration()
 						.getTableName("ActionResults")
 				+ " (RUN_ID, PRC_ID, ACTION_ID, ENV_NM, ST_NM, STRT_TMS, END_TMS)";
 		query += " VALUES ";
-		query += "(";
-		query += SQLTools.GetStringForSQL(this.getRunId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(this.getProcessId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(actionExecution.getAction().getId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(this.getEnvName());
-		query += ",";
-		query += SQLTools.GetStringForSQL("ACTIVE");
-		query += ",";
-		query += this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration()
-				.getSystemTimestampExpression();
-		query += ",";
-		query += "null";
-		query += ")";
-		query += ";";
-
-		InputStream inputStream = new ByteArrayInputStream(query.getBytes(StandardCharsets.UTF_8));
-		this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().executeScript(inputStream);
+		query += "(?, ?, ?, ?, ?, ?, null)";
+
+		this.getExecutionResultWriter().write(query,
+				SqlParameter.ofString(this.getRunId()), SqlParameter.ofLong(processId),
+				SqlParameter.ofLong(actionExecution.getAction().getId()), SqlParameter.ofString(this.getEnvName()),
+				SqlParameter.ofString("ACTIVE"), SqlParameter.ofTimestamp(new Timestamp(System.currentTimeMillis())));
 	}
 
 	public void logSkip(ActionExecution actionExecution)
 	{
 		// Generate Process Id
-		this.getNewProcessId();
+		long processId = this.getNewProcessId();
+		actionExecution.setProcessId(processId);
 
 		String query = "INSERT INTO "
 				+ this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().getMetadataTableConfiguration()
 						.getTableName("ActionResults")
 				+ " (RUN_ID, PRC_ID, ACTION_ID, ENV_NM, ST_NM, STRT_TMS, END_TMS)";
 		query += " VALUES ";
-		query += "(";
-		query += SQLTools.GetStringForSQL(this.getRunId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(this.getProcessId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(actionExecution.getAction().getId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(this.getEnvName());
-		query += ",";
-		query += SQLTools.GetStringForSQL("SKIPPED");
-		query += ",";
-		query += this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration()
-				.getSystemTimestampExpression();
-		query += ",";
-		query += this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration()
-				.getSystemTimestampExpression();
-		;
-		query += ")";
-		query += ";";
-
-		InputStream inputStream = new ByteArrayInputStream(query.getBytes(StandardCharsets.UTF_8));
-		this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().executeScript(inputStream);
+		query += "(?, ?, ?, ?, ?, ?, ?)";
+
+		Timestamp skipTimestamp = new Timestamp(System.currentTimeMillis());
+		this.getExecutionResultWriter().write(query,
+				SqlParameter.ofString(this.getRunId()), SqlParameter.ofLong(processId),
+				SqlParameter.ofLong(actionExecution.getAction().getId()), SqlParameter.ofString(this.getEnvName()),
+				SqlParameter.ofString("SKIPPED"), SqlParameter.ofTimestamp(skipTimestamp),
+				SqlParameter.ofTimestamp(skipTimestamp));
 
 		String status = FrameworkStatus.SKIPPED.value();
 
@@ -268,10 +249,12 @@ public class ExecutionControl
 
 	}
 
-	private void getNewProcessId()
+	private synchronized long getNewProcessId()
 	{
-		this.processId++;
-		this.getFrameworkExecution().getFrameworkLog().log("exec.processid=" + this.getProcessId(), Level.DEBUG);
+		// Routes running in parallel share the execution control
+		long processId = ++this.processId;
+		this.getFrameworkExecution().getFrameworkLog().log("exec.processid=" + processId, Level.DEBUG);
+		return processId;
 	}
 
 	private void resetProcessId()
@@ -285,12 +268,16 @@ public class ExecutionControl
 		String query = "update "
 				+ this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().getMetadataTableConfiguration()
 						.getTableName("ScriptResults")
-				+ " set ST_NM = '" + status + "', END_TMS = " + this.getFrameworkExecution().getMetadataControl()
-						.getResultRepositoryConfiguration().getSystemTimestampExpression();
-		query += " where RUN_ID = '" + this.getRunId() + "' and PRC_ID = " + scriptExecution.getProcessId() + ";";
+				+ " set ST_NM = ?, END_TMS = ?";
+		query += " where RUN_ID = ? and PRC_ID = ?";
 
-		InputStream inputStream = new ByteArrayInputStream(query.getBytes(StandardCharsets.UTF_8));
-		this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().executeScript(inputStream);
+		Timestamp endTimestamp = new Timestamp(System.currentTimeMillis());
+		this.getExecutionResultWriter().write(query,
+				SqlParameter.ofString(status), SqlParameter.ofTimestamp(endTimestamp), SqlParameter.ofString(this.getRunId()),
+				SqlParameter.ofLong(scriptExecution.getProcessId()));
+
+		// Write the traces collected during the script
+		this.getExecutionTrace().flush();
 
 		// Clear processing variables
 		// Only is the script is a root script, this will be cleaned
@@ -298,9 +285,10 @@ public class ExecutionControl
 		if (scriptExecution.isRootScript())
 		{
 			this.getExecutionRuntime().cleanRuntimeVariables();
+			// All results of the run are in the result repository when the root script ends
+			this.getExecutionResultWriter().flush();
 		}
 
-		Timestamp endTimestamp = new Timestamp(System.currentTimeMillis());
 		this.getScriptLog().setEnd(endTimestamp);
 		this.getScriptLog().setStatus(status);
 		this.getExecutionLog().setLog(this.getScriptLog());
@@ -311,16 +299,19 @@ public class ExecutionControl
 
 	public void logEnd(ActionExecution actionExecution, ScriptExecution scriptExecution)
 	{
+		// Write the outputs kept during the action
+		actionExecution.getActionControl().flushOutputs();
+
 		String status = this.getStatus(actionExecution, scriptExecution);
 		String query = "update "
 				+ this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().getMetadataTableConfiguration()
 						.getTableName("ActionResults")
-				+ " set ST_NM = '" + status + "', END_TMS = " + this.getFrameworkExecution().getMetadataControl()
-						.getResultRepositoryConfiguration().getSystemTimestampExpression();
-		query += " where RUN_ID = '" + this.getRunId() + "' and PRC_ID = " + actionExecution.getProcessId() + ";";
+				+ " set ST_NM = ?, END_TMS = ?";
+		query += " where RUN_ID = ? and PRC_ID = ?";
 
-		InputStream inputStream = new ByteArrayInputStream(query.getBytes(StandardCharsets.UTF_8));
-		this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().executeScript(inputStream);
+		this.getExecutionResultWriter().write(query,
+				SqlParameter.ofString(status), SqlParameter.ofTimestamp(new Timestamp(System.currentTimeMillis())),
+				SqlParameter.ofString(this.getRunId()), SqlParameter.ofLong(actionExecution.getProcessId()));
 	}
 
 	public void logEnd(BackupExecution backupExecution)
@@ -404,22 +395,12 @@ public class ExecutionControl
 		String query = "INSERT INTO " + this.getFrameworkExecution().getMetadataControl()
 				.getResultRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ScriptOutputs")
 				+ " (RUN_ID, PRC_ID, SCRIPT_ID, OUT_NM, OUT_VAL)";
-		query += " VALUES ";
-		query += "(";
-		query += SQLTools.GetStringForSQL(this.getRunId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(scriptExecution.getProcessId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(scriptExecution.getScript().getId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(outputName);
-		query += ",";
-		query += SQLTools.GetStringForSQL(outputValue);
-		query += ")";
-		query += ";";
-
-		InputStream inputStream = new ByteArrayInputStream(query.getBytes(StandardCharsets.UTF_8));
-		this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().executeScript(inputStream);
+		query += " VALUES (?, ?, ?, ?, ?)";
+
+		this.getExecutionResultWriter().write(query,
+				SqlParameter.ofString(this.getRunId()), SqlParameter.ofLong(scriptExecution.getProcessId()),
+				SqlParameter.ofLong(scriptExecution.getScript().getId()), SqlParameter.ofString(outputName),
+				SqlParameter.ofString(outputValue));
 	}
 
 	public void logExecutionOutput(ActionExecution actionExecution, String outputName, int outputValue)
@@ -441,21 +422,38 @@ public class ExecutionControl
 		String query = "INSERT INTO " + this.getFrameworkExecution().getMetadataControl()
 				.getResultRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ActionOutputs")
 				+ " (RUN_ID, PRC_ID, ACTION_ID, OUT_NM, OUT_VAL)";
-		query += " VALUES ";
-		query += "(";
-		query += SQLTools.GetStringForSQL(this.getRunId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(actionExecution.getProcessId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(actionExecution.getAction().getId());
-		query += ",";
-		query += SQLTools.GetStringForSQL(outputName);
-		query += ",";
-		query += SQLTools.GetStringForSQL(outputValue);
-		query += ")";
-		query += ";";
-
-		this.getFrameworkExecution().getMetadataControl().getResultRepositoryConfiguration().executeUpdate(query);
+		query += " VALUES (?, ?, ?, ?, ?)";
+
+		this.getExecutionResultWriter().write(query,
+				SqlParameter.ofString(this.getRunId()), SqlParameter.ofLong(actionExecution.getProcessId()),
+				SqlParameter.ofLong(actionExecution.getAction().getId()), SqlParameter.ofString(outputName),
+				SqlParameter.ofString(outputValue));
+	}
+
+	public void logExecutionOutputs(ActionExecution actionExecution, List<ActionOutput> actionOutputs)
+	{
+		String query = "INSERT INTO " + this.getFrameworkExecution().getMetadataControl()
+				.getResultRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ActionOutputs")
+				+ " (RUN_ID, PRC_ID, ACTION_ID, OUT_NM, OUT_VAL)";
+		query += " VALUES (?, ?, ?, ?, ?)";
+
+		List<SqlParameter[]> sqlParameterRows = new ArrayList<SqlParameter[]>();
+		for (ActionOutput actionOutput : actionOutputs)
+		{
+			// Redact any encrypted values
+			String outputValue = this.getFrameworkExecution().getFrameworkCrypto().redact(actionOutput.getValue());
+			outputValue = TextTools.shortenTextForDatabase(outputValue, 2000);
+
+			sqlParameterRows.add(new SqlParameter[] { SqlParameter.ofString(this.getRunId()),
+					SqlParameter.ofLong(actionExecution.getProcessId()),
+					SqlParameter.ofLong(actionExecution.getAction().getId()),
+					SqlParameter.ofString(actionOutput.getName()), SqlParameter.ofString(outputValue) });
+		}
+
+		for (SqlParameter[] sqlParameters : sqlParameterRows)
+		{
+			this.getExecutionResultWriter().write(query, sqlParameters);
+		}
 	}
 
 	// Log message
@@ -493,6 +491,7 @@ public class ExecutionControl
 	{
 		System.out.println("++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++");
 		System.out.println("script.launcher.end");
+		this.getFrameworkExecution().terminate();
 		System.exit(0);
 	}
 
@@ -505,6 +504,16 @@ public class ExecutionControl
 		this.frameworkExecution = frameworkExecution;
 	}
 
+	public ExecutionResultWriter getExecutionResultWriter()
+	{
+		return executionResultWriter;
+	}
+
+	public void setExecutionResultWriter(ExecutionResultWriter executionResultWriter)
+	{
+		this.executionResultWriter = executionResultWriter;
+	}
+
 	public String getRunId()
 	{
 		return runId;
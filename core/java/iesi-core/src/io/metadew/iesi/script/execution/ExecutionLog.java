@@ -1,14 +1,24 @@
 package io.metadew.iesi.script.execution;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.metadew.iesi.connection.elasticsearch.ElasticsearchBulkIndexer;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.metadata.configuration.MetadataRepositoryConfiguration;
 import io.metadew.iesi.metadata.definition.ScriptLog;
 
 public class ExecutionLog {
 
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
 	private FrameworkExecution frameworkExecution;
+	private List<ElasticsearchBulkIndexer> elasticsearchBulkIndexers;
+	private boolean closed = false;
+	private String index;
 
 	// Constructors
 	public ExecutionLog(FrameworkExecution frameworkExecution) {
@@ -17,21 +27,66 @@ public class ExecutionLog {
 
 	// Insert
 	public void setLog(ScriptLog scriptLog) {
-		ObjectMapper mapper = new ObjectMapper();
+		List<ElasticsearchBulkIndexer> elasticsearchBulkIndexers = this.getElasticsearchBulkIndexers();
+		if (elasticsearchBulkIndexers.isEmpty()) {
+			return;
+		}
 		try {
+			String document = objectMapper.writeValueAsString(scriptLog);
+			for (ElasticsearchBulkIndexer elasticsearchBulkIndexer : elasticsearchBulkIndexers) {
+				elasticsearchBulkIndexer.index(this.getIndex(), scriptLog.getRun(), document);
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Send the remaining logs and stop the indexers. Logs set afterwards are not sent.
+	 */
+	public synchronized void close() {
+		this.closed = true;
+		if (this.elasticsearchBulkIndexers == null) {
+			return;
+		}
+		for (ElasticsearchBulkIndexer elasticsearchBulkIndexer : this.elasticsearchBulkIndexers) {
+			elasticsearchBulkIndexer.close();
+		}
+	}
 
+	private synchronized List<ElasticsearchBulkIndexer> getElasticsearchBulkIndexers() {
+		if (this.closed) {
+			return Collections.emptyList();
+		} else if (this.elasticsearchBulkIndexers == null) {
+			this.elasticsearchBulkIndexers = new ArrayList<ElasticsearchBulkIndexer>();
 			for (MetadataRepositoryConfiguration metadataRepositoryConfiguration : this.getFrameworkExecution()
 					.getFrameworkControl().getMetadataRepositoryConfigurationList()) {
-
 				if (metadataRepositoryConfiguration.getType().equalsIgnoreCase("elasticsearch")) {
-					metadataRepositoryConfiguration.getElasticsearchConnection()
-							.putStringEntity(mapper.writeValueAsString(scriptLog), this.getFrameworkExecution().getMetadataControl().getMonitorRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ScriptResults").toLowerCase(), scriptLog.getRun());
+					this.elasticsearchBulkIndexers.add(new ElasticsearchBulkIndexer(
+							metadataRepositoryConfiguration.getElasticsearchConnection(),
+							this.getFrameworkExecution().getFrameworkLog(),
+							Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.log.elasticsearch.queue.size", "10000")),
+							Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.log.elasticsearch.batch.size", "500")),
+							Long.parseLong(this.getFrameworkExecution().getSetting("script.execution.log.elasticsearch.flush.interval", "1000")),
+							this.getFrameworkExecution().getSetting("script.execution.log.elasticsearch.queue.policy", "block")
+									.trim().equalsIgnoreCase("block"),
+							Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.log.elasticsearch.retry.count", "3")),
+							Long.parseLong(this.getFrameworkExecution().getSetting("script.execution.log.elasticsearch.retry.backoff", "500"))));
 				}
+			}
+		}
+		return this.elasticsearchBulkIndexers;
+	}
 
+	private String getIndex() {
+		if (this.index == null) {
+			this.index = this.getFrameworkExecution().getSetting("script.execution.log.elasticsearch.index", "").trim();
+			if (this.index.isEmpty()) {
+				this.index = this.getFrameworkExecution().getMetadataControl().getMonitorRepositoryConfiguration()
+						.getMetadataTableConfiguration().getTableName("ScriptResults").toLowerCase();
 			}
-		} catch (Exception e) {
-			e.printStackTrace();
 		}
+		return this.index;
 	}
 
 	// Getters and Setters
@@ -43,4 +98,4 @@ public class ExecutionLog {
 		this.frameworkExecution = frameworkExecution;
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,246 @@
+package io.metadew.iesi.script.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import io.metadew.iesi.connection.database.sql.SqlParameter;
+import io.metadew.iesi.metadata.configuration.MetadataRepositoryConfiguration;
+
+/**
+ * Writes the execution results to the result repository in the background.
+ * Result statements are queued in order of logging and written by a single thread, consecutive
+ * statements with the same query are sent as one JDBC batch. The queue is bounded: when it is full,
+ * logging waits for the writer so that results are never dropped. Results that fail to be written
+ * make the next flush or close fail.
+ *
+ * @author peter.billen
+ *
+ */
+public class ExecutionResultWriter {
+
+	private final MetadataRepositoryConfiguration resultRepositoryConfiguration;
+	private final BlockingQueue<ResultStatement> resultStatements;
+	private final int batchSize;
+	private final long flushInterval;
+	private final Thread writerThread;
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+	private volatile boolean closed = false;
+	private volatile String error;
+
+	public ExecutionResultWriter(MetadataRepositoryConfiguration resultRepositoryConfiguration, int queueSize,
+			int batchSize, long flushInterval) {
+		this.resultRepositoryConfiguration = resultRepositoryConfiguration;
+		this.resultStatements = new ArrayBlockingQueue<ResultStatement>(Math.max(queueSize, 1));
+		this.batchSize = Math.max(batchSize, 1);
+		this.flushInterval = Math.max(flushInterval, 1);
+		this.writerThread = new Thread(this::run, "iesi-execution-result-writer");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	// Methods
+	public void write(String query, SqlParameter... sqlParameters) {
+		// Statements are either queued before the writer is closed or written directly
+		this.closeLock.readLock().lock();
+		try {
+			if (!this.closed) {
+				this.enqueue(new ResultStatement(query, sqlParameters, null, false));
+				return;
+			}
+		} finally {
+			this.closeLock.readLock().unlock();
+		}
+		this.resultRepositoryConfiguration.executeUpdate(query, sqlParameters);
+	}
+
+	/**
+	 * Wait until all results logged so far have been written to the result repository.
+	 * Fails if results could not be written since the previous flush.
+	 */
+	public void flush() {
+		ResultStatement resultStatement = new ResultStatement(null, null, new CountDownLatch(1), false);
+		// Queued before the statement closing the writer, or not at all
+		this.closeLock.readLock().lock();
+		try {
+			if (this.closed) {
+				resultStatement = null;
+			} else {
+				this.enqueue(resultStatement);
+			}
+		} finally {
+			this.closeLock.readLock().unlock();
+		}
+		if (resultStatement != null) {
+			this.await(resultStatement);
+		}
+		this.checkError();
+	}
+
+	/**
+	 * Write all remaining results and stop the writer thread.
+	 * Fails if results could not be written since the previous flush.
+	 */
+	public void close() {
+		this.closeLock.writeLock().lock();
+		try {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+		} finally {
+			this.closeLock.writeLock().unlock();
+		}
+
+		// No statements are queued anymore: the writer stops after the last of them
+		ResultStatement resultStatement = new ResultStatement(null, null, new CountDownLatch(1), true);
+		this.enqueue(resultStatement);
+		this.await(resultStatement);
+		try {
+			this.writerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.checkError();
+	}
+
+	private void await(ResultStatement resultStatement) {
+		try {
+			resultStatement.getFlushed().await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void checkError() {
+		String error = this.error;
+		if (error != null) {
+			this.error = null;
+			throw new RuntimeException("execution.result.writer.error=" + error);
+		}
+	}
+
+	private void enqueue(ResultStatement resultStatement) {
+		try {
+			this.resultStatements.put(resultStatement);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("execution.result.writer.interrupted");
+		}
+	}
+
+	private void run() {
+		List<ResultStatement> pendingStatements = new ArrayList<ResultStatement>();
+		long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(this.flushInterval);
+		long deadline = 0;
+		while (true) {
+			try {
+				// Statements are written at the latest one flush interval after the oldest of them was queued
+				long timeout = pendingStatements.isEmpty() ? flushIntervalNanos : deadline - System.nanoTime();
+				ResultStatement resultStatement = timeout > 0 ? this.resultStatements.poll(timeout, TimeUnit.NANOSECONDS)
+						: this.resultStatements.poll();
+				if (resultStatement != null) {
+					if (pendingStatements.isEmpty()) {
+						deadline = System.nanoTime() + flushIntervalNanos;
+					}
+					pendingStatements.add(resultStatement);
+					this.resultStatements.drainTo(pendingStatements, this.batchSize - pendingStatements.size());
+				}
+				if (!pendingStatements.isEmpty() && (pendingStatements.size() >= this.batchSize
+						|| this.containsFlush(pendingStatements) || System.nanoTime() - deadline >= 0)) {
+					if (this.writeStatements(pendingStatements)) {
+						return;
+					}
+				}
+			} catch (InterruptedException e) {
+				// The writer only stops after the statements queued before close
+			}
+		}
+	}
+
+	private boolean containsFlush(List<ResultStatement> pendingStatements) {
+		for (ResultStatement resultStatement : pendingStatements) {
+			if (resultStatement.getFlushed() != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Returns true when the statements end with the one closing the writer
+	 */
+	private boolean writeStatements(List<ResultStatement> pendingStatements) {
+		String query = null;
+		boolean stopped = false;
+		List<SqlParameter[]> sqlParameterRows = new ArrayList<SqlParameter[]>();
+		for (ResultStatement resultStatement : pendingStatements) {
+			if (resultStatement.getFlushed() != null) {
+				this.writeBatch(query, sqlParameterRows);
+				query = null;
+				stopped = resultStatement.isStop();
+				resultStatement.getFlushed().countDown();
+				continue;
+			}
+			if (query != null && !query.equals(resultStatement.getQuery())) {
+				this.writeBatch(query, sqlParameterRows);
+			}
+			query = resultStatement.getQuery();
+			sqlParameterRows.add(resultStatement.getSqlParameters());
+		}
+		this.writeBatch(query, sqlParameterRows);
+		pendingStatements.clear();
+		return stopped;
+	}
+
+	private void writeBatch(String query, List<SqlParameter[]> sqlParameterRows) {
+		if (sqlParameterRows.isEmpty()) {
+			return;
+		}
+		try {
+			this.resultRepositoryConfiguration.executeBatch(query, sqlParameterRows);
+		} catch (Exception e) {
+			// A failing result write must not stop the writer for the other results, it fails the next flush
+			this.error = sqlParameterRows.size() + " results not written: " + e.getMessage();
+		}
+		sqlParameterRows.clear();
+	}
+
+	private static class ResultStatement {
+
+		private final String query;
+		private final SqlParameter[] sqlParameters;
+		private final CountDownLatch flushed;
+		private final boolean stop;
+
+		private ResultStatement(String query, SqlParameter[] sqlParameters, CountDownLatch flushed, boolean stop) {
+			this.query = query;
+			this.sqlParameters = sqlParameters;
+			this.flushed = flushed;
+			this.stop = stop;
+		}
+
+		public String getQuery() {
+			return query;
+		}
+
+		public SqlParameter[] getSqlParameters() {
+			return sqlParameters;
+		}
+
+		public CountDownLatch getFlushed() {
+			return flushed;
+		}
+
+		public boolean isStop() {
+			return stop;
+		}
+
+	}
+
+}
@@ -18,6 +18,8 @@ import java.util.List;
 
 import org.apache.logging.log4j.Level;
 
+import io.metadew.iesi.common.text.VariableTemplate;
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPoolManager;
 import io.metadew.iesi.connection.tools.FolderTools;
 import io.metadew.iesi.connection.tools.SQLTools;
 import io.metadew.iesi.data.generation.execution.GenerationObjectExecution;
@@ -29,6 +31,7 @@ import io.metadew.iesi.metadata.configuration.RuntimeVariableConfiguration;
 import io.metadew.iesi.metadata.definition.ComponentAttribute;
 import io.metadew.iesi.metadata.definition.Iteration;
 import io.metadew.iesi.metadata.definition.RuntimeVariable;
+import io.metadew.iesi.runtime.definition.LookupInstruction;
 import io.metadew.iesi.runtime.definition.LookupResult;
 import io.metadew.iesi.script.execution.data_instruction.DataInstruction;
 import io.metadew.iesi.script.execution.data_instruction.DataInstructionRepository;
@@ -102,6 +105,12 @@ public class ExecutionRuntime {
 	}
 
 	public void terminate() {
+		// stop writing runtime variables to the cache
+		this.getRuntimeVariableConfiguration().close();
+
+		// release pooled connections to cache databases before removing them
+		DatabaseConnectionPoolManager.closePools("jdbc:sqlite:" + this.getRunCacheFolderName());
+
 		// remove cache folder
 		FolderTools.deleteFolder(this.getRunCacheFolderName(), true);
 
@@ -293,26 +302,7 @@ public class ExecutionRuntime {
 
 
 	private String resolveRuntimeVariables(String input) {
-		int openPos;
-		int closePos;
-		String variable_char = "#";
-		String midBit;
-		String replaceValue;
-		String temp = input;
-		while (temp.indexOf(variable_char) > 0 || temp.startsWith(variable_char)) {
-			openPos = temp.indexOf(variable_char);
-			closePos = temp.indexOf(variable_char, openPos + 1);
-			midBit = temp.substring(openPos + 1, closePos);
-
-			// Replace
-			replaceValue = this.getRuntimeVariableValue(midBit);
-			if (replaceValue != null) {
-				input = input.replaceAll(variable_char + midBit + variable_char, replaceValue);
-			}
-			temp = temp.substring(closePos + 1, temp.length());
-
-		}
-		return input;
+		return VariableTemplate.compile(input).resolve(this::getRuntimeVariableValue);
 	}
 
 	public String resolveActionTypeVariables(String input,
@@ -407,33 +397,15 @@ public class ExecutionRuntime {
 	}
 
 	public String resolveConfiguration(ActionExecution actionExecution, String input) {
-		int openPos;
-		int closePos;
-		String variable_char = "#";
-		String midBit;
-		String replaceValue = null;
-		String temp = input;
-		while (temp.indexOf(variable_char) > 0 || temp.startsWith(variable_char)) {
-			openPos = temp.indexOf(variable_char);
-			closePos = temp.indexOf(variable_char, openPos + 1);
-			midBit = temp.substring(openPos + 1, closePos);
-
+		return VariableTemplate.compile(input).resolve(name -> {
 			// Try to find a configuration value
 			// If none is found, null is set by default
 			try {
-				replaceValue = actionExecution.getComponentAttributeOperation().getProperty(midBit);
+				return actionExecution.getComponentAttributeOperation().getProperty(name);
 			} catch (Exception e) {
-				replaceValue = null;
+				return null;
 			}
-
-			// Replacing the value if found
-			if (replaceValue != null) {
-				input = input.replaceAll(variable_char + midBit + variable_char, replaceValue);
-			}
-			temp = temp.substring(closePos + 1, temp.length());
-
-		}
-		return input;
+		});
 	}
 
 	// Get cross concept lookup
@@ -461,15 +433,14 @@ public class ExecutionRuntime {
 			String instruction = items.get(items.size() - 1);
 
 			// check split different types
-			String instructionType = instruction.substring(0, 1).toLowerCase();
+			LookupInstruction lookupInstruction = LookupInstruction.parse(instruction);
+			String instructionType = lookupInstruction.getType();
 			String instructionOutput = instruction;
 
 			// Lookup
-			if (instructionType.equals("=")) {
-				int lookupOpenPos = instruction.indexOf("(");
-				int lookupClosePos = instruction.indexOf(")", lookupOpenPos + 1);
-				String lookupContext = instruction.substring(1, lookupOpenPos).trim().toLowerCase();
-				String lookupScope = instruction.substring(lookupOpenPos + 1, lookupClosePos).trim();
+			if (instructionType.equals(LookupInstruction.LOOKUP)) {
+				String lookupContext = lookupInstruction.getContext();
+				String lookupScope = lookupInstruction.getScope();
 				if (lookupContext.equals("connection") || lookupContext.equals("conn")) {
 					instructionOutput = this.lookupConnectionInstruction(executionControl, lookupScope);
 				} else if (lookupContext.equals("environment") || lookupContext.equals("env")) {
@@ -482,22 +453,14 @@ public class ExecutionRuntime {
 					instructionOutput = this.lookupCoalesceResult(executionControl, lookupScope);
 				}
 				// Generate data
-			} else if (instructionType.equals("*")) {
-				int lookupOpenPos = instruction.indexOf("(");
-				int lookupClosePos = instruction.indexOf(")", lookupOpenPos + 1);
-				String lookupContext = instruction.substring(1, lookupOpenPos).trim().toLowerCase();
-				String lookupScope = instruction.substring(lookupOpenPos + 1, lookupClosePos).trim();
+			} else if (instructionType.equals(LookupInstruction.GENERATION)) {
+				String lookupContext = lookupInstruction.getContext();
+				String lookupScope = lookupInstruction.getScope();
 				instructionOutput = this.generateDataInstruction(executionControl, lookupContext, lookupScope);
 				// run scripts
-			} else if (instructionType.equals("!")) {
-				int lookupOpenPos = instruction.indexOf("(");
-				int lookupClosePos = instruction.lastIndexOf(")");
-				String lookupContext = instruction.substring(1, lookupOpenPos).trim().toLowerCase();
-				String lookupScope = instruction.substring(lookupOpenPos + 1, lookupClosePos).trim();
-				lookupResult.setContext(lookupContext);
-				if (lookupScope.startsWith("\"")) lookupScope = lookupScope.substring(1);
-				if (lookupScope.endsWith("\"")) lookupScope = lookupScope.substring(0, lookupScope.length() - 1);
-				instructionOutput = lookupScope;
+			} else if (instructionType.equals(LookupInstruction.SCRIPT)) {
+				lookupResult.setContext(lookupInstruction.getContext());
+				instructionOutput = lookupInstruction.getScope();
 				// Verify for javascript / js and jexl / jxl
 			}
 			replaceValue = instructionOutput;
@@ -634,53 +597,68 @@ public class ExecutionRuntime {
 	}
 
 	// Stage Management
+	// The operation maps are shared by routes running in parallel
 	public void setStage(String stageName) {
 		StageOperation stageOperation = new StageOperation(this.getFrameworkExecution(), stageName);
-		this.getStageOperationMap().put(stageName, stageOperation);
+		this.setOperation(stageName, stageOperation);
 	}
 
 	public void setOperation(String stageName, StageOperation stageOperation) {
-		this.getStageOperationMap().put(stageName, stageOperation);
+		synchronized (this.getStageOperationMap()) {
+			this.getStageOperationMap().put(stageName, stageOperation);
+		}
 	}
 
 	public StageOperation getOperation(String stageName) {
-		return this.getStageOperationMap().get(stageName);
+		synchronized (this.getStageOperationMap()) {
+			return this.getStageOperationMap().get(stageName);
+		}
 	}
 
 	// Repository Management
 	public void setRepository(ExecutionControl executionControl, String repositoryReferenceName, String repositoryName, String repositoryInstanceName, String repositoryInstanceLabels) {
 		RepositoryOperation repositoryOperation = new RepositoryOperation(this.getFrameworkExecution(), executionControl, repositoryName,
 				repositoryInstanceName, repositoryInstanceLabels);
-		this.getRepositoryOperationMap().put(repositoryReferenceName, repositoryOperation);
+		synchronized (this.getRepositoryOperationMap()) {
+			this.getRepositoryOperationMap().put(repositoryReferenceName, repositoryOperation);
+		}
 	}
 
 	// Dataset Management
 	public void setDataset(String datasetName, String datasetLabels) {
 		DatasetOperation datasetOperation = new DatasetOperation(this.getFrameworkExecution(), datasetName,
 				datasetLabels);
-		this.getDatasetOperationMap().put(datasetName, datasetOperation);
+		this.setDatasetOperation(datasetName, datasetOperation);
 	}
 
 	public void setDatasetOperation(String datasetName, DatasetOperation datasetOperation) {
-		this.getDatasetOperationMap().put(datasetName, datasetOperation);
+		synchronized (this.getDatasetOperationMap()) {
+			this.getDatasetOperationMap().put(datasetName, datasetOperation);
+		}
 	}
 
 	public DatasetOperation getDatasetOperation(String datasetName) {
-		return this.getDatasetOperationMap().get(datasetName);
+		synchronized (this.getDatasetOperationMap()) {
+			return this.getDatasetOperationMap().get(datasetName);
+		}
 	}
 
 	// Iteration Management
 	public void setIteration(Iteration iteration) {
 		IterationOperation iterationOperation = new IterationOperation(iteration);
-		this.getIterationOperationMap().put(iteration.getName(), iterationOperation);
+		this.setIterationOperation(iterationOperation);
 	}
 
 	public void setIterationOperation(IterationOperation iterationOperation) {
-		this.getIterationOperationMap().put(iterationOperation.getIteration().getName(), iterationOperation);
+		synchronized (this.getIterationOperationMap()) {
+			this.getIterationOperationMap().put(iterationOperation.getIteration().getName(), iterationOperation);
+		}
 	}
 
 	public IterationOperation getIterationOperation(String iterationName) {
-		return this.getIterationOperationMap().get(iterationName);
+		synchronized (this.getIterationOperationMap()) {
+			return this.getIterationOperationMap().get(iterationName);
+		}
 	}
 
 	// Execution Runtime Extension Management
@@ -1,167 +1,181 @@
 package io.metadew.iesi.script.execution;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import io.metadew.iesi.connection.tools.SQLTools;
+import io.metadew.iesi.connection.database.sql.SqlParameter;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 import io.metadew.iesi.script.operation.ActionParameterOperation;
 
 /**
  * Class for storing all trace information that is applicable during a script execution
  * 
+ * Trace rows are collected during the script execution and written in batches, in one transaction per flush.
+ * The trace mode defines which actions are traced: all actions, only failed actions or a sample of the
+ * actions completed with all failed actions.
+ *
  * @author peter.billen
  *
  */
 public class ExecutionTrace {
 
+	private static final String TRACE_MODE_ALL = "all";
+	private static final String TRACE_MODE_FAILED = "failed";
+	private static final String TRACE_MODE_SAMPLE = "sample";
+
 	private FrameworkExecution frameworkExecution;
+	private String traceMode;
+	private int sampleRate;
+	private int batchSize;
+
+	private String scriptTraceQuery;
+	private String actionTraceQuery;
+	private String actionParameterTraceQuery;
+
+	private Map<String, List<SqlParameter[]>> pendingTraces;
+	private int pendingTraceCount = 0;
 
 	// Constructors
 	public ExecutionTrace(FrameworkExecution frameworkExecution) {
 		this.setFrameworkExecution(frameworkExecution);
+		this.setTraceMode(this.getFrameworkExecution().getSetting("script.execution.trace.mode", TRACE_MODE_ALL)
+				.trim().toLowerCase());
+		this.setSampleRate(Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.trace.sample.rate", "10")));
+		this.setBatchSize(Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.trace.batch.size", "1000")));
+		this.initializeQueries(this.getFrameworkExecution().getMetadataControl().getTraceRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ScriptTraces"),
+				this.getFrameworkExecution().getMetadataControl().getTraceRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ActionTraces"),
+				this.getFrameworkExecution().getMetadataControl().getTraceRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ActionParameterTraces"));
+	}
+
+	/*
+	 * Collects the traces without writing them, the trace repository is not used
+	 */
+	ExecutionTrace(String traceMode, int sampleRate) {
+		this.setTraceMode(traceMode);
+		this.setSampleRate(sampleRate);
+		this.setBatchSize(Integer.MAX_VALUE);
+		this.initializeQueries("ScriptTraces", "ActionTraces", "ActionParameterTraces");
+	}
+
+	// Methods
+	private void initializeQueries(String scriptTraceTableName, String actionTraceTableName, String actionParameterTraceTableName) {
+		this.scriptTraceQuery = "INSERT INTO " + scriptTraceTableName
+				+ " (RUN_ID, PRC_ID, PARENT_PRC_ID, SCRIPT_ID, SCRIPT_VRS_NB, SCRIPT_TYP_NM, SCRIPT_NM, SCRIPT_DSC) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+		this.actionTraceQuery = "INSERT INTO " + actionTraceTableName
+				+ " (RUN_ID, PRC_ID, SCRIPT_ID, ACTION_ID, ACTION_NB, ACTION_TYP_NM, ACTION_NM, ACTION_DSC, COMP_NM, EXP_ERR_FL, STOP_ERR_FL) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+		this.actionParameterTraceQuery = "INSERT INTO " + actionParameterTraceTableName
+				+ " (RUN_ID, PRC_ID, ACTION_ID, ACTION_PAR_NM, ACTION_PAR_VAL) "
+				+ "VALUES (?, ?, ?, ?, ?)";
+
+		// Keep the statement order: script traces before the action traces referring to them
+		this.pendingTraces = new LinkedHashMap<String, List<SqlParameter[]>>();
+		this.pendingTraces.put(this.scriptTraceQuery, new ArrayList<SqlParameter[]>());
+		this.pendingTraces.put(this.actionTraceQuery, new ArrayList<SqlParameter[]>());
+		this.pendingTraces.put(this.actionParameterTraceQuery, new ArrayList<SqlParameter[]>());
 	}
 
 	// Insert
-	public void setExecution(ScriptExecution scriptExecution, ScriptExecution parentScriptExecution) {
-		String sql = "";
-
-		sql += "INSERT INTO " + this.getFrameworkExecution().getMetadataControl().getTraceRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ScriptTraces");
-		sql += " (RUN_ID, PRC_ID, PARENT_PRC_ID, SCRIPT_ID, SCRIPT_VRS_NB, SCRIPT_TYP_NM, SCRIPT_NM, SCRIPT_DSC) ";
-		sql += "VALUES ";
-		sql += "(";
-		sql += SQLTools.GetStringForSQL(scriptExecution.getExecutionControl().getRunId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(scriptExecution.getProcessId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL((parentScriptExecution == null ? 0 : parentScriptExecution.getProcessId()));
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(scriptExecution.getScript().getId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(scriptExecution.getScript().getVersion().getNumber());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(scriptExecution.getScript().getType());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(scriptExecution.getScript().getName());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(scriptExecution.getScript().getDescription());
-		sql += ")";
-		sql += ";";
-	
-		// add Parameters
-		String sqlParameters = this.getParameterInsertStatements(scriptExecution);
-		if (!sqlParameters.equals("")) {
-			sql += "\n";
-			sql += sqlParameters;
+	public synchronized void setExecution(ScriptExecution scriptExecution, ScriptExecution parentScriptExecution) {
+		this.addTrace(this.scriptTraceQuery, new SqlParameter[] {
+				SqlParameter.ofString(scriptExecution.getExecutionControl().getRunId()),
+				SqlParameter.ofLong(scriptExecution.getProcessId()),
+				SqlParameter.ofLong(parentScriptExecution == null ? 0L : parentScriptExecution.getProcessId()),
+				SqlParameter.ofLong(scriptExecution.getScript().getId()),
+				SqlParameter.ofLong(scriptExecution.getScript().getVersion().getNumber()),
+				SqlParameter.ofString(scriptExecution.getScript().getType()),
+				SqlParameter.ofString(scriptExecution.getScript().getName()),
+				SqlParameter.ofString(scriptExecution.getScript().getDescription()) });
+	}
+
+	public synchronized void setExecution(ScriptExecution scriptExecution, ActionExecution actionExecution, HashMap<String, ActionParameterOperation> actionParameterOperationMap) {
+		if (!this.isTraced(actionExecution)) {
+			return;
 		}
-		
-		// Execute SQL
-		this.getFrameworkExecution().getMetadataControl().getTraceRepositoryConfiguration().executeUpdate(sql);
-	}
-	
-	private String getParameterInsertStatements(ScriptExecution scriptExecution) {
-		String result = "";
-
-		if (scriptExecution.getScript().getParameters() == null) return result;
-		
-		return result;
-	}
-	
-	public void setExecution(ScriptExecution scriptExecution, ActionExecution actionExecution, HashMap<String, ActionParameterOperation> actionParameterOperationMap) {
-		String sql = "";
-
-		sql += "INSERT INTO " + this.getFrameworkExecution().getMetadataControl().getTraceRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ActionTraces");
-		sql += " (RUN_ID, PRC_ID, SCRIPT_ID, ACTION_ID, ACTION_NB, ACTION_TYP_NM, ACTION_NM, ACTION_DSC, COMP_NM, EXP_ERR_FL, STOP_ERR_FL) ";
-		sql += "VALUES ";
-		sql += "(";
-		sql += SQLTools.GetStringForSQL(actionExecution.getExecutionControl().getRunId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getProcessId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(scriptExecution.getScript().getId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getAction().getId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getAction().getNumber());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getAction().getType());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getAction().getName());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getAction().getDescription());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getAction().getComponent());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getAction().getErrorExpected());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getAction().getErrorStop());
-		sql += ")";
-		sql += ";";
-	
+
+		this.addTrace(this.actionTraceQuery, new SqlParameter[] {
+				SqlParameter.ofString(actionExecution.getExecutionControl().getRunId()),
+				SqlParameter.ofLong(actionExecution.getProcessId()),
+				SqlParameter.ofLong(scriptExecution.getScript().getId()),
+				SqlParameter.ofLong(actionExecution.getAction().getId()),
+				SqlParameter.ofLong(actionExecution.getAction().getNumber()),
+				SqlParameter.ofString(actionExecution.getAction().getType()),
+				SqlParameter.ofString(actionExecution.getAction().getName()),
+				SqlParameter.ofString(actionExecution.getAction().getDescription()),
+				SqlParameter.ofString(actionExecution.getAction().getComponent()),
+				SqlParameter.ofString(actionExecution.getAction().getErrorExpected()),
+				SqlParameter.ofString(actionExecution.getAction().getErrorStop()) });
+
 		// add Parameters
-		String sqlParameters = this.getOperationInsertStatements(actionExecution, actionParameterOperationMap);
-		if (!sqlParameters.equals("")) {
-			sql += sqlParameters;
-		}
-		
-		// Execute SQL
-		this.getFrameworkExecution().getMetadataControl().getTraceRepositoryConfiguration().executeUpdate(sql);
-	}
-
-	@SuppressWarnings("rawtypes")
-	private String getOperationInsertStatements(ActionExecution actionExecution, HashMap<String, ActionParameterOperation> actionParameterOperationMap) {
-		String result = "";
-
-		if (actionParameterOperationMap == null) return result;
-
-		Iterator iterator = actionParameterOperationMap.entrySet().iterator();
-		ObjectMapper objectMapper = new ObjectMapper();
-		while (iterator.hasNext()) {
-	        Map.Entry pair = (Map.Entry)iterator.next();
-	        //System.out.println(pair.getKey() + " = " + pair.getValue());
-	        ActionParameterOperation actionParameterOperation = objectMapper.convertValue(pair.getValue(), ActionParameterOperation.class);
-	        
-	        // Handle null values when parameter has not been set
-	        if (actionParameterOperation == null) continue;
-	        
-			String sql = this.getOperationInsertStatement(actionExecution, actionParameterOperation);
-	        if (!sql.equals("")) {
-				result += "\n";
-				result += sql;
+		if (actionParameterOperationMap != null) {
+			for (ActionParameterOperation actionParameterOperation : actionParameterOperationMap.values()) {
+				// Handle null values when parameter has not been set
+				if (actionParameterOperation == null) continue;
+
+				this.addTrace(this.actionParameterTraceQuery, new SqlParameter[] {
+						SqlParameter.ofString(actionExecution.getExecutionControl().getRunId()),
+						SqlParameter.ofLong(actionExecution.getProcessId()),
+						SqlParameter.ofLong(actionExecution.getAction().getId()),
+						SqlParameter.ofString(actionParameterOperation.getName()),
+						SqlParameter.ofString(actionParameterOperation.getValue()) });
 			}
-	        iterator.remove(); // avoids a ConcurrentModificationException
-	    }
-		
-		return result;
+		}
 	}
 
-	private String getOperationInsertStatement (ActionExecution actionExecution, ActionParameterOperation actionParameterOperation) {
-		String sql = "";
+	boolean isTraced(ActionExecution actionExecution) {
+		if (this.getTraceMode().equals(TRACE_MODE_ALL)) {
+			return true;
+		}
 
-		sql += "INSERT INTO " + this.getFrameworkExecution().getMetadataControl().getTraceRepositoryConfiguration().getMetadataTableConfiguration().getTableName("ActionParameterTraces");
-		sql += " (RUN_ID, PRC_ID, ACTION_ID, ACTION_PAR_NM, ACTION_PAR_VAL) ";
-		sql += "VALUES ";
-		sql += "(";
-		sql += SQLTools.GetStringForSQL(actionExecution.getExecutionControl().getRunId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getProcessId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionExecution.getAction().getId());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionParameterOperation.getName());
-		sql += ",";
-		sql += SQLTools.GetStringForSQL(actionParameterOperation.getValue());
-		sql += ")";
-		sql += ";";
+		// Skipped actions are traced before any action control exists and cannot have failed
+		boolean failed = actionExecution.getActionControl() != null
+				&& actionExecution.getActionControl().getExecutionMetrics().getErrorCount() > 0;
+		if (this.getTraceMode().equals(TRACE_MODE_FAILED)) {
+			return failed;
+		} else if (this.getTraceMode().equals(TRACE_MODE_SAMPLE)) {
+			return failed || ThreadLocalRandom.current().nextInt(100) < this.getSampleRate();
+		} else {
+			// Unknown modes trace everything
+			return true;
+		}
+	}
 
-		return sql;
+	private void addTrace(String query, SqlParameter[] sqlParameters) {
+		this.pendingTraces.get(query).add(sqlParameters);
+		this.pendingTraceCount++;
+		if (this.pendingTraceCount >= this.getBatchSize()) {
+			this.flush();
+		}
 	}
 
+	/**
+	 * Write the pending trace rows to the trace repository.
+	 */
+	public synchronized void flush() {
+		if (this.pendingTraceCount == 0) {
+			return;
+		}
+
+		try {
+			this.getFrameworkExecution().getMetadataControl().getTraceRepositoryConfiguration().executeBatch(this.pendingTraces);
+		} finally {
+			for (List<SqlParameter[]> sqlParameterRows : this.pendingTraces.values()) {
+				sqlParameterRows.clear();
+			}
+			this.pendingTraceCount = 0;
+		}
+	}
 
 	// Getters and Setters
+	synchronized int getPendingTraceCount() {
+		return pendingTraceCount;
+	}
+
 	public FrameworkExecution getFrameworkExecution() {
 		return frameworkExecution;
 	}
@@ -170,5 +184,28 @@ public class ExecutionTrace {
 		this.frameworkExecution = frameworkExecution;
 	}
 
+	public String getTraceMode() {
+		return traceMode;
+	}
+
+	public void setTraceMode(String traceMode) {
+		this.traceMode = traceMode;
+	}
+
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	public void setSampleRate(int sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
 
-}
\ No newline at end of file
+}
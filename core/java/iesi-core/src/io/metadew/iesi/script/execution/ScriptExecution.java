@@ -1,13 +1,9 @@
 package io.metadew.iesi.script.execution;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CompletionService;
-import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Level;
@@ -62,7 +58,27 @@ public class ScriptExecution {
 
     // Methods
     public boolean initializeAsRootScript(String envName) {
-        this.setExecutionControl(new ExecutionControl(this.getFrameworkExecution()));
+        return this.initializeAsRootScript(envName, this.getFrameworkExecution().getFrameworkLog().getUuid().toString());
+    }
+
+    /**
+     * Initialize a root script with its own run id, and so its own runtime variables and run cache folder.
+     * Used when several root scripts run side by side in the same framework execution.
+     */
+    public boolean initializeAsRootScript(String envName, String runId) {
+        return this.initializeAsRootScript(envName, runId, runId);
+    }
+
+    /**
+     * Initialize a root script reporting its results under the run id, with runtime variables and a run cache
+     * folder of its own runtime id. The runtime is removed when the script terminates, so a script started from
+     * another script must not share the runtime id of its caller.
+     */
+    public boolean initializeAsRootScript(String envName, String runId, String runtimeId) {
+        // Fail before any action runs if an action type cannot be executed
+        ActionTypeRegistry.initialize(this.getFrameworkExecution());
+
+        this.setExecutionControl(new ExecutionControl(this.getFrameworkExecution(), runId, runtimeId));
         this.getExecutionControl().setEnvName(envName);
         this.setParentScriptExecution(this.getRootScriptExecution());
         this.setRootScript(true);
@@ -90,7 +106,6 @@ public class ScriptExecution {
         this.setParentScriptExecution(currentScriptExecution.getParentScriptExecution());
         this.setRootScript(currentScriptExecution.isRootScript());
         this.setActionSelectOperation(currentScriptExecution.getActionSelectOperation());
-        this.setExecutionMetrics(currentScriptExecution.getExecutionMetrics()); // ?
         this.setRouteScript(true);
         return true;
     }
@@ -116,7 +131,6 @@ public class ScriptExecution {
             this.getExecutionControl().logMessage(this, "script.name=" + this.getScript().getName(), Level.INFO);
             this.getExecutionControl().logMessage(this, "exec.env=" + this.getExecutionControl().getEnvName(), Level.INFO);
             this.getExecutionControl().logStart(this, this.getParentScriptExecution());
-            this.setProcessId(this.getExecutionControl().getProcessId());
 
             /*
              * Initialize parameters. A parameter file has priority over a parameter list
@@ -163,39 +177,30 @@ public class ScriptExecution {
                 if (action.getType().equalsIgnoreCase("fwk.route")) {
                     actionExecution.execute();
 
-                    // Create future variables
-                    int threads = actionExecution.getActionControl().getActionRuntime().getRouteOperations().size();
-                    CompletionService<ScriptExecution> completionService = new ExecutorCompletionService(
-                            Executors.newFixedThreadPool(threads));
-                    Set<Future<ScriptExecution>> futureScriptExecutions = new HashSet<Future<ScriptExecution>>();
-
-                    // Submit routes
+                    // Submit routes, each route keeps its own execution metrics
+                    List<Callable<ScriptExecution>> routes = new ArrayList<Callable<ScriptExecution>>();
                     for (RouteOperation routeOperation : actionExecution.getActionControl().getActionRuntime().getRouteOperations()) {
-                        Callable<ScriptExecution> callableScriptExecution = () -> {
+                        routes.add(() -> {
                             ScriptExecution scriptExecution = new ScriptExecution(this.getFrameworkExecution(),
                                     routeOperation.getScript());
                             scriptExecution.initializeAsRouteExecution(this);
                             scriptExecution.execute();
                             return scriptExecution;
-                        };
-
-                        futureScriptExecutions.add(completionService.submit(callableScriptExecution));
+                        });
                     }
 
-                    Future<ScriptExecution> completedFuture;
-                    ScriptExecution completedScriptExecution;
-                    while (futureScriptExecutions.size() > 0) {
-                        try {
-                            completedFuture = completionService.take();
-                            futureScriptExecutions.remove(completedFuture);
-
-                            completedScriptExecution = completedFuture.get();
-                            this.getExecutionMetrics().mergeExecutionMetrics(completedScriptExecution.getExecutionMetrics());
-                        } catch (Exception e) {
-                            Throwable cause = e.getCause();
-                            this.getExecutionControl().logMessage(this, "route.error=" + cause, Level.INFO);
-                            continue;
+                    // Merge the routes in the order they were defined
+                    try {
+                        for (Future<ScriptExecution> futureScriptExecution : ScriptRouteExecutor.invokeAll(routes)) {
+                            try {
+                                this.getExecutionMetrics().mergeExecutionMetrics(futureScriptExecution.get().getExecutionMetrics());
+                            } catch (ExecutionException e) {
+                                this.getExecutionControl().logMessage(this, "route.error=" + e.getCause(), Level.INFO);
+                            }
                         }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        this.getExecutionControl().logMessage(this, "route.error=" + e, Level.INFO);
                     }
 
                     break;
@@ -0,0 +1,85 @@
+package io.metadew.iesi.script.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Framework wide executor running the routes of fwk.route actions.
+ * The number of threads is bounded and idle threads are released after a while. Routes started from
+ * within a route run in the calling thread, so nested routes can never wait on each other for a free thread.
+ *
+ * @author peter.billen
+ *
+ */
+public final class ScriptRouteExecutor {
+
+	private static final long KEEP_ALIVE_TIME = 60000;
+	private static final ThreadLocal<Boolean> routeThread = new ThreadLocal<Boolean>();
+	private static final AtomicInteger threadNumber = new AtomicInteger();
+
+	private static int threadCount = 10;
+	private static ThreadPoolExecutor executorService;
+
+	private ScriptRouteExecutor() {
+
+	}
+
+	// Methods
+	public static synchronized void configure(int threadCount) {
+		ScriptRouteExecutor.threadCount = Math.max(threadCount, 1);
+		if (executorService != null) {
+			executorService.setMaximumPoolSize(Math.max(ScriptRouteExecutor.threadCount, executorService.getCorePoolSize()));
+			executorService.setCorePoolSize(ScriptRouteExecutor.threadCount);
+			executorService.setMaximumPoolSize(ScriptRouteExecutor.threadCount);
+		}
+	}
+
+	/**
+	 * Run the routes and wait for all of them to complete.
+	 * The futures are returned in the order of the routes, whatever the order of completion.
+	 */
+	public static <T> List<Future<T>> invokeAll(List<Callable<T>> routes) throws InterruptedException {
+		if (Boolean.TRUE.equals(routeThread.get())) {
+			List<Future<T>> futures = new ArrayList<Future<T>>();
+			for (Callable<T> route : routes) {
+				FutureTask<T> future = new FutureTask<T>(route);
+				future.run();
+				futures.add(future);
+			}
+			return futures;
+		}
+		return getExecutorService().invokeAll(routes);
+	}
+
+	public static synchronized void shutdown() {
+		if (executorService != null) {
+			executorService.shutdown();
+			executorService = null;
+		}
+	}
+
+	private static synchronized ExecutorService getExecutorService() {
+		if (executorService == null) {
+			executorService = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
+					new LinkedBlockingQueue<Runnable>(), runnable -> {
+						Thread thread = new Thread(() -> {
+							routeThread.set(Boolean.TRUE);
+							runnable.run();
+						}, "iesi-route-" + threadNumber.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			executorService.allowCoreThreadTimeOut(true);
+		}
+		return executorService;
+	}
+
+}
@@ -0,0 +1,115 @@
+package io.metadew.iesi.script.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.metadew.iesi.framework.configuration.FrameworkStatus;
+
+/**
+ * Executor running the scripts of a suite on a fixed number of threads.
+ * With a single thread the scripts run one after the other in the calling thread and report their results under
+ * the run id of the framework execution. Scripts running in parallel each get their own run id. Every script has
+ * its own runtime id, so runtime variables and run cache folders are never shared with other scripts or with the
+ * calling script. With fail fast, scripts not yet started are skipped once a script ended in error.
+ *
+ * @author peter.billen
+ *
+ */
+public class SuiteScriptExecutor {
+
+	private int threadCount;
+	private boolean failFast;
+
+	// Constructors
+	public SuiteScriptExecutor(int threadCount, boolean failFast) {
+		this.setThreadCount(Math.max(threadCount, 1));
+		this.setFailFast(failFast);
+	}
+
+	// Methods
+	public boolean isParallel() {
+		return this.getThreadCount() > 1;
+	}
+
+	public String getRunId(String frameworkRunId) {
+		return this.isParallel() ? UUID.randomUUID().toString() : frameworkRunId;
+	}
+
+	public String getRuntimeId() {
+		return UUID.randomUUID().toString();
+	}
+
+	/**
+	 * Run the scripts and wait for all of them to complete. Each script returns its status.
+	 * The futures are returned in the order of the scripts, whatever the order of completion.
+	 */
+	public List<Future<String>> invokeAll(List<Callable<String>> scripts) throws InterruptedException {
+		AtomicBoolean failed = new AtomicBoolean(false);
+		List<Callable<String>> suiteScripts = new ArrayList<Callable<String>>();
+		for (Callable<String> script : scripts) {
+			suiteScripts.add(() -> {
+				if (this.isFailFast() && failed.get()) {
+					return FrameworkStatus.SKIPPED.value();
+				}
+				try {
+					String result = script.call();
+					if (FrameworkStatus.ERROR.value().equals(result) || FrameworkStatus.STOPPED.value().equals(result)) {
+						failed.set(true);
+					}
+					return result;
+				} catch (Exception e) {
+					failed.set(true);
+					throw e;
+				}
+			});
+		}
+
+		if (!this.isParallel()) {
+			List<Future<String>> results = new ArrayList<Future<String>>();
+			for (Callable<String> suiteScript : suiteScripts) {
+				FutureTask<String> result = new FutureTask<String>(suiteScript);
+				result.run();
+				results.add(result);
+			}
+			return results;
+		}
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		ExecutorService executorService = Executors.newFixedThreadPool(this.getThreadCount(), runnable -> {
+			Thread thread = new Thread(runnable, "iesi-suite-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			return executorService.invokeAll(suiteScripts);
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	// Getters and Setters
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	public void setThreadCount(int threadCount) {
+		this.threadCount = threadCount;
+	}
+
+	public boolean isFailFast() {
+		return failFast;
+	}
+
+	public void setFailFast(boolean failFast) {
+		this.failFast = failFast;
+	}
+
+}
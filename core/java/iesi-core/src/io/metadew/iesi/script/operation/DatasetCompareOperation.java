@@ -0,0 +1,93 @@
+package io.metadew.iesi.script.operation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.metadew.iesi.metadata.definition.Transformation;
+
+/**
+ * Operation to compare the fields of two datasets according to the transformations of a mapping.
+ * The field values are read upfront, one pass per dataset, and compared in memory.
+ * A field that is missing in a dataset is reported and compared as an empty value.
+ *
+ * @author peter.billen
+ *
+ */
+public class DatasetCompareOperation {
+
+	private long matchCount;
+	private List<String> mismatches;
+	private List<String> missingFields;
+
+	// Constructors
+	public DatasetCompareOperation() {
+		this.setMatchCount(0);
+		this.setMismatches(new ArrayList<String>());
+		this.setMissingFields(new ArrayList<String>());
+	}
+
+	// Methods
+	public void compare(DatasetOperation leftDatasetOperation, String leftDatasetTableName,
+			DatasetOperation rightDatasetOperation, String rightDatasetTableName, List<Transformation> transformations) {
+		List<String> leftFields = new ArrayList<String>();
+		List<String> rightFields = new ArrayList<String>();
+		for (Transformation transformation : transformations) {
+			leftFields.add(transformation.getLeftField());
+			rightFields.add(transformation.getRightField());
+		}
+
+		this.compare(transformations, leftDatasetOperation.getDataItems(leftDatasetTableName, leftFields),
+				rightDatasetOperation.getDataItems(rightDatasetTableName, rightFields));
+	}
+
+	public void compare(List<Transformation> transformations, Map<String, String> leftDataItems,
+			Map<String, String> rightDataItems) {
+		for (Transformation transformation : transformations) {
+			String leftFieldValue = this.getFieldValue(leftDataItems, "left", transformation.getLeftField());
+			String rightFieldValue = this.getFieldValue(rightDataItems, "right", transformation.getRightField());
+			if (Objects.equals(leftFieldValue, rightFieldValue)) {
+				this.setMatchCount(this.getMatchCount() + 1);
+			} else {
+				this.getMismatches().add(transformation.getLeftField() + ": " + leftFieldValue + " <> "
+						+ transformation.getRightField() + ": " + rightFieldValue);
+			}
+		}
+	}
+
+	private String getFieldValue(Map<String, String> dataItems, String side, String field) {
+		if (dataItems.containsKey(field)) {
+			return dataItems.get(field);
+		}
+
+		this.getMissingFields().add(side + ": " + field);
+		return "";
+	}
+
+	// Getters and Setters
+	public long getMatchCount() {
+		return matchCount;
+	}
+
+	public void setMatchCount(long matchCount) {
+		this.matchCount = matchCount;
+	}
+
+	public List<String> getMismatches() {
+		return mismatches;
+	}
+
+	public void setMismatches(List<String> mismatches) {
+		this.mismatches = mismatches;
+	}
+
+	public List<String> getMissingFields() {
+		return missingFields;
+	}
+
+	public void setMissingFields(List<String> missingFields) {
+		this.missingFields = missingFields;
+	}
+
+}
@@ -0,0 +1,181 @@
+package io.metadew.iesi.script.operation;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In memory index of the items of the tables of a dataset, keyed by table and item key.
+ * Tables are added once read and kept up to date by the writes of the dataset operations.
+ * There is one index per dataset file in the process, shared by the dataset operations of all executions.
+ * The index assumes that the dataset file is only written through these dataset operations: a write made by
+ * another process, or directly to the file, is not seen once the table is indexed.
+ * The number of indexed items is bounded; a table that does not fit is left on disk and read again once
+ * enough items have left the index.
+ * Table names are case insensitive, as in the dataset database; item keys are not.
+ *
+ * @author peter.billen
+ *
+ */
+public class DatasetItemIndex {
+
+	private static final Map<String, DatasetItemIndex> datasetItemIndexes = new HashMap<String, DatasetItemIndex>();
+
+	private int maximumSize;
+	private int size = 0;
+	private Map<String, Map<String, String>> tables;
+	private Map<String, Integer> oversizedTables;
+	private Map<String, Long> tableVersions;
+
+	// Constructors
+	public DatasetItemIndex(int maximumSize) {
+		this.maximumSize = Math.max(0, maximumSize);
+		this.tables = new HashMap<String, Map<String, String>>();
+		this.oversizedTables = new HashMap<String, Integer>();
+		this.tableVersions = new HashMap<String, Long>();
+	}
+
+	// Methods
+	/**
+	 * Get the index of a dataset file, created with the maximum size on first use.
+	 */
+	public static synchronized DatasetItemIndex getDatasetItemIndex(String datasetFileName, int maximumSize) {
+		return datasetItemIndexes.computeIfAbsent(new File(datasetFileName).getAbsolutePath(),
+				key -> new DatasetItemIndex(maximumSize));
+	}
+
+	public synchronized boolean isIndexed(String table) {
+		table = getTableKey(table);
+		return this.tables.containsKey(table);
+	}
+
+	/**
+	 * Check if a table did not fit in the index and still does not fit in the items left available.
+	 */
+	public synchronized boolean isOversized(String table) {
+		table = getTableKey(table);
+		Integer requiredSize = this.oversizedTables.get(table);
+		return requiredSize != null && requiredSize > this.getAvailableSize();
+	}
+
+	/**
+	 * Get the value of an item of an indexed table, or an empty value if the table has no such item.
+	 */
+	public synchronized String getItem(String table, String key) {
+		table = getTableKey(table);
+		Map<String, String> items = this.tables.get(table);
+		if (items == null || !items.containsKey(key)) {
+			return "";
+		}
+		return items.get(key);
+	}
+
+	/**
+	 * Get the items of an indexed table that have one of the keys.
+	 */
+	public synchronized Map<String, String> getItems(String table, Collection<String> keys) {
+		table = getTableKey(table);
+		Map<String, String> result = new HashMap<String, String>();
+		Map<String, String> items = this.tables.get(table);
+		if (items != null) {
+			for (String key : keys) {
+				if (items.containsKey(key)) {
+					result.put(key, items.get(key));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the version to pass when adding the items of a table that is about to be read.
+	 */
+	public synchronized long getVersion(String table) {
+		table = getTableKey(table);
+		Long version = this.tableVersions.get(table);
+		return version == null ? 0 : version;
+	}
+
+	public synchronized int getAvailableSize() {
+		return this.maximumSize - this.size;
+	}
+
+	/**
+	 * Add the items read from a table, or null if the table was too large to read.
+	 * Nothing changes if the table was written since the read started.
+	 */
+	public synchronized void putTable(String table, Map<String, String> items, long version) {
+		table = getTableKey(table);
+		if (version == this.getVersion(table)) {
+			this.setTable(table, items);
+		}
+	}
+
+	/**
+	 * Replace the items of a table that has been rewritten, or null if the items are not known.
+	 */
+	public synchronized void replaceTable(String table, Map<String, String> items) {
+		table = getTableKey(table);
+		this.increaseVersion(table);
+		this.setTable(table, items);
+	}
+
+	/**
+	 * Add an item written to a table. The last item written for a key is the one read back.
+	 */
+	public synchronized void putItem(String table, String key, String value) {
+		table = getTableKey(table);
+		this.increaseVersion(table);
+		Map<String, String> items = this.tables.get(table);
+		if (items == null) {
+			return;
+		}
+
+		if (!items.containsKey(key)) {
+			if (this.size >= this.maximumSize) {
+				this.setTable(table, null);
+				return;
+			}
+			this.size++;
+		}
+		items.put(key, value);
+	}
+
+	private static String getTableKey(String table) {
+		return table.toLowerCase(Locale.ROOT);
+	}
+
+	private void setTable(String table, Map<String, String> items) {
+		Map<String, String> previousItems = this.tables.remove(table);
+		if (previousItems != null) {
+			this.size -= previousItems.size();
+		}
+
+		// Keep the least number of items the table needs, to read it again once they are available
+		if (items == null) {
+			this.oversizedTables.put(table, this.getAvailableSize() + 1);
+		} else if (this.size + items.size() > this.maximumSize) {
+			this.oversizedTables.put(table, items.size());
+		} else {
+			this.oversizedTables.remove(table);
+			this.tables.put(table, items);
+			this.size += items.size();
+		}
+	}
+
+	private void increaseVersion(String table) {
+		this.tableVersions.put(table, this.getVersion(table) + 1);
+	}
+
+	// Getters and Setters
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	public synchronized int getSize() {
+		return size;
+	}
+
+}
@@ -4,7 +4,15 @@ import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -14,8 +22,12 @@ import javax.sql.rowset.CachedRowSet;
 
 import io.metadew.iesi.common.json.JsonParsed;
 import io.metadew.iesi.common.json.JsonParsedItem;
+import io.metadew.iesi.common.json.JsonTools;
 import io.metadew.iesi.connection.DatabaseConnection;
 import io.metadew.iesi.connection.database.SqliteDatabaseConnection;
+import io.metadew.iesi.connection.database.sql.SqlBatchWriter;
+import io.metadew.iesi.connection.database.sql.SqlParameter;
+import io.metadew.iesi.connection.database.sql.SqlResultCursor;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
 
 /**
@@ -37,6 +49,8 @@ public class DatasetOperation {
 
     private String datasetLabels;
 
+    private DatasetItemIndex datasetItemIndex;
+
     // Constructors
     @SuppressWarnings("unused")
     public DatasetOperation(FrameworkExecution frameworkExecution, String datasetName, String datasetLabels) {
@@ -56,6 +70,7 @@ public class DatasetOperation {
         CachedRowSet crs = null;
 
         String query = "select a.DATASET_INV_ID, a.DATASET_FILE_NM from CFG_DATASET_INV a inner join CFG_DATASET_LBL b on a.DATASET_INV_ID = b.DATASET_INV_ID";
+        List<SqlParameter> sqlParameters = new ArrayList<SqlParameter>();
         if (!this.getDatasetLabels().trim().equals("")) {
             String where = "";
             String[] parts = this.getDatasetLabels().split(",");
@@ -66,14 +81,14 @@ public class DatasetOperation {
                 } else {
                     where += " and ";
                 }
-                where += "b.DATASET_LBL_VAL = '";
-                where += innerpart;
-                where += "'";
+                where += "b.DATASET_LBL_VAL = ?";
+                sqlParameters.add(SqlParameter.ofString(innerpart));
             }
             query += where;
         }
 
-        crs = this.getMetadataConnection().executeQuery(query);
+        crs = this.getMetadataConnection().executeQuery(query,
+                sqlParameters.toArray(new SqlParameter[sqlParameters.size()]));
         try {
             while (crs.next()) {
                 datasetFileName = crs.getString("DATASET_FILE_NM");
@@ -96,6 +111,8 @@ public class DatasetOperation {
         datasetFileName = datasetFolderName + File.separator + "data" + File.separator + datasetFileName;
         dcSQLiteConnection = new SqliteDatabaseConnection(datasetFileName);
         this.setDatasetConnection(objectMapper.convertValue(dcSQLiteConnection, DatabaseConnection.class));
+        this.setDatasetItemIndex(DatasetItemIndex.getDatasetItemIndex(datasetFileName,
+                Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.dataset.cache.size", "100000"))));
     }
 
     public String getDataItem(String datasetItem) {
@@ -103,6 +120,14 @@ public class DatasetOperation {
         if (!matcher.find()) {
             throw new RuntimeException(MessageFormat.format("Dataset item {0} does not follow the correct syntax of table.table_field", datasetItem));
         }
+        if (this.indexTable(matcher.group("table"))) {
+            return this.getDatasetItemIndex().getItem(matcher.group("table"), matcher.group("tableField"));
+        } else if (!this.tableExists(matcher.group("table"))) {
+            // A table that was never written has no items
+            return "";
+        }
+
+        // The table is too large to be kept in memory
         CachedRowSet crs = null;
         String query = "";
         if (!datasetItem.trim().equals("")) {
@@ -110,13 +135,11 @@ public class DatasetOperation {
             query += "value";
             query += " from ";
             query += matcher.group("table");
-            query += " where key = '";
-            query += matcher.group("tableField");
-            query += "'";
+            query += " where key = ?";
         }
 
         String value = "";
-        crs = this.getDatasetConnection().executeQuery(query);
+        crs = this.getDatasetConnection().executeQuery(query, SqlParameter.ofString(matcher.group("tableField")));
         try {
             while (crs.next()) {
                 value = crs.getString("VALUE");
@@ -130,62 +153,165 @@ public class DatasetOperation {
         return value;
     }
 
-    public void setDataset(String datasetTableName, JsonParsed jsonParsed) {
-        // Check if table exists
-        String queryTableExists = "select name from sqlite_master where name = '" + datasetTableName + "'";
-        CachedRowSet crs = null;
-        crs = this.getDatasetConnection().executeQuery(queryTableExists);
-        String value = "";
-        boolean tableExists = false;
-        try {
-            while (crs.next()) {
-                value = crs.getString("NAME");
-                if (value.trim().equalsIgnoreCase(datasetTableName)) {
-                    tableExists = true;
+    /**
+     * Get the values of a number of fields of a dataset table, reading the table once instead of querying every field.
+     * Fields that are not in the dataset, or in a table that does not exist, are left out of the result.
+     */
+    public Map<String, String> getDataItems(String datasetTableName, Collection<String> tableFields) {
+        // Same syntax check and key as a single data item
+        Map<String, Map<String, List<String>>> tableFieldsByKeyByTable = new LinkedHashMap<String, Map<String, List<String>>>();
+        for (String tableField : tableFields) {
+            String datasetItem = datasetTableName + "." + tableField;
+            Matcher matcher = datasetItemPattern.matcher(datasetItem);
+            if (!matcher.find()) {
+                throw new RuntimeException(MessageFormat.format("Dataset item {0} does not follow the correct syntax of table.table_field", datasetItem));
+            }
+            tableFieldsByKeyByTable.computeIfAbsent(matcher.group("table"), table -> new HashMap<String, List<String>>())
+                    .computeIfAbsent(matcher.group("tableField"), key -> new ArrayList<String>()).add(tableField);
+        }
+
+        Map<String, String> dataItems = new HashMap<String, String>();
+        for (Map.Entry<String, Map<String, List<String>>> table : tableFieldsByKeyByTable.entrySet()) {
+            if (this.indexTable(table.getKey())) {
+                Map<String, String> items = this.getDatasetItemIndex().getItems(table.getKey(), table.getValue().keySet());
+                for (Map.Entry<String, String> item : items.entrySet()) {
+                    for (String tableField : table.getValue().get(item.getKey())) {
+                        dataItems.put(tableField, item.getValue());
+                    }
+                }
+                continue;
+            } else if (!this.tableExists(table.getKey())) {
+                continue;
+            }
+
+            String query = "select key, value from " + table.getKey();
+            try (SqlResultCursor sqlResultCursor = this.getDatasetConnection().executeQueryCursor(query)) {
+                while (sqlResultCursor.next()) {
+                    List<String> keyTableFields = table.getValue().get(sqlResultCursor.getString(1));
+                    if (keyTableFields != null) {
+                        // The last row of a key wins, as for a single data item
+                        for (String tableField : keyTableFields) {
+                            dataItems.put(tableField, sqlResultCursor.getString(2));
+                        }
+                    }
+                }
+            }
+        }
+
+        return dataItems;
+    }
+
+    /*
+     * Read the items of a table into the index on first use. Returns false if the table does not fit in the index.
+     * The index is shared with the other operations on the dataset file, which keep it up to date with their writes.
+     */
+    private boolean indexTable(String datasetTableName) {
+        DatasetItemIndex datasetItemIndex = this.getDatasetItemIndex();
+        if (datasetItemIndex.isIndexed(datasetTableName)) {
+            return true;
+        } else if (datasetItemIndex.isOversized(datasetTableName) || datasetItemIndex.getMaximumSize() == 0
+                || !this.tableExists(datasetTableName)) {
+            return false;
+        }
+
+        long version = datasetItemIndex.getVersion(datasetTableName);
+        int availableSize = datasetItemIndex.getAvailableSize();
+        Map<String, String> items = new HashMap<String, String>();
+        String query = "select key, value from " + datasetTableName;
+        try (SqlResultCursor sqlResultCursor = this.getDatasetConnection().executeQueryCursor(query)) {
+            while (sqlResultCursor.next()) {
+                items.put(sqlResultCursor.getString(1), sqlResultCursor.getString(2));
+                if (items.size() > availableSize) {
+                    items = null;
+                    break;
                 }
             }
+        }
+
+        datasetItemIndex.putTable(datasetTableName, items, version);
+        return datasetItemIndex.isIndexed(datasetTableName);
+    }
+
+    private boolean tableExists(String datasetTableName) {
+        // Table names are case insensitive in SQLite
+        String queryTableExists = "select name from sqlite_master where type = 'table' and name = ? collate nocase";
+        CachedRowSet crs = this.getDatasetConnection().executeQuery(queryTableExists, SqlParameter.ofString(datasetTableName));
+        boolean tableExists = false;
+        try {
+            tableExists = crs.next();
             crs.close();
         } catch (Exception e) {
             StringWriter StackTrace = new StringWriter();
             e.printStackTrace(new PrintWriter(StackTrace));
         }
+        return tableExists;
+    }
 
-        // Perform necessary initialization actions
-        if (tableExists) {
-            String clean = "delete from " + datasetTableName;
-            this.getDatasetConnection().executeUpdate(clean);
-        } else {
-            String create = "CREATE TABLE " + datasetTableName + " (key TEXT, value TEXT)";
-            this.getDatasetConnection().executeUpdate(create);
-        }
+    public void setDataset(String datasetTableName, JsonParsed jsonParsed) {
+        this.setDataset(datasetTableName, jsonParsedItemHandler -> {
+            for (JsonParsedItem jsonParsedItem : jsonParsed.getJsonParsedItemList()) {
+                jsonParsedItemHandler.accept(jsonParsedItem);
+            }
+        });
+    }
+
+    /**
+     * Store the items of a json file or string while it is being parsed, without holding the items in memory.
+     */
+    public void setDataset(String datasetTableName, String context, String scope) {
+        this.setDataset(datasetTableName,
+                jsonParsedItemHandler -> new JsonTools().parseJson(context, scope, jsonParsedItemHandler));
+    }
+
+    /*
+     * The table is created or replaced in a single transaction with batched inserts, so a failing load keeps the
+     * previous content, or leaves no table at all
+     */
+    private void setDataset(String datasetTableName, Consumer<Consumer<JsonParsedItem>> jsonParsedItemSource) {
+        boolean tableExists = this.tableExists(datasetTableName);
 
         // Store the data
-        try {
-            for (JsonParsedItem jsonParsedItem : jsonParsed.getJsonParsedItemList()) {
-                String query = "";
-                query = "insert into " + datasetTableName + " (key, value) values ('";
-                query += jsonParsedItem.getPath();
-                query += "','";
-                query += jsonParsedItem.getValue();
-                query += "')";
-                this.getDatasetConnection().executeUpdate(query);
+        int batchSize = Integer.parseInt(this.getFrameworkExecution().getSetting("script.execution.dataset.batch.size", "1000"));
+        String query = "insert into " + datasetTableName + " (key, value) values (?, ?)";
+        int maximumIndexSize = this.getDatasetItemIndex().getMaximumSize();
+        Map<String, String> items = new HashMap<String, String>();
+        AtomicBoolean indexed = new AtomicBoolean(maximumIndexSize > 0);
+        try (SqlBatchWriter sqlBatchWriter = this.getDatasetConnection().createBatchWriter(query, batchSize)) {
+            // Perform necessary initialization actions
+            if (tableExists) {
+                String clean = "delete from " + datasetTableName;
+                sqlBatchWriter.executeUpdate(clean);
+            } else {
+                String create = "CREATE TABLE " + datasetTableName + " (key TEXT, value TEXT)";
+                sqlBatchWriter.executeUpdate(create);
             }
+            jsonParsedItemSource.accept(jsonParsedItem -> {
+                sqlBatchWriter.addRow(SqlParameter.ofString(jsonParsedItem.getPath()),
+                        SqlParameter.ofString(jsonParsedItem.getValue()));
+                // Keep the new items for the index while they fit
+                if (indexed.get()) {
+                    items.put(jsonParsedItem.getPath(), jsonParsedItem.getValue());
+                    if (items.size() > maximumIndexSize) {
+                        indexed.set(false);
+                        items.clear();
+                    }
+                }
+            });
+            sqlBatchWriter.commit();
+            this.getDatasetItemIndex().replaceTable(datasetTableName, indexed.get() ? items : null);
         } catch (Exception e) {
             StringWriter StackTrace = new StringWriter();
             e.printStackTrace(new PrintWriter(StackTrace));
+            throw new RuntimeException(e.getMessage(), e);
         }
     }
 
     public void setDatasetEntry(String datasetTableName, String key, String value) {
         // Store the data
         try {
-            String query = "";
-            query = "insert into " + datasetTableName + " (key, value) values ('";
-            query += key;
-            query += "','";
-            query += value;
-            query += "')";
-            this.getDatasetConnection().executeUpdate(query);
+            String query = "insert into " + datasetTableName + " (key, value) values (?, ?)";
+            this.getDatasetConnection().executeUpdate(query, SqlParameter.ofString(key), SqlParameter.ofString(value));
+            this.getDatasetItemIndex().putItem(datasetTableName, key, value);
         } catch (Exception e) {
             StringWriter StackTrace = new StringWriter();
             e.printStackTrace(new PrintWriter(StackTrace));
@@ -193,24 +319,7 @@ public class DatasetOperation {
     }
 
     public void resetDataset(String datasetTableName) {
-        // Check if table exists
-        String queryTableExists = "select name from sqlite_master where name = '" + datasetTableName + "'";
-        CachedRowSet crs = null;
-        crs = this.getDatasetConnection().executeQuery(queryTableExists);
-        String value = "";
-        boolean tableExists = false;
-        try {
-            while (crs.next()) {
-                value = crs.getString("NAME");
-                if (value.trim().equalsIgnoreCase(datasetTableName)) {
-                    tableExists = true;
-                }
-            }
-            crs.close();
-        } catch (Exception e) {
-            StringWriter StackTrace = new StringWriter();
-            e.printStackTrace(new PrintWriter(StackTrace));
-        }
+        boolean tableExists = this.tableExists(datasetTableName);
 
         // Perform necessary initialization actions
         if (tableExists) {
@@ -220,6 +329,7 @@ public class DatasetOperation {
             String create = "CREATE TABLE " + datasetTableName + " (key TEXT, value TEXT)";
             this.getDatasetConnection().executeUpdate(create);
         }
+        this.getDatasetItemIndex().replaceTable(datasetTableName, new HashMap<String, String>());
 
     }
 
@@ -264,4 +374,12 @@ public class DatasetOperation {
         this.datasetLabels = datasetLabels;
     }
 
+    public DatasetItemIndex getDatasetItemIndex() {
+        return datasetItemIndex;
+    }
+
+    public void setDatasetItemIndex(DatasetItemIndex datasetItemIndex) {
+        this.datasetItemIndex = datasetItemIndex;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package io.metadew.iesi.script.operation;
+
+/**
+ * Rule of a field rule operation, with the value as written in the rule.
+ *
+ * @author peter.billen
+ *
+ */
+public class FieldRule {
+
+	private String name;
+	private String field;
+	private String check;
+	private String value = "";
+
+	//Constructors
+	public FieldRule() {
+
+	}
+
+	public FieldRule(String name, String field, String check, String value) {
+		this.setName(name);
+		this.setField(field);
+		this.setCheck(check);
+		this.setValue(value);
+	}
+
+	//Getters and Setters
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getField() {
+		return field;
+	}
+
+	public void setField(String field) {
+		this.field = field;
+	}
+
+	public String getCheck() {
+		return check;
+	}
+
+	public void setCheck(String check) {
+		this.check = check;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public void setValue(String value) {
+		this.value = value;
+	}
+
+}
@@ -0,0 +1,179 @@
+package io.metadew.iesi.script.operation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.metadew.iesi.connection.database.sql.SqlConditionalCountQuery;
+
+/**
+ * Operation to compile field rules into a single count query on a table.
+ * Rules are written as field:check[:value] and separated by semicolons, for instance
+ * "name:mandatory;code:pattern:BE%;amount:range:0,1000;status:values:A,C;zip:length:4,4".
+ * A backslash escapes the next character in a value, so "note:values:a\;b,c\,d" allows "a;b" and "c,d".
+ * Empty values are only checked by the mandatory rule; the other rules skip rows without a value.
+ *
+ * @author peter.billen
+ *
+ */
+public class FieldRuleOperation {
+
+	private List<FieldRule> fieldRules;
+
+	// Constructors
+	public FieldRuleOperation(String rules) {
+		this.setFieldRules(this.parseRules(rules));
+	}
+
+	// Methods
+	private List<FieldRule> parseRules(String rules) {
+		List<FieldRule> fieldRules = new ArrayList<FieldRule>();
+		Set<String> names = new HashSet<String>();
+		if (rules == null) {
+			return fieldRules;
+		}
+
+		for (String rule : this.split(rules, ';')) {
+			if (rule.trim().isEmpty()) {
+				continue;
+			}
+			// The value is kept as is, it can contain the separator and escaped characters
+			String[] parts = rule.trim().split(":", 3);
+			if (parts.length < 2 || parts[0].trim().isEmpty()) {
+				throw new RuntimeException("Field rule " + rule.trim() + " does not follow the syntax field:check[:value]");
+			}
+
+			String field = parts[0].trim();
+			String check = parts[1].trim().toLowerCase();
+			String value = parts.length == 3 ? parts[2] : "";
+			if (!check.equals("mandatory") && value.trim().isEmpty()) {
+				throw new RuntimeException("Field rule " + rule.trim() + " requires a value");
+			}
+
+			// Rules checking the same field in the same way are numbered
+			String name = field + "." + check;
+			for (int i = 2; names.contains(name); i++) {
+				name = field + "." + check + "." + i;
+			}
+			names.add(name);
+			FieldRule fieldRule = new FieldRule(name, field, check, value);
+			if (!check.equals("mandatory")) {
+				// Report invalid rules before the table is scanned
+				this.getCondition(fieldRule);
+			}
+			fieldRules.add(fieldRule);
+		}
+		return fieldRules;
+	}
+
+	/**
+	 * Add a success and an error count for each rule to the query, named after the rule with suffix pass and fail.
+	 */
+	public void addCounts(SqlConditionalCountQuery sqlConditionalCountQuery) {
+		for (FieldRule fieldRule : this.getFieldRules()) {
+			String field = fieldRule.getField();
+			if (fieldRule.getCheck().equals("mandatory")) {
+				sqlConditionalCountQuery.addCount(fieldRule.getName() + ".pass",
+						field + " is not null and trim(" + field + ") <> ''");
+				sqlConditionalCountQuery.addCount(fieldRule.getName() + ".fail",
+						field + " is null or trim(" + field + ") = ''");
+			} else {
+				String condition = this.getCondition(fieldRule);
+				sqlConditionalCountQuery.addCount(fieldRule.getName() + ".pass",
+						field + " is not null and (" + condition + ")");
+				sqlConditionalCountQuery.addCount(fieldRule.getName() + ".fail",
+						field + " is not null and not (" + condition + ")");
+			}
+		}
+	}
+
+	private String getCondition(FieldRule fieldRule) {
+		String field = fieldRule.getField();
+		String value = fieldRule.getValue();
+		if (fieldRule.getCheck().equals("pattern")) {
+			return field + " like " + this.getLiteral(this.unescape(value.trim()), false);
+		} else if (fieldRule.getCheck().equals("range")) {
+			return this.getRangeCondition(fieldRule, field, value);
+		} else if (fieldRule.getCheck().equals("length")) {
+			return this.getRangeCondition(fieldRule, "length(" + field + ")", value);
+		} else if (fieldRule.getCheck().equals("values")) {
+			List<String> literals = new ArrayList<String>();
+			for (String allowedValue : this.split(value, ',')) {
+				literals.add(this.getLiteral(this.unescape(allowedValue.trim()), false));
+			}
+			return field + " in (" + String.join(", ", literals) + ")";
+		} else {
+			throw new RuntimeException("Field rule check " + fieldRule.getCheck() + " is not supported");
+		}
+	}
+
+	/*
+	 * Ranges are written as min,max where either bound can be left empty
+	 */
+	private String getRangeCondition(FieldRule fieldRule, String expression, String value) {
+		List<String> bounds = this.split(value, ',');
+		if (bounds.size() != 2 || (bounds.get(0).trim().isEmpty() && bounds.get(1).trim().isEmpty())) {
+			throw new RuntimeException("Field rule " + fieldRule.getName() + " requires a range min,max");
+		}
+
+		List<String> conditions = new ArrayList<String>();
+		if (!bounds.get(0).trim().isEmpty()) {
+			conditions.add(expression + " >= " + this.getLiteral(this.unescape(bounds.get(0).trim()), true));
+		}
+		if (!bounds.get(1).trim().isEmpty()) {
+			conditions.add(expression + " <= " + this.getLiteral(this.unescape(bounds.get(1).trim()), true));
+		}
+		return String.join(" and ", conditions);
+	}
+
+	/*
+	 * Split on the separators that are not escaped, keeping the escapes for the values
+	 */
+	private List<String> split(String text, char separator) {
+		List<String> parts = new ArrayList<String>();
+		StringBuilder part = new StringBuilder();
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '\\' && i + 1 < text.length()) {
+				part.append(c).append(text.charAt(++i));
+			} else if (c == separator) {
+				parts.add(part.toString());
+				part.setLength(0);
+			} else {
+				part.append(c);
+			}
+		}
+		parts.add(part.toString());
+		return parts;
+	}
+
+	private String unescape(String value) {
+		StringBuilder unescaped = new StringBuilder();
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length()) {
+				c = value.charAt(++i);
+			}
+			unescaped.append(c);
+		}
+		return unescaped.toString();
+	}
+
+	private String getLiteral(String value, boolean numeric) {
+		if (numeric && value.matches("-?\\d+(\\.\\d+)?")) {
+			return value;
+		}
+		return "'" + value.replace("'", "''") + "'";
+	}
+
+	// Getters and Setters
+	public List<FieldRule> getFieldRules() {
+		return fieldRules;
+	}
+
+	public void setFieldRules(List<FieldRule> fieldRules) {
+		this.fieldRules = fieldRules;
+	}
+
+}
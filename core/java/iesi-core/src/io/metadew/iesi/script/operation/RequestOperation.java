@@ -31,6 +31,10 @@ public class RequestOperation
 	// parameters
 	private RequestParameterOperation url;
 
+	private RequestParameterOperation connectTimeout;
+
+	private RequestParameterOperation readTimeout;
+
 	private HashMap<String, RequestParameterOperation> headerMap;
 
 	private HashMap<String, RequestParameterOperation> queryParamMap;
@@ -57,6 +61,10 @@ public class RequestOperation
 		// Reset parameters
 		this.setUrl(new RequestParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(), this.getActionExecution(),
 					this.getRequest().getAttributes(), "url"));
+		this.setConnectTimeout(new RequestParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
+					this.getActionExecution(), this.getRequest().getAttributes(), "connectTimeout"));
+		this.setReadTimeout(new RequestParameterOperation(this.getFrameworkExecution(), this.getExecutionControl(),
+					this.getActionExecution(), this.getRequest().getAttributes(), "readTimeout"));
 		this.setHeaderMap(new HashMap<String, RequestParameterOperation>());
 		this.setQueryParamMap(new HashMap<String, RequestParameterOperation>());
 
@@ -67,6 +75,14 @@ public class RequestOperation
 			{
 				this.getUrl().setInputValue(componentParameter.getValue());
 			}
+			else if (componentParameter.getName().equalsIgnoreCase("connecttimeout"))
+			{
+				this.getConnectTimeout().setInputValue(componentParameter.getValue());
+			}
+			else if (componentParameter.getName().equalsIgnoreCase("readtimeout"))
+			{
+				this.getReadTimeout().setInputValue(componentParameter.getValue());
+			}
 			else if (componentParameter.getName().toLowerCase().startsWith("header"))
 			{
 				RequestParameterOperation requestParameterOperation = new RequestParameterOperation(this.getFrameworkExecution(),
@@ -87,6 +103,8 @@ public class RequestOperation
 
 		// Create parameter list
 		this.getRequestParameterOperationMap().put("url", this.getUrl());
+		this.getRequestParameterOperationMap().put("connectTimeout", this.getConnectTimeout());
+		this.getRequestParameterOperationMap().put("readTimeout", this.getReadTimeout());
 
 	}
 
@@ -131,6 +149,26 @@ public class RequestOperation
 		this.url = url;
 	}
 
+	public RequestParameterOperation getConnectTimeout()
+	{
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(RequestParameterOperation connectTimeout)
+	{
+		this.connectTimeout = connectTimeout;
+	}
+
+	public RequestParameterOperation getReadTimeout()
+	{
+		return readTimeout;
+	}
+
+	public void setReadTimeout(RequestParameterOperation readTimeout)
+	{
+		this.readTimeout = readTimeout;
+	}
+
 	public ExecutionControl getExecutionControl()
 	{
 		return executionControl;
@@ -3,9 +3,8 @@ package io.metadew.iesi.util.harvest;
 import java.sql.PreparedStatement;
 import java.sql.ResultSetMetaData;
 
-import javax.sql.rowset.CachedRowSet;
-
 import io.metadew.iesi.connection.DatabaseConnection;
+import io.metadew.iesi.connection.database.sql.SqlResultCursor;
 import io.metadew.iesi.connection.operation.ConnectionOperation;
 import io.metadew.iesi.connection.tools.SQLTools;
 import io.metadew.iesi.framework.execution.FrameworkExecution;
@@ -42,14 +41,11 @@ public class DatabaseOffloadExecution
 		Connection targetConnection = connectionConfiguration.getConnection(targetConnectionName, targetEnvironmentName);
 		DatabaseConnection targetDatabaseConnection = connectionOperation.getDatabaseConnection(targetConnection);
 
-		CachedRowSet crs = null;
-		crs = sourceDatabaseConnection.executeQuery(sqlStatement);
-
 		String QueryString = "";
-		try
+		try (SqlResultCursor sqlResultCursor = sourceDatabaseConnection.executeQueryCursor(sqlStatement))
 		{
 			// Get result set meta data
-			ResultSetMetaData rsmd = crs.getMetaData();
+			ResultSetMetaData rsmd = sqlResultCursor.getMetaData();
 			int cols = rsmd.getColumnCount();
 
 			// Determine name
@@ -74,17 +70,12 @@ public class DatabaseOffloadExecution
 			targetDatabaseConnection.createLiveConnection();
 			PreparedStatement preparedStatement = targetDatabaseConnection.createLivePreparedStatement(sql);
 
-			int crsType = crs.getType();
-			if (crsType != java.sql.ResultSet.TYPE_FORWARD_ONLY)
-			{
-				crs.beforeFirst();
-			}
-
-			while (crs.next())
+			// Rows are written while they are streamed from the source
+			while (sqlResultCursor.next())
 			{
 				for (int i = 1; i < cols + 1; i++)
 				{
-					temp = crs.getString(i);
+					temp = sqlResultCursor.getString(i);
 					preparedStatement.setString(i, temp);
 				}
 				preparedStatement.executeUpdate();
@@ -0,0 +1,82 @@
+package io.metadew.iesi.common.json;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonToolsTest {
+
+    private static final String json = "{\"name\":\"iesi\",\"tags\":[\"a\",\"b\"],\"owner\":{\"id\":7,\"team\":\"core\"},"
+            + "\"items\":[{\"id\":1},{\"id\":2}]}";
+
+    private List<String> rows(JsonParsed jsonParsed) {
+        List<String> rows = new ArrayList<>();
+        for (JsonParsedItem item : jsonParsed.getJsonParsedItemList()) {
+            rows.add(item.getItem() + "|" + item.getIdentifier() + "|" + item.getParent() + "|" + item.getIteration() + "|"
+                    + item.getKey() + "|" + item.getValue() + "|" + item.getPath());
+        }
+        return rows;
+    }
+
+    @Test
+    void documentIsFlattened() {
+        List<String> expected = new ArrayList<>();
+        expected.add("0|1|0|1|name|iesi|name");
+        expected.add("0|2|0|1|tags|a,b|tags");
+        expected.add("0|3|0|1|owner||owner");
+        expected.add("0|4|3|0|id|7|owner.id");
+        expected.add("0|5|3|0|team|core|owner.team");
+        expected.add("0|6|0|1|items||items");
+        expected.add("0|7|6|1|id|1|items.id");
+        expected.add("1|8|6|2|id|2|items.id");
+        assertEquals(expected, rows(new JsonTools().parseJson("string", json)));
+    }
+
+    @Test
+    void parsingAgainStartsOver() {
+        JsonTools jsonTools = new JsonTools();
+        List<String> first = rows(jsonTools.parseJson("string", json));
+        assertEquals(first, rows(jsonTools.parseJson("string", json)));
+    }
+
+    @Test
+    void invalidDocumentFails() {
+        assertThrows(RuntimeException.class, () -> new JsonTools().parseJson("string", "{\"name\":\"iesi\",\"tags\":["));
+        assertThrows(RuntimeException.class, () -> new JsonTools().parseJson("unknown", json));
+    }
+
+    @Test
+    void itemsAreHandedOverWhileParsing() {
+        List<String> paths = new ArrayList<>();
+        new JsonTools().parseJson("string", "[{\"id\":1},{\"id\":2,\"name\":\"x\"}]", item -> paths.add(item.getPath()));
+        assertEquals(3, paths.size());
+        assertEquals("name", paths.get(2));
+    }
+
+    @Test
+    void documentsAreParsedConcurrently() throws Exception {
+        List<String> expected = rows(new JsonTools().parseJson("string", json));
+        List<Callable<List<String>>> parsers = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            parsers.add(() -> rows(new JsonTools().parseJson("string", json)));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            for (Future<List<String>> result : executorService.invokeAll(parsers)) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+}
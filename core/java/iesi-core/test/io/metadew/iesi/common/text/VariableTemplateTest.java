@@ -0,0 +1,56 @@
+package io.metadew.iesi.common.text;
+
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VariableTemplateTest {
+
+    private Map<String, String> variables() {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("name", "value");
+        variables.put("empty", "");
+        variables.put("nested", "#name#");
+        return variables;
+    }
+
+    @Test
+    void resolvePlainText() {
+        assertEquals("plain text", VariableTemplate.compile("plain text").resolve(variables()::get));
+    }
+
+    @Test
+    void resolveVariables() {
+        assertEquals("a value and  b", VariableTemplate.compile("a #name# and #empty# b").resolve(variables()::get));
+    }
+
+    @Test
+    void resolveUnknownVariableIsKept() {
+        assertEquals("#unknown#-value", VariableTemplate.compile("#unknown#-#name#").resolve(variables()::get));
+    }
+
+    @Test
+    void resolveValueReferencingVariable() {
+        assertEquals("#name#", VariableTemplate.compile("#nested#").resolve(variables()::get));
+        assertEquals("value value", VariableTemplate.compile("#nested# #name#").resolve(variables()::get));
+    }
+
+    @Test
+    void resolveUnmatchedVariableCharacter() {
+        StringIndexOutOfBoundsException exception = assertThrows(StringIndexOutOfBoundsException.class,
+                () -> VariableTemplate.compile("#name# #open").resolve(variables()::get));
+        assertEquals("Unterminated variable #open in #name# #open", exception.getMessage());
+    }
+
+    @Test
+    void compileIsCached() {
+        assertSame(VariableTemplate.compile("#name#-cached"), VariableTemplate.compile("#name#-cached"));
+    }
+
+}
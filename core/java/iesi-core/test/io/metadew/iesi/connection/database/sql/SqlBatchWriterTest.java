@@ -0,0 +1,95 @@
+package io.metadew.iesi.connection.database.sql;
+
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import javax.sql.rowset.CachedRowSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.metadew.iesi.connection.database.SqliteDatabaseConnection;
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPoolManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlBatchWriterTest {
+
+    private Path databaseFile;
+    private SqliteDatabaseConnection databaseConnection;
+
+    @BeforeEach
+    void createDatabase() throws IOException {
+        databaseFile = Files.createTempFile("iesi-batch", ".db3");
+        databaseConnection = new SqliteDatabaseConnection(databaseFile.toString());
+    }
+
+    @AfterEach
+    void removeDatabase() throws IOException {
+        DatabaseConnectionPoolManager.closePools("jdbc:sqlite:" + databaseFile);
+        Files.deleteIfExists(databaseFile);
+    }
+
+    private long count(String query) throws SQLException {
+        CachedRowSet crs = databaseConnection.executeQuery(query);
+        crs.next();
+        long count = crs.getLong(1);
+        crs.close();
+        return count;
+    }
+
+    private long tableCount() throws SQLException {
+        return count("select count(*) from sqlite_master where type = 'table' and name = 'item'");
+    }
+
+    @Test
+    void rowsAreWrittenOnCommit() throws SQLException {
+        try (SqlBatchWriter sqlBatchWriter = databaseConnection.createBatchWriter("insert into item (key, value) values (?, ?)", 2)) {
+            // The table is created in the transaction of the rows
+            sqlBatchWriter.executeUpdate("CREATE TABLE item (key TEXT, value TEXT)");
+            for (int i = 0; i < 5; i++) {
+                sqlBatchWriter.addRow(SqlParameter.ofString("key" + i), SqlParameter.ofString("value" + i));
+            }
+            assertEquals(0, tableCount());
+            sqlBatchWriter.commit();
+            assertEquals(5, sqlBatchWriter.getRowCount());
+        }
+
+        assertEquals(5, count("select count(*) from item"));
+    }
+
+    @Test
+    void closingWithoutCommitKeepsThePreviousContent() throws SQLException {
+        try (SqlBatchWriter sqlBatchWriter = databaseConnection.createBatchWriter("insert into item (key, value) values (?, ?)", 2)) {
+            sqlBatchWriter.executeUpdate("CREATE TABLE item (key TEXT, value TEXT)");
+            sqlBatchWriter.addRow(SqlParameter.ofString("key"), SqlParameter.ofString("value"));
+        }
+        assertEquals(0, tableCount());
+
+        databaseConnection.executeUpdate("CREATE TABLE item (key TEXT, value TEXT)");
+        databaseConnection.executeUpdate("insert into item (key, value) values ('key', 'value')");
+        try (SqlBatchWriter sqlBatchWriter = databaseConnection.createBatchWriter("insert into item (key, value) values (?, ?)", 2)) {
+            sqlBatchWriter.executeUpdate("delete from item");
+            for (int i = 0; i < 3; i++) {
+                sqlBatchWriter.addRow(SqlParameter.ofString("key" + i), SqlParameter.ofString("value" + i));
+            }
+        }
+        assertEquals(1, count("select count(*) from item where key = 'key'"));
+        assertEquals(1, count("select count(*) from item"));
+    }
+
+    @Test
+    void closedWriterAcceptsNoRows() {
+        databaseConnection.executeUpdate("CREATE TABLE item (key TEXT, value TEXT)");
+        SqlBatchWriter sqlBatchWriter = databaseConnection.createBatchWriter("insert into item (key, value) values (?, ?)", 2);
+        sqlBatchWriter.close();
+
+        assertThrows(RuntimeException.class, () -> sqlBatchWriter.addRow(SqlParameter.ofString("key"), SqlParameter.ofString("value")));
+    }
+
+}
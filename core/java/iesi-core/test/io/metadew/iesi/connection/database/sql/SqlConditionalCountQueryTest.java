@@ -0,0 +1,89 @@
+package io.metadew.iesi.connection.database.sql;
+
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.metadew.iesi.connection.database.SqliteDatabaseConnection;
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPoolManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlConditionalCountQueryTest {
+
+    private Path databaseFile;
+    private SqliteDatabaseConnection databaseConnection;
+
+    @BeforeEach
+    void createTable() throws IOException {
+        databaseFile = Files.createTempFile("iesi-count", ".db3");
+        databaseConnection = new SqliteDatabaseConnection(databaseFile.toString());
+        databaseConnection.executeUpdate("CREATE TABLE customer (name TEXT, alias TEXT, status TEXT)");
+    }
+
+    @AfterEach
+    void removeTable() throws IOException {
+        DatabaseConnectionPoolManager.closePools("jdbc:sqlite:" + databaseFile);
+        Files.deleteIfExists(databaseFile);
+    }
+
+    private SqlConditionalCountQuery nameCountQuery() {
+        SqlConditionalCountQuery sqlConditionalCountQuery = new SqlConditionalCountQuery("customer");
+        sqlConditionalCountQuery.addCount("name.pass", "coalesce(name, alias) is not null");
+        sqlConditionalCountQuery.addCount("name.fail", "coalesce(name, alias) is null");
+        return sqlConditionalCountQuery;
+    }
+
+    @Test
+    void allCountsAreComputedInOneQuery() {
+        SqlConditionalCountQuery sqlConditionalCountQuery = new SqlConditionalCountQuery("dwh.customer");
+        sqlConditionalCountQuery.addCount("name.pass", "name is not null");
+        sqlConditionalCountQuery.addCount("name.fail", "name is null");
+        sqlConditionalCountQuery.setFilter(" status='A' ");
+
+        assertEquals("select sum(case when (name is not null) then 1 else 0 end) as \"CNT_0\", "
+                + "sum(case when (name is null) then 1 else 0 end) as \"CNT_1\" from dwh.customer where status='A'",
+                sqlConditionalCountQuery.getQuery());
+    }
+
+    @Test
+    void queryWithoutCountsIsRejected() {
+        assertThrows(RuntimeException.class, () -> new SqlConditionalCountQuery("dwh.customer").getQuery());
+    }
+
+    @Test
+    void countsAreZeroWhenNoRowsAreCounted() {
+        Map<String, Long> counts = nameCountQuery().execute(databaseConnection);
+        assertEquals(0L, counts.get("name.pass"));
+        assertEquals(0L, counts.get("name.fail"));
+
+        databaseConnection.executeUpdate("INSERT INTO customer VALUES ('iesi', null, 'A')");
+        SqlConditionalCountQuery sqlConditionalCountQuery = nameCountQuery();
+        sqlConditionalCountQuery.setFilter("status = 'I'");
+        counts = sqlConditionalCountQuery.execute(databaseConnection);
+        assertEquals(0L, counts.get("name.pass"));
+        assertEquals(0L, counts.get("name.fail"));
+    }
+
+    @Test
+    void rowsAreCountedByCondition() {
+        databaseConnection.executeUpdate("INSERT INTO customer VALUES ('iesi', null, 'A')");
+        databaseConnection.executeUpdate("INSERT INTO customer VALUES (null, 'metadew', 'A')");
+        databaseConnection.executeUpdate("INSERT INTO customer VALUES (null, null, 'A')");
+        databaseConnection.executeUpdate("INSERT INTO customer VALUES (null, null, 'I')");
+        SqlConditionalCountQuery sqlConditionalCountQuery = nameCountQuery();
+        sqlConditionalCountQuery.setFilter("status = 'A'");
+
+        Map<String, Long> counts = sqlConditionalCountQuery.execute(databaseConnection);
+        assertEquals(2L, counts.get("name.pass"));
+        assertEquals(1L, counts.get("name.fail"));
+    }
+
+}
@@ -0,0 +1,169 @@
+package io.metadew.iesi.connection.elasticsearch;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.metadew.iesi.connection.ElasticsearchConnection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ElasticsearchBulkIndexerTest {
+
+    private HttpServer httpServer;
+    private List<String> bulkRequests;
+    private AtomicInteger failuresLeft;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        bulkRequests = new CopyOnWriteArrayList<>();
+        failuresLeft = new AtomicInteger();
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/_bulk", exchange -> {
+            String body = read(exchange.getRequestBody());
+            int status = 200;
+            if (failuresLeft.getAndDecrement() > 0) {
+                status = 503;
+            } else {
+                bulkRequests.add(body);
+            }
+            byte[] response = "{\"errors\":false,\"items\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        httpServer.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        httpServer.stop(0);
+    }
+
+    private ElasticsearchConnection connection() {
+        return new ElasticsearchConnection("http://localhost:" + httpServer.getAddress().getPort() + "/");
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void documentsAreSentInOneBulkRequest() {
+        ElasticsearchBulkIndexer bulkIndexer = new ElasticsearchBulkIndexer(connection(), 100, 100, 60000, true, 0, 0);
+        bulkIndexer.index("scriptresults", "run1", "{\"run\":\"run1\"}");
+        bulkIndexer.index("scriptresults", "run2", "{\"run\":\"run2\"}");
+        bulkIndexer.close();
+
+        assertEquals(1, bulkRequests.size());
+        assertEquals("{\"index\":{\"_index\":\"scriptresults\",\"_id\":\"run1\"}}\n{\"run\":\"run1\"}\n"
+                + "{\"index\":{\"_index\":\"scriptresults\",\"_id\":\"run2\"}}\n{\"run\":\"run2\"}\n", bulkRequests.get(0));
+    }
+
+    @Test
+    void batchSizeSplitsBulkRequests() {
+        ElasticsearchBulkIndexer bulkIndexer = new ElasticsearchBulkIndexer(connection(), 100, 2, 60000, true, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            bulkIndexer.index("scriptresults", "run" + i, "{}");
+        }
+        bulkIndexer.close();
+
+        int documentCount = 0;
+        for (String bulkRequest : bulkRequests) {
+            documentCount += bulkRequest.split("\n").length / 2;
+        }
+        assertEquals(5, documentCount);
+        assertTrue(bulkRequests.size() >= 3);
+    }
+
+    @Test
+    void failedBulkRequestIsRetried() {
+        failuresLeft.set(2);
+        ElasticsearchBulkIndexer bulkIndexer = new ElasticsearchBulkIndexer(connection(), 100, 100, 60000, true, 3, 1);
+        bulkIndexer.index("scriptresults", "run1", "{}");
+        bulkIndexer.close();
+
+        assertEquals(1, bulkRequests.size());
+    }
+
+    @Test
+    void batchIsSentWithinTheFlushIntervalUnderSteadyTraffic() throws InterruptedException {
+        ElasticsearchBulkIndexer bulkIndexer = new ElasticsearchBulkIndexer(connection(), 100, 100, 200, true, 0, 0);
+        // A document every 50 milliseconds never leaves the queue idle for a full flush interval
+        for (int i = 0; i < 20 && bulkRequests.isEmpty(); i++) {
+            bulkIndexer.index("scriptresults", "run" + i, "{}");
+            Thread.sleep(50);
+        }
+        assertFalse(bulkRequests.isEmpty());
+        bulkIndexer.close();
+    }
+
+    @Test
+    void failedBulkRequestIsReported() {
+        failuresLeft.set(10);
+        ElasticsearchBulkIndexer bulkIndexer = new ElasticsearchBulkIndexer(connection(), 100, 100, 60000, true, 1, 1);
+        bulkIndexer.index("scriptresults", "run1", "{}");
+        bulkIndexer.index("scriptresults", "run2", "{}");
+        bulkIndexer.close();
+
+        assertEquals(0, bulkRequests.size());
+        assertEquals(2, bulkIndexer.getFailedCount());
+        assertTrue(bulkIndexer.getLastError().startsWith("elasticsearch.bulk.error="));
+    }
+
+    @Test
+    void documentsAreDroppedAfterClose() {
+        ElasticsearchBulkIndexer bulkIndexer = new ElasticsearchBulkIndexer(connection(), 1, 100, 60000, false, 0, 0);
+        bulkIndexer.close();
+
+        assertFalse(bulkIndexer.index("scriptresults", "run1", "{}"));
+        assertEquals(1, bulkIndexer.getDroppedCount());
+    }
+
+    @Test
+    void documentsIndexedWhileClosingAreSentOrDropped() throws InterruptedException {
+        ElasticsearchBulkIndexer bulkIndexer = new ElasticsearchBulkIndexer(connection(), 1, 100, 60000, true, 0, 0);
+        AtomicInteger queuedCount = new AtomicInteger();
+        Thread logger = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                if (bulkIndexer.index("scriptresults", "run" + i, "{}")) {
+                    queuedCount.incrementAndGet();
+                }
+            }
+        });
+        logger.start();
+        Thread.sleep(5);
+        bulkIndexer.close();
+        logger.join();
+
+        int documentCount = 0;
+        for (String bulkRequest : bulkRequests) {
+            documentCount += bulkRequest.split("\n").length / 2;
+        }
+        assertEquals(queuedCount.get(), documentCount);
+        assertEquals(200, queuedCount.get() + bulkIndexer.getDroppedCount());
+    }
+
+}
@@ -0,0 +1,165 @@
+package io.metadew.iesi.connection.host.pool;
+
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sshd.common.session.Session;
+import org.apache.sshd.common.session.SessionListener;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.shell.ProcessShellFactory;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+
+import io.metadew.iesi.connection.HostConnection;
+import io.metadew.iesi.connection.host.ShellCommandResult;
+import io.metadew.iesi.connection.host.ShellCommandSettings;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HostSessionPoolTest {
+
+    private SshServer sshServer;
+    private AtomicInteger sessionCount;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        sessionCount = new AtomicInteger();
+        sshServer = SshServer.setUpDefaultServer();
+        sshServer.setHost("localhost");
+        sshServer.setPort(0);
+        sshServer.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        sshServer.setPasswordAuthenticator((userName, userPassword, session) -> userPassword.equals("secret"));
+        sshServer.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory()));
+        sshServer.setCommandFactory((channel, command) -> new ProcessShellFactory(command, "/bin/sh", "-c", command).createShell(channel));
+        sshServer.addSessionListener(new SessionListener() {
+            @Override
+            public void sessionCreated(Session session) {
+                sessionCount.incrementAndGet();
+            }
+        });
+        sshServer.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        HostSessionPoolManager.shutdown();
+        sshServer.stop(true);
+    }
+
+    private HostSessionFactory factory() {
+        return () -> {
+            com.jcraft.jsch.Session session = new JSch().getSession("iesi", "localhost", sshServer.getPort());
+            session.setConfig("StrictHostKeyChecking", "no");
+            session.setPassword("secret");
+            session.connect();
+            return new com.jcraft.jsch.Session[] { session };
+        };
+    }
+
+    private HostSessionPool pool(int maximumSessions, int maximumChannels, long idleTimeout) {
+        return new HostSessionPool("iesi@localhost:" + sshServer.getPort(),
+                new HostSessionPoolSettings(maximumSessions, maximumChannels, idleTimeout, 100, 30000, 0));
+    }
+
+    @Test
+    void remoteCommandsShareOneSession() {
+        HostConnection hostConnection = new HostConnection("linux", "localhost", sshServer.getPort(), "iesi", "secret", "", "N", "");
+        ShellCommandResult first = hostConnection.executeRemoteCommand("", "echo first", new ShellCommandSettings());
+        ShellCommandResult second = hostConnection.executeRemoteCommand("", "echo second", new ShellCommandSettings());
+
+        assertEquals("first", first.getSystemOutput());
+        assertEquals("second", second.getSystemOutput());
+        assertEquals(1, sessionCount.get());
+    }
+
+    @Test
+    void sessionIsSharedUpToMaximumChannels() throws JSchException {
+        HostSessionPool hostSessionPool = pool(2, 2, 300000);
+        HostSession first = hostSessionPool.borrowSession(factory());
+        HostSession second = hostSessionPool.borrowSession(factory());
+        HostSession third = hostSessionPool.borrowSession(factory());
+
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertEquals(2, hostSessionPool.getSessionCount());
+        hostSessionPool.close();
+    }
+
+    @Test
+    void borrowWaitsForAFreeChannel() throws JSchException {
+        HostSessionPool hostSessionPool = pool(1, 1, 300000);
+        HostSession hostSession = hostSessionPool.borrowSession(factory());
+
+        assertThrows(JSchException.class, () -> hostSessionPool.borrowSession(factory()));
+        hostSessionPool.releaseSession(hostSession, true);
+        assertSame(hostSession, hostSessionPool.borrowSession(factory()));
+        hostSessionPool.close();
+    }
+
+    @Test
+    void idleSessionsAreEvicted() throws JSchException {
+        HostSessionPool hostSessionPool = pool(1, 1, 0);
+        HostSession hostSession = hostSessionPool.borrowSession(factory());
+        hostSessionPool.releaseSession(hostSession, true);
+        hostSessionPool.evictIdleSessions();
+
+        assertEquals(0, hostSessionPool.getSessionCount());
+        assertNotSame(hostSession, hostSessionPool.borrowSession(factory()));
+        assertEquals(2, sessionCount.get());
+        hostSessionPool.close();
+    }
+
+    @Test
+    void disconnectedSessionIsReplaced() throws JSchException {
+        HostSessionPool hostSessionPool = pool(1, 1, 300000);
+        HostSession hostSession = hostSessionPool.borrowSession(factory());
+        hostSessionPool.releaseSession(hostSession, true);
+        hostSession.getSession().disconnect();
+
+        HostSession replacement = hostSessionPool.borrowSession(factory());
+        assertNotSame(hostSession, replacement);
+        assertEquals(1, hostSessionPool.getSessionCount());
+        hostSessionPool.close();
+    }
+
+    @Test
+    void releasedSftpChannelIsReused() throws JSchException {
+        HostSessionPool hostSessionPool = pool(1, 2, 300000);
+        HostSession hostSession = hostSessionPool.borrowSession(factory());
+        ChannelSftp channelSftp = hostSession.openSftpChannel();
+        hostSession.releaseSftpChannel(channelSftp, true);
+        hostSessionPool.releaseSession(hostSession, true);
+
+        HostSession reusedSession = hostSessionPool.borrowSession(factory());
+        assertSame(channelSftp, reusedSession.openSftpChannel());
+        hostSessionPool.close();
+    }
+
+    @Test
+    void idleSftpChannelIsClosedWhenSessionIsFull() throws JSchException {
+        HostSessionPool hostSessionPool = pool(1, 1, 300000);
+        HostSession hostSession = hostSessionPool.borrowSession(factory());
+        ChannelSftp channelSftp = hostSession.openSftpChannel();
+        hostSession.releaseSftpChannel(channelSftp, true);
+        hostSessionPool.releaseSession(hostSession, true);
+
+        hostSessionPool.borrowSession(factory());
+        assertEquals(0, hostSession.getIdleChannelCount());
+        assertFalse(channelSftp.isConnected());
+        hostSessionPool.close();
+    }
+
+}
@@ -0,0 +1,110 @@
+package io.metadew.iesi.connection.http.pool;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.metadew.iesi.connection.HttpConnection;
+import io.metadew.iesi.connection.http.HttpRequest;
+import io.metadew.iesi.connection.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpClientPoolTest {
+
+    private HttpServer server;
+    private Set<Integer> clientPorts;
+    private List<String> cookies;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        clientPorts = ConcurrentHashMap.newKeySet();
+        cookies = new CopyOnWriteArrayList<>();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            if (exchange.getRequestHeaders().containsKey("Cookie")) {
+                cookies.addAll(exchange.getRequestHeaders().get("Cookie"));
+            }
+            exchange.getResponseHeaders().add("Set-Cookie", "session=" + clientPorts.size());
+            byte[] body = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        HttpClientPoolManager.shutdown();
+        server.stop(0);
+    }
+
+    private HttpResponse get(String name) {
+        HttpRequest httpRequest = new HttpRequest("http://localhost:" + server.getAddress().getPort() + "/");
+        return new HttpConnection(name, httpRequest).executeGetRequest();
+    }
+
+    private HttpClientPool getPool() {
+        return HttpClientPoolManager.getPool(URI.create("http://localhost:" + server.getAddress().getPort() + "/"));
+    }
+
+    @Test
+    void requestsReuseTheConnection() {
+        HttpClientPoolManager.configure(new HttpClientPoolSettings());
+        for (int i = 0; i < 5; i++) {
+            HttpResponse httpResponse = get("reuse");
+            assertEquals(200, httpResponse.getStatusLine().getStatusCode());
+            assertEquals("{\"status\":\"ok\"}", httpResponse.getEntityString());
+        }
+        assertEquals(1, clientPorts.size());
+        assertEquals(1, getPool().getAvailableConnectionCount());
+    }
+
+    @Test
+    void requestsToTheSameEndpointShareTheConnection() {
+        HttpClientPoolManager.configure(new HttpClientPoolSettings());
+        get("first");
+        get("second");
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    void cookiesAreNotSentWithLaterRequests() {
+        HttpClientPoolManager.configure(new HttpClientPoolSettings());
+        get("login");
+        get("other");
+        assertTrue(cookies.isEmpty());
+    }
+
+    @Test
+    void idleConnectionsAreEvicted() throws InterruptedException {
+        HttpClientPoolManager.configure(new HttpClientPoolSettings(10, 2, 1000, 1000, 30000, 0, 30000));
+        get("evict");
+        assertEquals(1, getPool().getAvailableConnectionCount());
+
+        Thread.sleep(10);
+        getPool().evictIdleConnections();
+        assertEquals(0, getPool().getAvailableConnectionCount());
+
+        get("evict");
+        assertEquals(2, clientPorts.size());
+    }
+
+}
@@ -0,0 +1,59 @@
+package io.metadew.iesi.metadata.configuration;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.metadew.iesi.metadata.definition.Action;
+import io.metadew.iesi.metadata.definition.Script;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ScriptCacheTest {
+
+    private Script script(String name) {
+        Action action = new Action();
+        action.setName("action");
+        action.setErrorStop("N");
+        List<Action> actions = new ArrayList<>();
+        actions.add(action);
+
+        Script script = new Script();
+        script.setName(name);
+        script.setActions(actions);
+        return script;
+    }
+
+    @Test
+    void scriptIsCachedByNameAndVersion() {
+        ScriptCache.putScript(script("cached"), 1, ScriptCache.getGeneration());
+        assertEquals("cached", ScriptCache.getScript("cached", 1).getName());
+        assertNull(ScriptCache.getScript("cached", 2));
+    }
+
+    @Test
+    void cachedScriptIsNotChangedByExecution() {
+        ScriptCache.putScript(script("copied"), 1, ScriptCache.getGeneration());
+        ScriptCache.getScript("copied", 1).getActions().get(0).setErrorStop("Y");
+        assertEquals("N", ScriptCache.getScript("copied", 1).getActions().get(0).getErrorStop());
+    }
+
+    @Test
+    void invalidateRemovesScripts() {
+        ScriptCache.putScript(script("invalidated"), 1, ScriptCache.getGeneration());
+        ScriptCache.invalidate();
+        assertNull(ScriptCache.getScript("invalidated", 1));
+    }
+
+    @Test
+    void scriptLoadedBeforeInvalidationIsNotCached() {
+        long loadGeneration = ScriptCache.getGeneration();
+        ScriptCache.invalidate();
+        ScriptCache.putScript(script("outdated"), 1, loadGeneration);
+        assertNull(ScriptCache.getScript("outdated", 1));
+    }
+
+}
@@ -0,0 +1,44 @@
+package io.metadew.iesi.runtime.variable;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryRuntimeVariableStoreTest {
+
+    @Test
+    void getUnknownVariable() {
+        InMemoryRuntimeVariableStore runtimeVariableStore = new InMemoryRuntimeVariableStore();
+        assertEquals("", runtimeVariableStore.getRuntimeVariableValue("run", "unknown"));
+    }
+
+    @Test
+    void setReplacesPreviousValue() {
+        InMemoryRuntimeVariableStore runtimeVariableStore = new InMemoryRuntimeVariableStore();
+        runtimeVariableStore.setRuntimeVariable("run", -1, "name", "first");
+        runtimeVariableStore.setRuntimeVariable("run", -1, "name", "second");
+        assertEquals("second", runtimeVariableStore.getRuntimeVariableValue("run", "name"));
+    }
+
+    @Test
+    void variablesAreScopedByRun() {
+        InMemoryRuntimeVariableStore runtimeVariableStore = new InMemoryRuntimeVariableStore();
+        runtimeVariableStore.setRuntimeVariable("run1", -1, "name", "value1");
+        runtimeVariableStore.setRuntimeVariable("run2", -1, "name", "value2");
+        runtimeVariableStore.cleanRuntimeVariables("run1");
+        assertEquals("", runtimeVariableStore.getRuntimeVariableValue("run1", "name"));
+        assertEquals("value2", runtimeVariableStore.getRuntimeVariableValue("run2", "name"));
+    }
+
+    @Test
+    void cleanByProcess() {
+        InMemoryRuntimeVariableStore runtimeVariableStore = new InMemoryRuntimeVariableStore();
+        runtimeVariableStore.setRuntimeVariable("run", 1, "name1", "value1");
+        runtimeVariableStore.setRuntimeVariable("run", 2, "name2", "value2");
+        runtimeVariableStore.cleanRuntimeVariables("run", 1);
+        assertEquals("", runtimeVariableStore.getRuntimeVariableValue("run", "name1"));
+        assertEquals("value2", runtimeVariableStore.getRuntimeVariableValue("run", "name2"));
+    }
+
+}
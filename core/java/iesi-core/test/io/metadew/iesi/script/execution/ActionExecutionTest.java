@@ -0,0 +1,44 @@
+package io.metadew.iesi.script.execution;
+
+import io.metadew.iesi.framework.execution.FrameworkExecution;
+import io.metadew.iesi.metadata.definition.Action;
+import io.metadew.iesi.metadata.definition.Script;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActionExecutionTest {
+
+    @Mock
+    private FrameworkExecution frameworkExecution;
+
+    @Mock
+    private ExecutionControl executionControl;
+
+    @Test
+    void failingActionIsTracedInFailedMode() {
+        ExecutionTrace executionTrace = new ExecutionTrace("failed", 0);
+        when(frameworkExecution.getSetting(anyString(), anyString())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(executionControl.getExecutionTrace()).thenReturn(executionTrace);
+
+        // An action type without implementation fails the execution
+        Action action = new Action();
+        action.setType("test.unknown");
+        ScriptExecution scriptExecution = new ScriptExecution(frameworkExecution, new Script());
+        ActionExecution actionExecution = new ActionExecution(frameworkExecution, executionControl, scriptExecution, action);
+        actionExecution.setProcessId(1L);
+        actionExecution.execute();
+
+        assertEquals(1, actionExecution.getActionControl().getExecutionMetrics().getErrorCount());
+        assertEquals(1, executionTrace.getPendingTraceCount());
+        verify(executionControl).logEnd(actionExecution, scriptExecution);
+    }
+
+}
@@ -0,0 +1,28 @@
+package io.metadew.iesi.script.execution;
+
+import io.metadew.iesi.framework.execution.FrameworkExecution;
+import io.metadew.iesi.metadata.definition.ScriptLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionLogTest {
+
+    @Mock
+    private FrameworkExecution frameworkExecution;
+
+    @Test
+    void logsAreNotSentOnceClosed() {
+        ExecutionLog executionLog = new ExecutionLog(frameworkExecution);
+        executionLog.close();
+        executionLog.setLog(new ScriptLog());
+
+        // No indexers are created for the log
+        verifyNoInteractions(frameworkExecution);
+    }
+
+}
@@ -0,0 +1,86 @@
+package io.metadew.iesi.script.execution;
+
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import io.metadew.iesi.connection.ElasticsearchConnection;
+import io.metadew.iesi.connection.database.sql.SqlParameter;
+import io.metadew.iesi.metadata.configuration.MetadataRepositoryConfiguration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExecutionResultWriterTest {
+
+    private final List<String> writtenRows = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    private MetadataRepositoryConfiguration resultRepository() {
+        return new MetadataRepositoryConfiguration(null, null, (ElasticsearchConnection) null) {
+            @Override
+            public int executeBatch(String query, List<SqlParameter[]> sqlParameterRows) {
+                if (failing.get()) {
+                    throw new RuntimeException("repository unavailable");
+                }
+                for (int i = 0; i < sqlParameterRows.size(); i++) {
+                    writtenRows.add(query);
+                }
+                return sqlParameterRows.size();
+            }
+
+            @Override
+            public int executeUpdate(String query, SqlParameter... sqlParameters) {
+                writtenRows.add(query);
+                return 1;
+            }
+        };
+    }
+
+    @Test
+    void resultsAreWrittenWithinTheFlushIntervalUnderSteadyTraffic() throws InterruptedException {
+        ExecutionResultWriter executionResultWriter = new ExecutionResultWriter(resultRepository(), 100, 100, 200);
+        // A statement every 50 milliseconds never leaves the queue idle for a full flush interval
+        for (int i = 0; i < 20 && writtenRows.isEmpty(); i++) {
+            executionResultWriter.write("insert");
+            Thread.sleep(50);
+        }
+        assertFalse(writtenRows.isEmpty());
+        executionResultWriter.close();
+    }
+
+    @Test
+    void failedBatchFailsTheNextFlush() {
+        ExecutionResultWriter executionResultWriter = new ExecutionResultWriter(resultRepository(), 100, 100, 60000);
+        failing.set(true);
+        executionResultWriter.write("insert");
+        assertThrows(RuntimeException.class, executionResultWriter::flush);
+
+        failing.set(false);
+        executionResultWriter.write("insert");
+        executionResultWriter.flush();
+        executionResultWriter.close();
+        assertEquals(1, writtenRows.size());
+    }
+
+    @Test
+    void allResultsAreWrittenWhenClosedWhileLogging() throws InterruptedException {
+        ExecutionResultWriter executionResultWriter = new ExecutionResultWriter(resultRepository(), 10, 5, 60000);
+        Thread logger = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                executionResultWriter.write("insert");
+            }
+        });
+        logger.start();
+        Thread.sleep(1);
+        executionResultWriter.close();
+        logger.join();
+
+        assertEquals(1000, writtenRows.size());
+    }
+
+}
@@ -0,0 +1,34 @@
+package io.metadew.iesi.script.execution;
+
+
+import org.junit.jupiter.api.Test;
+
+import io.metadew.iesi.metadata.definition.Action;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutionTraceTest {
+
+    private ActionExecution skippedAction() {
+        // A skipped action is traced without an action control
+        return new ActionExecution(null, null, null, new Action());
+    }
+
+    @Test
+    void skippedActionIsNotTracedInFailedMode() {
+        assertFalse(new ExecutionTrace("failed", 10).isTraced(skippedAction()));
+    }
+
+    @Test
+    void skippedActionIsSampledInSampleMode() {
+        assertFalse(new ExecutionTrace("sample", 0).isTraced(skippedAction()));
+        assertTrue(new ExecutionTrace("sample", 100).isTraced(skippedAction()));
+    }
+
+    @Test
+    void skippedActionIsTracedInAllMode() {
+        assertTrue(new ExecutionTrace("all", 0).isTraced(skippedAction()));
+    }
+
+}
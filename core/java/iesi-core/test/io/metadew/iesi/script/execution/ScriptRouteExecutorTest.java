@@ -0,0 +1,52 @@
+package io.metadew.iesi.script.execution;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScriptRouteExecutorTest {
+
+    private List<Callable<Integer>> routes(int count, long sleep) {
+        List<Callable<Integer>> routes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int number = i;
+            routes.add(() -> {
+                Thread.sleep(sleep * (count - number));
+                return number;
+            });
+        }
+        return routes;
+    }
+
+    @Test
+    void resultsAreInRouteOrder() throws InterruptedException, ExecutionException {
+        ScriptRouteExecutor.configure(4);
+        List<Future<Integer>> futures = ScriptRouteExecutor.invokeAll(routes(8, 5));
+        for (int i = 0; i < 8; i++) {
+            assertEquals(Integer.valueOf(i), futures.get(i).get());
+        }
+    }
+
+    @Test
+    void nestedRoutesDoNotWaitForThreads() throws InterruptedException, ExecutionException {
+        ScriptRouteExecutor.configure(1);
+        List<Callable<Integer>> routes = new ArrayList<>();
+        routes.add(() -> {
+            int sum = 0;
+            for (Future<Integer> future : ScriptRouteExecutor.invokeAll(routes(3, 1))) {
+                sum += future.get();
+            }
+            return sum;
+        });
+        assertEquals(Integer.valueOf(3), ScriptRouteExecutor.invokeAll(routes).get(0).get());
+        ScriptRouteExecutor.shutdown();
+    }
+
+}
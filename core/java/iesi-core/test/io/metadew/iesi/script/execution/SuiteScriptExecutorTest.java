@@ -0,0 +1,96 @@
+package io.metadew.iesi.script.execution;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.metadew.iesi.framework.configuration.FrameworkStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuiteScriptExecutorTest {
+
+    private final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+    private List<Callable<String>> scripts(String... results) {
+        List<Callable<String>> scripts = new ArrayList<>();
+        for (String result : results) {
+            scripts.add(() -> {
+                threadNames.add(Thread.currentThread().getName());
+                if (result == null) {
+                    throw new RuntimeException("script failed");
+                }
+                return result;
+            });
+        }
+        return scripts;
+    }
+
+    @Test
+    void serialScriptsRunInTheCallingThreadWithTheFrameworkRunId() throws InterruptedException, ExecutionException {
+        SuiteScriptExecutor suiteScriptExecutor = new SuiteScriptExecutor(1, false);
+        List<Future<String>> results = suiteScriptExecutor.invokeAll(scripts("1", "2", "3"));
+
+        assertEquals(3, results.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(String.valueOf(i + 1), results.get(i).get());
+        }
+        assertEquals(1, threadNames.size());
+        assertTrue(threadNames.contains(Thread.currentThread().getName()));
+        assertFalse(suiteScriptExecutor.isParallel());
+        assertEquals("run", suiteScriptExecutor.getRunId("run"));
+        // The runtime of a suite script is never the one of the calling script
+        assertNotEquals("run", suiteScriptExecutor.getRuntimeId());
+        assertNotEquals(suiteScriptExecutor.getRuntimeId(), suiteScriptExecutor.getRuntimeId());
+    }
+
+    @Test
+    void parallelScriptsRunSideBySideWithTheirOwnRunId() throws InterruptedException, ExecutionException {
+        SuiteScriptExecutor suiteScriptExecutor = new SuiteScriptExecutor(2, false);
+        // Both scripts only complete when they are running at the same time
+        CountDownLatch started = new CountDownLatch(2);
+        List<Callable<String>> scripts = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String result = String.valueOf(i + 1);
+            scripts.add(() -> {
+                started.countDown();
+                return started.await(5, TimeUnit.SECONDS) ? result : FrameworkStatus.ERROR.value();
+            });
+        }
+        List<Future<String>> results = suiteScriptExecutor.invokeAll(scripts);
+
+        assertEquals("1", results.get(0).get());
+        assertEquals("2", results.get(1).get());
+        assertTrue(suiteScriptExecutor.isParallel());
+        assertNotEquals("run", suiteScriptExecutor.getRunId("run"));
+        assertNotEquals(suiteScriptExecutor.getRunId("run"), suiteScriptExecutor.getRunId("run"));
+    }
+
+    @Test
+    void scriptsAfterAFailureAreSkippedWithFailFast() throws InterruptedException, ExecutionException {
+        List<Future<String>> results = new SuiteScriptExecutor(1, true)
+                .invokeAll(scripts("1", FrameworkStatus.ERROR.value(), "3", null));
+        assertEquals("1", results.get(0).get());
+        assertEquals(FrameworkStatus.ERROR.value(), results.get(1).get());
+        assertEquals(FrameworkStatus.SKIPPED.value(), results.get(2).get());
+        assertEquals(FrameworkStatus.SKIPPED.value(), results.get(3).get());
+
+        results = new SuiteScriptExecutor(1, false).invokeAll(scripts(null, "2"));
+        assertThrows(ExecutionException.class, results.get(0)::get);
+        assertEquals("2", results.get(1).get());
+    }
+
+}
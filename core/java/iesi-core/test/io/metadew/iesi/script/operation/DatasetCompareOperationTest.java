@@ -0,0 +1,64 @@
+package io.metadew.iesi.script.operation;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.metadew.iesi.metadata.definition.Transformation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DatasetCompareOperationTest {
+
+    private Transformation transformation(String leftField, String rightField) {
+        Transformation transformation = new Transformation();
+        transformation.setLeftField(leftField);
+        transformation.setRightField(rightField);
+        return transformation;
+    }
+
+    @Test
+    void fieldsAreComparedThroughTheMapping() {
+        List<Transformation> transformations = new ArrayList<>();
+        transformations.add(transformation("name", "customer.name"));
+        transformations.add(transformation("city", "customer.address.city"));
+
+        Map<String, String> left = new HashMap<>();
+        left.put("name", "iesi");
+        left.put("city", "Brussels");
+        Map<String, String> right = new HashMap<>();
+        right.put("customer.name", "iesi");
+        right.put("customer.address.city", "Leuven");
+
+        DatasetCompareOperation datasetCompareOperation = new DatasetCompareOperation();
+        datasetCompareOperation.compare(transformations, left, right);
+        assertEquals(1, datasetCompareOperation.getMatchCount());
+        assertEquals(1, datasetCompareOperation.getMismatches().size());
+        assertEquals("city: Brussels <> customer.address.city: Leuven", datasetCompareOperation.getMismatches().get(0));
+        assertEquals(0, datasetCompareOperation.getMissingFields().size());
+    }
+
+    @Test
+    void missingFieldsCompareAsEmpty() {
+        List<Transformation> transformations = new ArrayList<>();
+        transformations.add(transformation("empty", "absent"));
+        transformations.add(transformation("code", "code"));
+
+        Map<String, String> left = new HashMap<>();
+        left.put("empty", "");
+        Map<String, String> right = new HashMap<>();
+        right.put("code", "7");
+
+        DatasetCompareOperation datasetCompareOperation = new DatasetCompareOperation();
+        datasetCompareOperation.compare(transformations, left, right);
+        assertEquals(1, datasetCompareOperation.getMatchCount());
+        assertEquals("code:  <> code: 7", datasetCompareOperation.getMismatches().get(0));
+        assertEquals("right: absent", datasetCompareOperation.getMissingFields().get(0));
+        assertEquals("left: code", datasetCompareOperation.getMissingFields().get(1));
+    }
+
+}
@@ -0,0 +1,92 @@
+package io.metadew.iesi.script.operation;
+
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatasetItemIndexTest {
+
+    private Map<String, String> items(String... keysAndValues) {
+        Map<String, String> items = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            items.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return items;
+    }
+
+    @Test
+    void writesAreReadBack() {
+        DatasetItemIndex datasetItemIndex = new DatasetItemIndex(10);
+        datasetItemIndex.putTable("customer", items("name", "iesi"), datasetItemIndex.getVersion("customer"));
+        datasetItemIndex.putItem("customer", "name", "metadew");
+        datasetItemIndex.putItem("customer", "city", "Brussels");
+
+        assertEquals("metadew", datasetItemIndex.getItem("customer", "name"));
+        assertEquals("", datasetItemIndex.getItem("customer", "absent"));
+        assertEquals(items("city", "Brussels"), datasetItemIndex.getItems("customer", Arrays.asList("city", "absent")));
+        assertEquals(2, datasetItemIndex.getSize());
+    }
+
+    @Test
+    void readIsDroppedWhenTheTableWasWrittenMeanwhile() {
+        DatasetItemIndex datasetItemIndex = new DatasetItemIndex(10);
+        long version = datasetItemIndex.getVersion("customer");
+        datasetItemIndex.putItem("customer", "name", "metadew");
+        datasetItemIndex.putTable("customer", items("name", "iesi"), version);
+
+        assertFalse(datasetItemIndex.isIndexed("customer"));
+    }
+
+    @Test
+    void tableNamesAreCaseInsensitive() {
+        DatasetItemIndex datasetItemIndex = new DatasetItemIndex(10);
+        datasetItemIndex.putTable("customer", items("name", "iesi"), datasetItemIndex.getVersion("customer"));
+        datasetItemIndex.putItem("CUSTOMER", "name", "metadew");
+
+        assertTrue(datasetItemIndex.isIndexed("Customer"));
+        assertEquals("metadew", datasetItemIndex.getItem("customer", "name"));
+        assertEquals("", datasetItemIndex.getItem("customer", "NAME"));
+
+        datasetItemIndex.replaceTable("Customer", items("city", "Brussels"));
+        assertEquals("", datasetItemIndex.getItem("customer", "name"));
+        assertEquals(1, datasetItemIndex.getSize());
+    }
+
+    @Test
+    void tablesAboveTheMaximumSizeStayOnDisk() {
+        DatasetItemIndex datasetItemIndex = new DatasetItemIndex(2);
+        datasetItemIndex.replaceTable("customer", items("name", "iesi", "city", "Brussels"));
+        assertTrue(datasetItemIndex.isIndexed("customer"));
+
+        datasetItemIndex.putItem("customer", "code", "7");
+        assertFalse(datasetItemIndex.isIndexed("customer"));
+        assertTrue(datasetItemIndex.isOversized("customer"));
+        assertEquals(0, datasetItemIndex.getSize());
+
+        datasetItemIndex.replaceTable("customer", items("name", "iesi"));
+        assertTrue(datasetItemIndex.isIndexed("customer"));
+        assertFalse(datasetItemIndex.isOversized("customer"));
+    }
+
+    @Test
+    void tablesThatDidNotFitBesideOtherTablesAreReadAgainOnceThereIsRoom() {
+        DatasetItemIndex datasetItemIndex = new DatasetItemIndex(2);
+        datasetItemIndex.replaceTable("customer", items("name", "iesi", "city", "Brussels"));
+        datasetItemIndex.putTable("order", items("id", "1"), datasetItemIndex.getVersion("order"));
+        assertFalse(datasetItemIndex.isIndexed("order"));
+        assertTrue(datasetItemIndex.isOversized("order"));
+
+        datasetItemIndex.replaceTable("customer", items("name", "iesi"));
+        assertFalse(datasetItemIndex.isOversized("order"));
+        datasetItemIndex.putTable("order", items("id", "1"), datasetItemIndex.getVersion("order"));
+        assertTrue(datasetItemIndex.isIndexed("order"));
+    }
+
+}
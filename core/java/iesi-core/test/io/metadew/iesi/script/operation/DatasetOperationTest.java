@@ -0,0 +1,132 @@
+package io.metadew.iesi.script.operation;
+
+import io.metadew.iesi.connection.database.SqliteDatabaseConnection;
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPoolManager;
+import io.metadew.iesi.connection.tools.FolderTools;
+import io.metadew.iesi.framework.configuration.FrameworkConfiguration;
+import io.metadew.iesi.framework.configuration.FrameworkFolderConfiguration;
+import io.metadew.iesi.framework.execution.FrameworkExecution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.rowset.CachedRowSet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetOperationTest {
+
+    @Mock
+    private FrameworkExecution frameworkExecution;
+
+    @Mock
+    private FrameworkConfiguration frameworkConfiguration;
+
+    @Mock
+    private FrameworkFolderConfiguration frameworkFolderConfiguration;
+
+    private Path dataFolder;
+
+    @BeforeEach
+    void createDataset() throws IOException {
+        dataFolder = Files.createTempDirectory("iesi-data");
+        Path datasetFolder = Files.createDirectories(dataFolder.resolve("datasets").resolve("customers"));
+        Files.createDirectories(datasetFolder.resolve("data"));
+        Path metadataFolder = Files.createDirectories(datasetFolder.resolve("metadata"));
+        SqliteDatabaseConnection metadataConnection = new SqliteDatabaseConnection(metadataFolder.resolve("metadata.db3").toString());
+        metadataConnection.executeUpdate("CREATE TABLE CFG_DATASET_INV (DATASET_INV_ID TEXT, DATASET_FILE_NM TEXT)");
+        metadataConnection.executeUpdate("CREATE TABLE CFG_DATASET_LBL (DATASET_INV_ID TEXT, DATASET_LBL_VAL TEXT)");
+        metadataConnection.executeUpdate("INSERT INTO CFG_DATASET_INV VALUES ('1', 'customers.db3')");
+        metadataConnection.executeUpdate("INSERT INTO CFG_DATASET_LBL VALUES ('1', 'test')");
+
+        when(frameworkExecution.getFrameworkConfiguration()).thenReturn(frameworkConfiguration);
+        when(frameworkConfiguration.getFolderConfiguration()).thenReturn(frameworkFolderConfiguration);
+        when(frameworkFolderConfiguration.getFolderAbsolutePath("data")).thenReturn(dataFolder.toString());
+        when(frameworkExecution.getSetting(anyString(), anyString())).thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    @AfterEach
+    void removeDataset() {
+        DatabaseConnectionPoolManager.closePools("jdbc:sqlite:" + dataFolder);
+        FolderTools.deleteFolder(dataFolder.toString(), true);
+    }
+
+    @Test
+    void tableThatWasNeverWrittenHasNoItems() {
+        DatasetOperation datasetOperation = new DatasetOperation(frameworkExecution, "customers", "");
+        assertEquals("", datasetOperation.getDataItem("customer.name"));
+        assertTrue(datasetOperation.getDataItems("customer", Collections.singletonList("name")).isEmpty());
+
+        datasetOperation.resetDataset("customer");
+        datasetOperation.setDatasetEntry("customer", "name", "iesi");
+        assertEquals("iesi", datasetOperation.getDataItem("customer.name"));
+    }
+
+    @Test
+    void writesOfAnotherOperationOnTheDatasetAreRead() {
+        DatasetOperation datasetOperation = new DatasetOperation(frameworkExecution, "customers", "test");
+        datasetOperation.resetDataset("customer");
+        datasetOperation.setDatasetEntry("customer", "name", "iesi");
+        assertEquals("iesi", datasetOperation.getDataItem("customer.name"));
+
+        // Another execution writing to the same dataset
+        new DatasetOperation(frameworkExecution, "customers", "test").setDatasetEntry("customer", "name", "metadew");
+        assertEquals("metadew", datasetOperation.getDataItem("customer.name"));
+    }
+
+    @Test
+    void tablesThatDidNotFitAreIndexedOnceThereIsRoom() {
+        when(frameworkExecution.getSetting("script.execution.dataset.cache.size", "100000")).thenReturn("2");
+        DatasetOperation datasetOperation = new DatasetOperation(frameworkExecution, "customers", "test");
+        datasetOperation.resetDataset("customer");
+        datasetOperation.setDatasetEntry("customer", "name", "iesi");
+        datasetOperation.setDatasetEntry("customer", "city", "Brussels");
+        datasetOperation.resetDataset("address");
+        datasetOperation.setDatasetEntry("address", "city", "Brussels");
+        datasetOperation.getDataItem("customer.name");
+        assertEquals("Brussels", datasetOperation.getDataItem("address.city"));
+        assertFalse(datasetOperation.getDatasetItemIndex().isIndexed("address"));
+
+        datasetOperation.resetDataset("customer");
+        assertEquals("Brussels", datasetOperation.getDataItem("address.city"));
+        assertTrue(datasetOperation.getDatasetItemIndex().isIndexed("address"));
+    }
+
+    @Test
+    void failedLoadKeepsThePreviousContent() throws SQLException {
+        // Without index every item is read from the dataset file
+        when(frameworkExecution.getSetting("script.execution.dataset.cache.size", "100000")).thenReturn("0");
+        DatasetOperation datasetOperation = new DatasetOperation(frameworkExecution, "customers", "test");
+        datasetOperation.setDataset("customer", "string", "{\"name\":\"iesi\"}");
+        assertEquals("iesi", datasetOperation.getDataItem("customer.name"));
+
+        assertThrows(RuntimeException.class,
+                () -> datasetOperation.setDataset("customer", "string", "{\"name\":\"metadew\",\"city\":"));
+        assertEquals("iesi", datasetOperation.getDataItem("customer.name"));
+
+        // A failed first load does not leave an empty table behind
+        assertThrows(RuntimeException.class,
+                () -> datasetOperation.setDataset("address", "string", "{\"city\":"));
+        SqliteDatabaseConnection datasetConnection = new SqliteDatabaseConnection(dataFolder.resolve("datasets")
+                .resolve("customers").resolve("data").resolve("customers.db3").toString());
+        CachedRowSet crs = datasetConnection.executeQuery("select name from sqlite_master where name = 'address'");
+        assertFalse(crs.next());
+        crs.close();
+    }
+
+}
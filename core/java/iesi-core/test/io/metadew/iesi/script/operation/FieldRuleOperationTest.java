@@ -0,0 +1,98 @@
+package io.metadew.iesi.script.operation;
+
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.metadew.iesi.connection.database.SqliteDatabaseConnection;
+import io.metadew.iesi.connection.database.pool.DatabaseConnectionPoolManager;
+import io.metadew.iesi.connection.database.sql.SqlConditionalCountQuery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FieldRuleOperationTest {
+
+    @Test
+    void rulesAreCompiledIntoOneQuery() {
+        FieldRuleOperation fieldRuleOperation = new FieldRuleOperation(
+                "name:mandatory; code:pattern:BE%;amount:range:0,;status:values:A,O'K;zip:length:4,4;status:values:C");
+        SqlConditionalCountQuery sqlConditionalCountQuery = new SqlConditionalCountQuery("customer");
+        fieldRuleOperation.addCounts(sqlConditionalCountQuery);
+
+        assertEquals(6, fieldRuleOperation.getFieldRules().size());
+        assertEquals("status.values.2", fieldRuleOperation.getFieldRules().get(5).getName());
+        assertEquals("select "
+                + "sum(case when (name is not null and trim(name) <> '') then 1 else 0 end) as \"CNT_0\", "
+                + "sum(case when (name is null or trim(name) = '') then 1 else 0 end) as \"CNT_1\", "
+                + "sum(case when (code is not null and (code like 'BE%')) then 1 else 0 end) as \"CNT_2\", "
+                + "sum(case when (code is not null and not (code like 'BE%')) then 1 else 0 end) as \"CNT_3\", "
+                + "sum(case when (amount is not null and (amount >= 0)) then 1 else 0 end) as \"CNT_4\", "
+                + "sum(case when (amount is not null and not (amount >= 0)) then 1 else 0 end) as \"CNT_5\", "
+                + "sum(case when (status is not null and (status in ('A', 'O''K'))) then 1 else 0 end) as \"CNT_6\", "
+                + "sum(case when (status is not null and not (status in ('A', 'O''K'))) then 1 else 0 end) as \"CNT_7\", "
+                + "sum(case when (zip is not null and (length(zip) >= 4 and length(zip) <= 4)) then 1 else 0 end) as \"CNT_8\", "
+                + "sum(case when (zip is not null and not (length(zip) >= 4 and length(zip) <= 4)) then 1 else 0 end) as \"CNT_9\", "
+                + "sum(case when (status is not null and (status in ('C'))) then 1 else 0 end) as \"CNT_10\", "
+                + "sum(case when (status is not null and not (status in ('C'))) then 1 else 0 end) as \"CNT_11\" "
+                + "from customer", sqlConditionalCountQuery.getQuery());
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        assertThrows(RuntimeException.class, () -> new FieldRuleOperation("name"));
+        assertThrows(RuntimeException.class, () -> new FieldRuleOperation("code:pattern"));
+        assertThrows(RuntimeException.class, () -> new FieldRuleOperation("amount:range:10"));
+        assertThrows(RuntimeException.class, () -> new FieldRuleOperation("code:unknown:x"));
+    }
+
+    @Test
+    void separatorsInValuesAreEscaped() {
+        FieldRuleOperation fieldRuleOperation = new FieldRuleOperation("note:values:a\\;b, c\\,d ;code:pattern: BE\\;% ");
+        SqlConditionalCountQuery sqlConditionalCountQuery = new SqlConditionalCountQuery("customer");
+        fieldRuleOperation.addCounts(sqlConditionalCountQuery);
+
+        assertEquals(2, fieldRuleOperation.getFieldRules().size());
+        assertEquals("select "
+                + "sum(case when (note is not null and (note in ('a;b', 'c,d'))) then 1 else 0 end) as \"CNT_0\", "
+                + "sum(case when (note is not null and not (note in ('a;b', 'c,d'))) then 1 else 0 end) as \"CNT_1\", "
+                + "sum(case when (code is not null and (code like 'BE;%')) then 1 else 0 end) as \"CNT_2\", "
+                + "sum(case when (code is not null and not (code like 'BE;%')) then 1 else 0 end) as \"CNT_3\" "
+                + "from customer", sqlConditionalCountQuery.getQuery());
+    }
+
+    @Test
+    void rulesAreCountedOnTheTable() throws IOException {
+        Path databaseFile = Files.createTempFile("iesi-rules", ".db3");
+        try {
+            SqliteDatabaseConnection databaseConnection = new SqliteDatabaseConnection(databaseFile.toString());
+            databaseConnection.executeUpdate("CREATE TABLE customer (name TEXT, code TEXT, amount NUMERIC, status TEXT)");
+            databaseConnection.executeUpdate("INSERT INTO customer VALUES ('iesi', 'BE01', 10, 'A;1')");
+            databaseConnection.executeUpdate("INSERT INTO customer VALUES ('', 'NL01', -5, 'C')");
+            databaseConnection.executeUpdate("INSERT INTO customer VALUES (null, null, null, null)");
+
+            FieldRuleOperation fieldRuleOperation = new FieldRuleOperation(
+                    "name:mandatory;code:pattern:BE%;amount:range:0,100;status:values:A\\;1,B");
+            SqlConditionalCountQuery sqlConditionalCountQuery = new SqlConditionalCountQuery("customer");
+            fieldRuleOperation.addCounts(sqlConditionalCountQuery);
+            Map<String, Long> counts = sqlConditionalCountQuery.execute(databaseConnection);
+
+            assertEquals(1L, counts.get("name.mandatory.pass"));
+            assertEquals(2L, counts.get("name.mandatory.fail"));
+            assertEquals(1L, counts.get("code.pattern.pass"));
+            assertEquals(1L, counts.get("code.pattern.fail"));
+            assertEquals(1L, counts.get("amount.range.pass"));
+            assertEquals(1L, counts.get("amount.range.fail"));
+            assertEquals(1L, counts.get("status.values.pass"));
+            assertEquals(1L, counts.get("status.values.fail"));
+        } finally {
+            DatabaseConnectionPoolManager.closePools("jdbc:sqlite:" + databaseFile);
+            Files.deleteIfExists(databaseFile);
+        }
+    }
+
+}